@@ -0,0 +1,148 @@
+package benchmarks;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the core forward model operations for every GameType, measured on states sampled from random
+ * playouts so that each game is exercised across all its phases rather than only on the initial state.
+ * <p>
+ * Run with the benchmark Maven profile (see pom.xml), which writes the results as JSON so that they can be compared
+ * between commits. To restrict the run to some games use -p gameType=TicTacToe,Chess.
+ * Games that cannot be set up headless fail their own benchmarks, without stopping the rest of the run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForwardModelBenchmark {
+
+    // With no values given, JMH runs every constant of the enum
+    @Param
+    public GameType gameType;
+
+    // Clamped to the number of players each game supports
+    @Param("2")
+    public int nPlayers;
+
+    @Param("32")
+    public int nSamples;
+
+    @Param("4093")
+    public long seed;
+
+    AbstractForwardModel forwardModel;
+    AbstractGameState setupState;
+    AbstractGameState[] states;
+    AbstractAction[] actions;
+    int index;
+
+    @Setup(Level.Trial)
+    public void sampleStates() {
+        int players = Math.max(gameType.getMinPlayers(), Math.min(nPlayers, gameType.getMaxPlayers()));
+        Game game = gameType.createGameInstance(players, seed);
+        forwardModel = game.getForwardModel();
+        setupState = game.getGameState().copy();
+
+        // Random playouts, keeping a copy of each decision point with probability 0.1, restarting the game whenever
+        // it ends. This gives states from all parts of the game, with the same samples on every run for a seed.
+        Random rnd = new Random(seed);
+        List<AbstractGameState> sampled = new ArrayList<>();
+        List<AbstractAction> sampledActions = new ArrayList<>();
+        AbstractGameState state = setupState.copy();
+        for (int step = 0; sampled.size() < nSamples && step < 100_000; step++) {
+            if (!state.isNotTerminal()) {
+                forwardModel.setup(state);
+                continue;
+            }
+            List<AbstractAction> available = forwardModel.computeAvailableActions(state);
+            AbstractAction action = available.get(rnd.nextInt(available.size()));
+            if (rnd.nextDouble() < 0.1) {
+                sampled.add(state.copy());
+                sampledActions.add(action.copy());
+            }
+            forwardModel.next(state, action);
+        }
+        if (sampled.isEmpty())
+            throw new AssertionError("No states sampled for " + gameType);
+        states = sampled.toArray(new AbstractGameState[0]);
+        actions = sampledActions.toArray(new AbstractAction[0]);
+    }
+
+    private int nextIndex() {
+        index = (index + 1) % states.length;
+        return index;
+    }
+
+    @Benchmark
+    public AbstractGameState setup() {
+        forwardModel.setup(setupState);
+        return setupState;
+    }
+
+    @Benchmark
+    public List<AbstractAction> computeAvailableActions() {
+        return forwardModel.computeAvailableActions(states[nextIndex()]);
+    }
+
+    @Benchmark
+    public AbstractGameState copy() {
+        return states[nextIndex()].copy();
+    }
+
+    @Benchmark
+    public AbstractGameState copyForPlayer() {
+        AbstractGameState state = states[nextIndex()];
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    /**
+     * next() changes the state it is applied to, so each call needs a fresh copy of a sampled state, with the action
+     * that was taken from it in the playout. A call to next() is too short to take each copy in a Level.Invocation
+     * setup (JMH's own timing would swamp it), so the copies for a whole batch of NEXT_BATCH calls are taken before
+     * each iteration, and next is measured in SingleShotTime mode, one batch per iteration. Its score is therefore
+     * the time for NEXT_BATCH calls.
+     */
+    static final int NEXT_BATCH = 1000;
+
+    @State(Scope.Thread)
+    public static class NextInput {
+        AbstractGameState[] states;
+        AbstractAction[] actions;
+        int index;
+
+        @Setup(Level.Iteration)
+        public void copyStates(ForwardModelBenchmark benchmark) {
+            states = new AbstractGameState[NEXT_BATCH];
+            actions = new AbstractAction[NEXT_BATCH];
+            for (int i = 0; i < NEXT_BATCH; i++) {
+                int sample = benchmark.nextIndex();
+                states[i] = benchmark.states[sample].copy();
+                actions[i] = benchmark.actions[sample].copy();
+            }
+            index = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = NEXT_BATCH)
+    @Measurement(iterations = 20, batchSize = NEXT_BATCH)
+    public AbstractGameState next(NextInput input) {
+        int i = input.index++;
+        forwardModel.next(input.states[i], input.actions[i]);
+        return input.states[i];
+    }
+}
@@ -41,6 +41,9 @@ public abstract class AbstractForwardModel {
 
         _setup(firstState);
         firstState.addAllComponents();
+        firstState.gameParameters.refreshSnapshot();
+        if (firstState.supportsIncrementalHash())
+            firstState.incrementalHash = firstState._computeIncrementalHash();
     }
 
     /* Methods to be implemented by subclasses, unavailable to AI players */
@@ -144,6 +147,76 @@ public abstract class AbstractForwardModel {
         currentState.advanceGameTick();
     }
 
+    /**
+     * Games that record every change they make to game-specific state with AbstractGameState.recordUndo()
+     * override this to return true. This allows search algorithms to apply actions with nextUndoable() and roll
+     * them back with undo(), instead of copying the state before each action.
+     *
+     * @return true if this forward model supports nextUndoable() and undo()
+     */
+    public boolean supportsUndo() {
+        return false;
+    }
+
+    /**
+     * Applies the action in the same way as next(), but records the changes made so that they can be reverted
+     * with undo(). Any steps that had been undone can no longer be redone.
+     *
+     * @param currentState - current game state, to be modified by the action.
+     * @param action       - action requested to be played by a player.
+     */
+    public final void nextUndoable(AbstractGameState currentState, AbstractAction action) {
+        if (!supportsUndo())
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support undo");
+        if (currentState.undoJournal == null)
+            currentState.undoJournal = new UndoJournal();
+        currentState.undoJournal.open(currentState, action, false);
+        next(currentState, action);
+    }
+
+    /**
+     * Reverts the last action applied with nextUndoable() (or redo()).
+     * Apart from its random number generator, the state is then equal to the state before that action.
+     *
+     * @param currentState - game state to roll back.
+     * @return the action that has been undone
+     */
+    public final AbstractAction undo(AbstractGameState currentState) {
+        UndoJournal journal = currentState.undoJournal;
+        if (journal == null || journal.depth() == 0)
+            throw new IllegalStateException("There is nothing to undo");
+        return journal.close(currentState).action;
+    }
+
+    /**
+     * Reverts actions applied with nextUndoable() until only depth of them remain.
+     *
+     * @param currentState - game state to roll back.
+     * @param depth        - number of undoable steps to keep, as from UndoJournal.depth()
+     */
+    public final void undoTo(AbstractGameState currentState, int depth) {
+        UndoJournal journal = currentState.undoJournal;
+        while (journal != null && journal.depth() > depth)
+            journal.close(currentState);
+    }
+
+    /**
+     * Re-applies the last action to have been undone. Its outcome is the same as when it was first applied, including
+     * any random events.
+     *
+     * @param currentState - game state to apply the action to.
+     * @return the action that has been re-applied
+     */
+    public final AbstractAction redo(AbstractGameState currentState) {
+        UndoJournal journal = currentState.undoJournal;
+        AbstractAction action = journal == null ? null : journal.nextRedo();
+        if (action == null)
+            throw new IllegalStateException("There is nothing to redo");
+        journal.open(currentState, action, true);
+        next(currentState, action);
+        return action;
+    }
+
     /**
      * Computes the available actions and updates the game state accordingly.
      *
@@ -167,6 +240,60 @@ public abstract class AbstractForwardModel {
         return retValue;
     }
 
+    /**
+     * Fills the buffer with the available actions, in the same way as computeAvailableActions(). Callers that keep
+     * a buffer from one call to the next avoid allocating a new list each time, for games that
+     * override _fillAvailableActions(). The MCTS and RHEA rollouts do this.
+     *
+     * @param gameState   - game state to compute actions for.
+     * @param actionSpace - action space to use, or null for the default.
+     * @param buffer      - cleared, and then filled with the available actions.
+     */
+    public final void computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace, List<AbstractAction> buffer) {
+        buffer.clear();
+        if (gameState.isActionInProgress() || (actionSpace != null && !actionSpace.isDefault())) {
+            buffer.addAll(computeAvailableActions(gameState, actionSpace));
+        } else {
+            _fillAvailableActions(gameState, buffer);
+        }
+    }
+
+    /**
+     * Picks one of the available actions uniformly at random. Games that override _randomAvailableAction() do
+     * this without generating the full list of actions, which makes random rollouts much cheaper.
+     *
+     * @param gameState   - game state to pick an action in.
+     * @param actionSpace - action space to use, or null for the default.
+     * @param rnd         - random number generator to use for the choice.
+     * @return - a random available action, or null if there are none.
+     */
+    public final AbstractAction randomAvailableAction(AbstractGameState gameState, ActionSpace actionSpace, Random rnd) {
+        if (gameState.isActionInProgress() || (actionSpace != null && !actionSpace.isDefault())) {
+            List<AbstractAction> actions = computeAvailableActions(gameState, actionSpace);
+            return actions.isEmpty() ? null : actions.get(rnd.nextInt(actions.size()));
+        }
+        return _randomAvailableAction(gameState, rnd);
+    }
+
+    /**
+     * Adds the actions available in the default action space to the (empty) buffer.
+     * The default implementation copies the list from _computeAvailableActions().
+     */
+    protected void _fillAvailableActions(AbstractGameState gameState, List<AbstractAction> buffer) {
+        buffer.addAll(_computeAvailableActions(gameState));
+    }
+
+    /**
+     * Picks one of the actions available in the default action space uniformly at random.
+     * The default implementation picks from the list generated by _computeAvailableActions().
+     *
+     * @return - a random available action, or null if there are none.
+     */
+    protected AbstractAction _randomAvailableAction(AbstractGameState gameState, Random rnd) {
+        List<AbstractAction> actions = _computeAvailableActions(gameState);
+        return actions.isEmpty() ? null : actions.get(rnd.nextInt(actions.size()));
+    }
+
     /**
      * Performs any end of game computations, as needed.
      * This should not normally need to be overriden - but can be. For example if a game is purely co-operative
@@ -36,6 +36,9 @@ public abstract class AbstractGameState {
 
     // Parameters, forward model and turn order for the game
     protected final AbstractParameters gameParameters;
+    // Random seed for the game. This is held here, as copies of the state share one frozen snapshot of the
+    // parameters (see AbstractParameters.snapshot())
+    long randomSeed;
     // Game being played
     protected final GameType gameType = _getGameType();
     private Area allComponents;
@@ -72,11 +75,17 @@ public abstract class AbstractGameState {
     // redeterminisationRnd is used for redeterminisation only - this is to ensure that the main game is not affected
     // this is not initialised from any seed, as redeterminisation is used to hide data from players and cannot affect the game itself
     protected Random redeterminisationRnd = new Random();
+    // Journal of reversible changes, only present while actions are being applied with nextUndoable()
+    // This is never copied
+    UndoJournal undoJournal;
+    // Zobrist hash of the game-specific state, kept up to date by games for which supportsIncrementalHash() is true
+    long incrementalHash;
 
     /**
      * @param gameParameters - game parameters.
      */
     public AbstractGameState(AbstractParameters gameParameters, int nPlayers) {
+        this.randomSeed = gameParameters.randomSeed;
         this.nPlayers = nPlayers;
         this.nTeams = nPlayers;  // we always default the number of teams to the number of players
         // this is then overridden in the game-specific constructor if needed
@@ -103,14 +112,20 @@ public abstract class AbstractGameState {
         roundCounter = 0;
         firstPlayer = 0;
         actionsInProgress.clear();
-        rnd = new Random(gameParameters.randomSeed);
+        incrementalHash = 0;
+        // a state with its own (unfrozen) parameters takes any change to their seed
+        if (!gameParameters.isFrozen())
+            randomSeed = gameParameters.randomSeed;
+        rnd = new Random(randomSeed);
     }
 
     /**
      * Resets variables initialised for this game state.
      */
     void reset(long seed) {
-        gameParameters.randomSeed = seed;
+        randomSeed = seed;
+        if (!gameParameters.isFrozen())
+            gameParameters.randomSeed = seed;
         reset();
     }
 
@@ -287,6 +302,24 @@ public abstract class AbstractGameState {
         return copy(-1);
     }
 
+    /**
+     * A full copy of the game state that leaves this state exactly as it was. copy() draws from redeterminisationRnd
+     * (to seed the rnd of the copy), so a copy taken by an observer would change every later redeterminisation (and
+     * hence the game). This is for copies that must not affect the game, such as snapshots for listeners.
+     * The rnd of the snapshot is seeded from the seed and tick of this state.
+     *
+     * @return - full copy of this game state.
+     */
+    public final AbstractGameState snapshot() {
+        Random source = redeterminisationRnd;
+        redeterminisationRnd = new Random(31L * randomSeed + tick);
+        try {
+            return copy(-1);
+        } finally {
+            redeterminisationRnd = source;
+        }
+    }
+
     /**
      * Copies the current game state, including super class methods, given player ID.
      * Reduces state variables to only those that the player observes.
@@ -308,6 +341,9 @@ public abstract class AbstractGameState {
         s.turnCounter = turnCounter;
         s.turnOwner = turnOwner;
         s.firstPlayer = firstPlayer;
+        s.gameID = gameID;
+        s.incrementalHash = incrementalHash;
+        s.randomSeed = randomSeed;
         // We always branch the RNG on a copy() so that the master RNG
         // is not called an arbitrary number of times. This is to ensure that all shuffles in the main game are
         // the same if we start with the same seed
@@ -378,6 +414,111 @@ public abstract class AbstractGameState {
         historyText.add(history);
     }
 
+    /* Methods dealing with the UndoJournal */
+
+    /**
+     * Games that support AbstractForwardModel.undo() call this with the inverse of each change they make to
+     * game-specific state, before they make it. This does nothing unless an undoable step is in progress, so it
+     * is cheap to call from normal play.
+     * The core fields on this class (counters, turn owner, phase, results, history) do not need to be recorded.
+     *
+     * @param undo - reverts the change
+     */
+    public final void recordUndo(Runnable undo) {
+        if (undoJournal != null && undoJournal.depth() > 0)
+            undoJournal.record(undo);
+    }
+
+    /**
+     * @return true if an undoable step is in progress, and changes should be recorded with recordUndo()
+     */
+    public final boolean isJournaling() {
+        return undoJournal != null && undoJournal.depth() > 0;
+    }
+
+    /**
+     * @return the journal of undoable steps applied to this state, or null if none have been
+     */
+    public final UndoJournal getUndoJournal() {
+        return undoJournal;
+    }
+
+    int historySize() {
+        return history.size();
+    }
+
+    int historyTextSize() {
+        return historyText.size();
+    }
+
+    void restore(UndoJournal.Step step) {
+        rnd = step.rnd;
+        tick = step.tick;
+        roundCounter = step.roundCounter;
+        turnCounter = step.turnCounter;
+        turnOwner = step.turnOwner;
+        firstPlayer = step.firstPlayer;
+        gamePhase = step.gamePhase;
+        gameStatus = step.gameStatus;
+        System.arraycopy(step.playerResults, 0, playerResults, 0, playerResults.length);
+        history.subList(step.historySize, history.size()).clear();
+        historyText.subList(step.historyTextSize, historyText.size()).clear();
+        actionsInProgress.clear();
+        actionsInProgress.addAll(step.actionsInProgress);
+        incrementalHash = step.incrementalHash;
+    }
+
+    /* Methods dealing with incremental (Zobrist) hashing */
+
+    /**
+     * Games that keep an incremental hash up to date override this to return true. They must then
+     * - call updateHash() with the ZobristHash key of every feature that is added to or removed from the state
+     * - implement _computeIncrementalHash() to recompute the same hash from scratch
+     * Note that copy(playerId) keeps the hash of the original state, so games which redeterminise hidden information
+     * in _copy() should recompute it there.
+     *
+     * @return true if getIncrementalHash() can be used on this state
+     */
+    public boolean supportsIncrementalHash() {
+        return false;
+    }
+
+    /**
+     * Recomputes the hash of the game-specific state from scratch, as the XOR of the keys of all its features.
+     * This is used to initialise the hash after setup, and to check the incremental hash in debug mode.
+     */
+    protected long _computeIncrementalHash() {
+        return 0;
+    }
+
+    /**
+     * XORs a key into the incremental hash. Adding a feature and removing it again use the same key.
+     *
+     * @param key - from ZobristHash.key()
+     */
+    public final void updateHash(long key) {
+        incrementalHash ^= key;
+    }
+
+    /**
+     * @return a 64-bit hash of this state, including the current player, status and phase, at O(1) cost.
+     * Only meaningful if supportsIncrementalHash() is true.
+     */
+    public final long getIncrementalHash() {
+        return incrementalHash ^ coreHashKey();
+    }
+
+    /**
+     * @return the hash that getIncrementalHash() should return, recomputed from scratch
+     */
+    public final long computeFullHash() {
+        return _computeIncrementalHash() ^ coreHashKey();
+    }
+
+    private long coreHashKey() {
+        return ZobristHash.key(getCurrentPlayer(), gameStatus.ordinal(), gamePhase == null ? -1 : gamePhase.hashCode());
+    }
+
     /* Methods dealing with ExtendedActions and the actionStack */
 
     public final IExtendedSequence currentActionInProgress() {
@@ -1,5 +1,6 @@
 package core;
 
+import core.rules.RuleCursor;
 import core.turnorders.TurnOrder;
 import evaluation.listeners.IGameListener;
 
@@ -17,6 +18,8 @@ import evaluation.listeners.IGameListener;
 public abstract class AbstractGameStateWithTurnOrder extends AbstractGameState {
 
     protected TurnOrder turnOrder;
+    // Position in the rule graph, for games using an AbstractRuleBasedForwardModel
+    protected RuleCursor ruleCursor;
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -39,11 +42,15 @@ public abstract class AbstractGameStateWithTurnOrder extends AbstractGameState {
     protected void reset() {
         super.reset();
         turnOrder.reset();
+        ruleCursor = new RuleCursor();
     }
 
     public final TurnOrder getTurnOrder() {
         return turnOrder;
     }
+    public final RuleCursor getRuleCursor() {
+        return ruleCursor;
+    }
     @Override
     public int getRoundCounter() {return turnOrder.getRoundCounter();}
     @Override
@@ -81,6 +88,7 @@ public abstract class AbstractGameStateWithTurnOrder extends AbstractGameState {
     protected  AbstractGameStateWithTurnOrder _copy(int playerId) {
         AbstractGameStateWithTurnOrder retValue = __copy(playerId);
         retValue.turnOrder = turnOrder.copy();
+        retValue.ruleCursor = ruleCursor.copy();
         return retValue;
     }
 
@@ -6,6 +6,8 @@ import evaluation.optimisation.TunableParameters;
 import games.GameType;
 import players.heuristics.NullHeuristic;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 public abstract class AbstractParameters {
@@ -26,6 +28,13 @@ public abstract class AbstractParameters {
     // Increment in seconds, added after a custom milestone (to be added manually in game implementation). Default 0.
     long incrementMilestoneS = 0;
 
+    // A frozen copy of these parameters that game states share with all their copies (see snapshot())
+    private volatile AbstractParameters snapshot;
+    // True if this is such a snapshot, in which case it cannot be changed
+    private boolean frozen;
+    // For a snapshot, the values of all its fields when it was frozen (see checkUnchanged())
+    private List<Object> frozenValues;
+
 
     public AbstractParameters() {
         this.setRandomSeed(System.currentTimeMillis());
@@ -61,20 +70,117 @@ public abstract class AbstractParameters {
     }
 
     public void setRandomSeed(long randomSeed) {
+        if (this.randomSeed == randomSeed) return;
+        beforeChange();
         this.randomSeed = randomSeed;
     }
 
     public void setThinkingTimeMins(long thinkingTimeMins) {
+        if (this.thinkingTimeMins == thinkingTimeMins) return;
+        beforeChange();
         this.thinkingTimeMins = thinkingTimeMins;
     }
 
     public void setMaxRounds(int max) {
+        if (maxRounds == max) return;
+        beforeChange();
         maxRounds = max;
     }
     public void setTimeoutRounds(int max) {
+        if (timeoutRounds == max) return;
+        beforeChange();
         timeoutRounds = max;
     }
 
+    /**
+     * Game parameters do not change during a game, so rather than copying them on every copy of the game state,
+     * all the copies share one frozen snapshot. This is taken at the end of setup, and again whenever it is asked
+     * for after a change to these parameters.
+     *
+     * @return - an immutable copy of these parameters, with the same random seed. A snapshot returns itself.
+     */
+    public final AbstractParameters snapshot() {
+        if (frozen)
+            return this;
+        AbstractParameters retValue = snapshot;
+        if (retValue == null) {
+            retValue = copy();
+            retValue.randomSeed = randomSeed;
+            retValue.frozen = true;
+            retValue.frozenValues = retValue.fieldValues();
+            snapshot = retValue;
+        }
+        return retValue;
+    }
+
+    /**
+     * @return - true if this is a snapshot shared between game states, and so cannot be changed.
+     */
+    public final boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Must be called before any change to the parameters. This discards the current snapshot, which no longer
+     * matches them. Parameters changed by direct access to their fields are picked up at the next setup.
+     */
+    protected final void beforeChange() {
+        if (frozen)
+            throw new IllegalStateException("Game parameters shared between game states cannot be changed; use copy() for a modifiable copy");
+        snapshot = null;
+    }
+
+    /**
+     * Takes a new snapshot after the game has been set up. The snapshot it replaces (or this one, if this is a
+     * snapshot) is first checked to make sure nothing has written to its fields.
+     */
+    void refreshSnapshot() {
+        if (frozen) {
+            checkUnchanged();
+        } else {
+            if (snapshot != null)
+                snapshot.checkUnchanged();
+            snapshot = null;
+            snapshot();
+        }
+    }
+
+    /**
+     * The setters call beforeChange(), but the fields of the parameters can also be assigned directly, which a
+     * snapshot cannot intercept. So each time a game is set up we compare all the fields of the snapshot with the
+     * values they had when it was frozen, and fail if any has been written to (this compares the contents of
+     * arrays, collections and maps, but not of any other objects they refer to).
+     */
+    final void checkUnchanged() {
+        if (frozen && !fieldValues().equals(frozenValues))
+            throw new IllegalStateException("The fields of game parameters shared between game states have been changed; use copy() for a modifiable copy");
+    }
+
+    private List<Object> fieldValues() {
+        List<Object> retValue = new ArrayList<>();
+        for (Class<?> c = getClass(); c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || c == AbstractParameters.class &&
+                        (field.getName().equals("snapshot") || field.getName().equals("frozenValues")))
+                    continue;
+                try {
+                    field.setAccessible(true);
+                    Object value = field.get(this);
+                    if (value != null && value.getClass().isArray())
+                        value = Arrays.deepToString(new Object[]{value});
+                    else if (value instanceof Collection<?> collection)
+                        value = new ArrayList<>(collection);
+                    else if (value instanceof Map<?, ?> map)
+                        value = new HashMap<>(map);
+                    retValue.add(value);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    // a field we cannot read is not checked
+                }
+            }
+        }
+        return retValue;
+    }
+
     /**
      * Retrieve total thinking time for the game, in minutes
      *
@@ -143,11 +249,18 @@ public abstract class AbstractParameters {
     /**
      * Copy this game parameter object.
      *
-     * @return - new object with the same parameters, but a new random seed.
+     * @return - new object with the same parameters, but a new random seed. This is never frozen.
      */
     public AbstractParameters copy() {
         AbstractParameters copy = _copy();
         copy.randomSeed = System.currentTimeMillis();
+        copy.maxRounds = maxRounds;
+        copy.timeoutRounds = timeoutRounds;
+        copy.thinkingTimeMins = thinkingTimeMins;
+        copy.incrementActionS = incrementActionS;
+        copy.incrementTurnS = incrementTurnS;
+        copy.incrementRoundS = incrementRoundS;
+        copy.incrementMilestoneS = incrementMilestoneS;
         return copy;
     }
 
@@ -128,6 +128,10 @@ public abstract class AbstractPlayer {
         return new ArrayList<>(decorators);
     }
 
+    public final boolean hasDecorators() {
+        return !decorators.isEmpty();
+    }
+
     @Override
     public String toString() {
         if (name != null) return name;
@@ -190,4 +194,14 @@ public abstract class AbstractPlayer {
     public Random getRnd() {
         return rnd;
     }
+
+    /**
+     * Re-seeds the player, so that its random choices from now on depend only on this seed (and not, for example, on
+     * the games it has played before). The seed is also set in its parameters.
+     * Players with other sources of randomness should override this to re-seed them too.
+     */
+    public void setSeed(long seed) {
+        parameters.setRandomSeed(seed);
+        rnd = new Random(seed);
+    }
 }
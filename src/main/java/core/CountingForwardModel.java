@@ -0,0 +1,91 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.ActionSpace;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CountingForwardModel extends AbstractForwardModel {
+
+    // This wraps a Forward Model and counts the number of calls made to next() and to compute the available actions.
+    // It is given to a player in place of the game's forward model to measure how much work its decisions take,
+    // for example in BatchSimulation. The counters may be updated from several threads by a parallel search.
+
+    final AbstractForwardModel wrappedFM;
+    private final LongAdder nextCalls = new LongAdder();
+    private final LongAdder actionCalls = new LongAdder();
+
+    public CountingForwardModel(AbstractForwardModel forwardModel) {
+        this.wrappedFM = forwardModel;
+    }
+
+    public long getNextCalls() {
+        return nextCalls.sum();
+    }
+
+    public long getActionCalls() {
+        return actionCalls.sum();
+    }
+
+    @Override
+    protected void _setup(AbstractGameState firstState) {
+        wrappedFM._setup(firstState);
+    }
+
+    @Override
+    protected void _next(AbstractGameState currentState, AbstractAction action) {
+        nextCalls.increment();
+        wrappedFM._next(currentState, action);
+    }
+
+    @Override
+    protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
+        actionCalls.increment();
+        return wrappedFM._computeAvailableActions(gameState);
+    }
+
+    @Override
+    protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace) {
+        actionCalls.increment();
+        return wrappedFM._computeAvailableActions(gameState, actionSpace);
+    }
+
+    @Override
+    protected void _fillAvailableActions(AbstractGameState gameState, List<AbstractAction> buffer) {
+        actionCalls.increment();
+        wrappedFM._fillAvailableActions(gameState, buffer);
+    }
+
+    @Override
+    protected AbstractAction _randomAvailableAction(AbstractGameState gameState, Random rnd) {
+        actionCalls.increment();
+        return wrappedFM._randomAvailableAction(gameState, rnd);
+    }
+
+    @Override
+    protected void endPlayerTurn(AbstractGameState state) {
+        wrappedFM.endPlayerTurn(state);
+    }
+
+    @Override
+    protected void illegalActionPlayed(AbstractGameState gameState, AbstractAction action) {
+        wrappedFM.illegalActionPlayed(gameState, action);
+    }
+
+    @Override
+    protected void endGame(AbstractGameState gs) {
+        wrappedFM.endGame(gs);
+    }
+
+    @Override
+    public boolean supportsUndo() {
+        return wrappedFM.supportsUndo();
+    }
+
+    @Override
+    public void reset() {
+        wrappedFM.reset();
+    }
+}
@@ -7,12 +7,12 @@ import core.interfaces.IPrintable;
 import core.turnorders.ReactiveTurnOrder;
 import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
+import evaluation.metrics.EventBus;
 import evaluation.summarisers.TAGNumericStatSummary;
 import games.GameType;
 import games.seasaltpaper.heuristics.LeadHeuristic;
 import games.seasaltpaper.heuristics.ScoreAndHandHeuristic;
 import games.seasaltpaper.heuristics.ScoreHeuristic;
-import games.pandemic.PandemicForwardModel;
 import gui.AbstractGUIManager;
 import gui.GUI;
 import gui.GamePanel;
@@ -53,6 +53,8 @@ public class Game {
     protected AbstractGameState gameState;
     protected AbstractForwardModel forwardModel;
     private List<IGameListener> listeners = new ArrayList<>();
+    // Delivers events to the listeners (and filters out those that no listener wants)
+    private final EventBus eventBus = new EventBus();
 
     /* Game Statistics */
     private int lastPlayer; // used to track actions per 'turn'
@@ -215,16 +217,25 @@ public class Game {
      * @param newRandomSeed - random seed is updated in the game parameters object and used throughout the game.
      */
     public final void reset(List<AbstractPlayer> players, long newRandomSeed) {
+        reset(players, newRandomSeed, nextGameID());
+    }
+
+    /**
+     * As reset(players, newRandomSeed), but with an explicit gameID. This is used when games are run in parallel,
+     * so that IDs can be allocated in a deterministic order before the games are handed out to worker threads.
+     *
+     * @param players       - new players for the game
+     * @param newRandomSeed - random seed is updated in the game parameters object and used throughout the game.
+     * @param gameID        - ID to assign to this game (see nextGameID())
+     */
+    public final void reset(List<AbstractPlayer> players, long newRandomSeed, int gameID) {
         if (debug) System.out.println("Game Seed: " + newRandomSeed);
         gameState.reset(newRandomSeed);
         forwardModel.abstractSetup(gameState);
 
         // set forward models for all players
         for (AbstractPlayer player : players) {
-            if (forwardModel instanceof PandemicForwardModel pfm)
-                player.setForwardModel(pfm.copy());
-            else
-                player.setForwardModel(this.forwardModel);
+            player.setForwardModel(this.forwardModel);
         }
 
         if (players.size() == gameState.getNPlayers()) {
@@ -253,11 +264,18 @@ public class Game {
                 // Allow player to initialize
                 player.initializePlayer(observation);
             }
-        int gameID = idFountain.incrementAndGet();
         gameState.setGameID(gameID);
+        eventBus.refresh();
         resetStats();
     }
 
+    /**
+     * @return a new unique game ID
+     */
+    public static int nextGameID() {
+        return idFountain.incrementAndGet();
+    }
+
     /**
      * All timers and game tick set to 0.
      */
@@ -279,7 +297,7 @@ public class Game {
      */
     public final void run() {
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ABOUT_TO_START, gameState)));
+        eventBus.onEvent(Event.createEvent(Event.GameEvent.ABOUT_TO_START, gameState));
 
         boolean firstEnd = true;
 
@@ -457,8 +475,8 @@ public class Game {
                 action = null;
             }
             // We publish an ACTION_CHOSEN message before we implement the action, so that observers can record the state that led to the decision
-            AbstractAction finalAction = action;
-            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, finalAction, observedActions, activePlayer)));
+            if (eventBus.wants(Event.GameEvent.ACTION_CHOSEN))
+                eventBus.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, action, observedActions, activePlayer));
 
         } else {
             currentPlayer.registerUpdatedObservation(observation);
@@ -489,8 +507,8 @@ public class Game {
 
         // We publish an ACTION_TAKEN message once the action is taken so that observers can record the result of the action
         // (such as the next player)
-        AbstractAction finalAction1 = action;
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, finalAction1.copy(), observedActions, activePlayer)));
+        if (eventBus.wants(Event.GameEvent.ACTION_TAKEN))
+            eventBus.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, action.copy(), observedActions, activePlayer));
 
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
         return action;
@@ -507,7 +525,9 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, gameState)));
+        eventBus.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, gameState));
+        // asynchronous listeners must have seen the whole game before we return
+        eventBus.flush();
         if (gameState.coreGameParameters.recordEventHistory) {
             gameState.recordHistory(Event.GameEvent.GAME_OVER.name());
             for (int i = 0; i < gameState.getNPlayers(); i++) {
@@ -628,7 +648,8 @@ public class Game {
     public void addListener(IGameListener listener) {
         if (!listeners.contains(listener)) {
             listeners.add(listener);
-            gameState.addListener(listener);
+            eventBus.register(listener);
+            gameState.addListener(eventBus);
             listener.setGame(this);
         }
     }
@@ -639,6 +660,7 @@ public class Game {
 
     public void clearListeners() {
         listeners.clear();
+        eventBus.clear();
         getGameState().clearListeners();
     }
 
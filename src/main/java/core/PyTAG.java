@@ -22,6 +22,8 @@ import players.python.PythonAgent;
 import players.simple.RandomPlayer;
 import utilities.ActionTreeNode;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -201,6 +203,19 @@ public class PyTAG {
                 .toArray();
     }
 
+    // Writes the observation vector into the buffer (used by PyTAGVectorEnv)
+    void writeObservation(DoubleBuffer into, int offset) throws Exception {
+        double[] obs = getObservationVector();
+        for (int i = 0; i < obs.length; i++)
+            into.put(offset + i, obs[i]);
+    }
+
+    // Writes the action mask into the buffer (used by PyTAGVectorEnv)
+    void writeActionMask(IntBuffer into, int offset) {
+        for (int i = 0; i < leaves.size(); i++)
+            into.put(offset + i, leaves.get(i).getValue());
+    }
+
     // gets the whole action tree as an array (tree can be reconstructed using the getTreeShape() function)
     public int[] getActionTree() {
         return root.getActionMask();
@@ -0,0 +1,244 @@
+package core;
+
+import core.components.Component;
+import games.GameType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * A batch of PyTAG environments that are stepped together, so that the Python side makes one call per step for all
+ * of them rather than several calls per environment.
+ * <p>
+ * The results of each step are written into direct buffers (in native byte order) that are allocated once, so that
+ * the Python side can wrap them (e.g. with numpy.frombuffer) without copying them across on every step:
+ * - observations: nEnvs x getObservationSpace() doubles
+ * - action masks: nEnvs x getActionSpace() ints
+ * - rewards: nEnvs doubles
+ * - dones: nEnvs bytes (1 if the episode of that environment finished on the last step)
+ * - players: nEnvs ints (the player to act)
+ * - actions: nEnvs ints, which the Python side fills in before calling step()
+ * <p>
+ * An environment whose episode finishes is reset straight away, so its observation and mask are those of the start
+ * of the next episode, while its reward and done flag are those of the episode that finished
+ * (the results of which are available from getLastResults()).
+ * With nThreads > 1 the environments are stepped in parallel; each has its own game and copies of the players.
+ */
+public class PyTAGVectorEnv implements AutoCloseable {
+
+    private final PyTAG[] envs;
+    private final int observationSpace;
+    private final int actionSpace;
+    private final CoreConstants.GameResult[][] lastResults;
+    private final int[] episodes;
+
+    private final ByteBuffer observations, actionMasks, rewards, dones, players, actions;
+    private final DoubleBuffer observationView, rewardView;
+    private final IntBuffer actionMaskView;
+    private final IntBuffer playerView, actionView;
+
+    private final ExecutorService executor;
+    private final int nThreads;
+
+    public PyTAGVectorEnv(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
+                          boolean isNormalized, int nEnvs, int nThreads) throws Exception {
+        if (nEnvs < 1)
+            throw new IllegalArgumentException("A PyTAGVectorEnv needs at least one environment");
+        Random seedRandom = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            for (AbstractPlayer player : players)
+                envPlayers.add(i == 0 ? player : player.copy());
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seedRandom.nextLong(), isNormalized);
+        }
+        observationSpace = envs[0].getObservationSpace();
+        if (observationSpace == 0)
+            throw new IllegalArgumentException(gameToPlay + " does not implement the state feature vector interface");
+        lastResults = new CoreConstants.GameResult[nEnvs][];
+        episodes = new int[nEnvs];
+
+        observations = direct((long) nEnvs * observationSpace * Double.BYTES);
+        observationView = observations.asDoubleBuffer();
+        rewards = direct(nEnvs * Double.BYTES);
+        rewardView = rewards.asDoubleBuffer();
+        dones = direct(nEnvs);
+        this.players = direct(nEnvs * Integer.BYTES);
+        playerView = this.players.asIntBuffer();
+        actions = direct(nEnvs * Integer.BYTES);
+        actionView = actions.asIntBuffer();
+
+        this.nThreads = Math.max(1, Math.min(nThreads, nEnvs));
+        executor = this.nThreads > 1 ? Executors.newFixedThreadPool(this.nThreads,
+                Component.idReleasingThreads("PyTAGVectorEnv", true)) : null;
+
+        // the size of the action space is only known once the games have been set up
+        for (PyTAG env : envs)
+            env.reset();
+        int maxActionSpace = 0;
+        for (PyTAG env : envs)
+            maxActionSpace = Math.max(maxActionSpace, env.getActionSpace());
+        actionSpace = maxActionSpace;
+        actionMasks = direct((long) nEnvs * actionSpace * Integer.BYTES);
+        actionMaskView = actionMasks.asIntBuffer();
+        for (int i = 0; i < nEnvs; i++)
+            writeState(i);
+    }
+
+    private static ByteBuffer direct(long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many environments for the size of their observations");
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Resets all the environments
+     */
+    public void reset() throws Exception {
+        forEachEnv(i -> {
+            envs[i].reset();
+            rewardView.put(i, 0.0);
+            dones.put(i, (byte) 0);
+            writeState(i);
+        });
+    }
+
+    /**
+     * Steps every environment with its action from the actions buffer
+     */
+    public void step() throws Exception {
+        forEachEnv(this::stepOne);
+    }
+
+    /**
+     * Steps every environment with its action from the array (which is copied into the actions buffer)
+     */
+    public void step(int[] actionIds) throws Exception {
+        if (actionIds.length != envs.length)
+            throw new IllegalArgumentException("One action is needed for each of the " + envs.length + " environments");
+        for (int i = 0; i < actionIds.length; i++)
+            actionView.put(i, actionIds[i]);
+        step();
+    }
+
+    private void stepOne(int i) throws Exception {
+        PyTAG env = envs[i];
+        env.step(actionView.get(i));
+        rewardView.put(i, env.getReward());
+        boolean done = env.isDone();
+        dones.put(i, (byte) (done ? 1 : 0));
+        if (done) {
+            lastResults[i] = env.getPlayerResults().clone();
+            episodes[i]++;
+            env.reset();
+        }
+        writeState(i);
+    }
+
+    private void writeState(int i) throws Exception {
+        PyTAG env = envs[i];
+        env.writeObservation(observationView, i * observationSpace);
+        int maskSize = env.getActionSpace();
+        env.writeActionMask(actionMaskView, i * actionSpace);
+        for (int a = maskSize; a < actionSpace; a++)
+            actionMaskView.put(i * actionSpace + a, 0);
+        playerView.put(i, env.getPlayerID());
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    private void forEachEnv(EnvTask task) throws Exception {
+        if (executor == null) {
+            for (int i = 0; i < envs.length; i++)
+                task.run(i);
+            return;
+        }
+        // each thread takes every nThreads-th environment, so that there is one task per thread and not per env
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            int first = t;
+            tasks.add(() -> {
+                for (int i = first; i < envs.length; i += nThreads)
+                    task.run(i);
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause)
+                    throw cause;
+                throw e;
+            }
+        }
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    public ByteBuffer getObservationBuffer() {
+        return observations;
+    }
+
+    public ByteBuffer getActionMaskBuffer() {
+        return actionMasks;
+    }
+
+    public ByteBuffer getRewardBuffer() {
+        return rewards;
+    }
+
+    public ByteBuffer getDoneBuffer() {
+        return dones;
+    }
+
+    public ByteBuffer getPlayerBuffer() {
+        return players;
+    }
+
+    public ByteBuffer getActionBuffer() {
+        return actions;
+    }
+
+    /**
+     * @return The results of the last episode of this environment to finish (or null if none has yet)
+     */
+    public CoreConstants.GameResult[] getLastResults(int env) {
+        return lastResults[env];
+    }
+
+    public int getEpisodes(int env) {
+        return episodes[env];
+    }
+
+    /**
+     * @return One of the environments, for anything not covered by the batched calls
+     */
+    public PyTAG getEnv(int env) {
+        return envs[env];
+    }
+
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+}
@@ -0,0 +1,120 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.interfaces.IExtendedSequence;
+import core.interfaces.IGamePhase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A journal of the changes made to a game state while actions are applied with
+ * {@link AbstractForwardModel#nextUndoable(AbstractGameState, AbstractAction)}, so that they can be rolled back with
+ * {@link AbstractForwardModel#undo(AbstractGameState)} instead of taking a copy of the state before each action.
+ * <p>
+ * Each applied action opens a step. The core fields held on AbstractGameState (counters, turn owner, phase,
+ * results, history, the stack of actions in progress and the random number generator) are snapshotted when the step
+ * opens, as is the incremental hash. Everything game-specific is the responsibility of the game, which records the
+ * inverse of each change it makes with {@link AbstractGameState#recordUndo(Runnable)}. Undoing a step runs these in
+ * reverse order and then restores the snapshot.
+ * <p>
+ * Each step runs with its own random number generator, seeded from the state's generator when the step is opened.
+ * This means that redo() replays an action with exactly the same outcome, while after undo() the state's generator
+ * has moved on, so that a different action (or the same one applied afresh) gets fresh randomness - in the same way
+ * that copy() branches the generator.
+ */
+public class UndoJournal {
+
+    private final List<Runnable> entries = new ArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
+    // Steps that have been undone, most recent last, and which can be redone
+    private final List<Step> undone = new ArrayList<>();
+
+    static class Step {
+        final AbstractAction action;
+        final long seed;
+        final int entryCount;
+        final Random rnd;
+        final int tick, roundCounter, turnCounter, turnOwner, firstPlayer;
+        final IGamePhase gamePhase;
+        final CoreConstants.GameResult gameStatus;
+        final CoreConstants.GameResult[] playerResults;
+        final int historySize, historyTextSize;
+        final List<IExtendedSequence> actionsInProgress;
+        final long incrementalHash;
+
+        Step(AbstractGameState state, AbstractAction action, long seed, int entryCount) {
+            this.action = action;
+            this.seed = seed;
+            this.entryCount = entryCount;
+            rnd = state.rnd;
+            tick = state.getGameTick();
+            roundCounter = state.roundCounter;
+            turnCounter = state.turnCounter;
+            turnOwner = state.turnOwner;
+            firstPlayer = state.firstPlayer;
+            gamePhase = state.gamePhase;
+            gameStatus = state.gameStatus;
+            playerResults = state.playerResults.clone();
+            historySize = state.historySize();
+            historyTextSize = state.historyTextSize();
+            actionsInProgress = new ArrayList<>(state.actionsInProgress);
+            incrementalHash = state.incrementalHash;
+        }
+    }
+
+    /**
+     * @return the number of steps that can currently be undone
+     */
+    public int depth() {
+        return steps.size();
+    }
+
+    /**
+     * @return the number of steps that can currently be redone
+     */
+    public int redoDepth() {
+        return undone.size();
+    }
+
+    void record(Runnable undo) {
+        entries.add(undo);
+    }
+
+    Step open(AbstractGameState state, AbstractAction action, boolean isRedo) {
+        Step redoStep = null;
+        if (isRedo) {
+            redoStep = undone.remove(undone.size() - 1);
+        } else {
+            undone.clear();
+        }
+        long seed = redoStep != null ? redoStep.seed : state.rnd.nextLong();
+        Step step = new Step(state, action, seed, entries.size());
+        steps.add(step);
+        state.rnd = new Random(seed);
+        return step;
+    }
+
+    Step close(AbstractGameState state) {
+        Step step = steps.remove(steps.size() - 1);
+        for (int i = entries.size() - 1; i >= step.entryCount; i--)
+            entries.remove(i).run();
+        state.restore(step);
+        undone.add(step);
+        return step;
+    }
+
+    AbstractAction nextRedo() {
+        return undone.isEmpty() ? null : undone.get(undone.size() - 1).action;
+    }
+
+    /**
+     * Forgets all steps, so that they can no longer be undone or redone. The state is left as it is.
+     */
+    public void clear() {
+        entries.clear();
+        steps.clear();
+        undone.clear();
+    }
+}
@@ -0,0 +1,45 @@
+package core;
+
+/**
+ * Keys for Zobrist-style incremental hashing of game states (see AbstractGameState.getIncrementalHash()).
+ * <p>
+ * A Zobrist hash is the XOR of one random 64-bit key for every (feature, value) pair present in a state, for example
+ * (board, x, y, piece). When an action changes a feature, the state XORs out the key of the old value and XORs in
+ * the key of the new one, so the hash is kept up to date at O(1) cost per change rather than by walking the state.
+ * <p>
+ * Rather than holding tables of random numbers, which would need to be sized for every game, the keys here are
+ * computed on demand by mixing the integers that describe the feature with the SplitMix64 finaliser. This is
+ * deterministic, so the same position always gets the same key in every copy of a state.
+ */
+public final class ZobristHash {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private ZobristHash() {
+    }
+
+    /**
+     * SplitMix64 finaliser - a bijection on 64-bit values with good avalanche behaviour.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long key(long a) {
+        return mix(a * GOLDEN_GAMMA + GOLDEN_GAMMA);
+    }
+
+    public static long key(long a, long b) {
+        return mix(key(a) + b * GOLDEN_GAMMA);
+    }
+
+    public static long key(long a, long b, long c) {
+        return mix(key(a, b) + c * GOLDEN_GAMMA);
+    }
+
+    public static long key(long a, long b, long c, long d) {
+        return mix(key(a, b, c) + d * GOLDEN_GAMMA);
+    }
+}
@@ -31,7 +31,14 @@ public class SetGridValueAction extends AbstractAction implements IPrintable {
     @Override
     public boolean execute(AbstractGameState gs) {
         BoardNode value = (BoardNode) gs.getComponentById(valueID);
-        return ((GridBoard)gs.getComponentById(gridBoard)).setElement(x, y, value);
+        GridBoard board = (GridBoard) gs.getComponentById(gridBoard);
+        BoardNode previous = board.getElement(x, y);
+        if (gs.isJournaling())
+            gs.recordUndo(() -> board.setElement(x, y, previous));
+        boolean set = board.setElement(x, y, value);
+        if (set && gs.supportsIncrementalHash())
+            gs.updateHash(board.zobristKey(x, y, previous) ^ board.zobristKey(x, y, value));
+        return set;
     }
 
     @Override
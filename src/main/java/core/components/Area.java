@@ -99,7 +99,14 @@ public class Area extends Component implements IComponentContainer<Component> {
         if (component == null) return;
 
         this.components.put(component.getComponentID(), component);
-        if (component instanceof IComponentContainer) {
+        if (component instanceof Deck<?> deck) {
+            // we only read the contents, so avoid getComponents(), which would copy a list shared with other decks
+            for (Component nestedC : deck.components) {
+                if (nestedC != null) {
+                    putComponent(nestedC);
+                }
+            }
+        } else if (component instanceof IComponentContainer) {
             for (Component nestedC : ((IComponentContainer<?>) component).getComponents()) {
                 if (nestedC != null) {
                     putComponent(nestedC);
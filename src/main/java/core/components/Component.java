@@ -7,9 +7,21 @@ import utilities.Hash;
 import core.CoreConstants.ComponentType;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
+    // All components receive a unique and final ID. So that games and searches running in parallel do not
+    // contend (or race) on this, each thread reserves a block of IDs at a time from an always increasing counter,
+    // and then hands these out itself. With a single thread this is the same sequence as a simple counter, and as
+    // with a simple counter the IDs wrap around once the int range is used up.
+    // When a thread that has a reserve of IDs ends (or calls releaseIDs()), the unused part of its block goes back
+    // to a shared queue, from which other threads take IDs before they reserve a new block.
+    private static final int ID_BLOCK_SIZE = 1024;
+    private static final AtomicInteger nextIDBlock = new AtomicInteger(0);
+    static final Queue<int[]> releasedIDs = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<int[]> threadIDs = ThreadLocal.withInitial(() -> new int[2]); // {next, remaining}
 
     protected transient final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
@@ -18,14 +30,14 @@ public abstract class Component {
     protected String componentName;  // Name of this component
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = nextComponentID();
         this.type = type;
         this.componentName = name;
         this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = nextComponentID();
         this.type = type;
         this.componentName = type.toString();
         this.properties = new HashMap<>();
@@ -45,6 +57,62 @@ public abstract class Component {
         this.properties = new HashMap<>();
     }
 
+    /**
+     * @return a new unique component ID. This is thread-safe, and does not lock.
+     */
+    protected static int nextComponentID() {
+        int[] ids = threadIDs.get();
+        if (ids[1] == 0) {
+            int[] released = releasedIDs.poll();
+            if (released != null) {
+                ids[0] = released[0];
+                ids[1] = released[1];
+            } else {
+                ids[0] = reserveIDs(nextIDBlock, ID_BLOCK_SIZE);
+                ids[1] = ID_BLOCK_SIZE;
+            }
+        }
+        ids[1]--;
+        return ids[0]++;
+    }
+
+    /**
+     * Reserves size IDs from the counter. Like the IDs themselves, the counter wraps around at Integer.MAX_VALUE.
+     * @return the first of these
+     */
+    static int reserveIDs(AtomicInteger counter, int size) {
+        return counter.getAndAdd(size);
+    }
+
+    /**
+     * Hands back the IDs the calling thread has reserved but not yet used, so that another thread can use them.
+     * This is done automatically by threads created with idReleasingThreads(), when they end.
+     */
+    public static void releaseIDs() {
+        int[] ids = threadIDs.get();
+        if (ids[1] > 0)
+            releasedIDs.add(new int[]{ids[0], ids[1]});
+        threadIDs.remove();
+    }
+
+    /**
+     * @return A ThreadFactory for pools of threads that may create components. Each thread hands back its unused
+     * component IDs (see releaseIDs()) when it ends, for example when the pool is shut down.
+     */
+    public static ThreadFactory idReleasingThreads(String name, boolean daemon) {
+        return r -> {
+            Thread t = new Thread(() -> {
+                try {
+                    r.run();
+                } finally {
+                    releaseIDs();
+                }
+            }, name);
+            t.setDaemon(daemon);
+            return t;
+        };
+    }
+
     /**
      * To be implemented by subclass, all components should be able to create copies of themselves.
      * @return - a new Component with the same properties.
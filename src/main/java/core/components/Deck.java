@@ -11,6 +11,7 @@ import org.json.simple.parser.ParseException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.VisibilityMode;
 
@@ -27,6 +28,9 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     protected int capacity;  // Capacity of the deck (maximum number of elements)
     protected List<T> components;  // List of components in this deck
     protected VisibilityMode visibility;
+    // True if the components list may be referenced by other decks (see copyTo()), in which case it must not be
+    // modified in place; mutableComponents() replaces it with a private copy first
+    private boolean componentsShared;
 
     public Deck(String name, VisibilityMode visibility) {
         this(name, -1, visibility);
@@ -143,7 +147,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     public T pick(int idx) {
         if (!components.isEmpty() && idx < components.size() && idx >= 0) {
             T c = components.get(idx);
-            components.remove(idx);
+            mutableComponents().remove(idx);
             return c;
         }
         return null;
@@ -221,7 +225,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         if (c == null)
             throw new IllegalArgumentException("null cannot be added to a Deck");
         c.setOwnerId(ownerId);
-        components.add(index, c);
+        mutableComponents().add(index, c);
         return capacity == -1 || components.size() <= capacity;
     }
 
@@ -255,7 +259,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
-        components.addAll(index, d.components);
+        mutableComponents().addAll(index, d.components);
         for (T comp : d.components) {
             comp.setOwnerId(ownerId);
         }
@@ -267,7 +271,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     public boolean add(Collection<T> d, int index) {
-        components.addAll(index, d);
+        mutableComponents().addAll(index, d);
         for (T comp : d) {
             comp.setOwnerId(ownerId);
         }
@@ -301,7 +305,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     public void remove(int idx) {
         if (idx >= 0 && idx < components.size()) {
             components.get(idx).setOwnerId(-1);
-            components.remove(idx);
+            mutableComponents().remove(idx);
         } else {
             throw new IndexOutOfBoundsException("Index " + idx + " is out of bounds for deck of size " + components.size());
         }
@@ -323,7 +327,12 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         for (T comp : components) {
             comp.setOwnerId(-1);
         }
-        components.clear();
+        if (componentsShared) {
+            components = new LinkedList<>();
+            componentsShared = false;
+        } else {
+            components.clear();
+        }
     }
 
     // Getters, Setters
@@ -332,7 +341,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * Shuffles the deck with a specific random object.
      */
     public void shuffle(Random rnd) {
-        Collections.shuffle(components, rnd);
+        Collections.shuffle(mutableComponents(), rnd);
     }
 
     /**
@@ -343,7 +352,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param rnd       - random number generator used for shuffling
      */
     public void shuffle(int fromIndex, int toIndex, Random rnd) {
-        List<T> subList = components.subList(fromIndex, toIndex);
+        List<T> subList = mutableComponents().subList(fromIndex, toIndex);
         Collections.shuffle(subList, rnd);
         int i = 0;
         for (T component : subList) {
@@ -353,13 +362,38 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     /**
-     * @return all the components in this deck.
+     * @return all the components in this deck. The list may be modified by the caller.
      */
     @Override
     public List<T> getComponents() {
+        return mutableComponents();
+    }
+
+    /**
+     * The list of components, which is first copied if it is shared with another deck.
+     * Subclasses must use this (rather than the field) to make any change to the list.
+     *
+     * @return the list of components, which is owned by this deck alone
+     */
+    protected List<T> mutableComponents() {
+        if (componentsShared) {
+            components = new LinkedList<>(components);
+            componentsShared = false;
+        }
         return components;
     }
 
+    // getSize() and stream() only read the components, so do not need a private copy of a shared list
+    @Override
+    public int getSize() {
+        return components.size();
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return components.stream();
+    }
+
     /**
      * Set the components in this deck.
      *
@@ -367,6 +401,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponents(List<T> components) {
         this.components = components;
+        componentsShared = false;
         for (T comp : components) {
             comp.setOwnerId(ownerId);
         }
@@ -403,7 +438,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponent(int idx, T component) {
         component.setOwnerId(ownerId);
-        components.set(idx, component);
+        mutableComponents().set(idx, component);
     }
 
     /**
@@ -436,13 +471,8 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         return dp;
     }
 
-    @SuppressWarnings("unchecked")
     protected void copyTo(Deck<T> deck) {
-        List<T> newComponents = new LinkedList<>();
-        for (T c : components) {
-            newComponents.add((T) c.copy());
-        }
-        deck.components = newComponents;
+        copyComponentsTo(deck, false, -1);
         deck.capacity = capacity;
 
         //copy type and component.
@@ -450,19 +480,43 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
 
-    @SuppressWarnings("unchecked")
     protected void copyTo(Deck<T> deck, int playerId) {
-        List<T> newComponents = new LinkedList<>();
-        for (T c : components) {
-            newComponents.add((T) c.copy(playerId));
-        }
-        deck.components = newComponents;
+        copyComponentsTo(deck, true, playerId);
         deck.capacity = capacity;
 
         //copy type and component.
         copyComponentTo(deck);
     }
 
+    /**
+     * Many component types are immutable, and their copy() returns the component itself. If that holds for every
+     * component in the deck, then the copy shares the list with this deck (copy-on-write), and whichever deck is
+     * changed first takes its own copy of the list in mutableComponents().
+     * Otherwise, the copy gets a new list of the copied components as usual.
+     */
+    @SuppressWarnings("unchecked")
+    private void copyComponentsTo(Deck<T> deck, boolean forPlayer, int playerId) {
+        List<T> newComponents = null;
+        int index = 0;
+        for (T c : components) {
+            T copy = (T) (forPlayer ? c.copy(playerId) : c.copy());
+            if (newComponents == null && copy != c) {
+                // the first component that is not shared; we now need a new list
+                newComponents = new LinkedList<>(components.subList(0, index));
+            }
+            if (newComponents != null)
+                newComponents.add(copy);
+            index++;
+        }
+        if (newComponents == null) {
+            componentsShared = true;
+            deck.componentsShared = true;
+            deck.components = components;
+        } else {
+            deck.components = newComponents;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
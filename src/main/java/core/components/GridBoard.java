@@ -1,6 +1,7 @@
 package core.components;
 
 import core.CoreConstants;
+import core.ZobristHash;
 import core.interfaces.IComponentContainer;
 import core.properties.PropertyString;
 import core.properties.PropertyVector2D;
@@ -154,6 +155,31 @@ public class GridBoard extends Component implements IComponentContainer<BoardNod
         return setElement(pos.getX(), pos.getY(), value);
     }
 
+    /**
+     * Zobrist key for the given value being at position (x, y) on this board. Values are identified by their
+     * component ID, so that the key is the same in all copies of the board.
+     *
+     * @param x     - x coordinate in the grid.
+     * @param y     - y coordinate in the grid.
+     * @param value - element at (x, y), which may be null.
+     * @return - key to XOR into the hash of a game state, see AbstractGameState.updateHash().
+     */
+    public long zobristKey(int x, int y, BoardNode value) {
+        return ZobristHash.key(componentID, x, y, value == null ? -1 : value.getComponentID());
+    }
+
+    /**
+     * @return - XOR of the Zobrist keys of all elements on the board.
+     */
+    public long zobristHash() {
+        long hash = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                hash ^= zobristKey(x, y, grid[y][x]);
+        }
+        return hash;
+    }
+
     /**
      * Retrieves the element at position (x, y).
      *
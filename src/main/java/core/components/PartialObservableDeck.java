@@ -16,15 +16,40 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     // Visibility of each component in the deck, order corresponds to order of elements in the deck;
     protected List<boolean[]> elementVisibility = new LinkedList<>();
+    // As for the components, the visibility list (and the arrays in it) may be shared with copies of this deck,
+    // and mutableVisibility() must be used to make any change
+    private boolean visibilityShared;
 
     public boolean getVisibilityForPlayer(int elementIdx, int playerID) {
         return elementVisibility.get(elementIdx)[playerID];
     }
 
+    /**
+     * @param elementIdx - index of the component
+     * @return the visibility of the component for each player. This array may be shared with copies of this deck,
+     * so it must not be modified; use setVisibilityOfComponent() instead.
+     */
     public boolean[] getVisibilityOfComponent(int elementIdx) {
         return elementVisibility.get(elementIdx);
     }
 
+    /**
+     * The visibility of each component, which is first copied if it is shared with another deck.
+     *
+     * @return the list of visibility arrays, which is owned by this deck alone
+     */
+    protected List<boolean[]> mutableVisibility() {
+        if (visibilityShared) {
+            List<boolean[]> newVisibility = new ArrayList<>();
+            for (boolean[] visibility : elementVisibility) {
+                newVisibility.add(visibility.clone());
+            }
+            elementVisibility = newVisibility;
+            visibilityShared = false;
+        }
+        return elementVisibility;
+    }
+
 
     public PartialObservableDeck(String id, int ownerID, boolean[] defaultVisibility) {
         super(id, ownerID, VisibilityMode.MIXED_VISIBILITY);
@@ -107,6 +132,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public void setComponents(List<T> components, List<boolean[]> visibilityPerPlayer) {
         super.setComponents(components);
         this.elementVisibility = visibilityPerPlayer;
+        visibilityShared = false;
     }
 
 
@@ -121,15 +147,16 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
                 throw new IllegalArgumentException("All entries of visibility need to have length " + deckVisibility.length +
                         " but at least one entry is of length " + b.length);
         this.elementVisibility = visibility;
+        visibilityShared = false;
     }
 
     private void applyVisibilityMode() {
         if (getVisibilityMode() == VisibilityMode.TOP_VISIBLE_TO_ALL)
             for (int j = 0; j < deckVisibility.length; j++)
-                elementVisibility.get(0)[j] = true;
+                mutableVisibility().get(0)[j] = true;
         if (getVisibilityMode() == VisibilityMode.BOTTOM_VISIBLE_TO_ALL)
             for (int j = 0; j < deckVisibility.length; j++)
-                elementVisibility.get(components.size() - 1)[j] = true;
+                mutableVisibility().get(components.size() - 1)[j] = true;
     }
 
     /**
@@ -142,7 +169,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public void setVisibilityOfComponent(int index, int playerID, boolean visibility) {
         if (index >= 0 && index < elementVisibility.size()) {
             if (playerID >= 0 && playerID < deckVisibility.length)
-                this.elementVisibility.get(index)[playerID] = visibility;
+                mutableVisibility().get(index)[playerID] = visibility;
             else
                 throw new IllegalArgumentException("playerID " + playerID + "needs to be in range [0," + (deckVisibility.length - 1) + "]");
         } else {
@@ -158,7 +185,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      */
     public void setVisibilityOfComponent(int index, boolean[] visibility) {
         if (index >= 0 && index < elementVisibility.size() && visibility.length == deckVisibility.length) {
-            this.elementVisibility.set(index, visibility.clone());
+            mutableVisibility().set(index, visibility.clone());
         } else {
             throw new IllegalArgumentException("component index " + index + " needs to be in range [0," + components.size() + "]");
         }
@@ -186,7 +213,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(T c, int index, boolean[] visibilityPerPlayer) {
-        this.elementVisibility.add(index, visibilityPerPlayer.clone());
+        mutableVisibility().add(index, visibilityPerPlayer.clone());
         boolean retValue = super.add(c, index);
         applyVisibilityMode();
         return retValue;
@@ -206,11 +233,11 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
             for (int i = 0; i < length; i++) {
                 // Add in reverse order to keep the order of the deck
                 // this is to ties up with addAll() of components in super.add() a few lines down
-                this.elementVisibility.add(index, pod.elementVisibility.get(length - i - 1).clone());
+                mutableVisibility().add(index, pod.elementVisibility.get(length - i - 1).clone());
             }
         } else {
             for (int i = 0; i < d.components.size(); i++) {
-                this.elementVisibility.add(index, deckVisibility.clone());
+                mutableVisibility().add(index, deckVisibility.clone());
             }
         }
         boolean retValue = super.add(d, index);
@@ -221,7 +248,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public boolean add(Collection<T> d, int index) {
         for (int i = 0; i < d.size(); i++) {
-            this.elementVisibility.add(index, deckVisibility.clone());
+            mutableVisibility().add(index, deckVisibility.clone());
         }
         return super.add(d, index);
     }
@@ -234,7 +261,8 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public void setComponents(List<T> components) {
         super.setComponents(components);
-        elementVisibility.clear();
+        elementVisibility = new LinkedList<>();
+        visibilityShared = false;
         for (int i = 0; i < components.size(); i++) {
             elementVisibility.add(deckVisibility.clone());
         }
@@ -245,7 +273,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public T pick(int idx) {
         T el = super.pick(idx);
         if (el != null) {
-            elementVisibility.remove(idx);
+            mutableVisibility().remove(idx);
             return el;
         }
         return null;
@@ -271,13 +299,14 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public void remove(int idx) {
         super.remove(idx);
-        elementVisibility.remove(idx);
+        mutableVisibility().remove(idx);
     }
 
     @Override
     public void clear() {
         super.clear();
-        elementVisibility.clear();
+        elementVisibility = new LinkedList<>();
+        visibilityShared = false;
     }
 
     /**
@@ -289,7 +318,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      */
     @Override
     public void shuffle(Random rnd) {
-        elementVisibility.replaceAll(ignored -> deckVisibility.clone());
+        mutableVisibility().replaceAll(ignored -> deckVisibility.clone());
         super.shuffle(rnd);
         applyVisibilityMode();
     }
@@ -300,8 +329,8 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param rnd random number generator to be used in shuffling.
      */
     public void shuffleAndKeepVisibility(Random rnd) {
-        Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(components, elementVisibility, rnd);
-        components = shuffled.a;
+        Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(components, mutableVisibility(), rnd);
+        super.setComponents(shuffled.a);
         elementVisibility = shuffled.b;
         applyVisibilityMode();
     }
@@ -366,11 +395,10 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     private PartialObservableDeck<T> commonCopy(PartialObservableDeck<T> dp) {
         dp.deckVisibility = deckVisibility.clone();
 
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
-        }
-        dp.elementVisibility = newVisibility;
+        // the visibility is shared until one of the decks changes it, in the same way as the components
+        visibilityShared = true;
+        dp.visibilityShared = true;
+        dp.elementVisibility = elementVisibility;
 
         return dp;
     }
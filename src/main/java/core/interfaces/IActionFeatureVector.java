@@ -4,11 +4,24 @@ import core.AbstractGameState;
 import core.actions.AbstractAction;
 
 import java.util.Arrays;
+import java.util.List;
 
 public interface IActionFeatureVector {
 
     double[] doubleVector(AbstractAction action, AbstractGameState state, int playerID);
 
+    /**
+     * The feature vectors for all the actions in one state. Implementations that also extract features from
+     * the state (such as AutomatedFeatures) should override this to do that only once.
+     */
+    default double[][] doubleVectors(List<AbstractAction> actions, AbstractGameState state, int playerID) {
+        double[][] retValue = new double[actions.size()][];
+        for (int i = 0; i < retValue.length; i++) {
+            retValue[i] = doubleVector(actions.get(i), state, playerID);
+        }
+        return retValue;
+    }
+
     default Object[] featureVector(AbstractAction action, AbstractGameState state, int playerID) {
         double[] doubleVector = doubleVector(action, state, playerID);
         Object[] retValue = new Object[doubleVector.length];
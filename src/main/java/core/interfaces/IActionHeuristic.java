@@ -24,9 +24,21 @@ public interface IActionHeuristic{
 
     default double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
         double[] scores = new double[actions.size()];
+        evaluateAllActions(actions, state, scores);
+        return scores;
+    }
+
+    /**
+     * Scores all the actions in one state, writing the score of actions.get(i) into scores[i]. This lets the caller
+     * re-use the scores array, and lets implementations that use state features calculate them just once.
+     * Implementations that can do better than one call to evaluateAction() per action should override this method
+     * (and not the version that returns a new array).
+     *
+     * @param scores - array to fill, with at least actions.size() entries
+     */
+    default void evaluateAllActions(List<AbstractAction> actions, AbstractGameState state, double[] scores) {
         for (int i = 0; i < actions.size(); i++) {
             scores[i] = evaluateAction(actions.get(i), state, actions);
         }
-        return scores;
     }
 }
@@ -13,8 +13,10 @@ import java.util.HashMap;
 
 public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel {
 
-    // Rule executed last, rule to be executed next, and first rule to be executed in a turn (root)
-    protected Node lastRule, nextRule, root;
+    // First rule to be executed in a turn. The rule executed last and the rule to be executed next are kept in the
+    // RuleCursor of each game state, so the graph is not modified as games are played, and can be shared by copies of
+    // this forward model and used from several threads at once.
+    protected Node root;
 
     /**
      * Default constructor. Any classes extending this should initialise the root node variable to the first rule
@@ -31,16 +33,18 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
      *      a ReactiveTurnOrder).
      *
      * Can use utilities.GameFlowDiagram.java class to visualise game flow, given a root node (and all children assigned)
+     *
+     * Nodes must not change once the graph is built: anything that varies during a game is kept in the RuleCursor of
+     * the game state (see Node.getAction() and Node.setParameter()).
      */
     protected AbstractRuleBasedForwardModel() {}
 
     /**
-     * Copy constructor from root node.
+     * Constructor from root node. The rule graph is shared, not copied.
      * @param root - root rule node.
      */
     protected AbstractRuleBasedForwardModel(Node root) {
         this.root = root;
-        this.nextRule = root;
     }
 
     /**
@@ -49,8 +53,9 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
      */
     protected void abstractSetup(AbstractGameState firstState) {
         super.abstractSetup(firstState);
-        nextRule = root;
-        lastRule = null;
+        if (!(firstState instanceof AbstractGameStateWithTurnOrder))
+            throw new AssertionError("Rules Based Forward Model is only usable with AbstractGameStateWithTurnOrder");
+        ((AbstractGameStateWithTurnOrder) firstState).getRuleCursor().start(root);
     }
 
     /**
@@ -65,30 +70,35 @@ public abstract class AbstractRuleBasedForwardModel extends AbstractForwardModel
             throw new AssertionError("Rules Based Forward Model is only usable with AbstractGameStateWithTurnOrder");
 
         AbstractGameStateWithTurnOrder currentState = (AbstractGameStateWithTurnOrder) state;
-        if (nextRule == null) {
-            nextRule = lastRule.getNext();  // Go back to parent, skip it and go to next rule
-            if (nextRule == null) nextRule = root;
+        RuleCursor cursor = currentState.getRuleCursor();
+        if (cursor.nextRule == null && cursor.lastRule == null) {
+            cursor.start(root);  // State that was not set up by this forward model
+        } else if (cursor.nextRule == null) {
+            cursor.nextRule = cursor.lastRule.getNext();  // Go back to parent, skip it and go to next rule
+            if (cursor.nextRule == null) cursor.nextRule = root;
             return;
         }
 
         do {
-            if (nextRule.requireAction()) {
+            if (cursor.nextRule.requireAction()) {
                 if (action != null) {
-                    nextRule.setAction(action);
+                    cursor.action = action;
                     action = null;
                 } else {
                     return;  // Wait for action to be sent to execute this rule requiring action
                 }
             }
-            lastRule = nextRule;
-            nextRule = nextRule.execute(currentState);
-        } while (nextRule != null);
+            cursor.lastRule = cursor.nextRule;
+            cursor.nextRule = cursor.nextRule.execute(currentState);
+            cursor.action = null;
+        } while (cursor.nextRule != null);
 
-        nextRule = lastRule.getNext();  // Go back to parent, skip it and go to next rule
+        cursor.nextRule = cursor.lastRule.getNext();  // Go back to parent, skip it and go to next rule
     }
 
     /**
-     * Copy root node with rule graph.
+     * Copy root node with rule graph. Not needed to run the same rules for several games or searches, as the graph
+     * is shared; only if a copy of the graph is to be modified.
      * @return - New copy of root
      */
     protected Node copyRoot() {
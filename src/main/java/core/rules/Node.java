@@ -3,20 +3,24 @@ package core.rules;
 import core.AbstractGameStateWithTurnOrder;
 import core.actions.AbstractAction;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A node in a tree of game rules. Receives a unique ID on creation, and keeps track of node properties.
+ * Nodes must not change once the graph is built, as the graph is shared by all the game states it runs on: anything
+ * that varies as the game is played (the action to execute, parameters for later nodes) is kept in the RuleCursor of
+ * the game state.
  */
 public abstract class Node {
-    private static int nextID = 0;
+    private static final AtomicInteger nextID = new AtomicInteger(0);
 
     private int id;  // Unique id for this node
     protected boolean actionNode;  // True if this node requires an action to execute
     protected boolean nextPlayerNode;  // True if this action changes active player
-    protected AbstractAction action;  // Action to execute if this node requires one
     protected Node parent;  // Parent node, can be used to retrieve parameters set by a previous node
 
     public Node() {
-        id = nextID++;
+        id = nextID.getAndIncrement();
     }
 
     /**
@@ -27,7 +31,6 @@ public abstract class Node {
         this.id = node.id;
         this.actionNode = node.actionNode;
         this.nextPlayerNode = node.nextPlayerNode;
-        this.action = node.action;
     }
 
     /**
@@ -53,10 +56,34 @@ public abstract class Node {
      */
     public abstract Node getNext();
 
-    // Getters & setters
-    public final void setAction(AbstractAction action) {
-        this.action = action;
+    /**
+     * @param gs - game state being executed.
+     * @return - the action to execute if this node requires one, null if none was given.
+     */
+    protected final AbstractAction getAction(AbstractGameStateWithTurnOrder gs) {
+        return gs.getRuleCursor().action;
+    }
+
+    /**
+     * Retrieves a parameter this node set for the nodes after it (e.g. read by children through their parent).
+     * @param gs - game state being executed.
+     * @param defaultValue - value returned if the parameter has not been set in this game.
+     * @return - the parameter value.
+     */
+    protected final int getParameter(AbstractGameStateWithTurnOrder gs, int defaultValue) {
+        return gs.getRuleCursor().getParameter(this, defaultValue);
     }
+
+    /**
+     * Sets a parameter for the nodes after this one, in the given game state only.
+     * @param gs - game state being executed.
+     * @param value - parameter value.
+     */
+    protected final void setParameter(AbstractGameStateWithTurnOrder gs, int value) {
+        gs.getRuleCursor().setParameter(this, value);
+    }
+
+    // Getters & setters
     public final boolean requireAction() { return actionNode; }
     public final void setNextPlayerNode() {
         nextPlayerNode = true;
@@ -0,0 +1,62 @@
+package core.rules;
+
+import core.actions.AbstractAction;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The position of one game state in a rule graph: the rule executed last, the rule to execute next, the action
+ * given to the rule being executed (if it requires one), and any parameters rules have set for the rules after them.
+ * <p>
+ * This is kept in the game state, and copied with it, so that nothing in the rule graph or the forward model changes
+ * as a game is played. One graph (and one AbstractRuleBasedForwardModel) can then advance any number of game states,
+ * including copies of a state used in a search, and on any number of threads.
+ */
+public final class RuleCursor {
+
+    Node lastRule, nextRule;  // Rule executed last and rule to be executed next
+    AbstractAction action;  // Action for the rule being executed, if it requires one
+    private Map<Integer, Integer> parameters;  // Parameters set by rules, by node id
+
+    public RuleCursor() {}
+
+    /**
+     * Puts the cursor at the start of the graph
+     * @param root - first rule to execute
+     */
+    void start(Node root) {
+        nextRule = root;
+        lastRule = null;
+        action = null;
+        parameters = null;
+    }
+
+    int getParameter(Node node, int defaultValue) {
+        if (parameters == null) return defaultValue;
+        return parameters.getOrDefault(node.getId(), defaultValue);
+    }
+
+    void setParameter(Node node, int value) {
+        if (parameters == null) parameters = new HashMap<>();
+        parameters.put(node.getId(), value);
+    }
+
+    public Node getLastRule() {
+        return lastRule;
+    }
+
+    public Node getNextRule() {
+        return nextRule;
+    }
+
+    public RuleCursor copy() {
+        RuleCursor retValue = new RuleCursor();
+        // nodes are shared, as the graph is never modified once built
+        retValue.lastRule = lastRule;
+        retValue.nextRule = nextRule;
+        retValue.action = action;
+        if (parameters != null) retValue.parameters = new HashMap<>(parameters);
+        return retValue;
+    }
+}
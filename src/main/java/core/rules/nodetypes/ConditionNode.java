@@ -14,7 +14,6 @@ import core.rules.Node;
 public abstract class ConditionNode extends Node {
     Node childYes;  // Node to execute if the condition test returns true
     Node childNo;  // Node to execute if the condition test returns false
-    boolean passed;  // The result of the test, true if condition test returns true, false otherwise
 
     /**
      * Copy constructor, does not copy childYes or childNo to avoid endless recursion in looping graphs.
@@ -24,7 +23,6 @@ public abstract class ConditionNode extends Node {
         super(node);
         childYes = node.childYes;
         childNo = node.childNo;
-        passed = node.passed;
     }
 
     public ConditionNode() {
@@ -40,14 +38,16 @@ public abstract class ConditionNode extends Node {
 
     @Override
     public final Node execute(AbstractGameStateWithTurnOrder gs) {
-        passed = test(gs);
-        return getNext();
+        return test(gs) ? childYes : childNo;
     }
 
+    /**
+     * The next node depends on the result of the test in a particular game state, so there is no single next node.
+     * @return - null, use getYesNo() for the children of this node.
+     */
     @Override
     public final Node getNext() {
-        if (passed) return childYes;
-        else return childNo;
+        return null;
     }
 
     // Getters & Setters
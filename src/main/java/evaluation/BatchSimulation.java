@@ -0,0 +1,268 @@
+package evaluation;
+
+import core.*;
+import core.components.Component;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import players.PlayerFactory;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static core.CoreConstants.GameResult.WIN_GAME;
+
+/**
+ * Plays a large number of games of one GameType headless, spread across all available cores, for example to
+ * estimate the balance of a game design from millions of playouts.
+ * <p>
+ * One line per game is streamed to a CSV file as each game finishes, with the agent, final position and score for
+ * each player. Progress is reported as games/sec, and the final summary gives for each agent its win rate, and
+ * the decisions/sec and forward-model calls/sec made by it across all threads.
+ * <p>
+ * Agents are specified as for PlayerFactory; each game seats them in rotation, so that with k agents game g puts
+ * agent (g + p) mod k in position p. Game g is set up with random seed (seed + g), and each agent in it is a fresh
+ * copy re-seeded from that, so the results for a given seed do not depend on the number of threads.
+ */
+public class BatchSimulation {
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--help") || Arrays.asList(args).contains("-h")) {
+            System.out.println("""
+                    Usage: BatchSimulation game=<GameType> [nPlayers=2] [nGames=1000] [players=random] [nThreads=<all cores>]
+                                           [seed=<time>] [gameParams=<json file>] [results=<csv file>] [reportEvery=1000]
+                    \tplayers is a pipe-delimited list of PlayerFactory descriptions (e.g. mcts|random|myAgent.json),
+                    \tor a directory of player JSON files.""");
+            return;
+        }
+        GameType gameType = GameType.valueOf(Utils.getArg(args, "game", "TicTacToe"));
+        int nPlayers = Utils.getArg(args, "nPlayers", 2);
+        String playerDescriptor = Utils.getArg(args, "players", "random");
+        List<AbstractPlayer> agents = new ArrayList<>();
+        for (String descriptor : playerDescriptor.split("\\|"))
+            agents.addAll(PlayerFactory.createPlayers(descriptor));
+        String gameParamsFile = Utils.getArg(args, "gameParams", "");
+        AbstractParameters params = gameParamsFile.isEmpty() ? null : AbstractParameters.createFromFile(gameType, gameParamsFile);
+
+        BatchSimulation simulation = new BatchSimulation(gameType, nPlayers, agents, params);
+        simulation.nGames = Utils.getArg(args, "nGames", 1000);
+        simulation.nThreads = Utils.getArg(args, "nThreads", Runtime.getRuntime().availableProcessors());
+        simulation.seed = Utils.getArg(args, "seed", System.currentTimeMillis());
+        simulation.reportEvery = Utils.getArg(args, "reportEvery", 1000);
+        String results = Utils.getArg(args, "results",
+                "metrics" + File.separator + "out" + File.separator + "Batch_" + gameType.name() + "_" + nPlayers + "p.csv");
+        simulation.run(results);
+        simulation.printSummary();
+    }
+
+    final GameType gameType;
+    final int nPlayers;
+    final List<AbstractPlayer> agents;
+    final AbstractParameters params;
+    public int nGames = 1000;
+    public int nThreads = Runtime.getRuntime().availableProcessors();
+    public long seed = System.currentTimeMillis();
+    public int reportEvery = 1000;
+
+    private final AgentStats[] agentStats;
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final AtomicInteger gamesFinished = new AtomicInteger();
+    private PrintWriter writer;
+    private long startTime, elapsedTime;
+
+    public int getGamesFinished() {
+        return gamesFinished.get();
+    }
+
+    public long getDecisions(int agent) {
+        return agentStats[agent].decisions.sum();
+    }
+
+    public long getForwardModelCalls(int agent) {
+        return agentStats[agent].nextCalls.sum();
+    }
+
+    public long getWins(int agent) {
+        return agentStats[agent].wins.sum();
+    }
+
+    static class AgentStats {
+        final LongAdder games = new LongAdder();
+        final LongAdder wins = new LongAdder();
+        final DoubleAdder ordinal = new DoubleAdder();
+        final DoubleAdder score = new DoubleAdder();
+        final LongAdder decisions = new LongAdder();
+        final LongAdder nextCalls = new LongAdder();
+        final LongAdder actionCalls = new LongAdder();
+    }
+
+    /**
+     * Counts the decisions made by each player in a game. Actions chosen when there was only one option are not
+     * counted, as the player was not asked for them.
+     */
+    static class DecisionCounter implements IGameListener {
+        final int[] decisions;
+        Game game;
+
+        DecisionCounter(int nPlayers) {
+            decisions = new int[nPlayers];
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            if (event.type == Event.GameEvent.ACTION_CHOSEN && event.actions != null && event.actions.size() > 1)
+                decisions[event.playerID]++;
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void reset() {
+            Arrays.fill(decisions, 0);
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    public BatchSimulation(GameType gameType, int nPlayers, List<AbstractPlayer> agents, AbstractParameters params) {
+        if (agents.isEmpty())
+            throw new IllegalArgumentException("At least one agent must be specified");
+        this.gameType = gameType;
+        this.nPlayers = nPlayers;
+        this.agents = agents;
+        this.params = params;
+        this.agentStats = new AgentStats[agents.size()];
+        for (int i = 0; i < agentStats.length; i++)
+            agentStats[i] = new AgentStats();
+    }
+
+    /**
+     * Plays all the games, and returns once they have finished.
+     *
+     * @param resultsFile - CSV file to which one line per game is written, or empty for none
+     */
+    public void run(String resultsFile) {
+        try {
+            if (!resultsFile.isEmpty()) {
+                File file = new File(resultsFile);
+                if (file.getParentFile() != null)
+                    file.getParentFile().mkdirs();
+                writer = new PrintWriter(new FileWriter(file));
+                StringBuilder header = new StringBuilder("Game,Seed,Ticks,Decisions,TimeMs");
+                for (int p = 0; p < nPlayers; p++)
+                    header.append(String.format(",Agent_%d,Ordinal_%d,Score_%d", p, p, p));
+                writer.println(header);
+            }
+            startTime = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(nThreads, Component.idReleasingThreads("BatchSimulation", false));
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < nThreads; t++)
+                workers.add(executor.submit(this::runWorker));
+            executor.shutdown();
+            for (Future<?> worker : workers)
+                worker.get();
+            elapsedTime = System.nanoTime() - startTime;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write to " + resultsFile, e);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Batch simulation failed", e);
+        } finally {
+            if (writer != null)
+                writer.close();
+        }
+    }
+
+    private void runWorker() {
+        Game game = gameType.createGameInstance(nPlayers, seed, params == null ? null : params.copy());
+        DecisionCounter counter = new DecisionCounter(nPlayers);
+        game.addListener(counter);
+        CountingForwardModel[] forwardModels = new CountingForwardModel[nPlayers];
+        int[] agentIndex = new int[nPlayers];
+
+        int g;
+        while ((g = nextGame.getAndIncrement()) < nGames) {
+            // each game has fresh copies of the agents, seeded from the game's seed, so that the results do not depend
+            // on which games each thread happens to play
+            Random agentSeeds = new Random(seed + g);
+            List<AbstractPlayer> players = new ArrayList<>();
+            for (int p = 0; p < nPlayers; p++) {
+                agentIndex[p] = (g + p) % agents.size();
+                AbstractPlayer copy = agents.get(agentIndex[p]).copy();
+                copy.setSeed(agentSeeds.nextLong());
+                players.add(copy);
+            }
+            long start = System.nanoTime();
+            game.reset(players, seed + g);
+            for (int p = 0; p < nPlayers; p++) {
+                forwardModels[p] = new CountingForwardModel(game.getForwardModel());
+                players.get(p).setForwardModel(forwardModels[p]);
+            }
+            counter.reset();
+            game.run();
+            recordGame(g, game, agentIndex, counter, forwardModels, System.nanoTime() - start);
+        }
+    }
+
+    private void recordGame(int g, Game game, int[] agentIndex, DecisionCounter counter,
+                            CountingForwardModel[] forwardModels, long nanos) {
+        AbstractGameState state = game.getGameState();
+        int decisions = 0;
+        StringBuilder line = new StringBuilder();
+        for (int p = 0; p < nPlayers; p++) {
+            AgentStats stats = agentStats[agentIndex[p]];
+            stats.games.increment();
+            if (state.getPlayerResults()[p] == WIN_GAME)
+                stats.wins.increment();
+            stats.ordinal.add(state.getOrdinalPosition(p));
+            stats.score.add(state.getGameScore(p));
+            stats.decisions.add(counter.decisions[p]);
+            stats.nextCalls.add(forwardModels[p].getNextCalls());
+            stats.actionCalls.add(forwardModels[p].getActionCalls());
+            decisions += counter.decisions[p];
+            line.append(String.format(",%s,%d,%.4g", agents.get(agentIndex[p]), state.getOrdinalPosition(p), state.getGameScore(p)));
+        }
+        if (writer != null) {
+            synchronized (writer) {
+                writer.printf("%d,%d,%d,%d,%.3f%s%n", g, seed + g, state.getGameTick(), decisions, nanos / 1e6, line);
+            }
+        }
+        int finished = gamesFinished.incrementAndGet();
+        if (reportEvery > 0 && finished % reportEvery == 0) {
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            System.out.printf("%d games played in %.1fs (%.1f games/sec)%n", finished, seconds, finished / seconds);
+        }
+    }
+
+    public void printSummary() {
+        double seconds = elapsedTime / 1e9;
+        System.out.printf("%s with %d players: %d games in %.1fs on %d threads (%.1f games/sec)%n",
+                gameType, nPlayers, gamesFinished.get(), seconds, nThreads, gamesFinished.get() / seconds);
+        System.out.printf("%-30s %8s %8s %8s %8s %14s %14s %14s%n", "Agent", "Games", "WinRate", "Ordinal", "Score",
+                "Decisions/s", "FM next/s", "FM actions/s");
+        for (int i = 0; i < agents.size(); i++) {
+            AgentStats stats = agentStats[i];
+            long games = Math.max(1, stats.games.sum());
+            System.out.printf("%-30s %8d %8.3f %8.3f %8.3g %14.1f %14.1f %14.1f%n", agents.get(i), stats.games.sum(),
+                    stats.wins.sum() / (double) games, stats.ordinal.sum() / games, stats.score.sum() / games,
+                    stats.decisions.sum() / seconds, stats.nextCalls.sum() / seconds, stats.actionCalls.sum() / seconds);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import evaluation.listeners.ActionFeatureListener;
 import evaluation.listeners.FeatureListener;
 import evaluation.listeners.RolloutStateFeatureListener;
 import evaluation.listeners.StateFeatureListener;
+import evaluation.loggers.BinaryStatsLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
 import evaluation.optimisation.ITPSearchSpace;
@@ -50,7 +51,7 @@ public class ExpertIteration {
     double sampleRate;
     String[] stateDataFilesByIteration;
     String[] actionDataFilesByIteration;
-    boolean useRounds, useStateInAction;
+    boolean useRounds, useStateInAction, binaryData;
     String prefix = "EI";
     AbstractPlayer bestAgent = null;
     String originalOpponentName;
@@ -92,6 +93,7 @@ public class ExpertIteration {
         sampleRate = (double) config.get(RunArg.sampleRate);
         expertTime = (int) config.get(RunArg.expertTime);
         maxRecords = (int) config.get(RunArg.maxRecords);
+        binaryData = (boolean) config.get(RunArg.binaryData);
 
         params = AbstractParameters.createFromFile(gameToPlay, (String) config.get(RunArg.gameParams));
 
@@ -165,18 +167,18 @@ public class ExpertIteration {
         if (restartWithTuning) {
             int iterationRef = config.get(RunArg.expertTrainingMode) == TrainingMode.Exponential ? 0 : iter;
             if (stateLearnerFile != null)
-                stateDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("State_%s_%02d.txt", prefix, iterationRef);
+                stateDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("State_%s_%02d.%s", prefix, iterationRef, dataExtension());
             if (actionLearnerFile != null)
-                actionDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("Action_%s_%02d.txt", prefix, iterationRef);
+                actionDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("Action_%s_%02d.%s", prefix, iterationRef, dataExtension());
         }
         if (restartAtIteration > 0) {
             int iterationRef = config.get(RunArg.expertTrainingMode) == TrainingMode.Exponential ? 0 : iter - 1;
             // we are restarting the process, so we need to load the data files from the previous iteration
             if (stateLearnerFile != null) {
-                stateDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("State_%s_%02d.txt", prefix, iterationRef);
+                stateDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("State_%s_%02d.%s", prefix, iterationRef, dataExtension());
             }
             if (actionLearnerFile != null) {
-                actionDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("Action_%s_%02d.txt", prefix, iterationRef);
+                actionDataFilesByIteration[iterationRef] = dataDir + File.separator + String.format("Action_%s_%02d.%s", prefix, iterationRef, dataExtension());
             }
 
             // then load in the agents from the previous iterations
@@ -328,8 +330,8 @@ public class ExpertIteration {
             if (!agentsOKForState || !agentsOKForAction) {
                 // we now check to see if the data has been gathered for the next iteration
                 int iterationRef = config.get(RunArg.expertTrainingMode) == TrainingMode.Exponential ? 0 : completedIterations;
-                String stateDataFile = dataDir + File.separator + String.format("State_%s_%02d.txt", prefix, iterationRef);
-                String actionDataFile = dataDir + File.separator + String.format("Action_%s_%02d.txt", prefix, iterationRef);
+                String stateDataFile = dataDir + File.separator + String.format("State_%s_%02d.%s", prefix, iterationRef, dataExtension());
+                String actionDataFile = dataDir + File.separator + String.format("Action_%s_%02d.%s", prefix, iterationRef, dataExtension());
                 boolean dataOKForState = stateLearnerFile == null || new File(stateDataFile).exists();
                 boolean dataOKForAction = actionLearnerFile == null || new File(actionDataFile).exists();
                 if (dataOKForState && dataOKForAction) {
@@ -516,12 +518,12 @@ public class ExpertIteration {
                 default ->
                         throw new IllegalArgumentException("Unexpected value for expert: " + config.get(RunArg.valueTarget));
             };
-            String fileName = String.format("State_%s_%02d.txt", prefix, allDataAsOne ? 0 : iter);
+            String fileName = String.format("State_%s_%02d.%s", prefix, allDataAsOne ? 0 : iter, dataExtension());
             stateDataFilesByIteration[allDataAsOne ? 0 : iter] = dataDir + File.separator + fileName;
             if (stateListener != null) {
                 stateListener = stateListener
                         .setSampleRate(sampleRate)
-                        .setLogger(new FileStatsLogger(fileName, "\t", allDataAsOne));
+                        .setLogger(createLogger(fileName, allDataAsOne));
                 stateListener.setOutputDirectory(dataDir);
                 tournament.addListener(stateListener);
             }
@@ -553,9 +555,9 @@ public class ExpertIteration {
                 default ->
                         throw new IllegalArgumentException("Unexpected value for expert: " + config.get(RunArg.actionTarget));
             };
-            String fileName = String.format("Action_%s_%02d.txt", prefix, allDataAsOne ? 0 : iter);
+            String fileName = String.format("Action_%s_%02d.%s", prefix, allDataAsOne ? 0 : iter, dataExtension());
             actionListener = actionListener
-                    .setLogger(new FileStatsLogger(fileName, "\t", allDataAsOne))
+                    .setLogger(createLogger(fileName, allDataAsOne))
                     .setSampleRate(sampleRate);
             actionListener.setOutputDirectory(dataDir);
 
@@ -576,6 +578,14 @@ public class ExpertIteration {
         return tournament;
     }
 
+    private String dataExtension() {
+        return binaryData ? BinaryStatsLogger.EXTENSION : "txt";
+    }
+
+    private IStatisticLogger createLogger(String fileName, boolean append) {
+        return binaryData ? new BinaryStatsLogger(fileName, append) : new FileStatsLogger(fileName, "\t", append);
+    }
+
     // Learn agents from the data collected in the previous iteration
     // and add to the list of agents
     private Pair<IStateHeuristic, IActionHeuristic> learnFromNewData() {
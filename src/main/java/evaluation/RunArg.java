@@ -27,6 +27,16 @@ public enum RunArg {
             "\t This may be useful if you want to use the same destDir for multiple experiments.",
             false,
             new Usage[]{Usage.RunGames}),
+    asyncMetrics("(Optional) If true (default is false), then any MetricsGameListener runs its metrics on a separate\n" +
+            "\t thread from a copy of the game state, so that recording metrics slows the games down less.\n" +
+            "\t Metrics that read the game itself (such as timings, or an agent's search tree) still run on the game thread.",
+            false,
+            new Usage[]{Usage.RunGames}),
+    batchSize("The number of settings NTBEA proposes and evaluates together on each step. Default is 1.\n" +
+            "\t The first is the best neighbour by the landscape model, as with a batchSize of 1, and the others\n" +
+            "\t are the next best neighbours. With nThreads > 1 the settings in a batch are evaluated concurrently.",
+            1,
+            new Usage[]{Usage.ParameterSearch}),
     budget("The budget to be used by all agent (if they support the IAnyTime interface). \n" +
             "\t If non-zero then this will override the value in any JSON definitions.\n",
             0,
@@ -141,6 +151,16 @@ public enum RunArg {
     nPlayers("The number of players in each game. Overrides playerRange.",
             -1,
             new Usage[]{Usage.ParameterSearch, Usage.RunGames, Usage.ExpertIteration}),
+    nThreads("The number of threads to use when running games in a tournament. Default is 1.\n" +
+            "\t Each game is played with its own copy of the game and agents, and if this is greater than 1 the games\n" +
+            "\t are played in parallel.\n" +
+            "\t Results are recorded, and the events of each game passed to the listeners, in the order the games\n" +
+            "\t were generated, so for a given seed they do not depend on the number of threads. Listeners are\n" +
+            "\t passed the events of each game once it has finished, with a snapshot of the state at each event.\n" +
+            "\t In ParameterSearch this is the number of NTBEA evaluations run at once, which needs a batchSize > 1.\n" +
+            "\t The evalGames on each recommended setting and the final tournament are also run in parallel.",
+            1,
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
     discretisation("The number of discretisation levels to use in NTBEAFunctions. Default is 10.",
             10,
             new Usage[]{Usage.ParameterSearch}),
@@ -202,6 +222,10 @@ public enum RunArg {
     actionFeatures("The name of a class that implements IActionFeatureVector.",
             "",
             new Usage[]{Usage.ExpertIteration}),
+    binaryData("Whether to record the feature data in the binary columnar format of BinaryStatsLogger, rather than as\n" +
+            "\t tab-delimited text. This is much faster to read back for learning. Defaults to false.",
+            false,
+            new Usage[]{Usage.ExpertIteration}),
     stateForAction("Whether to use the state features when learning the action heuristic. Defaults to true.",
             true,
             new Usage[]{Usage.ExpertIteration}),
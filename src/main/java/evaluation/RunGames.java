@@ -4,6 +4,7 @@ import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.interfaces.IGameRunner;
 import evaluation.listeners.IGameListener;
+import evaluation.listeners.MetricsGameListener;
 import evaluation.tournaments.RoundRobinTournament;
 import evaluation.tournaments.SkillGrid;
 import games.GameType;
@@ -114,6 +115,8 @@ public class RunGames implements IGameRunner {
                 for (String listenerClass : ((List<String>) config.get(listener))) {
                     try {
                         IGameListener gameTracker = IGameListener.createListener(listenerClass);
+                        if (gameTracker instanceof MetricsGameListener metricsListener && (boolean) config.getOrDefault(asyncMetrics, false))
+                            metricsListener.setAsynchronous(true);
                     tournament.addListener(gameTracker);
                     String outputDir = (String) config.get(destDir);
                     List<String> directories = new ArrayList<>(Arrays.asList(outputDir.split(Pattern.quote(File.separator))));
@@ -7,11 +7,14 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IToJSON;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import evaluation.loggers.ChunkedDataReader;
+import evaluation.loggers.ChunkedDataWriter;
 import utilities.JSONUtils;
 import utilities.Pair;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -25,6 +28,7 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
     }
 
     int defaultBuckets = 1;
+    int chunkSize = 10_000; // the number of rows of a text file that processData converts at a time
     public final IStateFeatureVector underlyingState;
     public final IActionFeatureVector underlyingAction;
     String[] underlyingNames;
@@ -298,6 +302,30 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         return buildCompositeFeatures(underlyingVectorData);
     }
 
+    @Override
+    public double[][] doubleVectors(List<AbstractAction> actions, AbstractGameState state, int playerID) {
+        // the state part of the raw data is the same for every action, so we extract it just the once
+        Object[] stateVectorData = underlyingState == null ? new Object[0] : underlyingState.featureVector(state, playerID);
+        double[][] retValue = new double[actions.size()][];
+        if (underlyingAction == null) {
+            double[] featureVector = buildCompositeFeatures(stateVectorData);
+            for (int i = 0; i < retValue.length; i++)
+                retValue[i] = featureVector.clone();
+            return retValue;
+        }
+        Object[] underlyingVectorData = null;
+        for (int i = 0; i < retValue.length; i++) {
+            Object[] actionVectorData = underlyingAction.featureVector(actions.get(i), state, playerID);
+            if (underlyingVectorData == null) {
+                underlyingVectorData = new Object[stateVectorData.length + actionVectorData.length];
+                System.arraycopy(stateVectorData, 0, underlyingVectorData, 0, stateVectorData.length);
+            }
+            System.arraycopy(actionVectorData, 0, underlyingVectorData, stateVectorData.length, actionVectorData.length);
+            retValue[i] = buildCompositeFeatures(underlyingVectorData);
+        }
+        return retValue;
+    }
+
     @Override
     public double[] doubleVector(AbstractGameState state, int playerID) {
         // in this case we just have to worry about the state vector
@@ -422,7 +450,30 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         return columnDetails;
     }
 
-    public List<List<Object>> processData(String outputFile, int maxRecords, String... inputFiles) {
+    /**
+     * The value of one column written by processData, for one row of the input data
+     */
+    private interface ColumnSource {
+        /**
+         * @param data     - the input data, with the row in its current chunk
+         * @param row      - the row in the current chunk
+         * @param rowSoFar - the values of the earlier columns for this row
+         */
+        Object value(ChunkedDataReader data, int row, Object[] rowSoFar);
+    }
+
+    /**
+     * Converts the raw data in the input files into the features (plus any other columns), and writes these to
+     * the output file (in binary if it has the BinaryStatsLogger extension).
+     * <p>
+     * The data are converted and written one chunk at a time (see ChunkedDataReader). The only columns held in memory
+     * are those from which bucket ranges have to be calculated, and these are read in a first pass over the data
+     * (which is not needed if there are none, and there is no limit on the number of records).
+     *
+     * @param maxRecords - if positive, only the last maxRecords rows of the data (the most recent) are used
+     * @return the number of rows written
+     */
+    public int processData(String outputFile, int maxRecords, String... inputFiles) {
         // inputFiles contain the raw data.
         // There can be two types of columns:
         // 1. Columns that refer to existing featureNames. These are detected by matching the names.
@@ -442,36 +493,39 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         //          if this already exists in the data, we do not add it again
 
         List<ColumnDetails> newColumnDetails = new ArrayList<>(); // will be populated with new columns
-        Map<Integer, Integer> underlyingIndexToDataIndex = new HashMap<>();
+        List<ColumnSource> newDataColumns = new ArrayList<>(); // how to get each new column from a row of the data
         List<ColumnDetails> startingFeatures = getColumnDetails();
 
-        // load files...the columns should correspond to the underlying vector
+        // the columns in the files should correspond to the underlying vector
         // while allowing for additional columns (for target values)
-        Pair<List<String>, List<List<String>>> data = Utils.loadDataWithHeader("\t", inputFiles);
-        List<String> headers = data.a;
-        List<List<String>> dataRows = data.b;
-
-        // We now want to convert the dataRows into dataColumns
-        List<List<String>> dataColumns = new ArrayList<>();
-        for (int i = 0; i < headers.size(); i++) {
-            dataColumns.add(new ArrayList<>());
-        }
-        int count = 0;
-        // We want to go backwards so that we take the most recent data (if there is more than maxRecords)
-        for (List<String> row : dataRows.reversed()) {
-            if (row.size() != headers.size()) {
-                System.err.println("Warning: Skipping row with inconsistent number of columns: " + row);
-                continue; // Skip rows with inconsistent number of columns
-            }
-            for (int i = 0; i < headers.size(); i++) {
-                dataColumns.get(i).add(row.get(i));
-            }
-            count++;
-            if (maxRecords > 0 && count >= maxRecords) {
-                break; // Stop processing if we reached the maximum number of records
+        List<String> headers = new ArrayList<>();
+        if (inputFiles.length > 0) {
+            try (ChunkedDataReader data = new ChunkedDataReader(inputFiles[0], "\t", 1)) {
+                headers = data.header();
             }
         }
-        List<List<?>> newDataColumns = new ArrayList<>(); // set up to take the new data (especially where we can just copy this from the old)
+
+        // The bucket ranges of numeric features are calculated from all of their values, so we read these columns
+        // (and count the rows) first
+        Map<Integer, List<Object>> rangeData = new HashMap<>();
+        for (int i = 0; i < underlyingNames.length; i++) {
+            if (headers.contains(underlyingNames[i]) && isNumeric(underlyingTypes[i]) && buckets[i] > 1
+                    && rangeColumnsInData(i, headers, startingFeatures) == null)
+                rangeData.put(headers.indexOf(underlyingNames[i]), new ArrayList<>());
+        }
+        int skip = 0;
+        if (!rangeData.isEmpty() || maxRecords > 0) {
+            int[] rows = new int[1];
+            forEachRow(headers, 0, (data, row) -> {
+                rows[0]++;
+                for (Map.Entry<Integer, List<Object>> column : rangeData.entrySet())
+                    column.getValue().add(data.datum(row, column.getKey()));
+            }, inputFiles);
+            // We take the most recent data (if there is more than maxRecords)
+            skip = maxRecords > 0 ? Math.max(0, rows[0] - maxRecords) : 0;
+            for (Map.Entry<Integer, List<Object>> column : rangeData.entrySet())
+                column.setValue(column.getValue().subList(skip, rows[0]));
+        }
 
         // Loop over all underlyingNames/Types to determine if the current features match with the data
         // if they do match then we can pull over the relevant details from the current set up
@@ -487,17 +541,15 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
             }
 
             int columnIndex = headers.indexOf(columnName);
-            underlyingIndexToDataIndex.put(i, columnIndex);
 
             if (columnType.equals(Boolean.class)) {
                 // Boolean column: Just add raw column directly (no bucketing is relevant here)
                 newColumnDetails.add(new ColumnDetails(
                         columnName, featureType.RAW, null, null, i, columnType, null
                 ));
-                newDataColumns.add(validateBooleanColumnData(dataColumns.get(columnIndex)));
+                newDataColumns.add((data, row, rowSoFar) -> validateBoolean(data.datum(row, columnIndex)));
                 if (debug) System.out.println("Adding Boolean column " + columnName);
-            } else if (columnType.equals(Double.class) || columnType.equals(double.class) ||
-                    columnType.equals(Integer.class) || columnType.equals(int.class)) {
+            } else if (isNumeric(columnType)) {
                 // Numeric column: Check for RAW column and a RANGE column for each BUCKET
                 // The RAW data has to be present, so we can always copy that over
                 // Add RAW feature for column
@@ -505,39 +557,27 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                         columnName, featureType.RAW, null, null, i, columnType, null
                 ));
                 if (columnType.equals(Double.class) || columnType.equals(double.class)) {
-                    newDataColumns.add(validateDoubleColumnData(dataColumns.get(columnIndex)));
+                    newDataColumns.add((data, row, rowSoFar) -> validateDouble(data.datum(row, columnIndex)));
                 } else {
-                    newDataColumns.add(validateIntColumnData(dataColumns.get(columnIndex)));
+                    newDataColumns.add((data, row, rowSoFar) -> validateInt(data.datum(row, columnIndex)));
                 }
                 if (debug) System.out.println("Adding Numeric column " + columnName);
 
                 // then we check for buckets in the data
-                List<String> expectedBucketColumns = IntStream.range(0, getBuckets(i))
-                        .mapToObj(b -> columnName + "_B" + b)
-                        .toList();
-                boolean copiedColumns = false;
-                // If there is only one bucket, then this is the same as not bucketing
-                if (expectedBucketColumns.size() > 1 && new HashSet<>(headers).containsAll(expectedBucketColumns)) {
+                List<ColumnDetails> original = rangeColumnsInData(i, headers, startingFeatures);
+                if (original != null) {
                     // then we can pull over the RANGE columns from the starting features without any recalculation
-                    int finalI = i;
-                    List<ColumnDetails> original = startingFeatures.stream()
-                            .filter(r -> r.type == featureType.RANGE && r.underlyingIndex == finalI)
-                            .toList();
-                    if (original.size() == 1 + getBuckets(i)) {
-                        for (ColumnDetails columnDetail : original) {
-                            newColumnDetails.add(columnDetail);
-                            // we need to find the range field in the data
-                            int bucketIndex = Integer.parseInt(columnDetail.name.substring(columnDetail.name.indexOf("_B") + 2));
-                            newDataColumns.add(dataColumns.get(headers.indexOf(expectedBucketColumns.get(bucketIndex))));
-                            if (debug) System.out.println("Adding Range column " + columnName);
-                        }
-                        copiedColumns = true;
+                    for (ColumnDetails columnDetail : original) {
+                        newColumnDetails.add(columnDetail);
+                        // we need to find the range field in the data
+                        int bucketIndex = Integer.parseInt(columnDetail.name.substring(columnDetail.name.indexOf("_B") + 2));
+                        newDataColumns.add(copyOf(headers.indexOf(columnName + "_B" + bucketIndex)));
+                        if (debug) System.out.println("Adding Range column " + columnName);
                     }
-                }
-                if (buckets[i] > 1 && !copiedColumns) {
+                } else if (buckets[i] > 1) {
                     // We did not find the data in the file, so we calculate it (mostly the buckets)
-                    List<Pair<ColumnDetails, List<?>>> missingColumns = handleMissingRangeFeatures(i, dataColumns.get(columnIndex));
-                    for (Pair<ColumnDetails, List<?>> missingColumn : missingColumns) {
+                    List<Pair<ColumnDetails, ColumnSource>> missingColumns = handleMissingRangeFeatures(i, columnIndex, rangeData.get(columnIndex));
+                    for (Pair<ColumnDetails, ColumnSource> missingColumn : missingColumns) {
                         newColumnDetails.add(missingColumn.a);
                         newDataColumns.add(missingColumn.b);
                         if (debug) System.out.println("Adding Range column " + columnName);
@@ -560,7 +600,7 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                     newColumnDetails.add(new ColumnDetails(
                             columnName, featureType.TARGET, null, null, i, columnType, null
                     ));
-                    newDataColumns.add(dataColumns.get(columnIndex));
+                    newDataColumns.add(copyOf(columnIndex));
                     for (String expectedEnum : expectedEnums) {
                         String expectedEnumColumn = columnName + "_" + expectedEnum;
                         int enumIndex = headers.indexOf(expectedEnumColumn);
@@ -570,14 +610,14 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                         newColumnDetails.add(new ColumnDetails(
                                 expectedEnumColumn, featureType.ENUM, Enum.valueOf(enumClass, expectedEnum), null, i, Boolean.class, null
                         ));
-                        newDataColumns.add(dataColumns.get(enumIndex));
+                        newDataColumns.add(copyOf(enumIndex));
                         if (debug) System.out.println("Adding Enum column " + columnName);
 
                     }
                 } else {
                     // recalculate
-                    List<Pair<ColumnDetails, List<?>>> missingColumns = handleMissingEnumFeature(i, dataColumns.get(columnIndex));
-                    for (Pair<ColumnDetails, List<?>> missingColumn : missingColumns) {
+                    List<Pair<ColumnDetails, ColumnSource>> missingColumns = handleMissingEnumFeature(i, columnIndex);
+                    for (Pair<ColumnDetails, ColumnSource> missingColumn : missingColumns) {
                         newColumnDetails.add(missingColumn.a);
                         newDataColumns.add(missingColumn.b);
                         if (debug) System.out.println("Adding Enum column " + columnName);
@@ -615,22 +655,19 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                 ));
                 if (headers.contains(interactionName)) {
                     // just copy over
-                    int interactionIndex = headers.indexOf(interactionName);
-                    newDataColumns.add(dataColumns.get(interactionIndex));
+                    newDataColumns.add(copyOf(headers.indexOf(interactionName)));
                 } else {
-                    // need to calculate this
-                    List<Double> interactionData = new ArrayList<>();
-                    for (int j = 0; j < newDataColumns.getFirst().size(); j++) {
+                    // need to calculate this, from the columns already added for the row
+                    newDataColumns.add((data, row, rowSoFar) -> {
                         double interactionValue = 1.0;
                         for (int index : newIndices) {
-                            Object valueObj = newDataColumns.get(index).get(j);
+                            Object valueObj = rowSoFar[index];
                             double value = valueObj instanceof Number ? ((Number) valueObj).doubleValue() :
                                     valueObj instanceof String ? Double.parseDouble((String) valueObj) : 0;
                             interactionValue *= value;
                         }
-                        interactionData.add(interactionValue);
-                    }
-                    newDataColumns.add(interactionData);
+                        return interactionValue;
+                    });
                 }
             }
         }
@@ -647,7 +684,7 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                 newColumnDetails.add(new ColumnDetails(
                         columnName, featureType.TARGET, null, null, -1, String.class, null
                 ));
-                newDataColumns.add(dataColumns.get(i));
+                newDataColumns.add(copyOf(i));
             }
         }
 
@@ -660,6 +697,9 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         // The issue now is that we are about to convert all the columns into new features
         // This will be a problem if we have removed features (RAW, RANGE or ENUM) from featureName, as the processing
         // of the underlying features has added them back in.
+        // Every column is still calculated for each row (as interactions may use any of them), but only those in
+        // writtenColumns are written to the file.
+        List<Integer> writtenColumns = new ArrayList<>(IntStream.range(0, newColumnDetails.size()).boxed().toList());
         for (int i = newColumnDetails.size() - 1; i >= 0; i--) {
             ColumnDetails column = newColumnDetails.get(i);
             if (removedFeatureNames.contains(column.name)) {
@@ -691,29 +731,18 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
                     } else {
                         // we remove it completely
                         newColumnDetails.remove(i);
-                        newDataColumns.remove(i);
+                        writtenColumns.remove(i);
                     }
                 } else {
                     // we remove it completely
                     newColumnDetails.remove(i);
-                    newDataColumns.remove(i);
+                    writtenColumns.remove(i);
                 }
             }
 
         }
 
 
-        // We now have all the column, to write to file we need to convert this into a set of rows
-        List<List<Object>> newDataRows = new ArrayList<>();
-        for (List<?> columnData : newDataColumns) {
-            for (int j = 0; j < columnData.size(); j++) {
-                if (newDataRows.size() <= j) {
-                    newDataRows.add(new ArrayList<>());
-                }
-                newDataRows.get(j).add(columnData.get(j));
-            }
-        }
-
         // we also need to set the featureNames and so on from the new column details
         featureNames.clear();
         featureTypes.clear();
@@ -738,9 +767,69 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
             }
         }
 
-        Utils.writeDataWithHeader("\t", newColumnDetails.stream().map(r -> r.name).toList(),
-                newDataRows, outputFile);
-        return newDataRows;
+        // Finally we convert and write the data, one chunk of rows at a time
+        Object[] rowValues = new Object[newDataColumns.size()];
+        List<Object> writtenRow = new ArrayList<>(writtenColumns.size());
+        int[] rowsWritten = new int[1];
+        try (ChunkedDataWriter writer = new ChunkedDataWriter(outputFile, "\t", newColumnDetails.stream().map(r -> r.name).toList())) {
+            forEachRow(headers, skip, (data, row) -> {
+                for (int c = 0; c < rowValues.length; c++)
+                    rowValues[c] = newDataColumns.get(c).value(data, row, rowValues);
+                writtenRow.clear();
+                for (int c : writtenColumns)
+                    writtenRow.add(rowValues[c]);
+                writer.writeRow(writtenRow);
+                rowsWritten[0]++;
+            }, inputFiles);
+        }
+        return rowsWritten[0];
+    }
+
+    /**
+     * Runs the action on each row of the input files in turn (after the first skip rows), reading a chunk at a time
+     */
+    private void forEachRow(List<String> headers, int skip, ObjIntConsumer<ChunkedDataReader> action, String... inputFiles) {
+        int rowsRead = 0;
+        for (String file : inputFiles) {
+            try (ChunkedDataReader data = new ChunkedDataReader(file, "\t", chunkSize)) {
+                if (!headers.equals(data.header()))
+                    throw new AssertionError("Columns in " + file + " do not match those in " + inputFiles[0]);
+                while (data.nextChunk()) {
+                    for (int row = 0; row < data.rows(); row++) {
+                        if (rowsRead++ >= skip)
+                            action.accept(data, row);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isNumeric(Class<?> columnType) {
+        return columnType.equals(Double.class) || columnType.equals(double.class) ||
+                columnType.equals(Integer.class) || columnType.equals(int.class);
+    }
+
+    /**
+     * @return The RANGE columns of the starting features for underlying feature i, if the data has a column for each
+     * of its buckets, so that these can be copied over; otherwise null
+     */
+    private List<ColumnDetails> rangeColumnsInData(int i, List<String> headers, List<ColumnDetails> startingFeatures) {
+        List<String> expectedBucketColumns = IntStream.range(0, getBuckets(i))
+                .mapToObj(b -> underlyingNames[i] + "_B" + b)
+                .toList();
+        // If there is only one bucket, then this is the same as not bucketing
+        if (expectedBucketColumns.size() > 1 && new HashSet<>(headers).containsAll(expectedBucketColumns)) {
+            List<ColumnDetails> original = startingFeatures.stream()
+                    .filter(r -> r.type == featureType.RANGE && r.underlyingIndex == i)
+                    .toList();
+            if (original.size() == 1 + getBuckets(i))
+                return original;
+        }
+        return null;
+    }
+
+    private static ColumnSource copyOf(int columnIndex) {
+        return (data, row, rowSoFar) -> data.datum(row, columnIndex);
     }
 
     public int addFeature(ColumnDetails column) {
@@ -755,8 +844,8 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
 
 
     // Stub methods for handling missing features
-    private List<Pair<ColumnDetails, List<?>>> handleMissingRangeFeatures(int i, List<String> columnData) {
-        List<Pair<ColumnDetails, List<?>>> newColumns = new ArrayList<>();
+    private List<Pair<ColumnDetails, ColumnSource>> handleMissingRangeFeatures(int i, int columnIndex, List<?> columnData) {
+        List<Pair<ColumnDetails, ColumnSource>> newColumns = new ArrayList<>();
         String feature = underlyingNames[i];
         Class<?> columnType = underlyingTypes[i];
         Class<?> numericClass = columnType.equals(Integer.class) || columnType.equals(int.class) ?
@@ -766,57 +855,42 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         for (int b = 0; b < proposedFeatureRanges.size(); b++) {
             Pair<Number, Number> range = proposedFeatureRanges.get(b);
             String rangeName = feature + "_B" + b;
+            ColumnSource source = (data, row, rowSoFar) -> {
+                double value = Utils.toDouble(data.datum(row, columnIndex));
+                if (value >= range.a.doubleValue() && value < range.b.doubleValue()) {
+                    return 1;
+                } else {
+                    return 0;
+                }
+            };
             newColumns.add(Pair.of(
                     new ColumnDetails(rangeName, featureType.RANGE, null, range, i, numericClass, null),
-                    columnData.stream()
-                            .map(Double::parseDouble)
-                            .map(value -> {
-                                if (value >= range.a.doubleValue() && value < range.b.doubleValue()) {
-                                    return 1;
-                                } else {
-                                    return 0;
-                                }
-                            }).toList()
+                    source
             ));
         }
 
         return newColumns;
     }
 
-    private List<Pair<ColumnDetails, List<?>>> handleMissingEnumFeature(int i, List<String> columnData) {
-        List<Pair<ColumnDetails, List<?>>> newColumns = new ArrayList<>();
+    private List<Pair<ColumnDetails, ColumnSource>> handleMissingEnumFeature(int i, int columnIndex) {
+        List<Pair<ColumnDetails, ColumnSource>> newColumns = new ArrayList<>();
         String feature = underlyingNames[i];
         Class<?> columnType = underlyingTypes[i];
         // add column for unchanged value as TARGET
         newColumns.add(Pair.of(
                 new ColumnDetails(feature, featureType.TARGET, null, null, i, columnType, null),
-                columnData)
+                copyOf(columnIndex))
         );
-        if (columnType.isEnum()) {
-            // Add ENUM features for each enum value
-            Object[] enumValues = columnType.getEnumConstants();
-            for (Object enumValue : enumValues) {
-                String enumName = feature + "_" + ((Enum<?>) enumValue).name();
-                newColumns.add(Pair.of(
-                        new ColumnDetails(enumName, featureType.ENUM, enumValue, null, i, Boolean.class, null),
-                        columnData.stream()
-                                .map(value -> ((Enum<?>) enumValue).name().equals(value) ? 1 : 0)
-                                .toList())
-                );
-            }
-        } else {
-            // Handle string features
-            Set<String> uniqueValues = new HashSet<>(columnData);
-            if (uniqueValues.size() <= 10)
-                for (String value : uniqueValues) {
-                    String enumName = feature + "_" + value;
-                    newColumns.add(Pair.of(
-                            new ColumnDetails(enumName, featureType.STRING, value, null, i, Boolean.class, null),
-                            columnData.stream()
-                                    .map(v -> v.equals(value) ? 1 : 0)
-                                    .toList())
-                    );
-                }
+        // Add ENUM features for each enum value
+        Object[] enumValues = columnType.getEnumConstants();
+        for (Object enumValue : enumValues) {
+            String enumName = feature + "_" + ((Enum<?>) enumValue).name();
+            ColumnSource source = (data, row, rowSoFar) ->
+                    ((Enum<?>) enumValue).name().equals(String.valueOf(data.datum(row, columnIndex))) ? 1 : 0;
+            newColumns.add(Pair.of(
+                    new ColumnDetails(enumName, featureType.ENUM, enumValue, null, i, Boolean.class, null),
+                    source)
+            );
         }
         return newColumns;
     }
@@ -912,7 +986,7 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         return featureRanges;
     }
 
-    private List<Pair<Number, Number>> calculateFeatureRanges(List<String> columnData, int buckets, Class<?> clazz) {
+    private List<Pair<Number, Number>> calculateFeatureRanges(List<?> columnData, int buckets, Class<?> clazz) {
         List<Double> doubleValues;
         List<Integer> integerValues;
         if (clazz == Double.class) {
@@ -928,50 +1002,71 @@ public class AutomatedFeatures implements IStateFeatureVector, IActionFeatureVec
         }
     }
 
-    private List<Double> validateDoubleColumnData(List<String> columnData) {
+    private List<Double> validateDoubleColumnData(List<?> columnData) {
         List<Double> numericValues = new ArrayList<>();
-        for (String value : columnData) {
-            try {
-                numericValues.add(Double.parseDouble(value));
-            } catch (NumberFormatException e) {
-                System.err.println("Warning: Skipping non-numeric double value: " + value);
+        for (Object value : columnData) {
+            Double number = validateDouble(value);
+            if (number == null)
                 return Collections.emptyList();
-            }
+            numericValues.add(number);
         }
         return numericValues;
     }
 
-    private List<Boolean> validateBooleanColumnData(List<String> columnData) {
-        List<Boolean> booleanValues = new ArrayList<>();
-        for (String value : columnData) {
-            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
-                booleanValues.add(Boolean.parseBoolean(value));
-            } else {
-                Double number = Double.parseDouble(value);
-                if (number == 0.0) {
-                    booleanValues.add(false);
-                } else if (number == 1.0) {
-                    booleanValues.add(true);
-                } else {
-                    System.err.println("Warning: Skipping non-boolean value: " + value);
-                    return Collections.emptyList();
-                }
-            }
+    private List<Integer> validateIntColumnData(List<?> columnData) {
+        List<Integer> numericValues = new ArrayList<>();
+        for (Object value : columnData) {
+            Integer number = validateInt(value);
+            if (number == null)
+                return Collections.emptyList();
+            numericValues.add(number);
+        }
+        return numericValues;
+    }
+
+    /**
+     * @return The value as a Double, or null (with a warning) if it is not numeric
+     */
+    private Double validateDouble(Object value) {
+        try {
+            return Utils.toDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Skipping non-numeric double value: " + value);
+            return null;
         }
-        return booleanValues;
     }
 
-    private List<Integer> validateIntColumnData(List<String> columnData) {
-        List<Integer> numericValues = new ArrayList<>();
-        for (String value : columnData) {
-            try {
-                numericValues.add(Integer.parseInt(value));
-            } catch (NumberFormatException e) {
-                System.err.println("Warning: Skipping non-numeric integer value: " + value);
-                return Collections.emptyList();
+    /**
+     * @return The value as a Boolean, or null (with a warning) if it is not true/false or 1/0
+     */
+    private Boolean validateBoolean(Object value) {
+        if (value instanceof String text && (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")))
+            return Boolean.parseBoolean(text);
+        double number = Utils.toDouble(value);
+        if (number == 0.0)
+            return false;
+        if (number == 1.0)
+            return true;
+        System.err.println("Warning: Skipping non-boolean value: " + value);
+        return null;
+    }
+
+    /**
+     * @return The value as an Integer, or null (with a warning) if it is not a whole number
+     */
+    private Integer validateInt(Object value) {
+        try {
+            if (value instanceof Number number) {
+                // binary data stores all numbers as doubles
+                if (number.doubleValue() != Math.rint(number.doubleValue()))
+                    throw new NumberFormatException();
+                return number.intValue();
             }
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Skipping non-numeric integer value: " + value);
+            return null;
         }
-        return numericValues;
     }
 
     @Override
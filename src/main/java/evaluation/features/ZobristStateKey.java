@@ -0,0 +1,99 @@
+package evaluation.features;
+
+import core.AbstractGameState;
+import core.ZobristHash;
+import core.interfaces.IStateKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A state key that uses the incremental Zobrist hash maintained by the game state, so that getting the key is O(1)
+ * rather than requiring a walk over the state. This is only available for games where
+ * AbstractGameState.supportsIncrementalHash() is true.
+ * <p>
+ * In verify mode every key is also checked:
+ * - against a full recomputation of the hash, to catch a game that has failed to update its hash on some change
+ * - against every other state seen with the same key, to measure the rate of hash collisions. States are compared
+ * with equals(), or by the key from a reference IStateKey if one is provided.
+ * This is slow and holds on to a copy of every distinct state seen, so is intended for debugging only.
+ */
+public class ZobristStateKey implements IStateKey {
+
+    public final boolean verify;
+    public final IStateKey reference;
+
+    private final Map<Long, Object> seen = new HashMap<>();
+    private long checks, mismatches, collisions;
+
+    public ZobristStateKey() {
+        this(false, null);
+    }
+
+    public ZobristStateKey(boolean verify) {
+        this(verify, null);
+    }
+
+    public ZobristStateKey(IStateKey reference) {
+        this(true, reference);
+    }
+
+    private ZobristStateKey(boolean verify, IStateKey reference) {
+        this.verify = verify;
+        this.reference = reference;
+    }
+
+    @Override
+    public Long getKey(AbstractGameState state, int playerId) {
+        if (!state.supportsIncrementalHash())
+            throw new IllegalArgumentException(state.getGameType() + " does not maintain an incremental hash");
+        long key = state.getIncrementalHash() ^ ZobristHash.key(-1, playerId);
+        if (verify)
+            verify(state, playerId, key);
+        return key;
+    }
+
+    private synchronized void verify(AbstractGameState state, int playerId, long key) {
+        checks++;
+        if (state.getIncrementalHash() != state.computeFullHash())
+            mismatches++;
+        Object identity = reference == null ? state.copy() : reference.getKey(state, playerId);
+        Object previous = seen.putIfAbsent(key, identity);
+        if (previous != null && !previous.equals(identity))
+            collisions++;
+    }
+
+    /**
+     * @return the number of keys checked in verify mode
+     */
+    public synchronized long getChecks() {
+        return checks;
+    }
+
+    /**
+     * @return the number of times the incremental hash differed from the hash recomputed from scratch
+     */
+    public synchronized long getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * @return the number of times a key was seen for a state different to the first state seen with that key
+     */
+    public synchronized long getCollisions() {
+        return collisions;
+    }
+
+    public synchronized void resetStatistics() {
+        seen.clear();
+        checks = 0;
+        mismatches = 0;
+        collisions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return verify ? String.format("ZobristStateKey: %d checks, %d distinct keys, %d mismatches, %d collisions",
+                checks, seen.size(), mismatches, collisions) : "ZobristStateKey";
+    }
+}
@@ -3,6 +3,7 @@ package evaluation.listeners;
 import core.*;
 import core.actions.AbstractAction;
 import core.interfaces.IStatisticLogger;
+import evaluation.loggers.BinaryStatsLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
 
@@ -52,6 +53,8 @@ public abstract class FeatureListener implements IGameListener {
     public boolean setOutputDirectory(String... nestedDirectories) {
         if (logger instanceof FileStatsLogger fileLogger) {
             fileLogger.setOutputDirectory(nestedDirectories);
+        } else if (logger instanceof BinaryStatsLogger binaryLogger) {
+            binaryLogger.setOutputDirectory(nestedDirectories);
         }
         return true;
     }
@@ -1,6 +1,7 @@
 package evaluation.listeners;
 
 import core.Game;
+import core.interfaces.IGameEvent;
 import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.GameMetrics;
@@ -59,6 +60,39 @@ public interface IGameListener {
     default void reset() {
     }
 
+    /**
+     * @return The event types this listener wants, or null (the default) for all of them. Events of other types
+     * are then not delivered to it, and need not even be created (see EventBus).
+     */
+    default Set<IGameEvent> getEventTypes() {
+        return null;
+    }
+
+    /**
+     * @return true if events should be delivered to this listener on a separate thread, so that it does not slow
+     * down the game (see EventBus). It must then not look at the live game, nor hold on to anything it is shared with.
+     */
+    default boolean isAsynchronous() {
+        return false;
+    }
+
+    /**
+     * @return false if an asynchronous listener never looks at event.state, so that the state need not be copied
+     * for it (event.state is then null). This has no effect on a synchronous listener.
+     */
+    default boolean needsState() {
+        return true;
+    }
+
+    /**
+     * @return For an asynchronous listener, a listener for any part of its work that must still be done on the game
+     * thread as each event happens (for example because it reads the live game), or null (the default) if there is
+     * none. The EventBus registers this as a synchronous listener alongside it.
+     */
+    default IGameListener getSynchronousPart() {
+        return null;
+    }
+
     default void init(Game game, int nPlayersPerGame, Set<String> playerNames) {}
 
 }
@@ -11,6 +11,7 @@ import utilities.Utils;
 
 import java.io.File;
 import java.util.*;
+import java.util.function.Predicate;
 
 import static evaluation.metrics.Event.GameEvent.*;
 import static evaluation.metrics.IDataLogger.ReportDestination.*;
@@ -47,6 +48,11 @@ public class MetricsGameListener implements IGameListener {
     String destDir = "metrics/out/"; //by default
     boolean firstReport;
 
+    // If true, the metrics are run on the game's event thread rather than the game thread (see EventBus), except for
+    // those that read the live game, which are run by liveGameMetrics
+    protected boolean asynchronous = false;
+    private final IGameListener liveGameMetrics = new LiveGameMetrics();
+
     public MetricsGameListener() {
     }
 
@@ -78,6 +84,10 @@ public class MetricsGameListener implements IGameListener {
      *              It's not guaranteed that the data fields are different to null, so a check is necessary.
      */
     public void onEvent(Event event) {
+        runMetrics(event, metric -> !asynchronous || !metric.readsLiveGame());
+    }
+
+    private void runMetrics(Event event, Predicate<AbstractMetric> which) {
         if (!eventsOfInterest.contains(event.type))
             return;
 
@@ -85,6 +95,8 @@ public class MetricsGameListener implements IGameListener {
 
         for (String attrStr : metrics.keySet()) {
             AbstractMetric metric = metrics.get(attrStr);
+            if (!which.test(metric))
+                continue;
             if (metric.listens(event.type)) {
                 // Apply metric
                 metric.run(this, event);
@@ -95,6 +107,80 @@ public class MetricsGameListener implements IGameListener {
         }
     }
 
+    /**
+     * The events the metrics listen to; a subclass that has no metrics (and overrides onEvent) gets all events
+     */
+    @Override
+    public Set<IGameEvent> getEventTypes() {
+        if (metrics == null)
+            return null;
+        return asynchronous ? eventTypes(false) : eventsOfInterest;
+    }
+
+    /**
+     * @return The events that the metrics which do (or do not) read the live game respond to, and game over
+     */
+    private Set<IGameEvent> eventTypes(boolean readsLiveGame) {
+        Set<IGameEvent> retValue = new HashSet<>();
+        for (AbstractMetric metric : metrics.values()) {
+            if (metric.readsLiveGame() == readsLiveGame)
+                retValue.addAll(metric.getEventTypes());
+        }
+        retValue.add(GAME_OVER);
+        return retValue;
+    }
+
+    /**
+     * If set, the metrics are run on a separate thread, from a copy of the state at each event. Metrics that read
+     * the Game itself (see AbstractMetric.readsLiveGame()) are still run on the game thread, as the events happen.
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    @Override
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    @Override
+    public IGameListener getSynchronousPart() {
+        if (!asynchronous || metrics == null || metrics.values().stream().noneMatch(AbstractMetric::readsLiveGame))
+            return null;
+        return liveGameMetrics;
+    }
+
+    /**
+     * Runs the metrics that read the live game, on the game thread, while the others are asynchronous
+     */
+    private class LiveGameMetrics implements IGameListener {
+
+        @Override
+        public void onEvent(Event event) {
+            runMetrics(event, AbstractMetric::readsLiveGame);
+        }
+
+        @Override
+        public Set<IGameEvent> getEventTypes() {
+            return eventTypes(true);
+        }
+
+        @Override
+        public void report() {
+            // the MetricsGameListener reports on all its metrics
+        }
+
+        @Override
+        public void setGame(Game game) {
+            MetricsGameListener.this.setGame(game);
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
     @Override
     public boolean setOutputDirectory(String... nestedDirectories) {
 
@@ -0,0 +1,377 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import evaluation.summarisers.TAGOccurrenceStatSummary;
+import evaluation.summarisers.TAGStatSummary;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Logs the same data as FileStatsLogger, but to a binary columnar file that can be read back
+ * (by BinaryStatsReader) without any text parsing.
+ * <p>
+ * The file starts with a header giving the name and type of each column. Records are then buffered, and written
+ * as row groups of up to rowGroupSize rows, with all the values of one column in a group stored together.
+ * A column is numeric (doubles, with NaN for missing data) if its first non-null value in the first row group is a
+ * Number or Boolean, and otherwise holds Strings (where null is missing data). If a later value in a numeric column
+ * is not a number, then the column is widened to hold Strings from that row group on; as the earlier row groups
+ * have already been written, each row group records the type of each of its columns.
+ * <p>
+ * File layout (all big-endian):
+ * <pre>
+ *     header:    MAGIC (int), VERSION (int), nColumns (int), then per column: type (byte), name (string)
+ *     row group: nRows (int), then per column: type (byte), then nRows doubles, or nRows strings
+ *     string:    length of UTF-8 bytes (int, -1 for null), then the bytes
+ * </pre>
+ */
+public class BinaryStatsLogger implements IStatisticLogger {
+
+    public static final int MAGIC = 0x54414743; // "TAGC"
+    public static final int VERSION = 2;
+    public static final String EXTENSION = "tagc";
+    static final byte NUMERIC = 0;
+    static final byte STRING = 1;
+
+    private String fileName;
+    // the file name given to the constructor, which setOutputDirectory() places in the directory
+    private final String baseName;
+    private String actionName;
+    private final boolean append;
+    public int rowGroupSize = 4096;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private boolean headerNeeded = true;
+    private String[] columns;
+    private byte[] types;
+    private Set<String> allKeys = new LinkedHashSet<>();
+    private final List<Object[]> pending = new ArrayList<>();
+
+    /**
+     * One row will be output to the file per {@code Map<String, ?>} provided via record()
+     *
+     * @param fileName The full location of the file to write results to
+     * @param append   If true, and the file already exists, then rows are added to it. The existing file must then
+     *                 have the same columns as the data recorded.
+     */
+    public BinaryStatsLogger(String fileName, boolean append) {
+        this.fileName = fileName;
+        this.baseName = fileName;
+        this.append = append;
+    }
+
+    public BinaryStatsLogger(String fileName) {
+        this(fileName, true);
+    }
+
+    /**
+     * @return True if the file name has the extension used for binary stats files
+     */
+    public static boolean isBinaryFileName(String fileName) {
+        return fileName.endsWith("." + EXTENSION);
+    }
+
+    /**
+     * Writes data to file with a header row. If the file name has the binary stats extension then the data are
+     * written in that binary format (and the delimiter is ignored), otherwise as delimited text by
+     * Utils.writeDataWithHeader.
+     */
+    public static void writeDataWithHeader(String delimiter, List<String> columnNames, List<List<Object>> rows, String outputFile) {
+        if (!isBinaryFileName(outputFile)) {
+            Utils.writeDataWithHeader(delimiter, columnNames, rows, outputFile);
+            return;
+        }
+        BinaryStatsLogger logger = new BinaryStatsLogger(outputFile, false);
+        for (List<Object> row : rows)
+            logger.recordRow(columnNames, row);
+        logger.processDataAndFinish();
+    }
+
+    private void initialise() {
+        try {
+            File file = new File(fileName);
+            if (file.exists() && file.length() > 0 && append) {
+                headerNeeded = false;
+                try (BinaryStatsReader reader = new BinaryStatsReader(fileName)) {
+                    columns = reader.header().toArray(new String[0]);
+                    types = new byte[columns.length];
+                    for (int i = 0; i < columns.length; i++)
+                        types[i] = reader.isNumeric(i) ? NUMERIC : STRING;
+                }
+                channel = FileChannel.open(Path.of(fileName), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } else {
+                channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            buffer = ByteBuffer.allocate(1 << 16);
+        } catch (IOException e) {
+            throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    public void setOutputDirectory(String... nestedDirectories) {
+        if (channel != null) {
+            processDataAndFinish();
+            channel = null;
+            // the new file needs its own header, and the types are found afresh from its first row group
+            headerNeeded = true;
+            types = null;
+            if (!append) {
+                // (if appending, the data must still match the columns of any existing file)
+                columns = null;
+                allKeys = new LinkedHashSet<>();
+            }
+        }
+        String folder = Utils.createDirectory(nestedDirectories);
+        this.fileName = folder + File.separator + baseName;
+    }
+
+    /**
+     * Use to register a set of data in one go. It is not possible to add new keys after the first call
+     * of record(Map); data linked to new keys will be ignored.
+     *
+     * @param rawData A map of name -> value pairs
+     */
+    @Override
+    public void record(Map<String, ?> rawData) {
+        if (channel == null) initialise();
+        // first we preprocess data to remove nesting (as for FileStatsLogger)
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String key : rawData.keySet()) {
+            Object thing = rawData.get(key);
+            if (thing instanceof Map) {
+                data.putAll((Map<? extends String, ?>) thing);
+            } else {
+                data.put(key, thing);
+            }
+        }
+        if (allKeys.isEmpty()) {
+            allKeys = data.keySet();
+            List<String> names = new ArrayList<>();
+            for (String key : allKeys)
+                names.add(actionName != null && key.endsWith(":" + actionName) ? key.substring(0, key.length() - actionName.length() - 1) : key);
+            if (columns != null && !Arrays.asList(columns).equals(names))
+                throw new AssertionError("Data to append does not match the columns in " + fileName);
+            columns = names.toArray(new String[0]);
+        }
+        Object[] row = new Object[columns.length];
+        int i = 0;
+        for (String key : allKeys) {
+            Object datum = data.get(key);
+            // If this is a summary, then we record the single most common occurrence
+            if (datum instanceof TAGOccurrenceStatSummary summary)
+                datum = summary.getHighestOccurrence().a;
+            if (datum instanceof Map<?, ?> map)
+                datum = map.size() == 1 ? map.values().iterator().next() : map.toString();
+            row[i++] = datum;
+        }
+        addRow(row);
+    }
+
+    /**
+     * Records one row of data that is already in column order, without the need to build a Map for each row.
+     * The columns must be the same for every row.
+     *
+     * @param columnNames The names of the columns
+     * @param values      The values for each column
+     */
+    public void recordRow(List<String> columnNames, List<?> values) {
+        if (channel == null) initialise();
+        if (values.size() != columnNames.size())
+            throw new IllegalArgumentException("Expected " + columnNames.size() + " values, but got " + values.size());
+        if (columns == null) {
+            columns = columnNames.toArray(new String[0]);
+        } else if (!Arrays.asList(columns).equals(columnNames)) {
+            throw new AssertionError("Data to record does not match the columns in " + fileName);
+        }
+        addRow(values.toArray());
+    }
+
+    private void addRow(Object[] row) {
+        pending.add(row);
+        if (pending.size() >= rowGroupSize)
+            writeRowGroup();
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        // as for FileStatsLogger, only record(Map) is supported
+    }
+
+    private void writeRowGroup() {
+        if (pending.isEmpty()) return;
+        try {
+            if (types == null) {
+                types = new byte[columns.length];
+                for (int c = 0; c < columns.length; c++) {
+                    types[c] = NUMERIC;
+                    for (Object[] row : pending) {
+                        if (row[c] != null) {
+                            types[c] = row[c] instanceof Number || row[c] instanceof Boolean ? NUMERIC : STRING;
+                            break;
+                        }
+                    }
+                }
+            }
+            // a numeric column stays numeric only while all its values are numbers; once widened it stays a String
+            for (int c = 0; c < columns.length; c++) {
+                if (types[c] == NUMERIC) {
+                    for (Object[] row : pending) {
+                        if (!isNumber(row[c])) {
+                            types[c] = STRING;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (headerNeeded) {
+                ensureSpace(12);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(columns.length);
+                for (int c = 0; c < columns.length; c++) {
+                    ensureSpace(1);
+                    buffer.put(types[c]);
+                    putString(columns[c]);
+                }
+                headerNeeded = false;
+            }
+            ensureSpace(4);
+            buffer.putInt(pending.size());
+            for (int c = 0; c < columns.length; c++) {
+                ensureSpace(1);
+                buffer.put(types[c]);
+                for (Object[] row : pending) {
+                    if (types[c] == NUMERIC) {
+                        ensureSpace(8);
+                        buffer.putDouble(toDouble(row[c]));
+                    } else {
+                        putString(row[c] == null ? null : row[c].toString());
+                    }
+                }
+            }
+            pending.clear();
+            drain();
+        } catch (IOException e) {
+            throw new AssertionError("Problem writing to file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    private static boolean isNumber(Object datum) {
+        if (datum == null || datum instanceof Number || datum instanceof Boolean)
+            return true;
+        try {
+            Double.parseDouble(datum.toString());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The value to write to a numeric column (which isNumber has already checked)
+     */
+    private static double toDouble(Object datum) {
+        if (datum == null)
+            return Double.NaN;
+        if (datum instanceof Number number)
+            return number.doubleValue();
+        if (datum instanceof Boolean bool)
+            return bool ? 1.0 : 0.0;
+        return Double.parseDouble(datum.toString());
+    }
+
+    private void putString(String value) throws IOException {
+        if (value == null) {
+            ensureSpace(4);
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureSpace(4);
+        buffer.putInt(bytes.length);
+        if (bytes.length > buffer.capacity()) {
+            drain();
+            channel.write(ByteBuffer.wrap(bytes));
+        } else {
+            ensureSpace(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes any buffered rows and closes the file
+     */
+    @Override
+    public void processDataAndFinish() {
+        if (channel == null) return;
+        writeRowGroup();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes any buffered rows, as a (possibly short) row group
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (channel == null) return;
+        writeRowGroup();
+    }
+
+    /**
+     * This always returns an empty Map
+     *
+     * @return A summary of the data
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public BinaryStatsLogger emptyCopy(String id) {
+        // only the last '.' separates the extension, as directory names may contain dots too
+        int extension = fileName.lastIndexOf('.');
+        if (!new File(fileName).getName().contains("."))
+            throw new AssertionError("Filename does not conform to expected <stem>.<type>");
+        String newFileName = fileName.substring(0, extension) + "_" + id + fileName.substring(extension);
+        BinaryStatsLogger retValue = new BinaryStatsLogger(newFileName, append);
+        retValue.rowGroupSize = rowGroupSize;
+        retValue.actionName = id;
+        return retValue;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getActionName() {
+        return actionName;
+    }
+
+    public boolean isAppend() {
+        return append;
+    }
+}
@@ -0,0 +1,287 @@
+package evaluation.loggers;
+
+import utilities.Pair;
+import utilities.Utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static evaluation.loggers.BinaryStatsLogger.*;
+
+/**
+ * Reads a file written by BinaryStatsLogger one row group at a time.
+ * <p>
+ * After each successful call to nextRowGroup() the values of each column in that group are available as
+ * doubles(column) for numeric columns, and strings(column) for String columns. The arrays are overwritten by the
+ * next call, so copy them if they are needed for longer. A column that the logger had to widen to String part way
+ * through the file is numeric in the earlier row groups and String from then on, so check isNumeric(column) for
+ * each row group.
+ */
+public class BinaryStatsReader implements AutoCloseable {
+
+    private final String fileName;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final List<String> header = new ArrayList<>();
+    private final int version;
+    private final boolean[] numeric;
+    private final double[][] doubles;
+    private final String[][] strings;
+    private int rows;
+
+    public BinaryStatsReader(String fileName) {
+        this.fileName = fileName;
+        try {
+            channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+            buffer.flip();
+            if (!fill(12) || buffer.getInt() != MAGIC)
+                throw new AssertionError(fileName + " is not a binary stats file");
+            version = buffer.getInt();
+            if (version < 1 || version > VERSION)
+                throw new AssertionError("Unsupported binary stats version " + version + " in " + fileName);
+            int nColumns = buffer.getInt();
+            numeric = new boolean[nColumns];
+            for (int c = 0; c < nColumns; c++) {
+                require(1);
+                numeric[c] = buffer.get() == NUMERIC;
+                header.add(getString());
+            }
+            doubles = new double[nColumns][];
+            strings = new String[nColumns][];
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return True if the file starts with the binary stats header (whatever its name)
+     */
+    public static boolean isBinaryFile(String fileName) {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            ByteBuffer start = ByteBuffer.allocate(4);
+            while (start.hasRemaining() && channel.read(start) >= 0) ;
+            return !start.hasRemaining() && start.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads in data from one or more files as for Utils.loadDataWithHeader, but returns it column by column.
+     * Files written by BinaryStatsLogger are read directly (see loadColumns), so that numeric columns are a List of
+     * Double with no text parsing; for delimited text files every column is a List of String, and rows with the
+     * wrong number of columns are skipped.
+     *
+     * @param files files to load (all must have the same columns)
+     * @return The first item is the header details, the second is the data for each column
+     */
+    public static Pair<List<String>, List<List<Object>>> loadColumnsWithHeader(String delimiter, String... files) {
+        List<String> header = null;
+        List<List<Object>> columns = new ArrayList<>();
+        for (String file : files) {
+            Pair<List<String>, List<List<Object>>> fileColumns;
+            if (isBinaryFile(file)) {
+                fileColumns = loadColumns(file);
+            } else {
+                Pair<List<String>, List<List<String>>> rows = Utils.loadDataWithHeader(delimiter, file);
+                List<List<Object>> textColumns = new ArrayList<>();
+                for (int i = 0; i < rows.a.size(); i++)
+                    textColumns.add(new ArrayList<>());
+                for (List<String> row : rows.b) {
+                    if (row.size() != rows.a.size()) {
+                        System.err.println("Warning: Skipping row with inconsistent number of columns: " + row);
+                        continue;
+                    }
+                    for (int i = 0; i < row.size(); i++)
+                        textColumns.get(i).add(row.get(i));
+                }
+                fileColumns = Pair.of(rows.a, textColumns);
+            }
+            if (header == null) {
+                header = fileColumns.a;
+                columns = fileColumns.b;
+            } else {
+                if (!header.equals(fileColumns.a))
+                    throw new AssertionError("Columns in " + file + " do not match those in " + files[0]);
+                for (int i = 0; i < columns.size(); i++)
+                    columns.get(i).addAll(fileColumns.b.get(i));
+            }
+        }
+        return Pair.of(header == null ? new ArrayList<>() : header, columns);
+    }
+
+    /**
+     * Loads all the data from one or more binary stats files (which must all have the same columns) into memory.
+     *
+     * @return The header, and the data column by column. Numeric columns are a List of Double (NaN for missing data),
+     * other columns a List of String (null for missing data). A column that is String in any row group is loaded
+     * as String throughout, with its numeric values converted by Double.toString().
+     */
+    public static Pair<List<String>, List<List<Object>>> loadColumns(String... files) {
+        List<String> header = null;
+        List<List<Object>> columns = new ArrayList<>();
+        boolean[] widened = null;
+        for (String file : files) {
+            try (BinaryStatsReader reader = new BinaryStatsReader(file)) {
+                if (header == null) {
+                    header = reader.header();
+                    for (int c = 0; c < header.size(); c++)
+                        columns.add(new ArrayList<>());
+                    widened = new boolean[header.size()];
+                } else if (!header.equals(reader.header())) {
+                    throw new AssertionError("Columns in " + file + " do not match those in " + files[0]);
+                }
+                while (reader.nextRowGroup()) {
+                    for (int c = 0; c < header.size(); c++) {
+                        List<Object> column = columns.get(c);
+                        if (reader.isNumeric(c)) {
+                            double[] values = reader.doubles(c);
+                            for (int r = 0; r < reader.rows(); r++)
+                                column.add(widened[c] ? asString(values[r]) : values[r]);
+                        } else {
+                            if (!widened[c]) {
+                                column.replaceAll(value -> asString((Double) value));
+                                widened[c] = true;
+                            }
+                            column.addAll(Arrays.asList(reader.strings(c)).subList(0, reader.rows()));
+                        }
+                    }
+                }
+            }
+        }
+        return Pair.of(header == null ? new ArrayList<>() : header, columns);
+    }
+
+    private static String asString(double value) {
+        return Double.isNaN(value) ? null : Double.toString(value);
+    }
+
+    public List<String> header() {
+        return Collections.unmodifiableList(header);
+    }
+
+    /**
+     * @return True if the column is numeric in the current row group (or, before the first call to nextRowGroup(),
+     * in the header)
+     */
+    public boolean isNumeric(int column) {
+        return numeric[column];
+    }
+
+    /**
+     * Reads the next row group
+     *
+     * @return false if there are no more row groups in the file
+     */
+    public boolean nextRowGroup() {
+        try {
+            if (!fill(4))
+                return false;
+            rows = buffer.getInt();
+            for (int c = 0; c < numeric.length; c++) {
+                if (version > 1) {
+                    require(1);
+                    numeric[c] = buffer.get() == NUMERIC;
+                }
+                if (numeric[c]) {
+                    if (doubles[c] == null || doubles[c].length < rows)
+                        doubles[c] = new double[rows];
+                    for (int r = 0; r < rows; r++) {
+                        require(8);
+                        doubles[c][r] = buffer.getDouble();
+                    }
+                } else {
+                    if (strings[c] == null || strings[c].length < rows)
+                        strings[c] = new String[rows];
+                    for (int r = 0; r < rows; r++)
+                        strings[c][r] = getString();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The number of rows in the current row group
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The values of a numeric column in the current row group (only the first rows() are valid)
+     */
+    public double[] doubles(int column) {
+        if (!numeric[column])
+            throw new IllegalArgumentException("Column " + header.get(column) + " is not numeric");
+        return doubles[column];
+    }
+
+    /**
+     * @return The values of a String column in the current row group (only the first rows() are valid)
+     */
+    public String[] strings(int column) {
+        if (numeric[column])
+            throw new IllegalArgumentException("Column " + header.get(column) + " is numeric");
+        return strings[column];
+    }
+
+    private String getString() throws IOException {
+        require(4);
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            require(1);
+            int chunk = Math.min(length - read, buffer.remaining());
+            buffer.get(bytes, read, chunk);
+            read += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes))
+            throw new EOFException("Unexpected end of file");
+    }
+
+    /**
+     * Ensures that at least the specified number of bytes are available in the buffer
+     *
+     * @return false if the end of the file is reached with no bytes available, so that there is no more data
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes)
+            return true;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                if (buffer.hasRemaining())
+                    throw new EOFException("Unexpected end of file");
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+    }
+}
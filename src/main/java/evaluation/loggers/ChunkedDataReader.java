@@ -0,0 +1,127 @@
+package evaluation.loggers;
+
+import utilities.Utils;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the data in a file (with a header row) one chunk of rows at a time, so that only one chunk is ever held
+ * in memory. Files written by BinaryStatsLogger are read one row group at a time, with no text parsing of numeric
+ * columns; otherwise the file is read as delimited text, chunkSize rows at a time.
+ * <p>
+ * After each successful call to nextChunk(), value(row, column) gives the numeric value of each cell in the chunk,
+ * and datum(row, column) the cell itself.
+ */
+public class ChunkedDataReader implements AutoCloseable {
+
+    private final String fileName;
+    private final int chunkSize;
+    private final String delimiter;
+    private BinaryStatsReader binaryReader;
+    private BufferedReader textReader;
+    private final List<String> header;
+    private String[][] textRows;
+    private int rows;
+
+    public ChunkedDataReader(String fileName, String delimiter, int chunkSize) {
+        this.fileName = fileName;
+        this.delimiter = delimiter;
+        this.chunkSize = chunkSize;
+        if (BinaryStatsReader.isBinaryFile(fileName)) {
+            binaryReader = new BinaryStatsReader(fileName);
+            header = binaryReader.header();
+        } else {
+            try {
+                textReader = new BufferedReader(new FileReader(fileName));
+                String headerLine = textReader.readLine();
+                header = headerLine == null ? new ArrayList<>() : Arrays.asList(headerLine.split(Pattern.quote(delimiter)));
+                textRows = new String[chunkSize][];
+            } catch (IOException e) {
+                throw new AssertionError("Problem reading file " + fileName + " : " + e.getMessage());
+            }
+        }
+    }
+
+    public List<String> header() {
+        return header;
+    }
+
+    /**
+     * Reads the next chunk of rows
+     *
+     * @return false if there are no more rows in the file
+     */
+    public boolean nextChunk() {
+        if (binaryReader != null) {
+            boolean retValue = binaryReader.nextRowGroup();
+            rows = retValue ? binaryReader.rows() : 0;
+            return retValue;
+        }
+        try {
+            rows = 0;
+            String line;
+            while (rows < chunkSize && (line = textReader.readLine()) != null) {
+                String[] row = line.split(Pattern.quote(delimiter));
+                if (row.length != header.size()) {
+                    System.err.println("Warning: Skipping row with inconsistent number of columns: " + line);
+                    continue;
+                }
+                textRows[rows++] = row;
+            }
+            return rows > 0;
+        } catch (IOException e) {
+            throw new AssertionError("Problem reading file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The number of rows in the current chunk
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The numeric value of a cell in the current chunk (NaN for missing data)
+     */
+    public double value(int row, int column) {
+        if (binaryReader != null) {
+            if (binaryReader.isNumeric(column))
+                return binaryReader.doubles(column)[row];
+            return Utils.toDouble(binaryReader.strings(column)[row]);
+        }
+        return Utils.toDouble(textRows[row][column]);
+    }
+
+    /**
+     * @return A cell in the current chunk: a Double if the column is numeric in this row group of a binary file,
+     * otherwise the String (so a column widened to String part way through a binary file gives both)
+     */
+    public Object datum(int row, int column) {
+        if (binaryReader != null) {
+            if (binaryReader.isNumeric(column))
+                return binaryReader.doubles(column)[row];
+            return binaryReader.strings(column)[row];
+        }
+        return textRows[row][column];
+    }
+
+    @Override
+    public void close() {
+        if (binaryReader != null) {
+            binaryReader.close();
+        } else {
+            try {
+                textReader.close();
+            } catch (IOException e) {
+                throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+            }
+        }
+    }
+}
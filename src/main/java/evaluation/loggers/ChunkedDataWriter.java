@@ -0,0 +1,74 @@
+package evaluation.loggers;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes data to a file with a header row one row at a time, as the rows are produced, so that the data need never
+ * all be held in memory. If the file name has the BinaryStatsLogger extension then the rows are written in that
+ * binary format (one row group at a time), otherwise as delimited text. Either can be read back with ChunkedDataReader.
+ */
+public class ChunkedDataWriter implements AutoCloseable {
+
+    private final String fileName;
+    private final String delimiter;
+    private final List<String> header;
+    private BinaryStatsLogger binaryLogger;
+    private BufferedWriter textWriter;
+    private final StringBuilder line = new StringBuilder();
+
+    public ChunkedDataWriter(String fileName, String delimiter, List<String> header) {
+        this.fileName = fileName;
+        this.delimiter = delimiter;
+        this.header = header;
+        if (BinaryStatsLogger.isBinaryFileName(fileName)) {
+            binaryLogger = new BinaryStatsLogger(fileName, false);
+        } else {
+            try {
+                textWriter = new BufferedWriter(new FileWriter(fileName));
+                textWriter.write(String.join(delimiter, header));
+                textWriter.newLine();
+            } catch (IOException e) {
+                throw new AssertionError("Problem writing file " + fileName + " : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes one row, with a value for each column of the header (null is written as missing data)
+     */
+    public void writeRow(List<?> row) {
+        if (binaryLogger != null) {
+            binaryLogger.recordRow(header, row);
+            return;
+        }
+        line.setLength(0);
+        for (int c = 0; c < row.size(); c++) {
+            if (c > 0)
+                line.append(delimiter);
+            Object datum = row.get(c);
+            line.append(datum == null ? "NA" : datum);
+        }
+        try {
+            textWriter.write(line.toString());
+            textWriter.newLine();
+        } catch (IOException e) {
+            throw new AssertionError("Problem writing file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (binaryLogger != null) {
+            binaryLogger.processDataAndFinish();
+        } else {
+            try {
+                textWriter.close();
+            } catch (IOException e) {
+                throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+            }
+        }
+    }
+}
@@ -23,6 +23,10 @@ public abstract class AbstractMetric {
     // Number of games completed so far, can be used for any metric reset between games
     private int gamesCompleted;
 
+    // The values of the default string columns are the same for every row of a game, so we only build them once
+    private int defaultDataGameID = Integer.MIN_VALUE;
+    private String[] defaultDataStrings;
+
     public AbstractMetric() {
         this.gamesCompleted = 0;
         this.eventTypes = getDefaultEventTypes();
@@ -66,6 +70,15 @@ public abstract class AbstractMetric {
      */
     public abstract Set<IGameEvent> getDefaultEventTypes();
 
+    /**
+     * @return true if this metric reads anything from the live Game (listener.getGame()), such as its players or its
+     * timings, rather than only from the event. When its MetricsGameListener is asynchronous, such a metric is still
+     * run on the game thread as each event happens; only the other metrics are run on the separate thread.
+     */
+    public boolean readsLiveGame() {
+        return false;
+    }
+
     public void reset() {
         this.gamesCompleted = 0;
         columnNames.clear();
@@ -104,10 +117,19 @@ public abstract class AbstractMetric {
             // Record default column data first, custom data for each default column
             addDefaultData(e);
 
-            // Add the recorded data to the table
+            // Add the recorded data to the table, with the primitive overloads where we can so that it is not boxed again
             for (Map.Entry<String, Object> entry : records.entrySet()) {
-                dataLogger.addData(entry.getKey(), entry.getValue());
+                Object value = entry.getValue();
+                if (value instanceof Integer i)
+                    dataLogger.addData(entry.getKey(), i.intValue());
+                else if (value instanceof Double d)
+                    dataLogger.addData(entry.getKey(), d.doubleValue());
+                else if (value instanceof Boolean b)
+                    dataLogger.addData(entry.getKey(), b.booleanValue());
+                else
+                    dataLogger.addData(entry.getKey(), value);
             }
+            dataLogger.endRow();
         }
     }
 
@@ -148,10 +170,18 @@ public abstract class AbstractMetric {
      * @param e event for which the data is recorded
      */
     public void addDefaultData(Event e) {
-        dataLogger.addData("GameID", String.valueOf(e.state.getGameID()));
-        dataLogger.addData("GameName", e.state.getGameType().name());
-        dataLogger.addData("PlayerCount", String.valueOf(e.state.getNPlayers()));
-        dataLogger.addData("GameSeed", String.valueOf(e.state.getGameParameters().getRandomSeed()));
+        if (defaultDataStrings == null || defaultDataGameID != e.state.getGameID()) {
+            defaultDataGameID = e.state.getGameID();
+            defaultDataStrings = new String[]{
+                    String.valueOf(e.state.getGameID()),
+                    e.state.getGameType().name(),
+                    String.valueOf(e.state.getNPlayers()),
+                    String.valueOf(e.state.getGameParameters().getRandomSeed())};
+        }
+        dataLogger.addData("GameID", defaultDataStrings[0]);
+        dataLogger.addData("GameName", defaultDataStrings[1]);
+        dataLogger.addData("PlayerCount", defaultDataStrings[2]);
+        dataLogger.addData("GameSeed", defaultDataStrings[3]);
         dataLogger.addData("Tick", e.state.getGameTick());
         dataLogger.addData("Turn", e.state.getTurnCounter());
         dataLogger.addData("Round", e.state.getRoundCounter());
@@ -212,36 +242,7 @@ public abstract class AbstractMetric {
                         + dataLogger.getClass().getSimpleName() + ". Data Processor and Data Logger must be using the same library, and " +
                         " the Data Processor must extend the Data Logger's default processor.";
 
-        for (int i = 0; i < reportTypes.size(); i++) {
-            IDataLogger.ReportType reportType = reportTypes.get(i);
-            IDataLogger.ReportDestination reportDestination;
-            if (reportDestinations.size() == 1) reportDestination = reportDestinations.get(0);
-            else reportDestination = reportDestinations.get(i);
-
-            if (reportType == IDataLogger.ReportType.RawData) {
-                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processRawDataToFile(dataLogger, folderName, append);
-                }
-                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processRawDataToConsole(dataLogger);
-                }
-            } else if (reportType == IDataLogger.ReportType.Summary) {
-                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processSummaryToFile(dataLogger, folderName);
-                }
-                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processSummaryToConsole(dataLogger);
-                }
-            } else if (reportType == IDataLogger.ReportType.Plot) {
-                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processPlotToFile(dataLogger, folderName);
-                }
-                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                    dataProcessor.processPlotToConsole(dataLogger);
-                }
-            }
-        }
-
+        dataProcessor.process(dataLogger, folderName, reportTypes, reportDestinations, append);
     }
 
     /**
@@ -0,0 +1,282 @@
+package evaluation.metrics;
+
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.interfaces.IGameEvent;
+import evaluation.listeners.IGameListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the events of one Game to its listeners.
+ * <p>
+ * Each listener is registered with a bitmask of the event types it wants (from IGameListener.getEventTypes()), so
+ * that an event nobody listens to costs one mask test, and is not even created where the caller checks wants() first.
+ * <p>
+ * Listeners that are synchronous (the default) are called on the game thread, as the event happens, and see the live
+ * game state. Listeners that declare themselves asynchronous are called, in the order the events happened, on a
+ * separate consumer thread that takes events from a bounded queue (the game thread waits if the queue is full).
+ * The live state cannot be shared with that thread, so an asynchronous event carries a snapshot of the state, which
+ * is only made if one of the asynchronous listeners for that event type needs state; otherwise event.state is null.
+ * The snapshot does not draw on the state's random number generators (see AbstractGameState.snapshot()), so a game
+ * plays out the same whether or not it has asynchronous listeners. The action (and any list of actions) is copied
+ * as well, as the game may go on to change it.
+ * Synchronous listeners are called before the event is queued for the asynchronous ones. An asynchronous listener
+ * can hand back a synchronous part (IGameListener.getSynchronousPart()) for the work that has to see the live game,
+ * and this is called on the game thread with the other synchronous listeners.
+ * <p>
+ * The consumer is started when it is first needed, and is stopped by flush() (called by the Game at the end of each
+ * game), after all the queued events have been delivered. It runs on a thread from a pool shared by all buses, so
+ * that a new thread is not started for every game (see Component on why threads that may create components are
+ * pooled).
+ * An exception thrown by an asynchronous listener is re-thrown on the game thread, at the next event or flush().
+ * <p>
+ * The bus is itself an IGameListener, so that it can be registered with the game state to receive the events the
+ * state (or its turn order) raises.
+ */
+public class EventBus implements IGameListener {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // Each event type is given its own bit when first seen. If there are ever more than 63 types, the remainder all
+    // share the top bit, and a listener to any of them receives all of them (listeners still check the type).
+    private static final Map<IGameEvent, Long> bits = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextBit = new AtomicInteger();
+
+    private static final Event STOP = Event.createEvent(null);
+
+    private static final ExecutorService consumers = Executors.newCachedThreadPool(Component.idReleasingThreads("EventBus", true));
+
+    private final int capacity;
+    private final List<IGameListener> listeners = new ArrayList<>();
+    private Game game;
+
+    private IGameListener[] syncListeners = new IGameListener[0];
+    private long[] syncMasks = new long[0];
+    private long syncMask;
+    private volatile IGameListener[] asyncListeners = new IGameListener[0];
+    private volatile long[] asyncMasks = new long[0];
+    private long asyncMask, asyncStateMask;
+
+    private BlockingQueue<Event> queue;
+    private Future<?> consumer;
+    private volatile Throwable failure;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EventBus(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity of an EventBus must be at least 1");
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return The bit for this event type
+     */
+    public static long bit(IGameEvent type) {
+        Long retValue = bits.get(type);
+        if (retValue == null)
+            retValue = bits.computeIfAbsent(type, t -> {
+                int index = nextBit.getAndIncrement();
+                return index < 63 ? 1L << index : 1L << 63;
+            });
+        return retValue;
+    }
+
+    /**
+     * @return The mask for these event types, with all bits set if types is null (meaning all events)
+     */
+    public static long mask(Collection<? extends IGameEvent> types) {
+        if (types == null)
+            return -1L;
+        long retValue = 0L;
+        for (IGameEvent type : types)
+            retValue |= bit(type);
+        return retValue;
+    }
+
+    public void register(IGameListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+            refresh();
+        }
+    }
+
+    public void clear() {
+        flush();
+        listeners.clear();
+        refresh();
+    }
+
+    /**
+     * Re-reads the event types (and the synchronous/asynchronous choice) of all the listeners. This is needed if
+     * these change after a listener is registered.
+     */
+    public void refresh() {
+        List<IGameListener> sync = new ArrayList<>(), async = new ArrayList<>();
+        List<Long> syncM = new ArrayList<>(), asyncM = new ArrayList<>();
+        long newSyncMask = 0L, newAsyncMask = 0L, newAsyncStateMask = 0L;
+        for (IGameListener listener : listeners) {
+            long mask = mask(listener.getEventTypes());
+            if (listener.isAsynchronous()) {
+                async.add(listener);
+                asyncM.add(mask);
+                newAsyncMask |= mask;
+                if (listener.needsState())
+                    newAsyncStateMask |= mask;
+                IGameListener syncPart = listener.getSynchronousPart();
+                if (syncPart != null) {
+                    long syncPartMask = mask(syncPart.getEventTypes());
+                    sync.add(syncPart);
+                    syncM.add(syncPartMask);
+                    newSyncMask |= syncPartMask;
+                }
+            } else {
+                sync.add(listener);
+                syncM.add(mask);
+                newSyncMask |= mask;
+            }
+        }
+        syncListeners = sync.toArray(new IGameListener[0]);
+        syncMasks = syncM.stream().mapToLong(Long::longValue).toArray();
+        syncMask = newSyncMask;
+        asyncMasks = asyncM.stream().mapToLong(Long::longValue).toArray();
+        asyncListeners = async.toArray(new IGameListener[0]);
+        asyncMask = newAsyncMask;
+        asyncStateMask = newAsyncStateMask;
+    }
+
+    /**
+     * @return true if any listener wants events of this type. Callers can use this to avoid building an Event
+     * (or copying its action) that would not be delivered.
+     */
+    public boolean wants(IGameEvent type) {
+        return ((syncMask | asyncMask) & bit(type)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    /**
+     * Delivers the event to all the listeners that want it
+     */
+    @Override
+    public void onEvent(Event event) {
+        long bit = bit(event.type);
+        if ((syncMask & bit) != 0) {
+            for (int i = 0; i < syncListeners.length; i++) {
+                if ((syncMasks[i] & bit) != 0)
+                    syncListeners[i].onEvent(event);
+            }
+        }
+        if ((asyncMask & bit) != 0) {
+            boolean copyState = (asyncStateMask & bit) != 0 && event.state != null;
+            List<AbstractAction> actions = null;
+            if (event.actions != null) {
+                actions = new ArrayList<>(event.actions.size());
+                for (AbstractAction action : event.actions)
+                    actions.add(action == null ? null : action.copy());
+            }
+            enqueue(Event.createEvent(event.type,
+                    copyState ? event.state.snapshot() : null,
+                    event.action == null ? null : event.action.copy(),
+                    actions,
+                    event.playerID));
+        }
+    }
+
+    private void enqueue(Event event) {
+        rethrowFailure();
+        if (consumer == null) {
+            queue = new ArrayBlockingQueue<>(capacity);
+            BlockingQueue<Event> consumerQueue = queue;
+            consumer = consumers.submit(() -> consume(consumerQueue));
+        }
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void consume(BlockingQueue<Event> consumerQueue) {
+        try {
+            while (true) {
+                Event event = consumerQueue.take();
+                if (event == STOP)
+                    return;
+                long bit = bit(event.type);
+                IGameListener[] targets = asyncListeners;
+                long[] masks = asyncMasks;
+                for (int i = 0; i < targets.length && i < masks.length; i++) {
+                    if ((masks[i] & bit) == 0)
+                        continue;
+                    try {
+                        targets[i].onEvent(event);
+                    } catch (RuntimeException | Error e) {
+                        // we carry on, so that the game thread is never left waiting on a full queue
+                        if (failure == null)
+                            failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // the bus has been abandoned
+        }
+    }
+
+    /**
+     * Waits until all queued events have been delivered, and stops the consumer (its thread goes back to the pool)
+     */
+    public void flush() {
+        if (consumer != null) {
+            try {
+                queue.put(STOP);
+                consumer.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                // consume() catches everything the listeners throw, so this is not expected
+                throw new RuntimeException(e.getCause());
+            } finally {
+                consumer = null;
+                queue = null;
+            }
+        }
+        rethrowFailure();
+    }
+
+    private void rethrowFailure() {
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            throw new RuntimeException("An asynchronous game listener failed", t);
+        }
+    }
+
+    /**
+     * Flushes any queued events; the listeners themselves are reported on by whoever created them
+     */
+    @Override
+    public void report() {
+        flush();
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
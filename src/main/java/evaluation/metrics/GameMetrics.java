@@ -46,6 +46,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Arrays.asList(ACTION_CHOSEN, ROUND_OVER, GAME_OVER));
@@ -82,6 +87,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(GAME_OVER);
@@ -127,6 +137,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Collections.singletonList(GAME_OVER));
@@ -194,6 +209,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             // ACTION_CHOSEN would be fine except for the recording of the time for 'next'
@@ -223,6 +243,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
@@ -259,6 +284,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
@@ -299,6 +329,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(ACTION_CHOSEN);
@@ -357,6 +392,11 @@ public class GameMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(ACTION_CHOSEN);
@@ -39,6 +39,27 @@ public interface IDataLogger
      */
     void addData(String columnName, Object data);
 
+    /**
+     * As addData(columnName, Object), for a primitive value. A logger that can store this without boxing it
+     * should override these.
+     */
+    default void addData(String columnName, int data) {
+        addData(columnName, (Object) data);
+    }
+
+    default void addData(String columnName, double data) {
+        addData(columnName, (Object) data);
+    }
+
+    default void addData(String columnName, boolean data) {
+        addData(columnName, (Object) data);
+    }
+
+    /**
+     * Called once all the columns of a row have been added
+     */
+    default void endRow() {}
+
     /**
      * Returns a data processor by default that is compatible with this data logger
      * @return - A data processor
@@ -1,5 +1,7 @@
 package evaluation.metrics;
 
+import java.util.List;
+
 public interface IDataProcessor
 {
     /**
@@ -44,4 +46,46 @@ public interface IDataProcessor
      */
     void processPlotToFile(IDataLogger logger, String folderName);
 
+
+    /**
+     * Produces all the reports asked for from the data in the logger. By default each report is made in turn, by
+     * the methods above; a processor can override this to make them all from one pass over the data.
+     * @param logger - logger that contains the raw data
+     * @param folderName - name of the folder to save any files to
+     * @param reportTypes - the reports to produce
+     * @param reportDestinations - where to send each report (or a single destination for all of them)
+     * @param append - whether raw data is added to the end of any existing file
+     */
+    default void process(IDataLogger logger, String folderName, List<IDataLogger.ReportType> reportTypes,
+                         List<IDataLogger.ReportDestination> reportDestinations, boolean append) {
+        for (int i = 0; i < reportTypes.size(); i++) {
+            IDataLogger.ReportType reportType = reportTypes.get(i);
+            IDataLogger.ReportDestination reportDestination;
+            if (reportDestinations.size() == 1) reportDestination = reportDestinations.get(0);
+            else reportDestination = reportDestinations.get(i);
+
+            if (reportType == IDataLogger.ReportType.RawData) {
+                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processRawDataToFile(logger, folderName, append);
+                }
+                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processRawDataToConsole(logger);
+                }
+            } else if (reportType == IDataLogger.ReportType.Summary) {
+                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processSummaryToFile(logger, folderName);
+                }
+                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processSummaryToConsole(logger);
+                }
+            } else if (reportType == IDataLogger.ReportType.Plot) {
+                if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processPlotToFile(logger, folderName);
+                }
+                if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
+                    processPlotToConsole(logger);
+                }
+            }
+        }
+    }
 }
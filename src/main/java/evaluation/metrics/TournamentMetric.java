@@ -46,6 +46,11 @@ public class TournamentMetric extends AbstractMetric {
         return wrappedMetric.getDefaultEventTypes();
     }
 
+    @Override
+    public boolean readsLiveGame() {
+        return wrappedMetric.readsLiveGame();
+    }
+
     public void reset() {
         super.reset();
         for (IDataLogger logger : dataLoggers.values()) {
@@ -113,35 +118,7 @@ public class TournamentMetric extends AbstractMetric {
             }
             IDataLogger logger = e.getValue();
 
-            for (int i = 0; i < reportTypes.size(); i++) {
-                IDataLogger.ReportType reportType = reportTypes.get(i);
-                IDataLogger.ReportDestination reportDestination;
-                if (reportDestinations.size() == 1) reportDestination = reportDestinations.get(0);
-                else reportDestination = reportDestinations.get(i);
-
-                if (reportType == IDataLogger.ReportType.RawData) {
-                    if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processRawDataToFile(logger, folder, !firstReport);
-                    }
-                    if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processRawDataToConsole(logger);
-                    }
-                } else if (reportType == IDataLogger.ReportType.Summary) {
-                    if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processSummaryToFile(logger, folder);
-                    }
-                    if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processSummaryToConsole(logger);
-                    }
-                } else if (reportType == IDataLogger.ReportType.Plot) {
-                    if (reportDestination == IDataLogger.ReportDestination.ToFile || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processPlotToFile(logger, folder);
-                    }
-                    if (reportDestination == IDataLogger.ReportDestination.ToConsole || reportDestination == IDataLogger.ReportDestination.ToBoth) {
-                        dataProcessor.processPlotToConsole(logger);
-                    }
-                }
-            }
+            dataProcessor.process(logger, folder, reportTypes, reportDestinations, !firstReport);
         }
         firstReport = false;
     }
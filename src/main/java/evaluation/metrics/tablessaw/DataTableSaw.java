@@ -7,8 +7,11 @@ import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IDataProcessor;
 import tech.tablesaw.api.*;
 import tech.tablesaw.columns.Column;
+import tech.tablesaw.selection.Selection;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Using TableSaw for data storage and visualisation:
@@ -17,9 +20,20 @@ import java.util.*;
  */
 public class DataTableSaw implements IDataLogger {
 
+    public static final long DEFAULT_SPILL_THRESHOLD_BYTES = 16L << 20;
+
     Table data;
     AbstractMetric metric;
 
+    // Once the rows held in memory are estimated to take more than this many bytes, they are moved to a temporary
+    // file (see RowGroupFile), and read back one row group at a time when reported on. Zero or less to never do this.
+    private long spillThresholdBytes = DEFAULT_SPILL_THRESHOLD_BYTES;
+
+    // Columns by name; Table.column(name) is a linear search, and we look one up for every value recorded
+    private final Map<String, Column<?>> columnsByName = new HashMap<>();
+    private int maxRowsInMemory = -1;
+    private RowGroupFile spilled;
+
     public DataTableSaw(AbstractMetric metric) {
         this.metric = metric;
         this.data = Table.create(metric.getName());
@@ -79,26 +93,104 @@ public class DataTableSaw implements IDataLogger {
 
     public void reset()
     {
-        this.data = Table.create(metric.getName());
+        discardSpilled();
+        setData(Table.create(metric.getName()));
+    }
+
+    private void setData(Table table) {
+        data = table;
+        columnsByName.clear();
+        maxRowsInMemory = -1;
+    }
+
+    private void discardSpilled() {
+        if (spilled != null) {
+            spilled.delete();
+            spilled = null;
+        }
+    }
+
+    private Column<?> column(String columnName) {
+        Column<?> retValue = columnsByName.get(columnName);
+        if (retValue == null) {
+            retValue = data.column(columnName);
+            columnsByName.put(columnName, retValue);
+        }
+        return retValue;
+    }
+
+    /**
+     * Sets the number of bytes of rows this logger holds in memory before it moves them to disk (zero or less to
+     * keep them all in memory). This applies to rows recorded from now on.
+     */
+    public void setSpillThresholdBytes(long spillThresholdBytes) {
+        this.spillThresholdBytes = spillThresholdBytes;
+        maxRowsInMemory = -1;
+    }
+
+    public long getSpillThresholdBytes() {
+        return spillThresholdBytes;
+    }
+
+    /**
+     * @return The name of the table of data
+     */
+    public String name() {
+        return data.name();
+    }
+
+    /**
+     * @return The number of rows recorded, including any that have been moved to disk
+     */
+    public int rowCount() {
+        return (spilled == null ? 0 : spilled.rows()) + data.rowCount();
+    }
+
+    /**
+     * Passes all the data recorded to the action, one row group at a time and in the order the rows were recorded:
+     * first the groups that have been moved to disk (each read back into a new table), and then the table of rows
+     * still in memory, which is always passed (even if empty) and must not be changed. Only one group read from
+     * disk is held in memory at a time, so the action should summarise or write out each group, rather than keep it.
+     */
+    public void forEachRowGroup(Consumer<Table> action) {
+        if (spilled != null)
+            spilled.forEachGroup(data, action);
+        action.accept(data);
+    }
+
+    /**
+     * @param selection Selects the rows wanted from a row group
+     * @return A new table of the selected rows, from one pass over the row groups
+     */
+    public Table rowsWhere(Function<Table, Selection> selection) {
+        Table retValue = data.emptyCopy();
+        forEachRowGroup(group -> retValue.append(group.where(selection.apply(group))));
+        return retValue;
     }
 
     public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
         // Add default columns
         Map<String, Class<?>> defaultColumns = metric.getDefaultColumns();
         for (Map.Entry<String, Class<?>> entry : defaultColumns.entrySet()) {
-            if (!data.containsColumn(entry.getKey()))
+            if (!data.containsColumn(entry.getKey())) {
+                if (spilled != null)
+                    throw new IllegalStateException("Columns cannot be added to " + data.name() + " once rows have been moved to disk");
                 data.addColumns(buildColumn(entry.getKey(), entry.getValue()));
+            }
         }
 
         // Add metric-defined columns
         Map<String, Class<?>> columns = metric.getColumns(nPlayersPerGame, playerNames);
         for (Map.Entry<String, Class<?>> entry : columns.entrySet())
             if (!data.containsColumn(entry.getKey())) {
+                if (spilled != null)
+                    throw new IllegalStateException("Columns cannot be added to " + data.name() + " once rows have been moved to disk");
                 data.addColumns(buildColumn(entry.getKey(), entry.getValue()));
 
                 // Keep the name of the column
                 metric.addColumnName(entry.getKey());
             }
+        maxRowsInMemory = -1;
     }
 
     /**
@@ -106,8 +198,9 @@ public class DataTableSaw implements IDataLogger {
      * @param columnName - name of column to add data to
      * @param data - data to add
      */
+    @SuppressWarnings("unchecked")
     public void addData(String columnName, Object data) {
-        Column<Object> column = (Column<Object>) this.data.column(columnName);
+        Column<Object> column = (Column<Object>) column(columnName);
         if (data == null) {
             column.appendMissing();
         } else {
@@ -115,6 +208,60 @@ public class DataTableSaw implements IDataLogger {
         }
     }
 
+    @Override
+    public void addData(String columnName, int data) {
+        Column<?> column = column(columnName);
+        if (column instanceof IntColumn intColumn)
+            intColumn.append(data);
+        else if (column instanceof DoubleColumn doubleColumn)
+            doubleColumn.append(data);
+        else
+            addData(columnName, (Object) data);
+    }
+
+    @Override
+    public void addData(String columnName, double data) {
+        if (column(columnName) instanceof DoubleColumn column)
+            column.append(data);
+        else
+            addData(columnName, (Object) data);
+    }
+
+    @Override
+    public void addData(String columnName, boolean data) {
+        if (column(columnName) instanceof BooleanColumn column)
+            column.append(data);
+        else
+            addData(columnName, (Object) data);
+    }
+
+    /**
+     * Moves the rows held in memory to disk, once they pass the spill threshold
+     */
+    @Override
+    public void endRow() {
+        if (maxRowsInMemory < 0)
+            maxRowsInMemory = spillThresholdBytes <= 0 || data.columnCount() == 0 ? 0 :
+                    (int) Math.min(Integer.MAX_VALUE, Math.max(1, spillThresholdBytes / bytesPerRow()));
+        if (maxRowsInMemory > 0 && data.rowCount() >= maxRowsInMemory) {
+            if (spilled == null)
+                spilled = new RowGroupFile(data.name());
+            spilled.write(data);
+            setData(data.emptyCopy());
+        }
+    }
+
+    /**
+     * An estimate of the memory taken by one row. Tablesaw holds a string column as an int code per row into a
+     * dictionary of the distinct values, so we count four bytes for these too.
+     */
+    private long bytesPerRow() {
+        long retValue = 0;
+        for (Column<?> column : data.columns())
+            retValue += column instanceof DoubleColumn ? 8 : column instanceof BooleanColumn ? 1 : 4;
+        return Math.max(1, retValue);
+    }
+
     @Override
     public IDataProcessor getDefaultProcessor() {
         return new TableSawDataProcessor();
@@ -122,22 +269,31 @@ public class DataTableSaw implements IDataLogger {
 
     @Override
     public void flush() {
-        this.data = data.emptyCopy();
+        discardSpilled();
+        setData(data.emptyCopy());
     }
 
     @Override
     public IDataLogger copy() {
-        return new DataTableSaw(metric, data.copy());
+        DataTableSaw retValue = new DataTableSaw(metric, data.copy());
+        retValue.spillThresholdBytes = spillThresholdBytes;
+        if (spilled != null)
+            retValue.spilled = spilled.copy();
+        return retValue;
     }
 
     @Override
     public IDataLogger emptyCopy() {
-        return new DataTableSaw(metric, data.emptyCopy());
+        DataTableSaw retValue = new DataTableSaw(metric, data.emptyCopy());
+        retValue.spillThresholdBytes = spillThresholdBytes;
+        return retValue;
     }
 
     @Override
     public IDataLogger create() {
-        return new DataTableSaw(metric);
+        DataTableSaw retValue = new DataTableSaw(metric);
+        retValue.spillThresholdBytes = spillThresholdBytes;
+        return retValue;
     }
 
     /**
@@ -156,13 +312,15 @@ public class DataTableSaw implements IDataLogger {
 
         // Find only the rows which were recorded for the given event
         // TODO: Apply same filtering for all other data processing, separate table into different events before reporting
+        // (rows moved to disk are filtered as they are read back, so only the rows for this event are held)
         Map<AbstractMetric, Table> metricTables = new HashMap<>();
         for (AbstractMetric m : metricGroup) {
-            Table metricData = ((DataTableSaw)m.getDataLogger()).data;
+            DataTableSaw metricLogger = (DataTableSaw) m.getDataLogger();
             if (m.filterByEventTypeWhenReporting()) {
-                metricTables.put(m, metricData.where(metricData.stringColumn("Event").isEqualTo(event.name())));
+                metricTables.put(m, metricLogger.rowsWhere(t -> t.stringColumn("Event").isEqualTo(event.name())));
             } else {
-                metricTables.put(m, metricData);
+                metricTables.put(m, metricLogger.spilled == null ? metricLogger.data :
+                        metricLogger.rowsWhere(t -> Selection.withRange(0, t.rowCount())));
             }
         }
 
@@ -0,0 +1,158 @@
+package evaluation.metrics.tablessaw;
+
+import tech.tablesaw.api.*;
+import tech.tablesaw.columns.Column;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A temporary file to which the rows of a DataTableSaw are moved (in groups) once it holds more than its memory
+ * threshold, and from which they are read back when the data is reported on.
+ * <p>
+ * Each row group is written column by column: int and double columns as their primitive values (with Tablesaw's
+ * own missing-value markers), boolean columns as one byte per row, and string columns dictionary-encoded, as the
+ * distinct strings of the group followed by one int code per row (-1 for missing). The groups are read back one at
+ * a time, so that only one is ever in memory.
+ */
+class RowGroupFile {
+
+    private final String name;
+    private final File file;
+    private int nGroups;
+    private int nRows;
+
+    RowGroupFile(String name) {
+        this.name = name;
+        try {
+            file = File.createTempFile("TAG-" + name.replaceAll("[^A-Za-z0-9_-]", "_") + "-", ".rows");
+            file.deleteOnExit();
+        } catch (IOException e) {
+            throw new AssertionError("Could not create a file to hold metrics data: " + e.getMessage());
+        }
+    }
+
+    int groups() {
+        return nGroups;
+    }
+
+    int rows() {
+        return nRows;
+    }
+
+    /**
+     * @return A new file with the same row groups as this one
+     */
+    RowGroupFile copy() {
+        RowGroupFile retValue = new RowGroupFile(name);
+        try {
+            Files.copy(file.toPath(), retValue.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new AssertionError("Could not copy metrics data from " + file + ": " + e.getMessage());
+        }
+        retValue.nGroups = nGroups;
+        retValue.nRows = nRows;
+        return retValue;
+    }
+
+    /**
+     * Appends all the rows of the table to the file, as one row group
+     */
+    void write(Table table) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            int rows = table.rowCount();
+            out.writeInt(rows);
+            out.writeInt(table.columnCount());
+            for (Column<?> column : table.columns()) {
+                if (column instanceof IntColumn c) {
+                    for (int i = 0; i < rows; i++)
+                        out.writeInt(c.getInt(i));
+                } else if (column instanceof DoubleColumn c) {
+                    for (int i = 0; i < rows; i++)
+                        out.writeDouble(c.getDouble(i));
+                } else if (column instanceof BooleanColumn c) {
+                    for (int i = 0; i < rows; i++)
+                        out.writeByte(c.isMissing(i) ? -1 : (c.get(i) ? 1 : 0));
+                } else if (column instanceof StringColumn c) {
+                    Map<String, Integer> codes = new HashMap<>();
+                    int[] rowCodes = new int[rows];
+                    for (int i = 0; i < rows; i++)
+                        rowCodes[i] = c.isMissing(i) ? -1 : codes.computeIfAbsent(c.get(i), s -> codes.size());
+                    String[] dictionary = new String[codes.size()];
+                    codes.forEach((s, code) -> dictionary[code] = s);
+                    out.writeInt(dictionary.length);
+                    for (String s : dictionary) {
+                        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                    for (int code : rowCodes)
+                        out.writeInt(code);
+                } else
+                    throw new AssertionError("Unknown column type");
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Could not write metrics data to " + file + ": " + e.getMessage());
+        }
+        nGroups++;
+        nRows += table.rowCount();
+    }
+
+    /**
+     * Reads the row groups in the file in turn, each into a new empty copy of the template (which must have the
+     * same columns as those written), and passes each to the action
+     */
+    void forEachGroup(Table template, Consumer<Table> action) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            for (int g = 0; g < nGroups; g++) {
+                Table table = template.emptyCopy();
+                int rows = in.readInt();
+                if (in.readInt() != table.columnCount())
+                    throw new AssertionError("Metrics data in " + file + " does not match the columns of " + table.name());
+                for (Column<?> column : table.columns()) {
+                    if (column instanceof IntColumn c) {
+                        for (int i = 0; i < rows; i++)
+                            c.append(in.readInt());
+                    } else if (column instanceof DoubleColumn c) {
+                        for (int i = 0; i < rows; i++)
+                            c.append(in.readDouble());
+                    } else if (column instanceof BooleanColumn c) {
+                        for (int i = 0; i < rows; i++) {
+                            byte b = in.readByte();
+                            if (b < 0) c.appendMissing();
+                            else c.append(b == 1);
+                        }
+                    } else if (column instanceof StringColumn c) {
+                        String[] dictionary = new String[in.readInt()];
+                        for (int d = 0; d < dictionary.length; d++) {
+                            byte[] bytes = new byte[in.readInt()];
+                            in.readFully(bytes);
+                            dictionary[d] = new String(bytes, StandardCharsets.UTF_8);
+                        }
+                        for (int i = 0; i < rows; i++) {
+                            int code = in.readInt();
+                            if (code < 0) c.appendMissing();
+                            else c.append(dictionary[code]);
+                        }
+                    } else
+                        throw new AssertionError("Unknown column type");
+                }
+                action.accept(table);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Could not read metrics data from " + file + ": " + e.getMessage());
+        }
+    }
+
+    void delete() {
+        if (!file.delete() && file.exists())
+            file.deleteOnExit();
+        nGroups = 0;
+        nRows = 0;
+    }
+}
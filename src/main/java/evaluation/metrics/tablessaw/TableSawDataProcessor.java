@@ -21,348 +21,582 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
 
+import static evaluation.metrics.IDataLogger.ReportDestination.*;
+import static evaluation.metrics.IDataLogger.ReportType.*;
 import static utilities.Utils.createDirectory;
 
+/**
+ * Produces the reports for a DataTableSaw. The data are read one row group at a time (see
+ * DataTableSaw.forEachRowGroup), and each report only keeps what it needs from each group: the raw data is written
+ * out as it is read, and summaries and plots keep running statistics and counts (per game, where they show the
+ * progression through games) rather than the rows themselves. All the reports for one logger are made from a single
+ * pass over its data.
+ */
 public class TableSawDataProcessor implements IDataProcessor {
 
+    // The number of rows of raw data printed to the console
+    static final int PRINTED_ROWS = 20;
+
+    /**
+     * Receives the data one row group at a time, and completes its report once all of them have been seen
+     */
+    protected interface RowGroupSink {
+        void accept(Table group);
+
+        void finish();
+    }
 
     @Override
-    public void processRawDataToFile(IDataLogger logger, String folderName, boolean append) {
+    public void process(IDataLogger logger, String folderName, List<IDataLogger.ReportType> reportTypes,
+                        List<IDataLogger.ReportDestination> reportDestinations, boolean append) {
         DataTableSaw dts = (DataTableSaw) logger;
-        String filename = folderName + "/" + dts.data.name() + ".csv";
-        if(!append) {
-            dts.data.write().csv(filename);
-        } else {
-            try {
-                File file = new File(filename);
-                boolean headerNeeded = !file.exists();
-                Writer w = new FileWriter(file, true);
-                CsvWriteOptions.Builder options = CsvWriteOptions.builder(w);
-                options.header(headerNeeded);
-                dts.data.write().csv(options.build());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        List<RowGroupSink> sinks = new ArrayList<>();
+        for (int i = 0; i < reportTypes.size(); i++) {
+            IDataLogger.ReportType reportType = reportTypes.get(i);
+            IDataLogger.ReportDestination reportDestination;
+            if (reportDestinations.size() == 1) reportDestination = reportDestinations.get(0);
+            else reportDestination = reportDestinations.get(i);
+            boolean toFile = reportDestination == ToFile || reportDestination == ToBoth;
+            boolean toConsole = reportDestination == ToConsole || reportDestination == ToBoth;
+
+            if (reportType == RawData) {
+                if (toFile)
+                    sinks.add(new RawDataToFile(folderName + "/" + dts.name() + ".csv", append));
+                if (toConsole)
+                    sinks.add(new RawDataToConsole());
+            } else if (reportType == Summary) {
+                if (toFile || toConsole)
+                    sinks.add(new SummarySink(dts, toFile ? folderName : null, toConsole));
+            } else if (reportType == Plot) {
+                if (toFile)
+                    sinks.add(new PlotSink(dts, folderName));
+                if (toConsole)
+                    processPlotToConsole(logger);
             }
         }
+        process(dts, sinks);
+    }
+
+    /**
+     * Passes each row group of the data to all the sinks, and then has each of them finish its report
+     */
+    protected void process(DataTableSaw dts, List<RowGroupSink> sinks) {
+        if (sinks.isEmpty()) return;
+        dts.forEachRowGroup(group -> {
+            for (RowGroupSink sink : sinks)
+                sink.accept(group);
+        });
+        for (RowGroupSink sink : sinks)
+            sink.finish();
     }
 
     @Override
-    public void processRawDataToConsole(IDataLogger logger) {
+    public void processRawDataToFile(IDataLogger logger, String folderName, boolean append) {
         DataTableSaw dts = (DataTableSaw) logger;
-        System.out.println();
-        System.out.println(dts.data);
+        process(dts, List.of(new RawDataToFile(folderName + "/" + dts.name() + ".csv", append)));
     }
 
-    private Map<String, List<Table>> getSummarisedData(DataTableSaw dts) {
-        Map<String, List<Table>> summarisedData;
-        if (dts.metric.getGamesCompleted() < dts.data.column(0).size()) {
-            summarisedData = summariseDataProgression(dts.metric, dts.data);
-        } else {
-            summarisedData = summariseData(dts.metric, dts.data);
-        }
-        return summarisedData;
+    @Override
+    public void processRawDataToConsole(IDataLogger logger) {
+        process((DataTableSaw) logger, List.of(new RawDataToConsole()));
     }
 
-
     @Override
     public void processSummaryToConsole(IDataLogger logger) {
         DataTableSaw dts = (DataTableSaw) logger;
-        Map<String, List<Table>> summarisedData = getSummarisedData(dts);
-
-        for (Map.Entry<String, List<Table>> e : summarisedData.entrySet()) {
-            System.out.println();
-            for (Table t : e.getValue()) {
-                System.out.println(t + "\n");
-            }
-        }
+        process(dts, List.of(new SummarySink(dts, null, true)));
     }
 
     @Override
     public void processSummaryToFile(IDataLogger logger, String folderName) {
         DataTableSaw dts = (DataTableSaw) logger;
-        Map<String, List<Table>> summarisedData = getSummarisedData(dts);
+        process(dts, List.of(new SummarySink(dts, folderName, false)));
+    }
 
-        File summaryFolder = new File(folderName + "/summaries");
-        boolean success = true;
-        if (!summaryFolder.exists()) {
-            createDirectory(folderName + "/summaries");
-        }
-        File summaryFolderMetric = new File(folderName + "/summaries/" + dts.metric.getName());
-        if (!summaryFolderMetric.exists()) {
-            createDirectory(folderName + "/summaries/" + dts.metric.getName());
+    @Override
+    public void processPlotToFile(IDataLogger logger, String folderName) {
+        DataTableSaw dts = (DataTableSaw) logger;
+        process(dts, List.of(new PlotSink(dts, folderName)));
+    }
+
+    @Override
+    public void processPlotToConsole(IDataLogger logger) {
+        System.out.println("Plot report to console not implemented yet");
+    }
+
+    /**
+     * @return true if the metric records more than one row per game, so that its reports show the progression
+     * through each game
+     */
+    protected boolean isProgression(DataTableSaw dts) {
+        return dts.metric.getGamesCompleted() < dts.rowCount();
+    }
+
+    /**
+     * Writes the raw data to a csv file, one row group at a time
+     */
+    static class RawDataToFile implements RowGroupSink {
+        private final String filename;
+        private boolean append, headerNeeded;
+
+        RawDataToFile(String filename, boolean append) {
+            this.filename = filename;
+            this.append = append;
+            this.headerNeeded = !append || !new File(filename).exists();
         }
 
-        for (String columnSummary : summarisedData.keySet()) {
-            List<Table> tables = summarisedData.get(columnSummary);
-            for (Table t : tables) {
-                t.write().csv(summaryFolderMetric + "/" + t.name() + ".csv");
+        @Override
+        public void accept(Table group) {
+            if (group.isEmpty() && !headerNeeded)
+                return;
+            try (Writer w = new FileWriter(filename, append)) {
+                CsvWriteOptions.Builder options = CsvWriteOptions.builder(w);
+                options.header(headerNeeded);
+                group.write().csv(options.build());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
+            append = true;
+            headerNeeded = false;
         }
-    }
 
-    @Override
-    public void processPlotToFile(IDataLogger logger, String folderName) {
-        DataTableSaw dts = (DataTableSaw) logger;
-        File plotFolder = new File(folderName + "/plots");
-        boolean success = true;
-        if (!plotFolder.exists()) {
-            success = plotFolder.mkdir();
+        @Override
+        public void finish() {
         }
-        File plotFolderMetric = new File(folderName + "/plots/" + dts.metric.getName());
-        if (!plotFolderMetric.exists()) {
-            success = plotFolderMetric.mkdir();
+    }
+
+    /**
+     * Prints the first rows of the raw data to the console
+     */
+    static class RawDataToConsole implements RowGroupSink {
+        private Table shown;
+        private int rows;
+
+        @Override
+        public void accept(Table group) {
+            rows += group.rowCount();
+            if (shown == null)
+                shown = group.first(PRINTED_ROWS);
+            else if (shown.rowCount() < PRINTED_ROWS)
+                shown.append(group.first(PRINTED_ROWS - shown.rowCount()));
         }
-        if (success) {
-            Map<String, Figure> figures;
-            if (dts.metric.getGamesCompleted() < dts.data.column(0).size()) {
-                figures = plotDataProgression(dts.metric, dts.data);
-            } else {
-                figures = plotData(dts.metric, dts.data);
-            }
-            for (Map.Entry<String, Figure> figure : figures.entrySet()) {
-                TAGPlot.save(figure.getValue(), new File(plotFolderMetric + "/" + figure.getKey() + ".html"));
-            }
+
+        @Override
+        public void finish() {
+            System.out.println();
+            System.out.println(shown);
+            if (rows > shown.rowCount())
+                System.out.println("... " + rows + " rows in all");
         }
     }
 
-    @Override
-    public void processPlotToConsole(IDataLogger logger) {
-        System.out.println("Plot report to console not implemented yet");
+    /**
+     * The running statistics of a numeric column, giving the same measures as Tablesaw's column.summary()
+     */
+    static class NumericSummary {
+        private int n;
+        private double sum, mean, m2;
+        private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            n++;
+            sum += value;
+            double delta = value - mean;
+            mean += delta / n;
+            m2 += delta * (value - mean);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void addAll(Column<?> column) {
+            NumberColumn<?, ?> numbers = (NumberColumn<?, ?>) column;
+            for (int i = 0; i < column.size(); i++)
+                if (!column.isMissing(i))
+                    add(numbers.getDouble(i));
+        }
+
+        Table asTable(String name) {
+            Table retValue = Table.create(name);
+            StringColumn measure = StringColumn.create("Measure");
+            DoubleColumn value = DoubleColumn.create("Value");
+            retValue.addColumns(measure, value);
+            measure.append("Count");
+            value.append(n);
+            measure.append("sum");
+            value.append(sum);
+            measure.append("Mean");
+            value.append(n == 0 ? Double.NaN : mean);
+            measure.append("Min");
+            value.append(n == 0 ? Double.NaN : min);
+            measure.append("Max");
+            value.append(n == 0 ? Double.NaN : max);
+            measure.append("Range");
+            value.append(n == 0 ? Double.NaN : max - min);
+            measure.append("Variance");
+            value.append(n < 2 ? Double.NaN : m2 / (n - 1));
+            measure.append("Std. Dev");
+            value.append(n < 2 ? Double.NaN : Math.sqrt(m2 / (n - 1)));
+            return retValue;
+        }
     }
 
     /**
-     * Summarise the data recorded by this metric.
-     *
-     * @return a mapping from column name to list of strings, each summarising a column of data,
-     * or other customized summary.
+     * Counts the (non-missing) values of a categorical column, in total and per game
      */
-    protected Map<String, List<Table>> summariseData(AbstractMetric metric, Table rawData) {
-        Map<String, List<Table>> allDataSummaries = new HashMap<>();
-        for (Column<?> c : rawData.columns()) {
-            Table filteredData = (rawData.where(rawData.column(c.name()).isNotMissing()));
-            Column<?> column = filteredData.column(c.name());
-            if (metric.getColumnNames().contains(column.name())) {
-                Table summary;
-                if (column instanceof StringColumn) {
-//                    summary.add(filteredData.name() + ": " + ((StringColumn) column).countByCategory() + "\n");
-                    summary = ((StringColumn) column).countByCategory();
-                } else {
-//                    summary.add(filteredData.name() + ": " + column.summary() + "\n");
-                    summary = column.summary();
+    static class CategoryCounts {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        final Map<String, Map<String, Integer>> countsPerGame = new LinkedHashMap<>();
+
+        void addAll(Column<?> column, StringColumn gameIDs, boolean perGame) {
+            for (int i = 0; i < column.size(); i++) {
+                if (column.isMissing(i))
+                    continue;
+                String category = column.getString(i);
+                counts.merge(category, 1, Integer::sum);
+                if (perGame)
+                    countsPerGame.computeIfAbsent(gameIDs.get(i), id -> new LinkedHashMap<>()).merge(category, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * @return The same table as Tablesaw's countByCategory()
+         */
+        Table asTable(String name) {
+            Table retValue = Table.create(name);
+            StringColumn category = StringColumn.create("Category");
+            IntColumn count = IntColumn.create("Count");
+            retValue.addColumns(category, count);
+            for (Map.Entry<String, Integer> e : counts.entrySet()) {
+                category.append(e.getKey());
+                count.append(e.getValue());
+            }
+            return retValue;
+        }
+
+        /**
+         * @return The counts in each game, one row per game and category
+         */
+        Table perGameTable() {
+            Table retValue = Table.create("Counts");
+            StringColumn category = StringColumn.create("Category");
+            IntColumn count = IntColumn.create("Count");
+            retValue.addColumns(category, count);
+            for (Map<String, Integer> game : countsPerGame.values()) {
+                for (Map.Entry<String, Integer> e : game.entrySet()) {
+                    category.append(e.getKey());
+                    count.append(e.getValue());
                 }
-                summary.setName(filteredData.name() + "_" + column.name());
-                allDataSummaries.put(column.name(), Collections.singletonList(summary));
             }
+            return retValue;
         }
-        return allDataSummaries;
     }
 
     /**
-     * Summarise the data recorded by this metric, per game. Only different for categorical (StringColumn) data.
-     * Same as summariseData for numerical data, even if progression through game.
-     * Prints 2 tables per metric:
+     * Summarises the data recorded by a metric, from running statistics of each of its numeric columns and counts
+     * of the values of the others. Where the metric records more than one row per game, a categorical column is
+     * summarised by two tables:
      * - one showing detailed counts in each game for each categorical value
      * - one showing statistics overall for each categorical value (mean, std, min, max etc.)
-     *
-     * @return - a list of strings, each summarising a column of data, or other customized summary.
      */
-    protected Map<String, List<Table>> summariseDataProgression(AbstractMetric metric, Table rawData) {
-        int nGames;
-        Map<String, List<Table>> allDataSummaries = new HashMap<>();
-
-        for (Column<?> c : rawData.columns()) {
-            if (metric.getColumnNames().contains(c.name())) {
-
-                Table filteredData = (rawData.where(rawData.column(c.name()).isNotMissing()));
-                Column<?> column = filteredData.column(c.name());
-                if (column.isEmpty()) continue;
-
-                Object[] gameIds = filteredData.column("GameID").unique().asObjectArray();
-                nGames = gameIds.length;
-
-                List<Table> summary = new ArrayList<>();
-                if (column instanceof StringColumn) {
-                    // Create counts of each category per game
-                    Table[] tablesPerGame = new Table[nGames];
-                    Set<String> categoryNames = new HashSet<>();
-                    int i = 0;
-                    for (Object id : gameIds) {
-                        tablesPerGame[i] = ((StringColumn) column.where(filteredData.stringColumn("GameID").isEqualTo((String) id))).countByCategory();
-                        // Needs transposing because the output of previous is several rows with category value, count (2 columns)
-                        try {
-                            tablesPerGame[i] = tablesPerGame[i].transpose(false, true);
-                        } catch (Exception e) {
-                            System.out.println("Error transposing table: " + e);
-                        }
-                        // Save all column names for the summary table
-                        categoryNames.addAll(tablesPerGame[i].columnNames());
-                        i++;
-                    }
+    protected class SummarySink implements RowGroupSink {
+        final DataTableSaw dts;
+        final String folderName;
+        final boolean toConsole, progression;
+        final Map<String, NumericSummary> numeric = new LinkedHashMap<>();
+        final Map<String, CategoryCounts> categorical = new LinkedHashMap<>();
+
+        /**
+         * @param folderName - folder to save the summaries to, or null not to save them
+         * @param toConsole  - true to print the summaries
+         */
+        SummarySink(DataTableSaw dts, String folderName, boolean toConsole) {
+            this.dts = dts;
+            this.folderName = folderName;
+            this.toConsole = toConsole;
+            this.progression = isProgression(dts);
+        }
 
-                    // Create summary table with columns for each category
-                    Table summaryTable = Table.create("Summary " + column.name());
-                    for (String categoryName : categoryNames) {
-                        summaryTable.addColumns(IntColumn.create(categoryName));
-                    }
+        @Override
+        public void accept(Table group) {
+            StringColumn gameIDs = progression ? group.stringColumn("GameID") : null;
+            for (Column<?> column : group.columns()) {
+                if (!dts.metric.getColumnNames().contains(column.name()))
+                    continue;
+                if (column instanceof NumberColumn)
+                    numeric.computeIfAbsent(column.name(), c -> new NumericSummary()).addAll(column);
+                else
+                    categorical.computeIfAbsent(column.name(), c -> new CategoryCounts()).addAll(column, gameIDs, progression);
+            }
+        }
 
-                    // Append all data to the summary table. We'll have 1 column per categorical value
-                    // And 1 row per game, with the counts of each category
-                    for (i = 0; i < nGames; i++) {
-                        for (String category : categoryNames) {
-                            if (tablesPerGame[i].columnNames().contains(category)) {
-                                IntColumn categoryColumn = tablesPerGame[i].intColumn(category);
-                                summaryTable.intColumn(category).append(categoryColumn);
-                            } else {
-                                summaryTable.intColumn(category).append(0);
-                            }
-                        }
-                    }
+        /**
+         * @return a mapping from column name to list of tables, each summarising a column of data
+         */
+        protected Map<String, List<Table>> summaries() {
+            Map<String, List<Table>> allDataSummaries = new LinkedHashMap<>();
+            for (Map.Entry<String, NumericSummary> e : numeric.entrySet())
+                allDataSummaries.put(e.getKey(), Collections.singletonList(e.getValue().asTable(dts.name() + "_" + e.getKey())));
+            for (Map.Entry<String, CategoryCounts> e : categorical.entrySet()) {
+                if (!progression) {
+                    allDataSummaries.put(e.getKey(), Collections.singletonList(e.getValue().asTable(dts.name() + "_" + e.getKey())));
+                } else {
+                    List<Table> summary = progressionSummary(e.getKey(), e.getValue().countsPerGame.values());
+                    if (!summary.isEmpty())
+                        allDataSummaries.put(e.getKey(), summary);
+                }
+            }
+            return allDataSummaries;
+        }
 
-                    if (summaryTable.isEmpty()) {
-//                        System.out.println("Empty summary table for " + column.name());
-                        continue;
-                    }
+        private List<Table> progressionSummary(String columnName, Collection<Map<String, Integer>> countsPerGame) {
+            List<Table> summary = new ArrayList<>();
 
-                    // Make a print table with detail counts per game, transposed for more compact printing
-                    Table printTable = summaryTable.transpose(true, false);
-                    printTable.column(0).setName(column.name() + " \\ Game #");
-                    // Add table to the summary to print
-                    summary.add(printTable);
-
-                    // Make a print table with summary stats over all game
-                    // Taking the summary of the first category as start table. All have 2 columns, measure and value.
-                    Table statsTable = summaryTable.intColumn(0).summary();
-                    // Change the name of the second column ('value') to the actual name of the category
-                    statsTable.column(1).setName(summaryTable.column(0).name());
-                    // Name the table appropriately
-                    statsTable.setName("Stats " + column.name());
-                    // Add the other categories as columns, taking only the second column (value) for each and naming them appropriately, according to the category name
-                    for (i = 1; i < summaryTable.columnCount(); i++) {
-                        DoubleColumn dc = summaryTable.intColumn(i).summary().doubleColumn(1);
-                        dc.setName(summaryTable.column(i).name());
-                        statsTable.addColumns(dc);
-                    }
-                    // Add table to the summary to print
-                    summary.add(statsTable.transpose(true, true).sortDescendingOn("Mean"));
-                } else {
-                    // This is the same as summariseData for numerical data
-                    Table sum = column.summary();
-                    sum.setName(filteredData.name() + "_" + column.name());
-                    summary.add(sum);
+            // Create summary table with columns for each category
+            Set<String> categoryNames = new HashSet<>();
+            for (Map<String, Integer> counts : countsPerGame)
+                categoryNames.addAll(counts.keySet());
+            Table summaryTable = Table.create("Summary " + columnName);
+            for (String categoryName : categoryNames) {
+                summaryTable.addColumns(IntColumn.create(categoryName));
+            }
+
+            // Append all data to the summary table. We'll have 1 column per categorical value
+            // And 1 row per game, with the counts of each category
+            for (Map<String, Integer> counts : countsPerGame) {
+                for (String category : categoryNames) {
+                    summaryTable.intColumn(category).append(counts.getOrDefault(category, 0));
                 }
+            }
+
+            if (summaryTable.isEmpty()) {
+                return summary;
+            }
+
+            // Make a print table with detail counts per game, transposed for more compact printing
+            Table printTable = summaryTable.transpose(true, false);
+            printTable.column(0).setName(columnName + " \\ Game #");
+            // Add table to the summary to print
+            summary.add(printTable);
+
+            // Make a print table with summary stats over all game
+            // Taking the summary of the first category as start table. All have 2 columns, measure and value.
+            Table statsTable = summaryTable.intColumn(0).summary();
+            // Change the name of the second column ('value') to the actual name of the category
+            statsTable.column(1).setName(summaryTable.column(0).name());
+            // Name the table appropriately
+            statsTable.setName("Stats " + columnName);
+            // Add the other categories as columns, taking only the second column (value) for each and naming them appropriately, according to the category name
+            for (int i = 1; i < summaryTable.columnCount(); i++) {
+                DoubleColumn dc = summaryTable.intColumn(i).summary().doubleColumn(1);
+                dc.setName(summaryTable.column(i).name());
+                statsTable.addColumns(dc);
+            }
+            // Add table to the summary to print
+            summary.add(statsTable.transpose(true, true).sortDescendingOn("Mean"));
+            return summary;
+        }
 
-                allDataSummaries.put(column.name(), summary);
+        @Override
+        public void finish() {
+            Map<String, List<Table>> summarisedData = summaries();
+            if (toConsole) {
+                for (Map.Entry<String, List<Table>> e : summarisedData.entrySet()) {
+                    System.out.println();
+                    for (Table t : e.getValue()) {
+                        System.out.println(t + "\n");
+                    }
+                }
+            }
+            if (folderName != null) {
+                File summaryFolder = new File(folderName + "/summaries");
+                if (!summaryFolder.exists()) {
+                    createDirectory(folderName + "/summaries");
+                }
+                File summaryFolderMetric = new File(folderName + "/summaries/" + dts.metric.getName());
+                if (!summaryFolderMetric.exists()) {
+                    createDirectory(folderName + "/summaries/" + dts.metric.getName());
+                }
+                for (List<Table> tables : summarisedData.values()) {
+                    for (Table t : tables) {
+                        t.write().csv(summaryFolderMetric + "/" + t.name() + ".csv");
+                    }
+                }
             }
         }
-        return allDataSummaries;
     }
 
     /**
-     * Plot the data recorded by this metric. Progression over the course of a game, averaged across the different
-     * games recorded.
-     *
-     * @return - a list of figures, each plotting a column of data, or some customized plots.
+     * Plots the data recorded by a metric, and saves the plots as html files. Where the metric records more than one
+     * row per game, a numeric column is plotted as its progression over the course of a game (the mean and standard
+     * error of the nth value in each game), and a categorical column as box plots of its counts in each game.
+     * Otherwise, a numeric column is plotted against the game ID, and a categorical column as a bar chart of its counts.
      */
-    protected Map<String, Figure> plotDataProgression(AbstractMetric metric, Table data) {
-        Object[] gameIds = data.column("GameID").unique().asObjectArray();
-        int nGames = gameIds.length;
-        int maxTick = 0;
-        Table[] tablesPerGame = new Table[nGames];
-
-        int i = 0;
-        for (Object id : gameIds) {  // todo game ID starts at 2???
-            tablesPerGame[i] = data.where(data.stringColumn("GameID").isEqualTo((String) id));
-            int maxTickThisGame = tablesPerGame[i].intColumn("Tick").size();
-            if (maxTickThisGame > maxTick) {
-                maxTick = maxTickThisGame;
+    protected class PlotSink implements RowGroupSink {
+        final DataTableSaw dts;
+        final File plotFolderMetric;
+        final boolean progression;
+        boolean success = true;
+
+        // For progression plots: the number of rows seen so far in each game, and the statistics of each
+        // numeric column at each row index
+        final Map<String, Integer> rowsPerGame = new HashMap<>();
+        final Map<String, List<TAGNumericStatSummary>> statsByIndex = new LinkedHashMap<>();
+        // For plots against game ID: the game ID and value of each row
+        final Map<String, Table> valuesByGame = new LinkedHashMap<>();
+        final Map<String, CategoryCounts> categorical = new LinkedHashMap<>();
+        final List<String> columnOrder = new ArrayList<>();
+
+        PlotSink(DataTableSaw dts, String folderName) {
+            this.dts = dts;
+            this.progression = isProgression(dts);
+            File plotFolder = new File(folderName + "/plots");
+            if (!plotFolder.exists()) {
+                success = plotFolder.mkdir();
+            }
+            plotFolderMetric = new File(folderName + "/plots/" + dts.metric.getName());
+            if (!plotFolderMetric.exists()) {
+                success = plotFolderMetric.mkdir();
             }
-            i++;
         }
 
-        Map<String, Figure> figures = new HashMap<>();
-        for (i = 0; i < data.columnCount(); i++) {
-            Column<?> column = data.column(i);
-            if (metric.getColumnNames().contains(column.name())) {
-                //TODO Not checked that this doesn't break with missing values. If error found, it may be that! o.O
-                if (column instanceof NumberColumn) {
-                    // Make a line plot - actually 3 lines, mean, mean+sd, mean-sd
-                    double[] x = new double[maxTick];
-                    for (int j = 0; j < maxTick; j++) {
-                        x[j] = j;
-                    }
-                    double[] yMean = new double[column.size()];
-                    double[] yMeanSdMinus = new double[column.size()];
-                    double[] yMeanSdPlus = new double[column.size()];
-                    for (int j = 0; j < maxTick; j++) {
-                        TAGNumericStatSummary ss = new TAGNumericStatSummary();
-                        for (int k = 0; k < nGames; k++) {
-                            Column<?> columnThisGame = tablesPerGame[k].column(column.name());
-                            if (columnThisGame.size() > j) {
-                                ss.add(Double.parseDouble(String.valueOf(columnThisGame.get(j))));
-                            }
-                        }
-
-                        double err = 0;
-                        if (ss.n() > 1) err = ss.stdErr();
-                        yMean[j] = ss.mean();
-                        yMeanSdMinus[j] = yMean[j] - err;
-                        yMeanSdPlus[j] = yMean[j] + err;
-                    }
-
-                    Trace yMeanSdPlusTrace = ScatterTrace.builder(x, yMeanSdPlus).name("Mean + SD")
-                            .opacity(0.3)
-                            .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
-                            .mode(ScatterTrace.Mode.LINE).build();
-                    Trace yMeanTrace = ScatterTrace.builder(x, yMean).name("Mean")
-                            .mode(ScatterTrace.Mode.LINE)
-                            .line(Line.builder().width(2).color("rgb(0, 0, 255)").build())
-                            .build();
-                    Trace yMeanSdMinusTrace = ScatterTrace.builder(x, yMeanSdMinus).name("Mean - SD")
-                            .opacity(0.3)
-                            .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
-                            .mode(ScatterTrace.Mode.LINE).build();
-
-                    Layout layout = Layout.builder().title(data.name())
-                            .height(600).width(800)
-                            .yAxis(Axis.builder().title(column.name()).build())
-                            .xAxis(Axis.builder().title(getLabel(metric)).build())
-                            .build();
-
-                    Figure figure = new Figure(layout, yMeanSdPlusTrace, yMeanTrace, yMeanSdMinusTrace);
-
-//                figures.put(column.name(), LinePlot.create(data.name(), "Data point", x, column.name(), y));
-                    figures.put(column.name(), figure);
-                } else {
-                    // Make box plots from the categorical counts across games
-
-                    // Create counts of each category per game
-                    Table[] tablesCountsPerGame = new Table[nGames];
-                    int idx = 0;
-                    for (Object id : data.column("GameID").unique().asObjectArray()) {
-                        tablesCountsPerGame[idx] = ((StringColumn) column.where(data.stringColumn("GameID").isEqualTo((String) id)))
-                                .removeMissing()
-                                .countByCategory();
-                        idx++;
+        @Override
+        public void accept(Table group) {
+            if (!success) return;
+            StringColumn gameIDs = group.stringColumn("GameID");
+            List<Column<?>> numericColumns = new ArrayList<>();
+            for (Column<?> column : group.columns()) {
+                if (!dts.metric.getColumnNames().contains(column.name()))
+                    continue;
+                if (!columnOrder.contains(column.name()))
+                    columnOrder.add(column.name());
+                if (column instanceof NumberColumn)
+                    numericColumns.add(column);
+                else
+                    categorical.computeIfAbsent(column.name(), c -> new CategoryCounts()).addAll(column, gameIDs, progression);
+            }
+            if (progression) {
+                for (int row = 0; row < group.rowCount(); row++) {
+                    int index = rowsPerGame.merge(gameIDs.get(row), 1, Integer::sum) - 1;
+                    for (Column<?> column : numericColumns) {
+                        if (column.isMissing(row))
+                            continue;
+                        List<TAGNumericStatSummary> stats = statsByIndex.computeIfAbsent(column.name(), c -> new ArrayList<>());
+                        while (stats.size() <= index)
+                            stats.add(new TAGNumericStatSummary());
+                        stats.get(index).add(((NumberColumn<?, ?>) column).getDouble(row));
                     }
-                    Table countsPerGame = tablesCountsPerGame[0];
-                    for (idx = 1; idx < nGames; idx++) {
-                        countsPerGame = countsPerGame.append(tablesCountsPerGame[idx]);
+                }
+            } else {
+                for (Column<?> column : numericColumns) {
+                    Table values = valuesByGame.computeIfAbsent(column.name(),
+                            c -> Table.create(dts.name(), DoubleColumn.create(c), StringColumn.create("GameID")));
+                    for (int row = 0; row < group.rowCount(); row++) {
+                        if (column.isMissing(row))
+                            continue;
+                        values.doubleColumn(0).append(((NumberColumn<?, ?>) column).getDouble(row));
+                        values.stringColumn(1).append(gameIDs.get(row));
                     }
+                }
+            }
+        }
 
-                    // Create box plots from the counts
-                    Layout layout = Layout.builder().title(data.name())
-                            .height(600).width(800)
-                            .yAxis(Axis.builder().title("Count").range(0, 30).build())  //  TODO hard-coded range
-                            .xAxis(Axis.builder().title(column.name()).categoryOrder(Axis.CategoryOrder.CATEGORY_ASCENDING).build())
-                            .build();
-                    BoxTrace trace = BoxTrace.builder(countsPerGame.categoricalColumn("Category"), countsPerGame.nCol("Count"))
-                            .build();
+        @Override
+        public void finish() {
+            if (!success) return;
+            Map<String, Figure> figures = new HashMap<>();
+            for (String columnName : columnOrder) {
+                Figure figure;
+                if (categorical.containsKey(columnName))
+                    figure = progression ? countsPlot(columnName) : barPlot(columnName);
+                else
+                    figure = progression ? progressionPlot(columnName) : linePlot(columnName);
+                if (figure != null)
+                    figures.put(columnName, figure);
+            }
+            for (Map.Entry<String, Figure> figure : figures.entrySet()) {
+                TAGPlot.save(figure.getValue(), new File(plotFolderMetric + "/" + figure.getKey() + ".html"));
+            }
+        }
 
-                    figures.put(column.name(), new Figure(layout, trace));
-                }
+        /**
+         * A line plot of the progression of a numeric column over the course of a game - actually 3 lines, mean,
+         * mean+sd, mean-sd
+         */
+        private Figure progressionPlot(String columnName) {
+            int maxTick = rowsPerGame.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            List<TAGNumericStatSummary> stats = statsByIndex.getOrDefault(columnName, Collections.emptyList());
+            double[] x = new double[maxTick];
+            double[] yMean = new double[maxTick];
+            double[] yMeanSdMinus = new double[maxTick];
+            double[] yMeanSdPlus = new double[maxTick];
+            for (int j = 0; j < maxTick; j++) {
+                x[j] = j;
+                TAGNumericStatSummary ss = j < stats.size() ? stats.get(j) : new TAGNumericStatSummary();
+                double err = 0;
+                if (ss.n() > 1) err = ss.stdErr();
+                yMean[j] = ss.mean();
+                yMeanSdMinus[j] = yMean[j] - err;
+                yMeanSdPlus[j] = yMean[j] + err;
             }
+
+            Trace yMeanSdPlusTrace = ScatterTrace.builder(x, yMeanSdPlus).name("Mean + SD")
+                    .opacity(0.3)
+                    .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                    .mode(ScatterTrace.Mode.LINE).build();
+            Trace yMeanTrace = ScatterTrace.builder(x, yMean).name("Mean")
+                    .mode(ScatterTrace.Mode.LINE)
+                    .line(Line.builder().width(2).color("rgb(0, 0, 255)").build())
+                    .build();
+            Trace yMeanSdMinusTrace = ScatterTrace.builder(x, yMeanSdMinus).name("Mean - SD")
+                    .opacity(0.3)
+                    .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                    .mode(ScatterTrace.Mode.LINE).build();
+
+            Layout layout = Layout.builder().title(dts.name())
+                    .height(600).width(800)
+                    .yAxis(Axis.builder().title(columnName).build())
+                    .xAxis(Axis.builder().title(getLabel(dts.metric)).build())
+                    .build();
+
+            return new Figure(layout, yMeanSdPlusTrace, yMeanTrace, yMeanSdMinusTrace);
+        }
+
+        /**
+         * Box plots of the counts of each category in each game
+         */
+        private Figure countsPlot(String columnName) {
+            Table countsPerGame = categorical.get(columnName).perGameTable();
+            if (countsPerGame.isEmpty())
+                return null;
+            Layout layout = Layout.builder().title(dts.name())
+                    .height(600).width(800)
+                    .yAxis(Axis.builder().title("Count").range(0, 30).build())  //  TODO hard-coded range
+                    .xAxis(Axis.builder().title(columnName).categoryOrder(Axis.CategoryOrder.CATEGORY_ASCENDING).build())
+                    .build();
+            BoxTrace trace = BoxTrace.builder(countsPerGame.categoricalColumn("Category"), countsPerGame.nCol("Count"))
+                    .build();
+            return new Figure(layout, trace);
+        }
+
+        private Figure linePlot(String columnName) {
+            Table values = valuesByGame.get(columnName);
+            return LinePlot.create(dts.name(), values, "GameID", columnName);
+        }
+
+        /**
+         * A bar plot from the counts of each category
+         */
+        private Figure barPlot(String columnName) {
+            Table t2 = categorical.get(columnName).asTable(dts.name());
+            Layout layout = Layout.builder()
+                    .title(dts.name())
+                    .yAxis(Axis.builder().title(columnName).build())
+                    .xAxis(Axis.builder().categoryOrder(Axis.CategoryOrder.TRACE).build())
+                    .build();
+            BarTrace trace = BarTrace.builder(t2.categoricalColumn(0), t2.numberColumn(1))
+                    .build();
+            return new Figure(layout, trace);
         }
-        return figures;
     }
 
     /**
@@ -383,38 +617,6 @@ public class TableSawDataProcessor implements IDataProcessor {
         return "Game Round";
     }
 
-    /**
-     * Plot the data recorded by this metric.
-     *
-     * @return - a list of figures, each plotting a column of data, or some customized plots.
-     */
-    protected Map<String, Figure> plotData(AbstractMetric metric, Table rawData) {
-        Map<String, Figure> figures = new HashMap<>();
-
-        for (Column<?> c : rawData.columns()) {
-            Table filteredData = (rawData.where(rawData.column(c.name()).isNotMissing()));
-            Column<?> column = filteredData.column(c.name());
-            if (metric.getColumnNames().contains(column.name())) {
-                if (column instanceof NumberColumn) {
-                    figures.put(column.name(), LinePlot.create(filteredData.name(), Table.create(column, filteredData.column("GameID")), "GameID", column.name()));
-                } else {
-                    // Make a bar plot from the categorical count
-                    Table t2 = ((StringColumn) column).countByCategory();
-//                    t2 = t2.sortDescendingOn(t2.column(1).name()); //todo this sorts the table, but not the plot when we build it.
-                    Layout layout = Layout.builder()
-                            .title(filteredData.name())
-                            .yAxis(Axis.builder().title(column.name()).build())
-                            .xAxis(Axis.builder().categoryOrder(Axis.CategoryOrder.TRACE).build())
-                            .build();
-                    BarTrace trace = BarTrace.builder(t2.categoricalColumn(0), t2.numberColumn(1))
-                            .build();
-                    figures.put(column.name(), new Figure(layout, trace));
-                }
-            }
-        }
-        return figures;
-    }
-
     /**
      * Overwrites functionality to only save the figures as .html files, rather than opening the browsers too.
      */
@@ -3,6 +3,7 @@ package evaluation.optimisation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.Game;
+import core.components.Component;
 import core.interfaces.IGameHeuristic;
 import core.interfaces.IStateHeuristic;
 import evaluation.listeners.IGameListener;
@@ -13,6 +14,7 @@ import games.GameType;
 import players.IAnyTimePlayer;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.IntStream;
 
 import static evaluation.optimisation.NTBEAParameters.Mode.CoopNTBEA;
@@ -24,6 +26,7 @@ import static java.util.stream.Collectors.toList;
  * On each NTBEA trial the evaluate(int[] settings) function is called with the set of parameters to try next.
  * The meaning of these settings is encapsulated in the AgentSearchSpace, as this will vary with whatever is being
  * optimised.
+ * With params.nThreads above 1, batches of evaluations from evaluate(List) are played concurrently.
  */
 public class GameEvaluator implements SolutionEvaluator {
 
@@ -90,32 +93,88 @@ public class GameEvaluator implements SolutionEvaluator {
      */
     @Override
     public double evaluate(int[] settings) {
+        double retValue = evaluate(settings, nEvals, rnd.nextLong());
+        nEvals++;
+        return retValue;
+    }
+
+    /**
+     * Evaluates a batch of settings, running the games on up to params.nThreads threads.
+     * The evaluation index and random seed of each are assigned in order before any games are started, so the
+     * results are the same as calling evaluate(int[]) on each in turn, whatever the number of threads.
+     */
+    @Override
+    public double[] evaluate(List<int[]> solutions) {
+        if (params.nThreads <= 1 || solutions.size() <= 1)
+            return SolutionEvaluator.super.evaluate(solutions);
+        List<Callable<Double>> tasks = new ArrayList<>(solutions.size());
+        for (int[] settings : solutions) {
+            int evalIndex = nEvals++;
+            long seed = rnd.nextLong();
+            tasks.add(() -> evaluate(settings, evalIndex, seed));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(params.nThreads, tasks.size()),
+                Component.idReleasingThreads("GameEvaluator", false));
+        try {
+            List<Future<Double>> futures = executor.invokeAll(tasks);
+            double[] retValue = new double[futures.size()];
+            for (int i = 0; i < retValue.length; i++)
+                retValue[i] = futures.get(i).get();
+            return retValue;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the game(s) for a single evaluation. This may be called concurrently from several threads; everything
+     * random about the evaluation is derived from the seed, and the shared searchSpace and opponents are only
+     * used while holding the lock on this evaluator.
+     */
+    private double evaluate(int[] settings, int evalIndex, long seed) {
         if (debug)
-            System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
+            System.out.printf("Starting evaluation %d of %s at %tT%n", evalIndex,
                     Arrays.toString(settings), System.currentTimeMillis());
-        Object configuredThing = searchSpace.instantiate(settings);
+        Random oppRnd = new Random(seed);
+        Object configuredThing;
+        synchronized (this) {
+            configuredThing = searchSpace.instantiate(settings);
+        }
         boolean tuningPlayer = configuredThing instanceof AbstractPlayer;
         boolean tuningGame = configuredThing instanceof Game;
 
-        Game newGame = tuningGame ? (Game) configuredThing : game.createGameInstance(nPlayers, gameParams);
+        // gameParams are copied as creating the game sets the seed on them
+        Game newGame = tuningGame ? (Game) configuredThing
+                : game.createGameInstance(nPlayers, gameParams == null ? null : gameParams.copy());
         // we assign one player to each team (the default for a game is each player being their own team of 1)
         int nTeams = newGame.getGameState().getNTeams();
 
         // We can reduce variance here by cycling the teamIndex on each iteration
         // If we're not tuning the player, then setting index to -99 means we just use the provided opponents list
         // in setupPlayers()
-        int teamIndex = tuningPlayer ? nEvals % nTeams : -99;
+        int teamIndex = tuningPlayer ? evalIndex % nTeams : -99;
 
         // We generally one game per evaluation, unless we are in 'Stable' mode,
         // in which case we reduce variance by running one game for each position the tuned agent can be in
         if (params.mode == StableNTBEA && !tuningPlayer)
             throw new AssertionError("StableNTBEA mode requires tuning of player");
         int gamesToRun = params.mode == StableNTBEA ? nTeams : 1;
-        long seed = rnd.nextLong();
         double retValue = 0.0;
         for (int loop = 0; loop < gamesToRun; loop++) {
             int thisTeamIndex = teamIndex == -99 ? -99 : (teamIndex + loop) % nTeams;
-            List<AbstractPlayer> allPlayers = setupPlayers(thisTeamIndex, nTeams, settings);
+            List<AbstractPlayer> allPlayers;
+            synchronized (this) {
+                allPlayers = setupPlayers(thisTeamIndex, nTeams, settings, oppRnd);
+            }
 
             // always reset the random seed for each new game
             newGame.reset(allPlayers, seed);
@@ -131,23 +190,24 @@ public class GameEvaluator implements SolutionEvaluator {
                 throw new AssertionError("No Player found on team " + thisTeamIndex);
             retValue += (tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam)) / gamesToRun;
         }
-
-        nEvals++;
         return retValue;
     }
 
-    private List<AbstractPlayer> setupPlayers(int teamIndex, int nTeams, int[] settings) {
+    private List<AbstractPlayer> setupPlayers(int teamIndex, int nTeams, int[] settings, Random oppRnd) {
         List<AbstractPlayer> allPlayers = new ArrayList<>(nPlayers);
         // create a random permutation of opponents - this is used if we want to avoid opponent duplicates
         // if we allow duplicates, then we randomise them all independently
         List<Integer> opponentOrdering = IntStream.range(0, opponents.size()).boxed().collect(toList());
-        Collections.shuffle(opponentOrdering);
+        Collections.shuffle(opponentOrdering, oppRnd);
         int count = 0;
         for (int i = 0; i < nTeams; i++) {
             if (params.mode != CoopNTBEA && i != teamIndex) {
-                int oppIndex = (avoidOppDupes) ? count : rnd.nextInt(opponents.size());
+                int oppIndex = (avoidOppDupes) ? count : oppRnd.nextInt(opponents.size());
                 count = (count + 1) % nTeams;
-                allPlayers.add(opponents.get(oppIndex).copy());
+                AbstractPlayer opponent = opponents.get(oppIndex).copy();
+                // a copy may take its seed from the original, so reseed it to be independent of the evaluation order
+                opponent.getRnd().setSeed(oppRnd.nextLong());
+                allPlayers.add(opponent);
             } else {
                 AbstractPlayer tunedPlayer = (AbstractPlayer) searchSpace.instantiate(settings); // we create for each, in case this is coop
                 allPlayers.add(tunedPlayer);
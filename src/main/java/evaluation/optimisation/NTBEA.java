@@ -213,6 +213,7 @@ public class NTBEA {
                 config.put(RunArg.budget, params.budget);
                 config.put(RunArg.verbose, false);
                 config.put(RunArg.destDir, params.destDir);
+                config.put(RunArg.nThreads, params.nThreads);
                 RoundRobinTournament tournament = new RoundRobinTournament(players, game, nPlayers, params.gameParams, config);
                 createListeners().forEach(tournament::addListener);
                 tournament.run();
@@ -370,8 +371,7 @@ public class NTBEA {
 
     protected Pair<Double, Double> evaluateWinner(int[] winnerSettings) {
 
-        double[] results = IntStream.range(0, params.evalGames)
-                .mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
+        double[] results = evaluator.evaluate(Collections.nCopies(params.evalGames, winnerSettings));
         Arrays.sort(results);
         double avg = Arrays.stream(results).average().orElse(0.0);
         double stdErr = Math.sqrt(Arrays.stream(results).map(d -> Math.pow(d - avg, 2.0)).sum()) / (params.evalGames - 1.0);
@@ -48,6 +48,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
     public int OSDBudget = 0;
     public boolean OSDTournament = false;
     public double OSDConfidence = 0.9;
+    public int nThreads = 1;
+    public int batchSize = 1;
 
     // and those that are not (so must be included separately in copy etc)
     public boolean tuningGame = false;
@@ -83,6 +85,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
         addTunableParameter("OSDBudget", 0);
         addTunableParameter("OSDTournament", false);
         addTunableParameter("OSDConfidence", 0.9);
+        addTunableParameter("nThreads", 1);
+        addTunableParameter("batchSize", 1);
     }
 
     @Override
@@ -109,6 +113,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
         OSDBudget = (int) getParameterValue("OSDBudget");
         OSDTournament = (boolean) getParameterValue("OSDTournament");
         OSDConfidence = (double) getParameterValue("OSDConfidence");
+        nThreads = (int) getParameterValue("nThreads");
+        batchSize = (int) getParameterValue("batchSize");
 
         if (evalGames == -1) evalGames = iterationsPerRun / 5;
     }
@@ -138,6 +144,8 @@ public class NTBEAParameters extends TunableParameters<NTBEA> {
         setParameterValue("OSDBudget", args.get(RunArg.OSDBudget));
         setParameterValue("OSDTournament", args.get(RunArg.OSDTournament));
         setParameterValue("OSDConfidence", args.get(RunArg.OSDConfidence));
+        setParameterValue("nThreads", args.getOrDefault(RunArg.nThreads, 1));
+        setParameterValue("batchSize", args.getOrDefault(RunArg.batchSize, 1));
 
         _reset();
 
@@ -1,14 +1,40 @@
 package evaluation.optimisation.ntbea;
 
+import core.ZobristHash;
 import utilities.StatSummary;
 
 import java.util.*;
 
+/**
+ * The statistics of all the samples seen for each pattern of values of one tuple of dimensions.
+ * <p>
+ * Each pattern is encoded as a mixed-radix long index (the first dimension of the tuple being the most significant),
+ * and only the count, sum and sum of squares of its samples are kept, in primitive arrays. If the tuple has at most
+ * DENSE_LIMIT patterns these arrays are indexed directly; otherwise they are the slots of an open-addressing map from
+ * pattern index, so that a tuple over many dimensions only takes space for the patterns actually sampled.
+ * No objects are created when a point is added or queried.
+ * <p>
+ * If a tuple has more patterns than a long can index, then the index is a 64-bit hash of the pattern instead. Two
+ * patterns could then share their statistics, but only with negligible probability for any realistic number of samples.
+ */
 public class NTuple {
 
+    public static final int DENSE_LIMIT = 1 << 12;
+    private static final int INITIAL_SPARSE_CAPACITY = 16;
+
     SearchSpace searchSpace;
     public int[] tuple;
-    public Map<IntArrayPattern, StatSummary> ntMap;
+    // the weight of each dimension of the tuple in the pattern index, or null if patterns are hashed
+    final long[] radix;
+    final boolean dense;
+
+    int[] counts;
+    double[] sums;
+    double[] sumSqs;
+    // whether each slot holds a pattern; this may have no samples, if only an empty StatSummary was added for it
+    boolean[] occupied;
+    // the pattern index in each slot when sparse
+    long[] keys;
 
     public int nSamples;
     int nEntries;
@@ -16,67 +42,204 @@ public class NTuple {
     public NTuple(SearchSpace searchSpace, int[] tuple) {
         this.searchSpace = searchSpace;
         this.tuple = tuple;
+        this.radix = mixedRadix(searchSpace, tuple);
+        long nPatterns = radix == null ? Long.MAX_VALUE : radix[0] * searchSpace.nValues(tuple[0]);
+        this.dense = nPatterns <= DENSE_LIMIT;
         reset();
     }
 
+    private static long[] mixedRadix(SearchSpace searchSpace, int[] tuple) {
+        long[] retValue = new long[tuple.length];
+        long weight = 1;
+        try {
+            for (int i = tuple.length - 1; i >= 0; i--) {
+                retValue[i] = weight;
+                weight = Math.multiplyExact(weight, searchSpace.nValues(tuple[i]));
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        return retValue;
+    }
+
     public void reset() {
         nSamples = 0;
         nEntries = 0;
-        ntMap = new HashMap<>();
+        int capacity = dense ? (int) (radix[0] * searchSpace.nValues(tuple[0])) : INITIAL_SPARSE_CAPACITY;
+        counts = new int[capacity];
+        sums = new double[capacity];
+        sumSqs = new double[capacity];
+        occupied = new boolean[capacity];
+        keys = dense ? null : new long[capacity];
     }
 
-    public void add(int[] x, double v) {
-        // for each address that occurs, we're going to store something
-        StatSummary ss = getStatsForceCreate(x);
-        ss.add(v);
+    /**
+     * @return The index of the pattern that the point x has on this tuple
+     */
+    public long index(int[] x) {
+        if (radix == null) {
+            long hash = tuple.length;
+            for (int d : tuple)
+                hash = ZobristHash.mix(hash + x[d] * 0x9e3779b97f4a7c15L);
+            return hash;
+        }
+        long retValue = 0;
+        for (int i = 0; i < tuple.length; i++)
+            retValue += x[tuple[i]] * radix[i];
+        return retValue;
+    }
+
+    /**
+     * @return The values of the tuple's dimensions in the pattern with this index
+     */
+    public int[] pattern(long index) {
+        if (radix == null)
+            throw new IllegalStateException("Patterns of " + this + " are hashed, and cannot be recovered from their index");
+        int[] retValue = new int[tuple.length];
+        for (int i = 0; i < tuple.length; i++) {
+            retValue[i] = (int) (index / radix[i]);
+            index %= radix[i];
+        }
+        return retValue;
+    }
+
+    /**
+     * @return The slot holding the statistics for the pattern index, or -1 if there is none and create is false
+     */
+    private int slot(long index, boolean create) {
+        if (dense)
+            return (int) index;
+        int mask = keys.length - 1;
+        int slot = (int) ZobristHash.mix(index) & mask;
+        while (occupied[slot]) {
+            if (keys[slot] == index)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        if (!create)
+            return -1;
+        if ((nEntries + 1) * 2 > keys.length) {
+            grow();
+            return slot(index, true);
+        }
+        keys[slot] = index;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        boolean[] oldOccupied = occupied;
+        double[] oldSums = sums, oldSumSqs = sumSqs;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[keys.length];
+        sums = new double[keys.length];
+        sumSqs = new double[keys.length];
+        occupied = new boolean[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i]) {
+                int slot = slot(oldKeys[i], true);
+                occupied[slot] = true;
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+                sumSqs[slot] = oldSumSqs[i];
+            }
+        }
+    }
+
+    private void add(int[] x, int n, double sum, double sumSq) {
+        int slot = slot(index(x), true);
+        if (!occupied[slot]) {
+            occupied[slot] = true;
+            nEntries++;
+        }
+        counts[slot] += n;
+        sums[slot] += sum;
+        sumSqs[slot] += sumSq;
         nSamples++;
     }
 
-    public void add(int[] x, StatSummary ssIncoming) {
+    public void add(int[] x, double v) {
         // for each address that occurs, we're going to store something
-        StatSummary ss = getStatsForceCreate(x);
-        ss.add(ssIncoming);
-        nSamples++;
+        add(x, 1, v, v * v);
     }
 
-    public void printNonEmpty() {
-        TreeSet<IntArrayPattern> orderedKeys = new TreeSet<>();
-        orderedKeys.addAll(ntMap.keySet());
-        for (IntArrayPattern key : orderedKeys) {
-            StatSummary ss = ntMap.get(key);
-            System.out.println(key + "\t " + ss.n() + "\t " + ss.mean() + "\t " + ss.sd());
-            // System.out.println();
+    public void add(int[] x, StatSummary ssIncoming) {
+        // for each address that occurs, we're going to store something (even if ssIncoming is empty)
+        int n = ssIncoming.n();
+        if (n == 0) {
+            add(x, 0, 0.0, 0.0);
+            return;
         }
+        double mean = ssIncoming.mean();
+        add(x, n, mean * n, ssIncoming.sumSquareDiff() + n * mean * mean);
     }
 
     /**
-     * Get stats but force creation if it does not already exists
-     *
-     * @param x
-     * @return
+     * @return The number of samples with the pattern index
      */
-    public StatSummary getStatsForceCreate(int[] x) {
-        IntArrayPattern key = new IntArrayPattern().setPattern(x, tuple);
-        StatSummary ss = ntMap.get(key);
-        if (ss == null) {
-            ss = new StatSummary();
-            nEntries++;
-            ntMap.put(key, ss);
-        }
-        return ss;
+    public int n(long index) {
+        int slot = slot(index, false);
+        return slot == -1 ? 0 : counts[slot];
+    }
+
+    /**
+     * @return The mean of the samples with the pattern index, or NaN if there are none
+     */
+    public double mean(long index) {
+        int slot = slot(index, false);
+        return slot == -1 ? Double.NaN : sums[slot] / counts[slot];
+    }
+
+    /**
+     * @return The standard error of the mean of the samples with the pattern index (as for StatSummary.stdErr())
+     */
+    public double stdErr(long index) {
+        int slot = slot(index, false);
+        if (slot == -1)
+            return Double.NaN;
+        int n = counts[slot];
+        double mean = sums[slot] / n;
+        double num = Math.max(0.0, sumSqs[slot] - n * mean * mean);
+        return Math.sqrt(num / (n - 1)) / Math.sqrt(n);
+    }
+
+    public int n(int[] x) {
+        return n(index(x));
+    }
+
+    public double mean(int[] x) {
+        return mean(index(x));
+    }
+
+    public double stdErr(int[] x) {
+        return stdErr(index(x));
     }
 
     /**
-     * For reporting we only want to know about the stats if they already exist.
-     *
-     * So this version provides that.
-     *
-     * @param x
-     * @return
+     * @return The index of every pattern that has been added, in ascending order. A pattern added only with an empty
+     * StatSummary is included, with no samples.
      */
-    public StatSummary getStats(int[] x) {
-        IntArrayPattern key = new IntArrayPattern().setPattern(x, tuple);
-        return ntMap.get(key);
+    public long[] sampledIndices() {
+        long[] retValue = new long[nEntries];
+        int count = 0;
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (occupied[slot])
+                retValue[count++] = dense ? slot : keys[slot];
+        }
+        Arrays.sort(retValue);
+        return retValue;
+    }
+
+    public int nEntries() {
+        return nEntries;
+    }
+
+    public void printNonEmpty() {
+        for (long index : sampledIndices()) {
+            String key = radix == null ? Long.toHexString(index) : Arrays.toString(pattern(index));
+            System.out.println(key + "\t " + n(index) + "\t " + mean(index) + "\t " + stdErr(index) * Math.sqrt(n(index)));
+        }
     }
 
     public int nSamples() {
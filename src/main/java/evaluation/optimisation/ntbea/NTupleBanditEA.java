@@ -3,8 +3,9 @@ package evaluation.optimisation.ntbea;
 import evaluation.optimisation.NTBEAParameters;
 import utilities.StatSummary;
 
-import java.util.Arrays;
-import java.util.Random;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Created by sml on 09/01/2017.
@@ -18,11 +19,15 @@ public class NTupleBanditEA {
     // they are only explored IN THE FITNESS LANDSCAPE MODEL, not by sampling the fitness function
     int nNeighbours;
     int nSamples = 1;
+    // the number of points sent to the evaluator together on each step, which may then evaluate them concurrently
+    int batchSize = 1;
 
     public NTupleBanditEA(LandscapeModel model, NTBEAParameters params) {
         landscapeModel = model;
         this.nNeighbours = params.neighbourhoodSize;
         this.nSamples = params.evaluationsPerTrial;
+        this.batchSize = Math.max(1, params.batchSize);
+        this.rnd = new Random(params.seed);
     }
 
     StatSummary fitness(SolutionEvaluator evaluator, int[] sol) {
@@ -34,7 +39,29 @@ public class NTupleBanditEA {
         return ss;
     }
 
-    Random rnd = new Random();
+    /**
+     * Evaluates every point in the batch nSamples times, in a single call to the evaluator.
+     *
+     * @return the mean fitness of each point, in the same order as the batch
+     */
+    double[] fitness(SolutionEvaluator evaluator, List<int[]> batch) {
+        if (nSamples == 1)
+            return evaluator.evaluate(batch);
+        List<int[]> allSamples = new ArrayList<>(batch.size() * nSamples);
+        for (int[] point : batch)
+            allSamples.addAll(Collections.nCopies(nSamples, point));
+        double[] results = evaluator.evaluate(allSamples);
+        double[] retValue = new double[batch.size()];
+        for (int b = 0; b < batch.size(); b++) {
+            StatSummary ss = new StatSummary();
+            for (int i = 0; i < nSamples; i++)
+                ss.add(results[b * nSamples + i]);
+            retValue[b] = ss.mean();
+        }
+        return retValue;
+    }
+
+    Random rnd;
     SolutionEvaluator evaluator;
 
     public void runTrial(SolutionEvaluator evaluator, int nEvals) {
@@ -47,27 +74,30 @@ public class NTupleBanditEA {
 
         // then each time around the loop try the following
         // create a neighbourhood set of points and pick the best one that combines its exploitation and evaluation scores
+        // With a batchSize greater than one, the next best few neighbours are evaluated alongside it. Their
+        // upper bounds are all taken from the model before any of them is evaluated, so the results do not
+        // depend on the order in which the evaluator completes them.
 
-        int[] p = SearchSpaceUtil.randomPoint(searchSpace);
+        int[] p = SearchSpaceUtil.randomPoint(searchSpace, rnd);
+        List<int[]> batch = List.of(p);
 
-        for (int i = 0; i < nEvals; i++) {
-            // each time around the loop we make one fitness evaluation of p
+        int evalsDone = 0;
+        while (evalsDone < nEvals) {
+            // each time around the loop we make one fitness evaluation of each point in the batch
             // and add this NEW information to the memory
-            double fitness;
-            if (nSamples == 1) {
-                fitness = evaluator.evaluate(p);
-            } else {
-                fitness = fitness(evaluator, p).mean();
-            }
-
-            landscapeModel.addPoint(p, fitness);
+            if (batch.size() > nEvals - evalsDone)
+                batch = batch.subList(0, nEvals - evalsDone);
+            double[] fitness = fitness(evaluator, batch);
+            for (int b = 0; b < batch.size(); b++)
+                landscapeModel.addPoint(batch.get(b), fitness[b]);
+            evalsDone += batch.size();
 
             // and then explore the neighbourhood around p, balancing exploration and exploitation
             // we currently hardcode one mutation function to randomly change one setting at a time
 
             int nDims = searchSpace.nDims();
-            double bestSoFar = Double.NEGATIVE_INFINITY;
-            int[] settingToTryNext = new int[0];
+            List<int[]> neighbours = new ArrayList<>(nNeighbours);
+            List<Double> upperBounds = new ArrayList<>(nNeighbours);
             for (int n = 0; n < nNeighbours; n++) {
                 int[] pp = Arrays.copyOf(p, p.length);
                 boolean mutation = false;
@@ -86,15 +116,35 @@ public class NTupleBanditEA {
                 }
 
                 double estimatedUpperBound = landscapeModel.getUpperBound(pp);
-                if (estimatedUpperBound > bestSoFar) {
-                    settingToTryNext = pp;
-                    bestSoFar = estimatedUpperBound;
+                if (estimatedUpperBound > Double.NEGATIVE_INFINITY) {
+                    neighbours.add(pp);
+                    upperBounds.add(estimatedUpperBound);
                 }
             }
 
-            if (settingToTryNext.length == 0)
-                settingToTryNext = p;
-            p = settingToTryNext;
+            batch = bestNeighbours(neighbours, upperBounds);
+            if (batch.isEmpty())
+                batch = List.of(p);
+            p = batch.get(0);
+        }
+    }
+
+    /**
+     * @return the (up to) batchSize distinct neighbours with the highest upper bounds, best first. Ties are
+     * broken in favour of the neighbour generated first.
+     */
+    private List<int[]> bestNeighbours(List<int[]> neighbours, List<Double> upperBounds) {
+        List<Integer> order = IntStream.range(0, neighbours.size()).boxed()
+                .sorted(Comparator.comparing(upperBounds::get, Comparator.reverseOrder()))
+                .collect(Collectors.toList());
+        List<int[]> retValue = new ArrayList<>(batchSize);
+        for (int i : order) {
+            if (retValue.size() == batchSize)
+                break;
+            int[] candidate = neighbours.get(i);
+            if (retValue.stream().noneMatch(b -> Arrays.equals(b, candidate)))
+                retValue.add(candidate);
         }
+        return retValue;
     }
 }
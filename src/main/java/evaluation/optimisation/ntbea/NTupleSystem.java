@@ -2,7 +2,6 @@ package evaluation.optimisation.ntbea;
 
 import evaluation.optimisation.NTBEAParameters;
 import utilities.Pair;
-import utilities.StatSummary;
 
 import java.util.*;
 import java.util.stream.IntStream;
@@ -93,18 +92,18 @@ public class NTupleSystem implements LandscapeModel {
 
     public double getMeanEstimate(int[] x) {
         // we could get an average ...
-        var ssTot = new StatSummary();
+        double total = 0.0;
+        int count = 0;
         for (NTuple tuple : tuples) {
-            var ss = tuple.getStats(x);
-            if (ss != null) {
-                if (tuple.tuple.length >= minTupleSize) {
-                    var mean = ss.mean();
-                    if (!java.lang.Double.isNaN(mean))
-                        ssTot.add(mean);
+            if (tuple.tuple.length >= minTupleSize) {
+                double mean = tuple.mean(x);
+                if (!Double.isNaN(mean)) {
+                    total += mean;
+                    count++;
                 }
             }
         }
-        return ssTot.mean();
+        return total / count;
     }
 
     @Override
@@ -120,7 +119,9 @@ public class NTupleSystem implements LandscapeModel {
     protected double getExplorationEstimate(int[] x) {
         // just takes the generalised mean of the exploration vector
         double[] vec = getExplorationVector(x);
-        double sumPow = Arrays.stream(vec).map(i -> Math.pow(i, generalisedMeanCoefficient)).sum();
+        double sumPow = 0.0;
+        for (double v : vec)
+            sumPow += Math.pow(v, generalisedMeanCoefficient);
         return Math.pow(sumPow / vec.length, 1.0 / generalisedMeanCoefficient);
     }
 
@@ -130,8 +131,7 @@ public class NTupleSystem implements LandscapeModel {
         double[] retValue = new double[tuples.size()];
         for (int i = 0; i < retValue.length; i++) {
             NTuple tuple = tuples.get(i);
-            var ss = tuple.getStats(x);
-            int n = (ss == null ? 0 : ss.n());
+            int n = tuple.n(x);
             if (simpleRegret) {
                 retValue[i] = Math.sqrt(1 + tuple.nSamples) / (epsilon + n);
             } else {
@@ -191,7 +191,7 @@ public class NTupleSystem implements LandscapeModel {
         String tuplesExploredBySize = Arrays.toString(IntStream.rangeClosed(1, params.searchSpace.nDims())
                 .map(size -> getTuples().stream()
                         .filter(t -> t.tuple.length == size)
-                        .mapToInt(it -> it.ntMap.size())
+                        .mapToInt(NTuple::nEntries)
                         .sum()
                 ).toArray());
 
@@ -200,23 +200,26 @@ public class NTupleSystem implements LandscapeModel {
 
         IntStream.range(0, params.searchSpace.nDims()) // assumes that the first N tuples are the 1-dimensional ones
                 .mapToObj(i -> new Pair<>(params.searchSpace.name(i), getTuples().get(i)))
-                .forEach(nameTuplePair ->
-                        nameTuplePair.b.ntMap.keySet().stream().sorted().forEach(k -> {
-                            StatSummary v = nameTuplePair.b.ntMap.get(k);
-                            System.out.printf("\t%20s\t%s\t%d trials\t mean %.3g +/- %.2g%n", nameTuplePair.a, k, v.n(), v.mean(), v.stdErr());
-                        })
-                );
-
+                .forEach(nameTuplePair -> {
+                    NTuple t = nameTuplePair.b;
+                    for (long k : t.sampledIndices()) {
+                        System.out.printf("\t%20s\t%s\t%d trials\t mean %.3g +/- %.2g%n", nameTuplePair.a,
+                                Arrays.toString(t.pattern(k)), t.n(k), t.mean(k), t.stdErr(k));
+                    }
+                });
+
+        // the full tuple may hash its patterns, so we look these up from the distinct points sampled
         System.out.println("\nSummary of 10 most tried full-tuple statistics:");
         getTuples().stream()
                 .filter(t -> t.tuple.length == params.searchSpace.nDims())
-                .forEach(t -> t.ntMap.keySet().stream()
-                        .map(k -> new Pair<>(k, t.ntMap.get(k)))
-                        .sorted(Comparator.comparing(p -> -p.b.n()))
+                .forEach(t -> sampledPoints.stream()
+                        .map(p -> new IntArrayPattern().setPattern(p))
+                        .distinct()
+                        .sorted(Comparator.comparing(k -> -t.n(k.v)))
                         .limit(10)
-                        .forEach(item ->
+                        .forEach(k ->
                                 System.out.printf("\t%s\t%d trials\t mean %.3g +/- %.2g\t(NTuple estimate: %.3g)%n",
-                                        item.a, item.b.n(), item.b.mean(), item.b.stdErr(), getMeanEstimate(item.a.v))
+                                        k, t.n(k.v), t.mean(k.v), t.stdErr(k.v), getMeanEstimate(k.v))
                         )
                 );
     }
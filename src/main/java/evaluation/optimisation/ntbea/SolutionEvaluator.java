@@ -1,5 +1,7 @@
 package evaluation.optimisation.ntbea;
 
+import java.util.List;
+
 public interface SolutionEvaluator {
     /**
      * Created by simonmarklucas on 06/08/2016.
@@ -21,6 +23,20 @@ public interface SolutionEvaluator {
     double evaluate(int[] solution);
     // has the algorithm found the optimal solution?
 
+    /**
+     * Evaluates a batch of settings, each counting as one evaluation. Implementations may run these concurrently,
+     * but must give the same results as evaluating them one at a time, in order, for the same random seed.
+     *
+     * @param solutions The settings to evaluate, as for evaluate(int[]). The same settings may appear more than once.
+     * @return The fitness of each solution, in the same order
+     */
+    default double[] evaluate(List<int[]> solutions) {
+        double[] retValue = new double[solutions.size()];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = evaluate(solutions.get(i));
+        return retValue;
+    }
+
     /**
      * @return TThe search space being used
      */
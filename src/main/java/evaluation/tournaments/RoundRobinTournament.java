@@ -2,9 +2,14 @@ package evaluation.tournaments;
 
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import core.components.Component;
+import core.interfaces.IGameEvent;
 import evaluation.RunArg;
 import evaluation.listeners.IGameListener;
 import evaluation.listeners.TournamentMetricsGameListener;
+import evaluation.metrics.Event;
 import games.GameType;
 import players.IAnyTimePlayer;
 import utilities.*;
@@ -12,6 +17,10 @@ import utilities.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -46,6 +55,12 @@ public class RoundRobinTournament extends AbstractTournament {
     String seedFile;
     Random seedRnd;
     Map<RunArg, Object> config;
+    // evaluateMatchUp() queues games instead of playing them, and these are then played by runQueuedGames() on
+    // nThreads workers once createAndRunMatchUp() has generated all the matchups
+    protected int nThreads;
+    private final List<QueuedMatchUp> queuedMatchUps = new ArrayList<>();
+    // The last game to have been recorded
+    private Game lastGame;
 
     /**
      * Create a round robin tournament, which plays all agents against all others.
@@ -132,6 +147,7 @@ public class RoundRobinTournament extends AbstractTournament {
         this.randomSeed = ((Number) config.getOrDefault(RunArg.seed, System.currentTimeMillis())).longValue();
         this.seedRnd = new Random(randomSeed);
         this.randomGameParams = (boolean) config.getOrDefault(RunArg.randomGameParams, false);
+        this.nThreads = Math.max(1, (int) config.getOrDefault(RunArg.nThreads, 1));
 
         this.name = String.format("Game: %s, Players: %d, Mode: %s, TotalGames: %d, GamesPerMatchup: %d",
                 gameToPlay.name(), playersPerGame, tournamentMode, actualGames, gamesPerMatchup);
@@ -216,11 +232,29 @@ public class RoundRobinTournament extends AbstractTournament {
     }
 
     /**
-     * Recursively creates one combination of players and evaluates it.
+     * Creates all combinations of players (given the tournament mode) and evaluates them.
      *
      * @param matchUp - current combination of players, updated recursively.
      */
     public void createAndRunMatchUp(List<Integer> matchUp) {
+        generateMatchUps(matchUp);
+        if (!queuedMatchUps.isEmpty())
+            runQueuedGames();
+    }
+
+    /**
+     * @return The last game played (and recorded), or null if none has been
+     */
+    public Game getLastGame() {
+        return lastGame;
+    }
+
+    /**
+     * Recursively creates one combination of players and evaluates it.
+     *
+     * @param matchUp - current combination of players, updated recursively.
+     */
+    protected void generateMatchUps(List<Integer> matchUp) {
 
         int nTeams = byTeam ? game.getGameState().getNTeams() : nPlayers;
         if (gameSeeds == null || gameSeeds.isEmpty()) {
@@ -291,7 +325,7 @@ public class RoundRobinTournament extends AbstractTournament {
                     for (Integer agentID : this.allAgentIds) {
                         if (tournamentMode == EXHAUSTIVE_SELF_PLAY || !matchUp.contains(agentID)) {
                             matchUp.add(agentID);
-                            createAndRunMatchUp(matchUp);
+                            generateMatchUps(matchUp);
                             matchUp.remove(agentID);
                         }
                     }
@@ -309,61 +343,214 @@ public class RoundRobinTournament extends AbstractTournament {
             throw new AssertionError("Not enough seeds for the number of games requested");
         if (debug)
             System.out.printf("Evaluate %s at %tT%n", agentIDsInThisGame.toString(), System.currentTimeMillis());
-        LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
+        queueMatchUp(agentIDsInThisGame, nGames, seeds);
+    }
+
+    /**
+     * Records the results of a finished game
+     *
+     * @param finishedGame - the game that has just been played
+     * @param matchUpSize  - the number of agents (or teams) in the game
+     */
+    protected void recordGame(Game finishedGame, int matchUpSize) {
+        GameResult[] results = finishedGame.getGameState().getPlayerResults();
 
-        // create a copy of the player to avoid them sharing the same state
-        for (int agentID : agentIDsInThisGame)
-            matchUpPlayers.add(this.agents.get(agentID).copy());
+        tournamentResults.record(finishedGame);
 
         if (verbose) {
             StringBuffer sb = new StringBuffer();
             sb.append("[");
-            for (int agentID : agentIDsInThisGame)
-                sb.append(this.agents.get(agentID).toString()).append(",");
+            for (int j = 0; j < matchUpSize; j++) {
+                for (int player = 0; player < finishedGame.getGameState().getNPlayers(); player++) {
+                    if (finishedGame.getGameState().getTeam(player) == j) {
+                        sb.append(results[player]).append(",");
+                        break; // we stop after one player on the team to avoid double counting
+                    }
+                }
+            }
             sb.setCharAt(sb.length() - 1, ']');
             System.out.println(sb);
         }
+    }
 
-        // TODO : Not sure this is the ideal place for this...ask Raluca
-        Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
-        for (IGameListener listener : listeners) {
-            if (listener instanceof TournamentMetricsGameListener) {
-                ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
+    /**
+     * Queues nGames of one combination of players to be run later (in parallel if nThreads > 1).
+     * Everything that consumes random numbers (copying the agents, randomising the parameters) or allocates
+     * a game ID is done here on the calling thread, so that this does not depend on how the games are scheduled.
+     */
+    private void queueMatchUp(List<Integer> agentIDsInThisGame, int nGames, List<Integer> seeds) {
+        QueuedMatchUp matchUp = new QueuedMatchUp(new ArrayList<>(agentIDsInThisGame));
+        for (int i = 0; i < nGames; i++) {
+            // each game needs its own copy of the players and the parameters, as they will run concurrently
+            List<AbstractPlayer> players = new ArrayList<>();
+            for (int agentID : agentIDsInThisGame)
+                players.add(this.agents.get(agentID).copy());
+            AbstractParameters params = game.getGameState().getGameParameters().copy();
+            params.setRandomSeed(seeds.get(i));
+            if (randomGameParams)
+                params.randomize();
+            matchUp.games.add(new QueuedGame(matchUp, players, seeds.get(i), params, Game.nextGameID()));
+        }
+        queuedMatchUps.add(matchUp);
+    }
+
+    /**
+     * Plays all queued games on a pool of nThreads workers (one worker if nThreads is 1, so that every thread count
+     * plays exactly the same games).
+     * Each game is independent (its own Game, forward model, state and agents). The events of each game are
+     * buffered as it is played (with a snapshot of the state, as the game goes on to change it). Once a game has
+     * finished, its events are passed to the listeners and its results recorded, on the calling thread and
+     * strictly in the order in which the games were queued, so the listeners see the same sequence of events
+     * whatever the number of threads. A listener that reads the live Game (timings, the agents' search trees and
+     * so on) therefore sees it as it is at the end of the game.
+     * We keep at most a few games per thread in flight ahead of the one being recorded, so that memory use does
+     * not grow with the size of the tournament.
+     */
+    private void runQueuedGames() {
+        List<QueuedGame> allGames = queuedMatchUps.stream().flatMap(m -> m.games.stream()).collect(toList());
+        int window = nThreads * 4;
+        int submitted = 0;
+        int recorded = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads, Component.idReleasingThreads("RoundRobinTournament", false));
+        try {
+            for (QueuedMatchUp matchUp : queuedMatchUps) {
+                if (verbose) {
+                    System.out.println(matchUp.agentIDs.stream().map(id -> agents.get(id).toString())
+                            .collect(Collectors.joining(",", "[", "]")));
+                }
+                if (matchUp.games.isEmpty())
+                    continue;
+                // the tournament listeners record each combination of players separately
+                Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
+                for (IGameListener listener : listeners) {
+                    if (listener instanceof TournamentMetricsGameListener) {
+                        ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUp.games.get(0).players));
+                    }
+                }
+                for (QueuedGame queued : matchUp.games) {
+                    while (submitted < allGames.size() && submitted < recorded + window) {
+                        QueuedGame next = allGames.get(submitted++);
+                        next.result = executor.submit(() -> playQueuedGame(next));
+                    }
+                    Game finishedGame = queued.result.get();
+                    queued.result = null;
+                    recorded++;
+                    for (IGameListener listener : listeners)
+                        listener.setGame(finishedGame);
+                    for (Event event : queued.events) {
+                        for (IGameListener listener : listeners) {
+                            Set<IGameEvent> eventTypes = listener.getEventTypes();
+                            if (eventTypes == null || eventTypes.contains(event.type))
+                                listener.onEvent(event);
+                        }
+                    }
+                    queued.events = null;
+                    if (randomGameParams)
+                        System.out.println("Game parameters: " + finishedGame.getGameState().getGameParameters());
+                    recordGame(finishedGame, matchUp.agentIDs.size());
+                    lastGame = finishedGame;
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running games", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while running game", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            queuedMatchUps.clear();
+            for (IGameListener listener : listeners)
+                listener.setGame(game);
         }
+    }
 
-        // Run the game N = gamesPerMatchUp times with these players
-        for (int i = 0; i < nGames; i++) {
-            // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed for the whole tournament
-            // so we override the standard random seeds
-            game.reset(matchUpPlayers, seeds.get(i));
-
-            // Randomize parameters
-            if (randomGameParams) {
-                game.getGameState().getGameParameters().randomize();
-                System.out.println("Game parameters: " + game.getGameState().getGameParameters());
+    /**
+     * Plays one queued game to completion, buffering the events the listeners want. This is run on a worker thread.
+     */
+    private Game playQueuedGame(QueuedGame queued) {
+        Game newGame = game.getGameType().createGameInstance(nPlayers, queued.seed, queued.params);
+        newGame.setActionValidation((boolean) config.getOrDefault(RunArg.validateActionInGame, true));
+        if (!listeners.isEmpty()) {
+            Set<IGameEvent> eventTypes = new HashSet<>();
+            boolean needsState = false;
+            for (IGameListener listener : listeners) {
+                needsState |= listener.needsState();
+                if (eventTypes != null) {
+                    if (listener.getEventTypes() == null)
+                        eventTypes = null;
+                    else
+                        eventTypes.addAll(listener.getEventTypes());
+                }
             }
+            Set<IGameEvent> wanted = eventTypes;
+            boolean copyState = needsState;
+            newGame.addListener(new IGameListener() {
+                @Override
+                public void onEvent(Event event) {
+                    // the game goes on to change the state and actions, so we keep copies (as EventBus does for
+                    // asynchronous listeners)
+                    List<AbstractAction> actions = null;
+                    if (event.actions != null) {
+                        actions = new ArrayList<>(event.actions.size());
+                        for (AbstractAction action : event.actions)
+                            actions.add(action == null ? null : action.copy());
+                    }
+                    queued.events.add(Event.createEvent(event.type,
+                            copyState && event.state != null ? event.state.snapshot() : null,
+                            event.action == null ? null : event.action.copy(),
+                            actions,
+                            event.playerID));
+                }
 
-            game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
+                @Override
+                public void report() {
+                }
 
-            tournamentResults.record(game);
+                @Override
+                public void setGame(Game game) {
+                }
 
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
-                    }
+                @Override
+                public Game getGame() {
+                    return newGame;
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
-            }
 
+                @Override
+                public Set<IGameEvent> getEventTypes() {
+                    return wanted;
+                }
+            });
+        }
+        newGame.reset(queued.players, queued.seed, queued.gameID);
+        newGame.run();
+        return newGame;
+    }
+
+    private static class QueuedMatchUp {
+        final List<Integer> agentIDs;
+        final List<QueuedGame> games = new ArrayList<>();
+
+        QueuedMatchUp(List<Integer> agentIDs) {
+            this.agentIDs = agentIDs;
+        }
+    }
+
+    private static class QueuedGame {
+        final QueuedMatchUp matchUp;
+        final List<AbstractPlayer> players;
+        final long seed;
+        final AbstractParameters params;
+        final int gameID;
+        Future<Game> result;
+        // The events of the game, to be passed to the listeners once it has finished
+        List<Event> events = new ArrayList<>();
+
+        QueuedGame(QueuedMatchUp matchUp, List<AbstractPlayer> players, long seed, AbstractParameters params, int gameID) {
+            this.matchUp = matchUp;
+            this.players = players;
+            this.seed = seed;
+            this.params = params;
+            this.gameID = gameID;
         }
     }
 
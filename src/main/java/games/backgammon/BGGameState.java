@@ -257,7 +257,7 @@ public class BGGameState extends AbstractGameState {
 
     @Override
     protected BGGameState _copy(int playerId) {
-        BGGameState copy = new BGGameState(gameParameters, getNPlayers());
+        BGGameState copy = new BGGameState(gameParameters.snapshot(), getNPlayers());
         copy.piecesBorneOff = Arrays.copyOf(piecesBorneOff, piecesBorneOff.length);
         copy.blots = Arrays.copyOf(blots, blots.length);
         copy.dice = new Dice[dice.length];
@@ -48,6 +48,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
@@ -111,6 +116,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(CatanEvent.SetupComplete);
@@ -155,6 +165,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(CatanEvent.PortSettle);
@@ -186,6 +201,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
@@ -224,6 +244,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Arrays.asList(CatanEvent.SevenOut, CatanEvent.RobberRoll));
@@ -256,6 +281,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Arrays.asList(CatanEvent.LongestRoadSteal, CatanEvent.LargestArmySteal));
@@ -298,6 +328,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.ACTION_CHOSEN);
@@ -347,6 +382,11 @@ public class CatanMetrics implements IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Arrays.asList(Event.GameEvent.TURN_OVER, Event.GameEvent.GAME_OVER));
@@ -413,6 +453,11 @@ public class CatanMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
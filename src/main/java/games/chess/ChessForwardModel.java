@@ -52,6 +52,12 @@ public class ChessForwardModel extends StandardForwardModel {
         chessState.halfMoveClock = 0;
     }
 
+    @Override
+    public boolean supportsUndo() {
+        // all changes to pieces, the board and the move counts go through ChessGameState, which records them
+        return true;
+    }
+
     /**
      * Calculates the list of currently available actions, possibly depending on the game phase.
      * @return - List of AbstractAction objects.
@@ -2,6 +2,7 @@ package games.chess;
 
 import core.AbstractGameState;
 import core.AbstractParameters;
+import core.ZobristHash;
 import core.actions.AbstractAction;
 import core.components.Component;
 import games.chess.components.ChessBoard;
@@ -52,7 +53,7 @@ public class ChessGameState extends AbstractGameState {
 
     @Override
     protected ChessGameState _copy(int playerId) {
-        ChessGameState copy = new ChessGameState(getGameParameters(), getNPlayers());
+        ChessGameState copy = new ChessGameState(getGameParameters().snapshot(), getNPlayers());
         copy.whitePieces = new ArrayList<>();
         copy.whitePieces.addAll(whitePieces.stream().map(ChessPiece::copy).toList());
         copy.blackPieces = new ArrayList<>();
@@ -152,13 +153,50 @@ public class ChessGameState extends AbstractGameState {
         return Objects.hash(super.hashCode(), halfMoveClock, whitePieces, blackPieces, gameStateCounts, board);
     }
 
+    @Override
+    public boolean supportsIncrementalHash() {
+        return true;
+    }
+
+    /**
+     * The hash covers the pieces on the board and the half-move clock. The repetition counts are not included, as
+     * they depend on the path taken to a position rather than on the position itself.
+     */
+    @Override
+    protected long _computeIncrementalHash() {
+        long hash = halfMoveClockKey(halfMoveClock);
+        for (ChessPiece piece : whitePieces)
+            hash ^= pieceKey(piece);
+        for (ChessPiece piece : blackPieces)
+            hash ^= pieceKey(piece);
+        return hash;
+    }
+
+    private static long pieceKey(ChessPiece piece) {
+        return ZobristHash.key(piece.getChessPieceType().ordinal(), piece.getOwnerId(),
+                piece.getX() * 8 + piece.getY(), piece.getMoved().ordinal() * 2 + (piece.getEnPassant() ? 1 : 0));
+    }
+
+    private static long halfMoveClockKey(int clock) {
+        return ZobristHash.key(-1, clock);
+    }
+
     public ChessBoard getBoard() {
         return board;
     }
 
     public void setPiece(int x, int y, ChessPiece piece) {
+        if (isJournaling()) {
+            ChessPiece previous = board.getPiece(x, y);
+            recordUndo(() -> {
+                if (piece != null)
+                    getPlayerPieces(piece.getOwnerId()).remove(getPlayerPieces(piece.getOwnerId()).size() - 1);
+                board.setPiece(x, y, previous);
+            });
+        }
         board.setPiece(x, y, piece);
         if (piece != null) {
+            updateHash(pieceKey(piece));
             if (piece.getOwnerId() == 0) {
                 whitePieces.add(piece);
             } else if (piece.getOwnerId() == 1) {
@@ -186,6 +224,9 @@ public class ChessGameState extends AbstractGameState {
             throw new IllegalArgumentException("Trying to delete a null piece");
         }
         int[] position = piece.getPosition();
+        if (isJournaling())
+            recordDeletion(piece);
+        updateHash(pieceKey(piece));
         board.setPiece(position[0], position[1], null); // Remove the piece from the board
         if (piece.getOwnerId() == 0) {
             whitePieces.remove(piece);
@@ -194,6 +235,44 @@ public class ChessGameState extends AbstractGameState {
         }
     }
 
+    /**
+     * Records how to put back a piece that is about to be deleted. As every move starts by deleting the piece from
+     * its old square, this also reverts any changes made to the piece itself later in the same action.
+     */
+    private void recordDeletion(ChessPiece piece) {
+        ChessPiece.ChessPieceType type = piece.getChessPieceType();
+        ChessPiece.MovedState moved = piece.getMoved();
+        boolean enPassant = piece.getEnPassant();
+        int x = piece.getX(), y = piece.getY();
+        int index = getPlayerPieces(piece.getOwnerId()).indexOf(piece);
+        recordUndo(() -> {
+            piece.setChessPieceType(type);
+            piece.setMoved(moved);
+            piece.setEnPassant(enPassant);
+            board.setPiece(x, y, piece);
+            if (index > -1)
+                getPlayerPieces(piece.getOwnerId()).add(index, piece);
+        });
+    }
+
+    /**
+     * Sets the moved flag of a piece that is on the board.
+     */
+    public void setPieceMoved(ChessPiece piece, ChessPiece.MovedState movedState) {
+        updateHash(pieceKey(piece));
+        piece.setMoved(movedState);
+        updateHash(pieceKey(piece));
+    }
+
+    /**
+     * Changes the type of a piece that is on the board, as in a promotion.
+     */
+    public void setPieceType(ChessPiece piece, ChessPiece.ChessPieceType type) {
+        updateHash(pieceKey(piece));
+        piece.setChessPieceType(type);
+        updateHash(pieceKey(piece));
+    }
+
     public void updatePiecePosition(ChessPiece piece, int x, int y) {
         deletePiece(piece); // Remove the piece from its original position
         piece.setPosition(x, y); // Update the piece's position
@@ -369,14 +448,27 @@ public class ChessGameState extends AbstractGameState {
         return sb.toString();
     }
     public void incrementHalfMoveClock() {
-        halfMoveClock++;
+        setHalfMoveClock(halfMoveClock + 1);
     }
     public void resetHalfMoveClock() {
-        halfMoveClock = 0;
+        setHalfMoveClock(0);
+    }
+    private void setHalfMoveClock(int value) {
+        int previous = halfMoveClock;
+        recordUndo(() -> halfMoveClock = previous);
+        updateHash(halfMoveClockKey(previous) ^ halfMoveClockKey(value));
+        halfMoveClock = value;
     }
     public boolean AddCheckRepetitionCount() {
         // Check if the current board state has been seen before
         int boardHash = Objects.hash(board.hashCode(), getCurrentPlayer());
+        if (isJournaling()) {
+            Integer previous = gameStateCounts.get(boardHash);
+            recordUndo(() -> {
+                if (previous == null) gameStateCounts.remove(boardHash);
+                else gameStateCounts.put(boardHash, previous);
+            });
+        }
         if (gameStateCounts.containsKey(boardHash)) {
             gameStateCounts.put(boardHash, gameStateCounts.get(boardHash) + 1);
             if (gameStateCounts.get(boardHash) >= 3) { 
@@ -398,7 +490,12 @@ public class ChessGameState extends AbstractGameState {
     public void resetEnPassant() {
         for (ChessPiece piece : getPlayerPieces(getCurrentPlayer())){
             if (piece.getChessPieceType() == ChessPiece.ChessPieceType.PAWN) {
-                piece.setEnPassant(false); // Reset en passant for all pawns
+                if (piece.getEnPassant()) {
+                    recordUndo(() -> piece.setEnPassant(true));
+                    updateHash(pieceKey(piece));
+                    piece.setEnPassant(false); // Reset en passant for all pawns
+                    updateHash(pieceKey(piece));
+                }
                 board.setPiece(piece.getPosition()[0], piece.getPosition()[1], piece); // Update the board with the new piece state
             }
         }
@@ -51,8 +51,8 @@ public class Castle extends AbstractAction {
         }
 
         // Set the moved flags.
-        king.setMoved(MovedState.MOVED); // Set the moved flag for the king
-        rook.setMoved(MovedState.MOVED); // Set the moved flag for the roo
+        gs.setPieceMoved(king, MovedState.MOVED); // Set the moved flag for the king
+        gs.setPieceMoved(rook, MovedState.MOVED); // Set the moved flag for the roo
            
         return true;
     }
@@ -42,7 +42,7 @@ public class CCGameState extends AbstractGameState {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        CCGameState copy = new CCGameState(gameParameters, getNPlayers());
+        CCGameState copy = new CCGameState(gameParameters.snapshot(), getNPlayers());
         copy.starBoard = starBoard.copy();
 
         return copy;
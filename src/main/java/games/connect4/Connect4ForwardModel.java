@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 
 public class Connect4ForwardModel extends SequentialActionForwardModel {
@@ -25,29 +26,66 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         state.winnerCells = new LinkedList<>();
     }
 
+    @Override
+    public boolean supportsUndo() {
+        // SetGridValueAction and Connect4GameState.registerWinningCells() record the changes they make
+        return true;
+    }
+
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        Connect4GameState c4gs = (Connect4GameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _fillAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _fillAvailableActions(AbstractGameState gameState, List<AbstractAction> buffer) {
+        Connect4GameState c4gs = (Connect4GameState) gameState;
         int player = c4gs.getCurrentPlayer();
 
         if (gameState.isNotTerminal())
             for (int x = 0; x < c4gs.gridBoard.getWidth(); x++) {
-                int y = c4gs.gridBoard.getHeight() - 1; // this is bottom of column
-                boolean end = false;
-                while(!end)
-                {
-                    boolean newCol = false;
-                    if (c4gs.gridBoard.getElement(x, y).getComponentName().equals(Connect4Constants.emptyCell)) {
-                        actions.add(new SetGridValueAction(c4gs.gridBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player).getComponentID()));
-                        newCol = true;
-                    }
-
-                    //Stop when reaching top (column is full) or on finding the first empty cell (action available)
-                    end = (--y <  0 || newCol);
-                }
+                int y = lowestEmptyCell(c4gs.gridBoard, x);
+                if (y > -1)
+                    buffer.add(new SetGridValueAction(c4gs.gridBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player).getComponentID()));
             }
-        return actions;
+    }
+
+    /**
+     * Picks a random column that is not yet full, so that the only allocation is the action.
+     */
+    @Override
+    protected AbstractAction _randomAvailableAction(AbstractGameState gameState, Random rnd) {
+        Connect4GameState c4gs = (Connect4GameState) gameState;
+        if (!gameState.isNotTerminal())
+            return null;
+        GridBoard grid = c4gs.gridBoard;
+        int open = 0;
+        for (int x = 0; x < grid.getWidth(); x++) {
+            if (lowestEmptyCell(grid, x) > -1) open++;
+        }
+        if (open == 0)
+            return null;
+        int choice = rnd.nextInt(open);
+        for (int x = 0; x < grid.getWidth(); x++) {
+            int y = lowestEmptyCell(grid, x);
+            if (y > -1 && choice-- == 0)
+                return new SetGridValueAction(grid.getComponentID(), x, y, Connect4Constants.playerMapping.get(c4gs.getCurrentPlayer()).getComponentID());
+        }
+        throw new AssertionError("Open column not found");
+    }
+
+    /**
+     * @return the row of the lowest empty cell in column x (the bottom of the column is the highest row), or -1 if
+     * the column is full
+     */
+    private static int lowestEmptyCell(GridBoard grid, int x) {
+        for (int y = grid.getHeight() - 1; y >= 0; y--) {
+            if (grid.getElement(x, y).getComponentName().equals(Connect4Constants.emptyCell))
+                return y;
+        }
+        return -1;
     }
 
     @Override
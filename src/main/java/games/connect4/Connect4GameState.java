@@ -50,7 +50,7 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        Connect4GameState s = new Connect4GameState(gameParameters.copy(), getNPlayers());
+        Connect4GameState s = new Connect4GameState(gameParameters.snapshot(), getNPlayers());
         s.gridBoard = gridBoard.copy();
 
         s.winnerCells.clear();
@@ -105,6 +105,16 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return Objects.hash(super.hashCode(), gridBoard);
     }
 
+    @Override
+    public boolean supportsIncrementalHash() {
+        return true;
+    }
+
+    @Override
+    protected long _computeIncrementalHash() {
+        return gridBoard.zobristHash();
+    }
+
     @Override
     public GridBoard getGridBoard() {
         return gridBoard;
@@ -116,6 +126,8 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     }
 
     void registerWinningCells(LinkedList<Pair<Integer, Integer>> winnerCells) {
+        LinkedList<Pair<Integer, Integer>> previous = this.winnerCells;
+        recordUndo(() -> this.winnerCells = previous);
         this.winnerCells = winnerCells;
     }
 
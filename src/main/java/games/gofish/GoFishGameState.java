@@ -39,7 +39,7 @@ public class GoFishGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected GoFishGameState _copy(int playerId) {
-        GoFishGameState copy = new GoFishGameState(gameParameters.copy(), getNPlayers());
+        GoFishGameState copy = new GoFishGameState(gameParameters.snapshot(), getNPlayers());
 
         // Core status
         copy.gameStatus = this.gameStatus;
@@ -70,7 +70,7 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.copy(), getNPlayers());
+        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.snapshot(), getNPlayers());
         llgs.drawPile = drawPile.copy();
         llgs.reserveCards = reserveCards.copy();
         llgs.removedCard = removedCard.copy();
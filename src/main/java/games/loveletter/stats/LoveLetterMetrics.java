@@ -86,6 +86,11 @@ public class LoveLetterMetrics implements IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<IGameEvent>() {{
@@ -148,6 +153,11 @@ public class LoveLetterMetrics implements IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<IGameEvent>() {{
@@ -222,6 +232,11 @@ public class LoveLetterMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.ACTION_CHOSEN);
@@ -42,7 +42,7 @@ public class MMGameState extends AbstractGameState {
     @Override
     protected AbstractGameState _copy(int playerId) {
         MMParameters mmp = (MMParameters) getGameParameters();
-        MMGameState copy = new MMGameState(gameParameters, playerId);
+        MMGameState copy = new MMGameState(gameParameters.snapshot(), playerId);
         copy.guessBoard = guessBoard.copy();
         copy.resultBoard = resultBoard.copy();
         copy.activeRow = activeRow;
@@ -96,7 +96,7 @@ public class MonopolyDealGameState extends AbstractGameState {
      */
     @Override
     protected MonopolyDealGameState _copy(int playerId) {
-        MonopolyDealGameState retValue = new MonopolyDealGameState(gameParameters.copy(), getNPlayers());
+        MonopolyDealGameState retValue = new MonopolyDealGameState(gameParameters.snapshot(), getNPlayers());
 
         // Placeholder to know how many cards each player had for redrawing cards
         int[] playerHandSize = new int[getNPlayers()];
@@ -201,6 +201,11 @@ public class MonopolyDealMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(GAME_OVER);
@@ -260,6 +265,11 @@ public class MonopolyDealMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(TURN_OVER);
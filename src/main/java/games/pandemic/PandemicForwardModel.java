@@ -119,15 +119,12 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
 
         nextPlayerRule.setNext(root);
 
-        // Next rule to execute is root
-        nextRule = root;
-
         // Draw game tree from root
 //        new GameFlowDiagram(root);
     }
 
     /**
-     * Copy constructor from root node.
+     * Constructor from root node, sharing the rule graph.
      * @param root - root rule node.
      */
     public PandemicForwardModel(Node root) {
@@ -360,9 +357,13 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         else return getPlayerActions(pgs);
     }
 
+    /**
+     * The rule graph is not modified as games are played (the position in it is kept in each game state), so the
+     * copy shares it.
+     * @return - forward model running the same rule graph.
+     */
     public PandemicForwardModel copy() {
-        PandemicForwardModel retValue = new PandemicForwardModel(copyRoot());
-        return retValue;
+        return new PandemicForwardModel(root);
     }
 
     @Override
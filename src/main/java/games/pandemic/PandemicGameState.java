@@ -222,7 +222,7 @@ public class PandemicGameState extends AbstractGameStateWithTurnOrder implements
 
     @Override
     protected AbstractGameStateWithTurnOrder __copy(int playerId) {
-        PandemicGameState gs = new PandemicGameState(gameParameters.copy(), getNPlayers());
+        PandemicGameState gs = new PandemicGameState(gameParameters.snapshot(), getNPlayers());
 
         gs.areas = new HashMap<>();
         for(int key : areas.keySet())
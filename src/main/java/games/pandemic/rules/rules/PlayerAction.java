@@ -1,6 +1,7 @@
 package games.pandemic.rules.rules;
 
 import core.AbstractGameStateWithTurnOrder;
+import core.actions.AbstractAction;
 import core.actions.DrawCard;
 import core.components.Card;
 import core.components.Counter;
@@ -21,13 +22,11 @@ import static core.CoreConstants.nameHash;
 
 public class PlayerAction extends core.rules.rulenodes.PlayerAction {
 
-    private int playerHandOverCapacity;
     private int n_initial_disease_cubes;
 
     public PlayerAction(int n_initial_disease_cubes) {
         super();
         this.n_initial_disease_cubes = n_initial_disease_cubes;
-        this.playerHandOverCapacity = -1;
     }
 
     /**
@@ -37,7 +36,6 @@ public class PlayerAction extends core.rules.rulenodes.PlayerAction {
     public PlayerAction(PlayerAction playerAction) {
         super(playerAction);
         this.n_initial_disease_cubes = playerAction.n_initial_disease_cubes;
-        this.playerHandOverCapacity = playerAction.playerHandOverCapacity;
     }
 
     @Override
@@ -46,6 +44,7 @@ public class PlayerAction extends core.rules.rulenodes.PlayerAction {
             PandemicGameState pgs = (PandemicGameState) gs;
             PandemicTurnOrder pto = (PandemicTurnOrder) pgs.getTurnOrder();
             int playerIdx = pto.getCurrentPlayer(gs);
+            AbstractAction action = getAction(gs);
 
             if (action instanceof QuietNight) {
                 pgs.setQuietNight(true);
@@ -70,9 +69,9 @@ public class PlayerAction extends core.rules.rulenodes.PlayerAction {
                 // Player hand may be over capacity, set parameter to inform next decision
                 Deck<Card> deckTo = (Deck<Card>) gs.getComponentById(((DrawCard) action).getDeckTo());
                 Deck<Card> playerHand = (Deck<Card>) pgs.getComponentActingPlayer(playerHandHash);
-                if (deckTo != null && deckTo.isOverCapacity()) playerHandOverCapacity = deckTo.getOwnerId();
-                else if (playerHand != null && playerHand.isOverCapacity()) playerHandOverCapacity = playerIdx;
-                else playerHandOverCapacity = -1;
+                if (deckTo != null && deckTo.isOverCapacity()) setPlayerHandOverCapacity(gs, deckTo.getOwnerId());
+                else if (playerHand != null && playerHand.isOverCapacity()) setPlayerHandOverCapacity(gs, playerIdx);
+                else setPlayerHandOverCapacity(gs, -1);
             }
 
             // Check if this was an event action or a reaction. These actions are always played with the event card.
@@ -89,12 +88,17 @@ public class PlayerAction extends core.rules.rulenodes.PlayerAction {
         return false;
     }
 
-    public int getPlayerHandOverCapacity() {
-        return playerHandOverCapacity;
+    /**
+     * @param gs - game state to check.
+     * @return - the player whose hand went over capacity after the last card action executed by this node in the
+     * given game state, -1 if none.
+     */
+    public int getPlayerHandOverCapacity(AbstractGameStateWithTurnOrder gs) {
+        return getParameter(gs, -1);
     }
 
-    public void setPlayerHandOverCapacity(int playerHandOverCapacity) {
-        this.playerHandOverCapacity = playerHandOverCapacity;
+    public void setPlayerHandOverCapacity(AbstractGameStateWithTurnOrder gs, int playerHandOverCapacity) {
+        setParameter(gs, playerHandOverCapacity);
     }
 
     @Override
@@ -56,7 +56,7 @@ public class PenteGameState extends AbstractGameState {
 
     @Override
     protected PenteGameState _copy(int playerId) {
-        PenteGameState copy = new PenteGameState(getGameParameters(), getNPlayers());
+        PenteGameState copy = new PenteGameState(getGameParameters().snapshot(), getNPlayers());
         copy.board = new ArrayList<>();
         for (List<Token> tokens : this.board) {
             List<Token> newTokens = new ArrayList<>();
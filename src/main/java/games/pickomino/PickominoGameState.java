@@ -75,7 +75,7 @@ public class PickominoGameState extends AbstractGameState {
      */
     @Override
     protected PickominoGameState _copy(int playerId) {
-        PickominoGameState copy = new PickominoGameState(gameParameters, getNPlayers());
+        PickominoGameState copy = new PickominoGameState(gameParameters.snapshot(), getNPlayers());
         copy.remainingTiles = remainingTiles.copy();
         copy.playerTiles = playerTiles.stream().map(Deck::copy).collect(Collectors.toList());
         copy.assignedDices = assignedDices.clone();
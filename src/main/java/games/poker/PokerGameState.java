@@ -275,7 +275,7 @@ public class PokerGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        PokerGameState copy = new PokerGameState(gameParameters.copy(), getNPlayers());
+        PokerGameState copy = new PokerGameState(gameParameters.snapshot(), getNPlayers());
         copy.communityCards = communityCards.copy();
         copy.moneyPots = new ArrayList<>();
         for (MoneyPot pot : moneyPots) {
@@ -102,7 +102,7 @@ public class PowerGridGameState extends AbstractGameState {
 
     @Override
     protected PowerGridGameState _copy(int playerId) {
-        PowerGridGameState copy = new PowerGridGameState(gameParameters, getNPlayers());
+        PowerGridGameState copy = new PowerGridGameState(gameParameters.snapshot(), getNPlayers());
 
         // Components 
         copy.gameMap        = (this.gameMap == null) ? null : this.gameMap.copy();
@@ -111,7 +111,7 @@ public class ResGameState extends AbstractGameState {
 
     @Override
     protected ResGameState _copy(int playerId) {
-        ResGameState copy = new ResGameState(gameParameters.copy(), getNPlayers());
+        ResGameState copy = new ResGameState(gameParameters.snapshot(), getNPlayers());
         copy.gameBoard = gameBoard;
         copy.factions = factions;
 
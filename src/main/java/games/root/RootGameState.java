@@ -171,7 +171,7 @@ public class RootGameState extends AbstractGameState {
     //Returns a deep copy of the game state from the viewpoints of a player
     @Override
     protected RootGameState _copy(int playerId) {
-        RootGameState copy = new RootGameState(gameParameters, getNPlayers());
+        RootGameState copy = new RootGameState(gameParameters.snapshot(), getNPlayers());
         copy.gameMap = gameMap.copy();
         copy.mapType = mapType;
         copy.playerFactions = new ArrayList<>(playerFactions);
@@ -65,7 +65,7 @@ public class SaboteurGameState extends AbstractGameState {
 
     @Override
     protected SaboteurGameState _copy(int playerId) {
-        SaboteurGameState copy = new SaboteurGameState(gameParameters, getNPlayers());
+        SaboteurGameState copy = new SaboteurGameState(gameParameters.snapshot(), getNPlayers());
 
         //copying brokenToolsDeck
         copy.toolDeck = new ArrayList<>();
@@ -84,7 +84,7 @@ public class SeaSaltPaperGameState extends AbstractGameState implements IPrintab
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        SeaSaltPaperGameState gsCopy = new SeaSaltPaperGameState(gameParameters.copy(), getNPlayers());
+        SeaSaltPaperGameState gsCopy = new SeaSaltPaperGameState(gameParameters.snapshot(), getNPlayers());
         SeaSaltPaperParameters params = (SeaSaltPaperParameters) gameParameters;
 
         gsCopy.saveState = playerId < 0 && saveState; // Copy saveState if playerId < 0, else false
@@ -35,7 +35,7 @@ public class StrategoGameState extends AbstractGameState{
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        StrategoGameState s = new StrategoGameState(gameParameters.copy(), 2);
+        StrategoGameState s = new StrategoGameState(gameParameters.snapshot(), 2);
         s.gridBoard = gridBoard.emptyCopy();
         Piece.Alliance playerAlliance = null;
 
@@ -110,6 +110,11 @@ public class StrategoMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(StrategoEvent.BattleOutcome);
@@ -168,6 +173,11 @@ public class StrategoMetrics implements IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.ACTION_CHOSEN);
@@ -212,6 +222,11 @@ public class StrategoMetrics implements IMetricsCollection {
             return true;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
@@ -14,6 +14,7 @@ import utilities.ActionTreeNode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 
 public class TicTacToeForwardModel extends StandardForwardModel implements ITreeActionSpace {
@@ -27,28 +28,70 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
     }
 
 
+    @Override
+    public boolean supportsUndo() {
+        // the only changes to game-specific state are made by SetGridValueAction, which records them
+        return true;
+    }
+
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
         return _computeAvailableActions(gameState, ActionSpace.Default);
     }
 
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace) {
-        TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         ArrayList<AbstractAction> actions = new ArrayList<>();
+        _fillAvailableActions(gameState, actions);
+        return actions;
+    }
+
+    @Override
+    protected void _fillAvailableActions(AbstractGameState gameState, List<AbstractAction> buffer) {
+        TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         int player = gameState.getCurrentPlayer();
 
         if (gameState.isNotTerminal()){
             // Normal action space
             for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
                 for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                    if (tttgs.gridBoard.getElement(x, y).getComponentName().equals(TicTacToeConstants.emptyCell)) {
-                        actions.add(new SetGridValueAction(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player).getComponentID()));
+                    if (isEmpty(tttgs.gridBoard, x, y)) {
+                        buffer.add(new SetGridValueAction(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player).getComponentID()));
                     }
                 }
             }
         }
-        return actions;
+    }
+
+    /**
+     * Counts the empty cells, and then walks to a random one of them, so that the only allocation is the action.
+     */
+    @Override
+    protected AbstractAction _randomAvailableAction(AbstractGameState gameState, Random rnd) {
+        TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
+        if (!gameState.isNotTerminal())
+            return null;
+        GridBoard grid = tttgs.gridBoard;
+        int empty = 0;
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (isEmpty(grid, x, y)) empty++;
+            }
         }
+        if (empty == 0)
+            return null;
+        int choice = rnd.nextInt(empty);
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (isEmpty(grid, x, y) && choice-- == 0)
+                    return new SetGridValueAction(grid.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(gameState.getCurrentPlayer()).getComponentID());
+            }
+        }
+        throw new AssertionError("Empty cell not found");
+    }
+
+    private static boolean isEmpty(GridBoard grid, int x, int y) {
+        return grid.getElement(x, y).getComponentName().equals(TicTacToeConstants.emptyCell);
+    }
 
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
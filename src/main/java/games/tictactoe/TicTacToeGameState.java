@@ -37,7 +37,7 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
 
     @Override
     protected TicTacToeGameState _copy(int playerId) {
-        TicTacToeGameState s = new TicTacToeGameState(gameParameters.copy(), getNPlayers());
+        TicTacToeGameState s = new TicTacToeGameState(gameParameters.snapshot(), getNPlayers());
         s.gridBoard = gridBoard.copy();
         return s;
     }
@@ -77,6 +77,16 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
     public int hashCode() {
         return Objects.hash(super.hashCode(), gridBoard);
     }
+
+    @Override
+    public boolean supportsIncrementalHash() {
+        return true;
+    }
+
+    @Override
+    protected long _computeIncrementalHash() {
+        return gridBoard.zobristHash();
+    }
     @Override
     public String toString() {
         return Objects.hash(gameParameters) + "|" +
@@ -40,7 +40,7 @@ public class VirusGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        VirusGameState vgs = new VirusGameState(gameParameters.copy(), getNPlayers());
+        VirusGameState vgs = new VirusGameState(gameParameters.snapshot(), getNPlayers());
         vgs.drawDeck = drawDeck.copy();
         vgs.discardDeck = discardDeck.copy();
         vgs.playerDecks = new ArrayList<>();
@@ -72,7 +72,7 @@ public class Wonders7GameState extends AbstractGameState {
         // Including components that player with the given ID will see.
         // For example, some decks may be face down and unobservable to the player
         // All the components in the observation should be copies of those in the game state
-        Wonders7GameState copy = new Wonders7GameState(gameParameters.copy(), getNPlayers());
+        Wonders7GameState copy = new Wonders7GameState(gameParameters.snapshot(), getNPlayers());
         //Wonders7TurnOrder turnOrder = new Wonders7TurnOrder(getNPlayers());
         copy.playerResources = new ArrayList<>();
         copy.playerHands = new ArrayList<>();
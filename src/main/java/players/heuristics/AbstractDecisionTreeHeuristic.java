@@ -3,36 +3,140 @@ package players.heuristics;
 import com.globalmentor.apache.hadoop.fs.BareLocalFileSystem;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
+import org.apache.spark.ml.tree.ContinuousSplit;
+import org.apache.spark.ml.tree.InternalNode;
+import org.apache.spark.ml.tree.Node;
 import org.apache.spark.sql.SparkSession;
+import org.json.simple.JSONObject;
 import org.jspecify.annotations.NonNull;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Decision trees are trained by Spark, but are evaluated as a FlatDecisionTree. A Spark session is only started if a
+ * model has to be loaded from a Spark model directory; a heuristic saved with its "tree" in JSON needs no Spark.
+ */
 public abstract class AbstractDecisionTreeHeuristic {
 
-    static SparkSession spark = SparkSession
-            .builder()
-            .appName("Java Spark SQL basic example")
-            //     .config("spark.driver.memory", "1g")
-            .master("local").getOrCreate();
-    static {
-        // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
-        spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+    // Spark is only started when this class is first used
+    private static class SparkHolder {
+        static final SparkSession spark = SparkSession
+                .builder()
+                .appName("Java Spark SQL basic example")
+                //     .config("spark.driver.memory", "1g")
+                .master("local").getOrCreate();
+        static {
+            // And the hack to get this to work on Windows (without the Winutils.exe and hadoop.dll nightmare)
+            spark.sparkContext().hadoopConfiguration().setClass("fs.file.impl", BareLocalFileSystem.class, FileSystem.class);
+        }
     }
 
+    // only present if the model was trained or loaded via Spark
     protected DecisionTreeRegressionModel drModel;
+    protected FlatDecisionTree tree;
     protected String modelDirectory = "";
 
     public AbstractDecisionTreeHeuristic(DecisionTreeRegressionModel drModel) {
         this.drModel = drModel;
+        this.tree = flatten(drModel);
+    }
+
+    public AbstractDecisionTreeHeuristic(FlatDecisionTree tree) {
+        this.tree = tree;
     }
 
     public AbstractDecisionTreeHeuristic(String directory) {
         // load in the Decision Tree model from the directory
-        modelDirectory = directory;
+        modelDirectory = directory == null ? "" : directory;
+        loadSparkModel(directory);
+    }
+
+    /**
+     * Uses the "tree" in the JSON if there is one, and otherwise loads the Spark model from the "file" directory
+     */
+    public AbstractDecisionTreeHeuristic(JSONObject json) {
+        String directory = (String) json.get("file");
+        modelDirectory = directory == null ? "" : directory;
+        if (json.get("tree") instanceof JSONObject treeJSON) {
+            tree = new FlatDecisionTree(treeJSON);
+        } else {
+            loadSparkModel(directory);
+        }
+    }
+
+    private void loadSparkModel(String directory) {
         if (directory == null || directory.isEmpty()) {
             System.out.println("No directory specified for Decision Tree model");
             return;
         }
-        drModel = DecisionTreeRegressionModel.load(directory);
+        drModel = DecisionTreeRegressionModel.read().session(SparkHolder.spark).load(directory);
+        tree = flatten(drModel);
+    }
+
+    /**
+     * Converts a trained Spark model to a FlatDecisionTree, numbering the nodes in depth-first order
+     */
+    public static FlatDecisionTree flatten(DecisionTreeRegressionModel model) {
+        int n = model.numNodes();
+        int[] feature = new int[n], left = new int[n], right = new int[n];
+        double[] threshold = new double[n], value = new double[n];
+        flatten(model.rootNode(), 0, feature, threshold, left, right, value);
+        return new FlatDecisionTree(feature, threshold, left, right, value);
+    }
+
+    // returns the next free index after the subtree
+    private static int flatten(Node node, int index, int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        value[index] = node.prediction();
+        if (node instanceof InternalNode internal) {
+            if (!(internal.split() instanceof ContinuousSplit split))
+                throw new IllegalArgumentException("Only continuous splits are supported in a FlatDecisionTree");
+            feature[index] = split.featureIndex();
+            threshold[index] = split.threshold();
+            left[index] = index + 1;
+            right[index] = flatten(internal.leftChild(), index + 1, feature, threshold, left, right, value);
+            return flatten(internal.rightChild(), right[index], feature, threshold, left, right, value);
+        }
+        feature[index] = -1;
+        left[index] = -1;
+        right[index] = -1;
+        return index + 1;
+    }
+
+    /**
+     * Writes a description of the tree (and the Spark model, if there is one) to the directory
+     */
+    protected void writeModel(String directory, String[] featureNames) {
+        if (modelDirectory.isEmpty())
+            modelDirectory = directory;
+        try {
+            if (drModel != null)
+                drModel.write().overwrite().save(directory);
+            else
+                new File(directory).mkdirs();
+            BufferedWriter writer = new BufferedWriter(new FileWriter(directory + File.separator + "Description.txt"));
+            writer.write(drModel != null ? prettifyDecisionTreeDescription(drModel, featureNames) : tree.toString(featureNames));
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("Failed to save decision tree model");
+            throw new AssertionError(tree.toString(featureNames));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void addModelToJSON(JSONObject json) {
+        if (!modelDirectory.isEmpty()) {
+            json.put("file", modelDirectory);
+        }
+        if (tree != null) {
+            json.put("tree", tree.toJSON());
+        }
+    }
+
+    public FlatDecisionTree getTree() {
+        return tree;
     }
 
     public static String prettifyDecisionTreeDescription(DecisionTreeRegressionModel model, String[] featureNames) {
@@ -3,14 +3,11 @@ package players.heuristics;
 import core.AbstractGameState;
 import core.actions.AbstractAction;
 import core.interfaces.*;
-import org.apache.spark.ml.linalg.Vectors;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
 import org.json.simple.JSONObject;
 import utilities.JSONUtils;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic
@@ -31,8 +28,14 @@ public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic
         this.actionFeatures = actionFeatures;
     }
 
+    public DecisionTreeActionHeuristic(IStateFeatureVector stateFeatures, IActionFeatureVector actionFeatures, FlatDecisionTree tree) {
+        super(tree);
+        this.stateFeatures = stateFeatures;
+        this.actionFeatures = actionFeatures;
+    }
+
     public DecisionTreeActionHeuristic(JSONObject json) {
-        super((String) json.get("file"));
+        super(json);
         JSONObject stateJSON = (JSONObject) json.get("stateFeatures");
         if (stateJSON != null)
             this.stateFeatures = JSONUtils.loadClassFromJSON((JSONObject) json.get("stateFeatures"));
@@ -41,71 +44,44 @@ public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic
 
     @Override
     public double evaluateAction(AbstractAction action, AbstractGameState state, List<AbstractAction> contextActions) {
-        if (drModel == null) return 0;  // no model, no prediction (this is fine
+        if (tree == null) return 0;  // no model, no prediction (this is fine
         // get the features for the state and action
         int playerId = state.getCurrentPlayer();
         double[] actionFeatures = this.actionFeatures.doubleVector(action, state, playerId);
         if (stateFeatures != null) {
+            // the state features come first in the training data
             double[] stateFeatures = this.stateFeatures.doubleVector(state, playerId);
-            double[] features = new double[stateFeatures.length + actionFeatures.length];
-            System.arraycopy(stateFeatures, 0, features, 0, stateFeatures.length);
-            System.arraycopy(actionFeatures, 0, features, stateFeatures.length, actionFeatures.length);
-            return drModel.predict(Vectors.dense(features));
+            return tree.predict(stateFeatures, actionFeatures);
         } else {
-            return drModel.predict(Vectors.dense(actionFeatures));
+            return tree.predict(actionFeatures);
         }
     }
 
     @Override
-    public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
-        if (drModel == null) return new double[actions.size()];  // no model, no prediction (this is fine)
-        if (stateFeatures == null) {
-            // in this case we used the default implementation, as there is no
-            // benefit from a single pass for the state features
-            return IActionHeuristic.super.evaluateAllActions(actions, state);
+    public void evaluateAllActions(List<AbstractAction> actions, AbstractGameState state, double[] scores) {
+        if (tree == null) {
+            Arrays.fill(scores, 0, actions.size(), 0.0);  // no model, no prediction (this is fine)
+            return;
         }
-        // First we get the state features once
+        // First we get the state features once (if we have any)
         int playerId = state.getCurrentPlayer();
-        double[] stateFeatures = this.stateFeatures.doubleVector(state, playerId);
-        // Then we get the action features for each action
-        double[][] actionFeatures = new double[actions.size()][];
-        for (int i = 0; i < actions.size(); i++) {
-            actionFeatures[i] = this.actionFeatures.doubleVector(actions.get(i), state, playerId);
-        }
-        // Then we combine the features
-        double[][] features = new double[actions.size()][stateFeatures.length + actionFeatures[0].length];
-        for (int i = 0; i < actions.size(); i++) {
-            System.arraycopy(stateFeatures, 0, features[i], 0, stateFeatures.length);
-            System.arraycopy(actionFeatures[i], 0, features[i], stateFeatures.length, actionFeatures[i].length);
+        double[] stateFeatures = this.stateFeatures == null ? new double[0] : this.stateFeatures.doubleVector(state, playerId);
+        // Then we get the action features for all actions, and predict for those plus the state features
+        double[][] actionFeatures = this.actionFeatures.doubleVectors(actions, state, playerId);
+        for (int i = 0; i < actionFeatures.length; i++) {
+            scores[i] = tree.predict(stateFeatures, actionFeatures[i]);
         }
-        // Then we return the predictions from the model
-        double[] predictions = new double[actions.size()];
-        for (int i = 0; i < actions.size(); i++) {
-            predictions[i] = drModel.predict(Vectors.dense(features[i]));
-        }
-        return predictions;
     }
 
     @Override
     public void writeToFile(String file) {
-        if (modelDirectory.isEmpty())
-            modelDirectory = file;
-        try {
-            drModel.write().overwrite().save(file);
-            BufferedWriter writer = new BufferedWriter(new java.io.FileWriter(file + File.separator + "Description.txt"));
-            String[] names = actionFeatures.names();
-            if (stateFeatures != null) {
-                names = new String[stateFeatures.names().length + actionFeatures.names().length];
-                System.arraycopy(stateFeatures.names(), 0, names, 0, stateFeatures.names().length);
-                System.arraycopy(actionFeatures.names(), 0, names, stateFeatures.names().length, actionFeatures.names().length);
-            }
-            writer.write(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, names));
-            writer.close();
-        } catch (IOException e) {
-            System.out.println("Failed to save decision tree model");
-            throw new AssertionError(drModel.toDebugString());
+        String[] names = actionFeatures.names();
+        if (stateFeatures != null) {
+            names = new String[stateFeatures.names().length + actionFeatures.names().length];
+            System.arraycopy(stateFeatures.names(), 0, names, 0, stateFeatures.names().length);
+            System.arraycopy(actionFeatures.names(), 0, names, stateFeatures.names().length, actionFeatures.names().length);
         }
-
+        writeModel(file, names);
     }
 
     @SuppressWarnings("unchecked")
@@ -113,9 +89,7 @@ public class DecisionTreeActionHeuristic extends AbstractDecisionTreeHeuristic
     public JSONObject toJSON() {
         JSONObject json = new JSONObject();
         json.put("class", "players.heuristics.DecisionTreeActionHeuristic");
-        if (!modelDirectory.isEmpty()) {
-            json.put("file", modelDirectory);
-        }
+        addModelToJSON(json);
         if (stateFeatures != null) {
             JSONObject featuresJson = new JSONObject();
             if (stateFeatures instanceof IToJSON toJSON) {
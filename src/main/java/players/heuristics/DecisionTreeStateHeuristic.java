@@ -2,15 +2,10 @@ package players.heuristics;
 
 import core.AbstractGameState;
 import core.interfaces.*;
-import org.apache.spark.ml.linalg.Vectors;
 import org.apache.spark.ml.regression.DecisionTreeRegressionModel;
 import org.json.simple.JSONObject;
 import utilities.JSONUtils;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.IOException;
-
 public class DecisionTreeStateHeuristic extends AbstractDecisionTreeHeuristic
         implements IStateHeuristic, IToJSON, IToFile {
 
@@ -31,8 +26,15 @@ public class DecisionTreeStateHeuristic extends AbstractDecisionTreeHeuristic
         this.defaultHeuristic = defaultHeuristic;
     }
 
+    public DecisionTreeStateHeuristic(IStateFeatureVector stateFeatures, FlatDecisionTree tree,
+                                      IStateHeuristic defaultHeuristic) {
+        super(tree);
+        this.stateFeatures = stateFeatures;
+        this.defaultHeuristic = defaultHeuristic;
+    }
+
     public DecisionTreeStateHeuristic(JSONObject json) {
-        super((String) json.get("file"));
+        super(json);
         this.stateFeatures = JSONUtils.loadClassFromJSON((JSONObject) json.get("features"));
         this.defaultHeuristic = JSONUtils.loadClassFromJSON((JSONObject) json.get("defaultHeuristic"));
     }
@@ -44,13 +46,13 @@ public class DecisionTreeStateHeuristic extends AbstractDecisionTreeHeuristic
             return defaultHeuristic.evaluateState(state, playerId);
         }
 
-        if (drModel == null) return 0;  // no model, no prediction (this is fine)
+        if (tree == null) return 0;  // no model, no prediction (this is fine)
 
         // get the features for the state
         double[] features = this.stateFeatures.doubleVector(state, playerId);
 
         // return the prediction from the model
-        return drModel.predict(Vectors.dense(features));
+        return tree.predict(features);
     }
 
     @Override
@@ -58,9 +60,7 @@ public class DecisionTreeStateHeuristic extends AbstractDecisionTreeHeuristic
     public JSONObject toJSON() {
         JSONObject json = new JSONObject();
         json.put("class", "players.heuristics.DecisionTreeStateHeuristic");
-        if (!modelDirectory.isEmpty()) {
-            json.put("file", modelDirectory);
-        }
+        addModelToJSON(json);
 
         JSONObject featuresJson = new JSONObject();
         if (stateFeatures instanceof IToJSON toJSON) {
@@ -83,17 +83,6 @@ public class DecisionTreeStateHeuristic extends AbstractDecisionTreeHeuristic
 
     @Override
     public void writeToFile(String file) {
-        if (modelDirectory.isEmpty())
-            modelDirectory = file;
-        try {
-            drModel.write().overwrite().save(file);
-            BufferedWriter writer = new BufferedWriter(new java.io.FileWriter(file + File.separator + "Description.txt"));
-            writer.write(DecisionTreeActionHeuristic.prettifyDecisionTreeDescription(drModel, stateFeatures.names()));
-            writer.close();
-        } catch (IOException e) {
-            System.out.println("Failed to save decision tree model");
-            throw new AssertionError(drModel.toDebugString());
-        }
-
+        writeModel(file, stateFeatures.names());
     }
 }
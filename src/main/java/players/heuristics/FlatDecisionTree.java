@@ -0,0 +1,128 @@
+package players.heuristics;
+
+import core.interfaces.IToJSON;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * A regression tree held as flat arrays, one entry per node, so that a prediction is a tight loop with no
+ * allocation, and with no dependency on Spark.
+ * <p>
+ * For an internal node, feature[node] is the index of the feature it splits on, and a point goes to left[node] if
+ * its value for that feature is <= threshold[node] (as for Spark's ContinuousSplit), and to right[node] otherwise.
+ * For a leaf, feature[node] is -1 and value[node] is the prediction. The root is node 0.
+ * <p>
+ * The JSON format is an object with one array per field: "feature", "threshold", "left", "right" and "value".
+ */
+public class FlatDecisionTree implements IToJSON {
+
+    final int[] feature;
+    final double[] threshold;
+    final int[] left;
+    final int[] right;
+    final double[] value;
+
+    public FlatDecisionTree(int[] feature, double[] threshold, int[] left, int[] right, double[] value) {
+        int n = feature.length;
+        if (threshold.length != n || left.length != n || right.length != n || value.length != n)
+            throw new IllegalArgumentException("All the arrays of a FlatDecisionTree must have one entry per node");
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    public FlatDecisionTree(JSONObject json) {
+        this(toIntArray((JSONArray) json.get("feature")), toDoubleArray((JSONArray) json.get("threshold")),
+                toIntArray((JSONArray) json.get("left")), toIntArray((JSONArray) json.get("right")),
+                toDoubleArray((JSONArray) json.get("value")));
+    }
+
+    public double predict(double[] features) {
+        int node = 0;
+        while (feature[node] >= 0)
+            node = features[feature[node]] <= threshold[node] ? left[node] : right[node];
+        return value[node];
+    }
+
+    /**
+     * Predicts for the concatenation of the two feature arrays, without the need to build it
+     */
+    public double predict(double[] first, double[] second) {
+        int node = 0;
+        while (feature[node] >= 0) {
+            int f = feature[node];
+            double x = f < first.length ? first[f] : second[f - first.length];
+            node = x <= threshold[node] ? left[node] : right[node];
+        }
+        return value[node];
+    }
+
+    public int nNodes() {
+        return feature.length;
+    }
+
+    /**
+     * @return A readable description of the tree, using the names of the features
+     */
+    public String toString(String[] featureNames) {
+        StringBuilder sb = new StringBuilder();
+        describe(0, 0, featureNames, sb);
+        return sb.toString();
+    }
+
+    private void describe(int node, int depth, String[] featureNames, StringBuilder sb) {
+        String indent = "    |".repeat(depth);
+        if (feature[node] < 0) {
+            sb.append(indent).append(String.format("Predict: %.4g%n", value[node]));
+            return;
+        }
+        String name = featureNames != null && feature[node] < featureNames.length ?
+                featureNames[feature[node]] : "feature " + feature[node];
+        sb.append(indent).append(String.format("If (%s <= %.4g)%n", name, threshold[node]));
+        describe(left[node], depth + 1, featureNames, sb);
+        sb.append(indent).append(String.format("Else (%s > %.4g)%n", name, threshold[node]));
+        describe(right[node], depth + 1, featureNames, sb);
+    }
+
+    @Override
+    public String toString() {
+        return toString(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JSONObject toJSON() {
+        JSONObject json = new JSONObject();
+        JSONArray features = new JSONArray(), thresholds = new JSONArray(), lefts = new JSONArray(),
+                rights = new JSONArray(), values = new JSONArray();
+        for (int i = 0; i < feature.length; i++) {
+            features.add(feature[i]);
+            thresholds.add(threshold[i]);
+            lefts.add(left[i]);
+            rights.add(right[i]);
+            values.add(value[i]);
+        }
+        json.put("feature", features);
+        json.put("threshold", thresholds);
+        json.put("left", lefts);
+        json.put("right", rights);
+        json.put("value", values);
+        return json;
+    }
+
+    private static int[] toIntArray(JSONArray array) {
+        int[] retValue = new int[array.size()];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = ((Number) array.get(i)).intValue();
+        return retValue;
+    }
+
+    private static double[] toDoubleArray(JSONArray array) {
+        double[] retValue = new double[array.size()];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = ((Number) array.get(i)).doubleValue();
+        return retValue;
+    }
+}
@@ -29,6 +29,9 @@ public abstract class GLMHeuristic implements ICoefficients, IHasName {
     // This is not actually used, but is available immediately after training
     protected GeneralizedLinearRegressionModel underlyingModel;
 
+    // The AIC of the fit to the training data, if this was not trained with Spark
+    protected double aic = Double.NaN;
+
     @Override
     public double[] coefficients() {
         return coefficients;
@@ -79,6 +82,20 @@ public abstract class GLMHeuristic implements ICoefficients, IHasName {
         return underlyingModel;
     }
 
+    /**
+     * @return The Akaike Information Criterion of the model on its training data (NaN if it was not trained here)
+     */
+    public double getAIC() {
+        if (Double.isNaN(aic) && underlyingModel != null)
+            return underlyingModel.summary().aic();
+        return aic;
+    }
+
+    public GLMHeuristic setAIC(double aic) {
+        this.aic = aic;
+        return this;
+    }
+
     public GLMHeuristic setModel(GeneralizedLinearRegressionModel model) {
         this.underlyingModel = model;
         double[] coeffs = model.coefficients().toArray();
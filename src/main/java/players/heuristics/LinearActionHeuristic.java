@@ -99,16 +99,21 @@ public class LinearActionHeuristic extends GLMHeuristic implements IActionHeuris
     }
 
     @Override
-    public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
+    public void evaluateAllActions(List<AbstractAction> actions, AbstractGameState state, double[] scores) {
         if (coefficients == null)
             throw new AssertionError("No coefficients found");
-        double[] retValue = new double[actions.size()];
-        double[] phi = features == null ? new double[0] : features.doubleVector(state, state.getCurrentPlayer());
-        for (AbstractAction action : actions) {
-            double[] combined = mergePhiAndPsi(state, phi, action);
-            retValue[actions.indexOf(action)] = inverseLinkFunction.applyAsDouble(applyCoefficients(combined));
+        if (actions.isEmpty())
+            return;
+        int playerId = state.getCurrentPlayer();
+        double[] phi = features == null ? new double[0] : features.doubleVector(state, playerId);
+        double[][] psi = actionFeatures.doubleVectors(actions, state, playerId);
+        // the state features are copied in once, and the action features for each action then overwrite the rest
+        double[] combined = new double[phi.length + psi[0].length];
+        System.arraycopy(phi, 0, combined, 0, phi.length);
+        for (int i = 0; i < psi.length; i++) {
+            System.arraycopy(psi[i], 0, combined, phi.length, psi[i].length);
+            scores[i] = inverseLinkFunction.applyAsDouble(applyCoefficients(combined));
         }
-        return retValue;
     }
 
     private double[] mergePhiAndPsi(AbstractGameState state, double[] phi, AbstractAction action) {
@@ -1,34 +1,42 @@
 package players.heuristics;
 
-import com.fasterxml.jackson.databind.annotation.NoClass;
 import core.AbstractGameState;
 import core.CoreConstants;
 import core.interfaces.IStateHeuristic;
-import games.loveletter.LoveLetterGameState;
-import games.tictactoe.TicTacToeGameState;
 
 import javax.tools.*;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.MalformedURLException;
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.net.URI;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.List;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A state heuristic compiled at run-time from Java source code (as generated by an LLM, see llm.JavaCoder).
+ * The source must define a class with a public method evaluateState(AbstractGameState, int) returning a double.
+ * <p>
+ * The source is compiled in memory, and the compiled classes are cached by a hash of the source, so that the same
+ * heuristic is only compiled once however many players use it. Where it can, the class is compiled to implement
+ * IStateHeuristic, so that each evaluation is a direct interface call; otherwise evaluateState is called through
+ * a MethodHandle.
+ */
 public class StringHeuristic implements IStateHeuristic {
 
+    // Compiled classes, by a hash of the class name and source code
+    private static final Map<String, Class<?>> compiledClasses = new ConcurrentHashMap<>();
+
     private final String className;
     private final String fileName;
 
     private String str;
 
-    Object heuristicClass;
-    Method heuristicFunction;
+    // The compiled heuristic itself
+    private IStateHeuristic heuristic;
 
 
     public String getFileName() {
@@ -68,14 +76,60 @@ public class StringHeuristic implements IStateHeuristic {
     }
 
     private void compile() {
-        // Method string
-        //String className = fileName.replaceAll(".*/(.*?)\\.java", "$1");
-        // Replace class name in the source code
-        String sourceCode = str.replaceAll("public class .*? \\{", "public class " + className + " {");
+        Class<?> dynamicClass = compiledClasses.computeIfAbsent(sourceHash(className, str), key -> {
+            // Replace class name in the source code (and with it any interfaces the class implements)
+            String plainSource = str.replaceAll("public class .*? \\{", "public class " + className + " {");
+            String typedSource = str.replaceAll("public class .*? \\{",
+                    "public class " + className + " implements core.interfaces.IStateHeuristic {");
+            // If the class cannot implement the interface (e.g. evaluateState is static), we fall back to the plain class
+            Map<String, byte[]> classes = compileInMemory(typedSource, false);
+            if (classes == null)
+                classes = compileInMemory(plainSource, true);
+            System.out.println("Heuristic loaded: " + fileName);
+            try {
+                return new InMemoryClassLoader(classes, StringHeuristic.class.getClassLoader()).loadClass(className);
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                throw new RuntimeException(e);
+            }
+        });
+        heuristic = bind(dynamicClass);
+    }
+
+    private static String sourceHash(String className, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(className.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is not available", e);
+        }
+    }
 
-        // Compile source code
+    /**
+     * Compiles the source, keeping the class files in memory
+     *
+     * @param throwOnError - if false, null is returned if the source does not compile
+     * @return The bytes of each class compiled, by class name
+     */
+    private Map<String, byte[]> compileInMemory(String sourceCode, boolean throwOnError) {
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, null);
+        Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(standardFileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        outputs.put(name, out);
+                        return out;
+                    }
+                };
+            }
+        };
 
         // Create a file object for the source code
         JavaFileObject javaFileObject = new SimpleJavaFileObject(
@@ -95,6 +149,8 @@ public class StringHeuristic implements IStateHeuristic {
 
         boolean success = task.call();
         if (!success) {
+            if (!throwOnError)
+                return null;
             StringBuilder sb = new StringBuilder();
             List<Diagnostic<? extends JavaFileObject>> diagnostics = diagnosticsCollector.getDiagnostics();
             for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
@@ -105,26 +161,70 @@ public class StringHeuristic implements IStateHeuristic {
             }
             String error = String.format("Compilation error: %s", sb);
             throw new RuntimeException(error);
-        } else {
-            System.out.println("Heuristic loaded: " + fileName);
         }
+        Map<String, byte[]> retValue = new HashMap<>();
+        outputs.forEach((name, out) -> retValue.put(name, out.toByteArray()));
+        return retValue;
+    }
 
-        // Load the compiled class
+    /**
+     * Creates an instance of the compiled class, as an IStateHeuristic
+     */
+    private static IStateHeuristic bind(Class<?> dynamicClass) {
         try {
-            URLClassLoader classLoader = URLClassLoader.newInstance(new URL[]{new File("").toURI().toURL()});
-
-            Class<?> dynamicClass = classLoader.loadClass(className);
+            if (IStateHeuristic.class.isAssignableFrom(dynamicClass))
+                return (IStateHeuristic) dynamicClass.getDeclaredConstructor().newInstance();
+
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(dynamicClass, "evaluateState",
+                    MethodType.methodType(double.class, AbstractGameState.class, int.class));
+            Object instance = dynamicClass.getDeclaredConstructor().newInstance();
+            MethodHandle bound = handle.bindTo(instance);
+            return (gs, playerId) -> {
+                try {
+                    return (double) bound.invokeExact(gs, playerId);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            // e.g. a static evaluateState
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().findStatic(dynamicClass, "evaluateState",
+                        MethodType.methodType(double.class, AbstractGameState.class, int.class));
+                return (gs, playerId) -> {
+                    try {
+                        return (double) handle.invokeExact(gs, playerId);
+                    } catch (RuntimeException | Error ex) {
+                        throw ex;
+                    } catch (Throwable ex) {
+                        throw new RuntimeException(ex);
+                    }
+                };
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 
-            // Create an instance of the compiled class
-            heuristicClass = dynamicClass.getDeclaredConstructor().newInstance();
+    /**
+     * Loads classes from the bytes produced by compileInMemory()
+     */
+    private static class InMemoryClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
 
-            // Find and invoke the method using reflection
-            heuristicFunction = dynamicClass.getMethod("evaluateState", AbstractGameState.class, int.class);
+        InMemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+            super(parent);
+            this.classes = classes;
+        }
 
-            classLoader.close();
-        } catch (ClassNotFoundException | InvocationTargetException | InstantiationException | IllegalAccessException |
-                 NoSuchMethodException | IOException | NoClassDefFoundError e) {
-            throw new RuntimeException(e);
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null)
+                throw new ClassNotFoundException(name);
+            return defineClass(name, bytes, 0, bytes.length);
         }
     }
 
@@ -138,11 +238,7 @@ public class StringHeuristic implements IStateHeuristic {
         if (playerResult == CoreConstants.GameResult.WIN_GAME)
             return 1;
 
-        try {
-            return (double) heuristicFunction.invoke(heuristicClass, gs, playerId);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Error invoking heuristic function as it returns a null value : ", e);
-        }
+        return heuristic.evaluateState(gs, playerId);
     }
 
     @Override
@@ -67,9 +67,11 @@ public class TunableGLMHeuristic extends TunableParameters implements IActionHeu
     }
 
     @Override
-    public double[] evaluateAllActions(List<AbstractAction> actions, AbstractGameState state) {
-        if (heuristic instanceof IActionHeuristic actionHeuristic)
-            return actionHeuristic.evaluateAllActions(actions, state);
+    public void evaluateAllActions(List<AbstractAction> actions, AbstractGameState state, double[] scores) {
+        if (heuristic instanceof IActionHeuristic actionHeuristic) {
+            actionHeuristic.evaluateAllActions(actions, state, scores);
+            return;
+        }
         throw new AssertionError("Heuristic is not an IActionHeuristic");
     }
 
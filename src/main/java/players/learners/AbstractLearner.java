@@ -3,10 +3,13 @@ package players.learners;
 import core.interfaces.IActionFeatureVector;
 import core.interfaces.ILearner;
 import core.interfaces.IStateFeatureVector;
+import evaluation.loggers.BinaryStatsReader;
+import evaluation.loggers.ChunkedDataReader;
 import utilities.Pair;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.function.IntToDoubleFunction;
 
 import static java.util.stream.Collectors.toList;
 
@@ -17,6 +20,7 @@ public abstract class AbstractLearner implements ILearner {
     protected double[][] target;
     protected double[][] currentScore;
     String[] descriptions;
+    Map<String, Integer> indexForSpecialColumns, indexForDescriptions;
     double gamma;
     Target targetType;
     IStateFeatureVector stateFeatureVector;
@@ -46,6 +50,14 @@ public abstract class AbstractLearner implements ILearner {
         }
     }
 
+    /**
+     * Receives the data one row at a time from streamData()
+     */
+    @FunctionalInterface
+    protected interface RowConsumer {
+        void accept(double[] features, double target);
+    }
+
     public AbstractLearner(IStateFeatureVector stateFeatureVector) {
         this(1.0, Target.WIN, stateFeatureVector);
     }
@@ -103,21 +115,73 @@ public abstract class AbstractLearner implements ILearner {
 
     protected void loadData(String... files) {
 
-        Pair<List<String>, List<List<String>>> rawData = Utils.loadDataWithHeader("\t", files);
-        header = rawData.a.toArray(new String[0]);
+        // binary stats files are read straight into numeric columns, with no text parsing
+        Pair<List<String>, List<List<Object>>> rawData = BinaryStatsReader.loadColumnsWithHeader("\t", files);
+        setHeader(rawData.a);
+        List<List<Object>> columns = rawData.b;
+        int nRows = columns.isEmpty() ? 0 : columns.get(0).size();
+
+        dataArray = new double[nRows][];
+        target = new double[nRows][1];
+        currentScore = new double[nRows][1];
+        for (int i = 0; i < dataArray.length; i++) {
+            final int row = i;
+            IntToDoubleFunction value = column -> Utils.toDouble(columns.get(column).get(row));
+            target[i][0] = target(value);
+            currentScore[i][0] = value.applyAsDouble(indexForSpecialColumns.get("CurrentScore"));
+            double[] regressionData = new double[descriptions.length + 1];
+            features(value, regressionData);
+            dataArray[i] = regressionData;
+        }
+    }
+
+    /**
+     * Streams the data in the files one chunk at a time, so that the memory needed does not depend on the
+     * size of the data. Each row is passed to the consumer as for loadData(), with the same array reused for the
+     * features of every row.
+     *
+     * @param chunkSize the number of rows to read at a time (for binary files the row groups are used instead)
+     * @param consumer  called with the features (with the bias term first) and the target for each row
+     * @return the number of rows read
+     */
+    protected int streamData(int chunkSize, RowConsumer consumer, String... files) {
+        int count = 0;
+        double[] regressionData = null;
+        for (String file : files) {
+            try (ChunkedDataReader reader = new ChunkedDataReader(file, "\t", chunkSize)) {
+                setHeader(reader.header());
+                if (regressionData == null)
+                    regressionData = new double[descriptions.length + 1];
+                while (reader.nextChunk()) {
+                    for (int i = 0; i < reader.rows(); i++) {
+                        final int row = i;
+                        IntToDoubleFunction value = column -> reader.value(row, column);
+                        double rowTarget = target(value);
+                        features(value, regressionData);
+                        consumer.accept(regressionData, rowTarget);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void setHeader(List<String> columns) {
+        header = columns.toArray(new String[0]);
 
         String[] specialColumns = {"GameID", "Player", "Turn", "Round", "Tick", "CurrentScore", "Win", "Ordinal",
                 "FinalScore", "FinalScoreAdv", "TotalRounds", "PlayerCount", "TotalTurns", "TotalTicks",
                 "ActualWin", "ActualOrdinal", "ActualScore", "ActualScoreAdv",
                 "CHOSEN", "ACTION_VISITS", "ADVANTAGE", "ACTION_VALUE", "VISIT_PROPORTION"};
-        Map<String, Integer> indexForSpecialColumns = new HashMap<>();
+        indexForSpecialColumns = new HashMap<>();
 
         // then set descriptions to the rest of the data
         // and validate that the data matches the feature vector
         descriptions = stateFeatureVector == null ?
                 actionFeatureVector.names() : stateFeatureVector.names();
         List<String> expectedNames = Arrays.stream(descriptions).collect(toList());
-        Map<String, Integer> indexForDescriptions = new HashMap<>();
+        indexForDescriptions = new HashMap<>();
         for (int i = 0; i < header.length; i++) {
             String h = header[i];
 //            if (!indexForSpecialColumns.containsKey(h) && !expectedNames.contains(h)) {
@@ -135,54 +199,50 @@ public abstract class AbstractLearner implements ILearner {
         if (!expectedNames.isEmpty()) {
             System.out.println("Missing features: " + expectedNames);
         }
+        if (indexForSpecialColumns.getOrDefault(targetType.header, -1) == -1) {
+            throw new IllegalArgumentException("Target " + targetType.header + " not found in data");
+        }
+    }
 
-        // TODO: discounting should really use TICKS as more reliably generic across games, even if it
-        // does not map in the same way all the time
-
-        dataArray = new double[rawData.b.size()][];
-        target = new double[rawData.b.size()][1];
-        currentScore = new double[rawData.b.size()][1];
-        for (int i = 0; i < dataArray.length; i++) {
-            List<String> allData = rawData.b.get(i);
-            // calculate the number of turns from this point until the end of the game
-            double turns = Double.parseDouble(allData.get(indexForSpecialColumns.get("TotalTurns"))) -
-                    Double.parseDouble(allData.get(indexForSpecialColumns.get("Turn")));
-            double playerCount = Double.parseDouble(allData.get(indexForSpecialColumns.get("PlayerCount")));
-            int targetIndex = indexForSpecialColumns.getOrDefault(targetType.header, -1);
-            if (targetIndex == -1) {
-                throw new IllegalArgumentException("Target " + targetType.header + " not found in data");
-            }
-            // discount target (towards expected result where relevant)
-            double expectedAverage = 0.0;
-            if (targetType == Target.WIN_MEAN)
-                expectedAverage = 1.0 / playerCount;
-            if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
-                expectedAverage = (1.0 + playerCount) / 2.0;
-
-            if (targetType == Target.SCORE_DELTA)
-                target[i][0] = Double.parseDouble(allData.get(targetIndex)) * Math.pow(gamma, turns);
-            else {
-                target[i][0] = (Double.parseDouble(allData.get(targetIndex)) - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
-            }
+    // TODO: discounting should really use TICKS as more reliably generic across games, even if it
+    // does not map in the same way all the time
+    private double target(IntToDoubleFunction value) {
+        // calculate the number of turns from this point until the end of the game
+        double turns = value.applyAsDouble(indexForSpecialColumns.get("TotalTurns")) -
+                value.applyAsDouble(indexForSpecialColumns.get("Turn"));
+        double playerCount = value.applyAsDouble(indexForSpecialColumns.get("PlayerCount"));
+        int targetIndex = indexForSpecialColumns.get(targetType.header);
+        // discount target (towards expected result where relevant)
+        double expectedAverage = 0.0;
+        if (targetType == Target.WIN_MEAN)
+            expectedAverage = 1.0 / playerCount;
+        if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
+            expectedAverage = (1.0 + playerCount) / 2.0;
+
+        double retValue;
+        if (targetType == Target.SCORE_DELTA)
+            retValue = value.applyAsDouble(targetIndex) * Math.pow(gamma, turns);
+        else {
+            retValue = (value.applyAsDouble(targetIndex) - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
+        }
 
-            if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
-                target[i][0] = -target[i][0];  // if we are targeting the Ordinal position, then high is bad!
-            if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
-                target[i][0] = (playerCount - target[i][0]) / (playerCount - 1.0);  // scale to [0, 1]
+        if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
+            retValue = -retValue;  // if we are targeting the Ordinal position, then high is bad!
+        if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
+            retValue = (playerCount - retValue) / (playerCount - 1.0);  // scale to [0, 1]
+        return retValue;
+    }
 
-            currentScore[i][0] = Double.parseDouble(allData.get(indexForSpecialColumns.get("CurrentScore")));
-            double[] regressionData = new double[descriptions.length + 1];
-            regressionData[0] = 1.0; // the bias term
-            // then copy the rest of the data into the regression data
-            // the order of the data in the regression data is the same as the order in the names() of the feature vector
-            int j = 1;
-            for (String h : descriptions) {
-                if (indexForDescriptions.get(h) != null) {
-                    regressionData[j] = Double.parseDouble(allData.get(indexForDescriptions.get(h)));
-                    j++;
-                }
+    private void features(IntToDoubleFunction value, double[] regressionData) {
+        regressionData[0] = 1.0; // the bias term
+        // then copy the rest of the data into the regression data
+        // the order of the data in the regression data is the same as the order in the names() of the feature vector
+        int j = 1;
+        for (String h : descriptions) {
+            if (indexForDescriptions.get(h) != null) {
+                regressionData[j] = value.applyAsDouble(indexForDescriptions.get(h));
+                j++;
             }
-            dataArray[i] = regressionData;
         }
     }
 
@@ -3,6 +3,7 @@ package players.learners;
 import core.interfaces.*;
 import org.json.simple.JSONObject;
 import evaluation.features.AutomatedFeatures;
+import evaluation.loggers.BinaryStatsLogger;
 import players.heuristics.GLMHeuristic;
 import utilities.JSONUtils;
 import utilities.Utils;
@@ -91,13 +92,16 @@ public class LearnFromData {
         String convertedDataFile = data.replaceAll("\\.[^.]+$", "_ASF$0");
         String[] dataFiles = new String[]{data};
         if (dataFile.isDirectory()) {
-            convertedDataFile = data + File.separator + "ASF.txt";
             dataFiles = dataFile.list();
+            // keep the converted data in binary format if that is how it was collected
+            boolean binary = dataFiles != null && dataFiles.length > 0 &&
+                    Arrays.stream(dataFiles).allMatch(BinaryStatsLogger::isBinaryFileName);
+            convertedDataFile = data + File.separator + "ASF." + (binary ? BinaryStatsLogger.EXTENSION : "txt");
         }
 
         AutomatedFeatures asf = new AutomatedFeatures(stateFeatures, actionFeatures);
         // construct the output file by adding _ASF before the suffix (which can be anything)
-        List<List<Object>> convertedData = asf.processData(convertedDataFile, maxRecords, dataFiles);
+        int convertedRows = asf.processData(convertedDataFile, maxRecords, dataFiles);
 
         // this will have created the raw data from which we now learn
         // whichever of state/action features is not null will prompt the type of Heuristic learned
@@ -113,7 +117,7 @@ public class LearnFromData {
         // if we have a GLM
         // TODO: Can generalise this to consider validation error with feature removal to reduce overfitting
         if (learnedThing instanceof GLMHeuristic glm) {
-            learnedThing = improveModel(glm, learner, convertedData.size(), convertedDataFile);
+            learnedThing = improveModel(glm, learner, convertedRows, convertedDataFile);
         }
 
         String dataFileName = "";
@@ -144,7 +148,7 @@ public class LearnFromData {
         }
         long endTime = System.currentTimeMillis();
         System.out.printf("Learned heuristic in %d minutes with %d -> %d features and %d rows%n",
-                (endTime - startTime) / 60000, startingFeatureCount, learner.featureCount(), convertedData.size());
+                (endTime - startTime) / 60000, startingFeatureCount, learner.featureCount(), convertedRows);
         return learnedThing;
     }
 
@@ -157,7 +161,7 @@ public class LearnFromData {
         long startIteration = startTime;
         AutomatedFeatures asf = (AutomatedFeatures) (learner.getActionFeatureVector() != null ? learner.getActionFeatureVector() : learner.getStateFeatureVector());
         String bestFeatureDescription = "";
-        double baseBIC = bicFromAic(startingHeuristic.getModel().summary().aic(), asf.names().length, n);
+        double baseBIC = bicFromAic(startingHeuristic.getAIC(), asf.names().length, n);
         double bestBIC = baseBIC;
         System.out.println("Starting modified BIC: " + baseBIC);
         List<String> excludedFeatures = new ArrayList<>();
@@ -166,7 +170,9 @@ public class LearnFromData {
         List<String> featuresToKeep = new ArrayList<>();
         int iteration = 0;
         String dataDirectory = dataFiles[0].substring(0, dataFiles[0].lastIndexOf(File.separator));
-        String outputFile = dataDirectory + File.separator + "ImproveModel_tmp.txt";
+        // intermediate files are in the same format as the data
+        String suffix = BinaryStatsLogger.isBinaryFileName(dataFiles[0]) ? "." + BinaryStatsLogger.EXTENSION : ".txt";
+        String outputFile = dataDirectory + File.separator + "ImproveModel_tmp" + suffix;
 
         String[] rawData = dataFiles;
         AutomatedFeatures bestFeatures;
@@ -292,7 +298,7 @@ public class LearnFromData {
                 // We can safely use the previous iterations final file
                 String fileToUse = dataDirectory + File.separator +
                         (iteration > 0 ? "ImproveModel_Iter_" + (iteration - 1) : "ImproveModel_tmp") +
-                        ".txt";
+                        suffix;
                 FeatureAnalysisResult result = processNewFeature(adjustedASF, fileToUse, new String[0], learner, n);
 
                 if (debug)
@@ -318,7 +324,7 @@ public class LearnFromData {
             }
             // We then also need to set up the data file to be used as the baseline for the next iteration
             if (bestFeatures != null) {
-                String newFileName = dataDirectory + File.separator + "ImproveModel_Iter_" + iteration + ".txt";
+                String newFileName = dataDirectory + File.separator + "ImproveModel_Iter_" + iteration + suffix;
                 bestFeatures.processData(newFileName, maxRecords, rawData);
                 // then remove excluded features from the bestFeatures (these are always in the file so it always contains the original raw data)
                 removeExcludedFeatures(excludedFeatures, bestFeatures);
@@ -335,7 +341,7 @@ public class LearnFromData {
                 startIteration = System.currentTimeMillis();
                 if (debug && bestResult != null) {
                     System.out.printf("\tCoefficients: %s%n",
-                            bestResult.newHeuristic.getModel().coefficients() != null ?
+                            bestResult.newHeuristic.coefficients() != null ?
                                     Arrays.stream(startingHeuristic.coefficients())
                                             .mapToObj(d -> String.format("%.2f", d))
                                             .collect(joining("|")) : "[]");
@@ -351,7 +357,7 @@ public class LearnFromData {
                 startTime = System.currentTimeMillis();
                 bicMultiplier = bicMultiplier + baseBicMultiplier;
                 // then adjust current bestBIC to reflect the new multiplier
-                bestBIC = bicFromAic(bestResult.newHeuristic.getModel().summary().aic(), asf.names().length, n);
+                bestBIC = bicFromAic(bestResult.newHeuristic.getAIC(), asf.names().length, n);
             }
         } while (bestFeatures != null && asf.names().length > 1);
         // we stop if we only have one feature left
@@ -422,7 +428,7 @@ public class LearnFromData {
             learner.setStateFeatureVector(localASF);
 
         GLMHeuristic newHeuristic = (GLMHeuristic) learner.learnFrom(outputFile);
-        double newBIC = bicFromAic(newHeuristic.getModel().summary().aic(), localASF.names().length, n);
+        double newBIC = bicFromAic(newHeuristic.getAIC(), localASF.names().length, n);
         return new FeatureAnalysisResult(localASF, newHeuristic, newBIC);
     }
 
@@ -0,0 +1,210 @@
+package players.learners;
+
+import core.interfaces.IActionFeatureVector;
+import core.interfaces.IStateFeatureVector;
+import players.heuristics.GLMHeuristic;
+
+/**
+ * Fits a Generalised Linear Model without Spark, streaming the training data from file so that the memory needed
+ * depends only on the number of features, and not on the number of rows.
+ * <p>
+ * The model is fitted by Iteratively Reweighted Least Squares (as Spark's GeneralizedLinearRegression is): each
+ * iteration is one pass through the data, in chunks of chunkSize rows, that accumulates X'WX and X'Wz. The
+ * p x p normal equations are then solved, with an L2 penalty of regParam on all coefficients except the intercept.
+ * A Gaussian model with the identity link needs just the one pass.
+ * <p>
+ * The AIC of the fitted model is -2 log L + 2k (for k coefficients), with the Gaussian likelihood as Spark calculates
+ * it. The binomial log likelihood is the sum of y log p + (1 - y) log(1 - p), which is what Spark calculates when the
+ * targets are 0 or 1. Spark rounds other targets to 0 or 1 first, so AICs are only comparable with Spark's for 0/1
+ * targets.
+ */
+public abstract class StreamingGLMLearner extends AbstractLearner {
+
+    public enum Family {GAUSSIAN, BINOMIAL}
+
+    final Family family;
+    double regParam = 0.1;
+    public int chunkSize = 10_000;
+    public int maxIterations = 25;
+    public double tolerance = 1e-6;
+
+    protected double[] coefficients;
+    protected double aic;
+    protected int nRows;
+
+    // running totals for one pass through the data
+    private double[][] xtwx;
+    private double[] xtwz;
+    private double sumW, sumYY, logLikelihood;
+
+    protected StreamingGLMLearner(Family family) {
+        super();
+        this.family = family;
+    }
+
+    protected StreamingGLMLearner(Family family, double gamma, double regParam, Target target,
+                                  IStateFeatureVector stateFeatureVector, IActionFeatureVector actionFeatureVector) {
+        super(gamma, target, stateFeatureVector, actionFeatureVector);
+        this.family = family;
+        this.regParam = regParam;
+    }
+
+    @Override
+    public Object learnFrom(String... files) {
+        coefficients = null;
+        if (family == Family.GAUSSIAN) {
+            accumulate(files);
+            coefficients = solve();
+            // the residual sum of squares follows from the totals, without another pass
+            double rss = sumYY;
+            for (int i = 0; i < coefficients.length; i++) {
+                rss -= 2 * coefficients[i] * xtwz[i];
+                for (int j = 0; j < coefficients.length; j++)
+                    rss += coefficients[i] * xtwx[i][j] * coefficients[j];
+            }
+            rss = Math.max(rss, 0.0);
+            aic = nRows * (Math.log(2 * Math.PI * rss / nRows) + 1.0) + 2.0 + 2.0 * coefficients.length;
+        } else {
+            boolean converged = false;
+            int iteration = 0;
+            while (true) {
+                // each pass also gives the log likelihood of the current coefficients
+                accumulate(files);
+                // we start from all zeros (which is what the first pass used), so that there is a model even if
+                // maxIterations is 0
+                if (coefficients == null)
+                    coefficients = new double[xtwz.length];
+                if (converged || iteration >= maxIterations)
+                    break;
+                double[] newCoefficients = solve();
+                double maxChange = 0.0;
+                for (int i = 0; i < newCoefficients.length; i++)
+                    maxChange = Math.max(maxChange, Math.abs(newCoefficients[i] - coefficients[i]));
+                converged = maxChange < tolerance;
+                coefficients = newCoefficients;
+                iteration++;
+            }
+            aic = -2.0 * logLikelihood + 2.0 * coefficients.length;
+        }
+        xtwx = null;
+        xtwz = null;
+        Object retValue = createHeuristic(coefficients);
+        if (retValue instanceof GLMHeuristic glm)
+            glm.setAIC(aic);
+        return retValue;
+    }
+
+    /**
+     * One pass through the data, accumulating the weighted normal equations for the current coefficients
+     */
+    private void accumulate(String... files) {
+        xtwx = null;
+        sumW = 0.0;
+        sumYY = 0.0;
+        logLikelihood = 0.0;
+        nRows = streamData(chunkSize, (x, y) -> {
+            int p = x.length;
+            if (xtwx == null) {
+                xtwx = new double[p][p];
+                xtwz = new double[p];
+            }
+            double w, z;
+            if (family == Family.GAUSSIAN) {
+                w = 1.0;
+                z = y;
+                sumYY += y * y;
+            } else {
+                double eta = 0.0;
+                if (coefficients != null)
+                    for (int i = 0; i < p; i++)
+                        eta += coefficients[i] * x[i];
+                double mu = Math.min(Math.max(1.0 / (1.0 + Math.exp(-eta)), 1e-10), 1.0 - 1e-10);
+                w = mu * (1.0 - mu);
+                z = eta + (y - mu) / w;
+                logLikelihood += y * Math.log(mu) + (1.0 - y) * Math.log(1.0 - mu);
+            }
+            sumW += w;
+            // only the upper triangle; and the features are often one-hot, so we skip zeros
+            for (int i = 0; i < p; i++) {
+                if (x[i] == 0.0)
+                    continue;
+                double wx = w * x[i];
+                xtwz[i] += wx * z;
+                for (int j = i; j < p; j++)
+                    xtwx[i][j] += wx * x[j];
+            }
+        }, files);
+        if (xtwx == null)
+            throw new IllegalArgumentException("No data to learn from");
+        for (int i = 0; i < xtwx.length; i++)
+            for (int j = 0; j < i; j++)
+                xtwx[i][j] = xtwx[j][i];
+    }
+
+    /**
+     * Solves (X'WX + regParam * sum(W) * I) b = X'Wz by Cholesky decomposition, where the intercept is not penalised.
+     * Features that are always zero get a coefficient of zero.
+     */
+    private double[] solve() {
+        int p = xtwz.length;
+        double[][] a = new double[p][p];
+        double[] b = xtwz.clone();
+        for (int i = 0; i < p; i++) {
+            System.arraycopy(xtwx[i], 0, a[i], 0, p);
+            if (i > 0)
+                a[i][i] += regParam * sumW;
+        }
+        for (int i = 0; i < p; i++) {
+            if (xtwx[i][i] == 0.0) {
+                for (int j = 0; j < p; j++) {
+                    a[i][j] = 0.0;
+                    a[j][i] = 0.0;
+                }
+                a[i][i] = 1.0;
+                b[i] = 0.0;
+            }
+        }
+        // a = L L', with L stored in the lower triangle of a
+        for (int j = 0; j < p; j++) {
+            double d = a[j][j];
+            for (int k = 0; k < j; k++)
+                d -= a[j][k] * a[j][k];
+            if (d <= 0.0)
+                throw new IllegalStateException("Features are collinear; a regParam above zero is needed to fit " + name());
+            a[j][j] = Math.sqrt(d);
+            for (int i = j + 1; i < p; i++) {
+                double s = a[i][j];
+                for (int k = 0; k < j; k++)
+                    s -= a[i][k] * a[j][k];
+                a[i][j] = s / a[j][j];
+            }
+        }
+        double[] retValue = new double[p];
+        for (int i = 0; i < p; i++) {
+            double s = b[i];
+            for (int k = 0; k < i; k++)
+                s -= a[i][k] * retValue[k];
+            retValue[i] = s / a[i][i];
+        }
+        for (int i = p - 1; i >= 0; i--) {
+            double s = retValue[i];
+            for (int k = i + 1; k < p; k++)
+                s -= a[k][i] * retValue[k];
+            retValue[i] = s / a[i][i];
+        }
+        return retValue;
+    }
+
+    /**
+     * @return The heuristic with the fitted coefficients (the intercept first)
+     */
+    protected abstract Object createHeuristic(double[] coefficients);
+
+    public double[] getCoefficients() {
+        return coefficients;
+    }
+
+    public double getAIC() {
+        return aic;
+    }
+}
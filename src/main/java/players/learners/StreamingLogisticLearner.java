@@ -0,0 +1,45 @@
+package players.learners;
+
+import core.interfaces.IActionFeatureVector;
+import core.interfaces.IStateFeatureVector;
+import players.heuristics.LogisticActionHeuristic;
+import players.heuristics.LogisticStateHeuristic;
+import players.heuristics.WinOnlyHeuristic;
+
+/**
+ * As LogisticLearner, but fitted by StreamingGLMLearner without the need for Spark, or to hold the data in memory.
+ */
+public class StreamingLogisticLearner extends StreamingGLMLearner {
+
+    public StreamingLogisticLearner() {
+        super(Family.BINOMIAL);
+    }
+
+    public StreamingLogisticLearner(double gamma, double regParam, Target target) {
+        this(gamma, regParam, target, null, null);
+    }
+
+    public StreamingLogisticLearner(double gamma, double regParam, Target target,
+                                    IStateFeatureVector stateFeatureVector) {
+        this(gamma, regParam, target, stateFeatureVector, null);
+    }
+
+    public StreamingLogisticLearner(double gamma, double regParam, Target target,
+                                    IStateFeatureVector stateFeatureVector, IActionFeatureVector actionFeatureVector) {
+        super(Family.BINOMIAL, gamma, regParam, target, stateFeatureVector, actionFeatureVector);
+    }
+
+    @Override
+    protected Object createHeuristic(double[] coefficients) {
+        if (this.actionFeatureVector == null) {
+            return new LogisticStateHeuristic(stateFeatureVector, coefficients, new WinOnlyHeuristic());
+        } else {
+            return new LogisticActionHeuristic(actionFeatureVector, stateFeatureVector, coefficients);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "StreamingLogistic";
+    }
+}
@@ -0,0 +1,49 @@
+package players.learners;
+
+import core.interfaces.IActionFeatureVector;
+import core.interfaces.IStateFeatureVector;
+import players.heuristics.*;
+
+/**
+ * As OLSLearner, but fitted by StreamingGLMLearner without the need for Spark, or to hold the data in memory.
+ */
+public class StreamingOLSLearner extends StreamingGLMLearner {
+
+    public StreamingOLSLearner() {
+        super(Family.GAUSSIAN);
+    }
+
+    public StreamingOLSLearner(double gamma, double regParam, Target target) {
+        this(gamma, regParam, target, null, null);
+    }
+
+    public StreamingOLSLearner(double gamma, double regParam, Target target,
+                               IStateFeatureVector stateFeatureVector) {
+        this(gamma, regParam, target, stateFeatureVector, null);
+    }
+
+    public StreamingOLSLearner(double gamma, double regParam, Target target,
+                               IStateFeatureVector stateFeatureVector, IActionFeatureVector actionFeatureVector) {
+        super(Family.GAUSSIAN, gamma, regParam, target, stateFeatureVector, actionFeatureVector);
+    }
+
+    @Override
+    protected Object createHeuristic(double[] coefficients) {
+        if (this.actionFeatureVector == null) {
+            return new LinearStateHeuristic(stateFeatureVector, coefficients,
+                    switch (targetType) {
+                        case ORDINAL, ORD_MEAN, ORD_SCALE, ORD_MEAN_SCALE -> new OrdinalPosition();
+                        case SCORE -> new PureScoreHeuristic();
+                        case SCORE_DELTA -> new LeaderHeuristic();
+                        default -> new WinOnlyHeuristic();
+                    });
+        } else {
+            return new LinearActionHeuristic(actionFeatureVector, stateFeatureVector, coefficients);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "StreamingOLS";
+    }
+}
@@ -31,6 +31,37 @@ public class ActionStats {
         return totValue[player] / nVisits;
     }
 
+    /**
+     * Adds in the statistics from another tree (used to combine trees in root-parallel search)
+     */
+    public void add(ActionStats other) {
+        for (int i = 0; i < totValue.length; i++) {
+            totValue[i] += other.totValue[i];
+            squaredTotValue[i] += other.squaredTotValue[i];
+        }
+        nVisits += other.nVisits;
+        validVisits += other.validVisits;
+    }
+
+    /**
+     * Virtual loss is used in shared-tree parallel search. While an iteration that took this action is still
+     * in progress we count it as a visit with a poor result for the acting player, so that other threads are
+     * steered elsewhere. It must be removed (with the same value) before the real result is backed up.
+     */
+    public void addVirtualLoss(int player, double loss) {
+        totValue[player] += loss;
+        squaredTotValue[player] += loss * loss;
+        nVisits++;
+        validVisits++;
+    }
+
+    public void removeVirtualLoss(int player, double loss) {
+        totValue[player] -= loss;
+        squaredTotValue[player] -= loss * loss;
+        nVisits--;
+        validVisits--;
+    }
+
     public ActionStats copy() {
         ActionStats newStats = new ActionStats(totValue.length);
         newStats.nVisits = nVisits;
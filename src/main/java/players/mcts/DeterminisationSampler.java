@@ -0,0 +1,87 @@
+package players.mcts;
+
+import core.AbstractGameState;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Samples determinisations of a root state in the background, so that the search thread can take each one
+ * ready-made from a queue instead of spending its own time on state.copy(player).
+ * <p>
+ * The sampler runs on the sampling thread of the player's SearchPool, which lasts for the whole game, rather than on
+ * a thread of its own. The queue is kept full (up to its capacity) until the sampler is closed, which the search does
+ * as soon as its budget is spent, or until limit determinisations have been made (the most the search can use, if
+ * this is known). All copies of the root state are made on the sampling thread and in order, so the sequence of
+ * determinisations is the same as if they had been made by the search thread; the search thread must not use the
+ * root state itself until the sampler is closed.
+ */
+class DeterminisationSampler implements AutoCloseable {
+
+    private final BlockingQueue<AbstractGameState> queue;
+    private final Future<?> producer;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+
+    /**
+     * @param limit - the most determinisations that will be needed, or Integer.MAX_VALUE if this is not known
+     */
+    DeterminisationSampler(ExecutorService executor, AbstractGameState state, int player, int capacity, int limit) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        producer = executor.submit(() -> {
+            started.set(true);
+            try {
+                for (int made = 0; made < limit && !stopped; made++)
+                    queue.put(state.copy(player));
+            } catch (InterruptedException e) {
+                // the search is over
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                finished.countDown();
+            }
+        });
+    }
+
+    /**
+     * @return The next determinisation, waiting for one if the queue is empty
+     */
+    AbstractGameState next() {
+        try {
+            while (true) {
+                AbstractGameState retValue = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (retValue != null)
+                    return retValue;
+                if (failure instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                if (failure instanceof Error error)
+                    throw error;
+                if (finished.getCount() == 0 && queue.isEmpty())
+                    throw new IllegalStateException("More determinisations were needed than the sampler was asked for");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stops the sampler, and waits for any copy in progress to finish
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        producer.cancel(true);
+        // if the producer had not started, then it never will (or it will see that it has been stopped)
+        if (started.get()) {
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        queue.clear();
+    }
+}
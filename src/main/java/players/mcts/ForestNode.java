@@ -2,8 +2,10 @@ package players.mcts;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import players.PlayerConstants;
 import utilities.Pair;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * PI-MCTS (Perfect-Information Monte Carlo Tree Search) wrapper for MCTS
@@ -49,18 +51,64 @@ public class ForestNode extends SingleTreeNode {
     }
 
      //Run PI-MCTS search where for each determinisation, state is copied, a SingleTreeNode root is created, and MCTS search is performed.
+     //With nThreads > 1 (and a parallelMode) the determinisations are searched in parallel, each by its own worker.
 
     @Override
     public void mctsSearch(long initialisationTime) {
         initialiseRootMetrics();
         initialisationTimeTaken = initialisationTime;
+        long startTime = System.nanoTime();
+
+        if (params.nThreads > 1 && params.parallelMode != MCTSEnums.ParallelMode.None) {
+            parallelSearch(initialisationTime);
+        } else {
+            // Create determinised trees and run MCTS on each one independently.
+            for (int i = 0; i < params.numDeterminizations; i++) {
+                roots[i] = SingleTreeNode.createRootNode(mctsPlayer, state.copy(state.getCurrentPlayer()), rnd, mctsPlayer.getFactory());
+                roots[i].MASTStatistics = MASTStatistics;
+                // MCTS on the determinised root.
+                roots[i].mctsSearch(initialisationTime);
+            }
+        }
 
-        // Create determinised trees and run MCTS on each one independently.
-        for (int i = 0; i < params.numDeterminizations; i++) {
-            roots[i] = SingleTreeNode.createRootNode(mctsPlayer, state.copy(state.getCurrentPlayer()), rnd, mctsPlayer.getFactory());
-            roots[i].MASTStatistics = MASTStatistics;
-            // MCTS on the determinised root.
-            roots[i].mctsSearch(initialisationTime);
+        timeTaken = (System.nanoTime() - startTime) / 1_000_000.0;
+        // the totals over all determinisations are then available to metrics
+        mergeRootStatistics(roots);
+    }
+
+    /**
+     * Searches the determinisations on params.nThreads threads. The workers, their seeds and their determinisations
+     * are all created on this thread, so the result depends only on our rnd, and not on the scheduling of the threads.
+     * <p>
+     * Each worker collects its own MAST statistics, and these are summed into ours once all the searches are done.
+     * With a time budget, each determinisation is given as much time as keeps the total elapsed time the same as
+     * for a sequential search.
+     */
+    private void parallelSearch(long initialisationTime) {
+        int nDet = params.numDeterminizations;
+        int waves = (nDet + params.nThreads - 1) / params.nThreads;
+        int budget = params.budgetType == PlayerConstants.BUDGET_TIME ? params.budget * nDet / waves : params.budget;
+
+        List<Callable<SingleTreeNode>> searches = new ArrayList<>();
+        for (int i = 0; i < nDet; i++) {
+            MCTSPlayer worker = mctsPlayer.determinisationWorker(i, rnd.nextLong(), state, budget);
+            AbstractGameState determinisation = state.copy(state.getCurrentPlayer());
+            searches.add(() -> {
+                worker.createRootNode(determinisation);
+                worker.root.mctsSearch(initialisationTime);
+                return worker.root;
+            });
+        }
+        roots = mctsPlayer.searchPool.runAll(searches, params.nThreads).toArray(new SingleTreeNode[0]);
+
+        for (SingleTreeNode tree : roots) {
+            if (tree.MASTStatistics == null) continue;
+            for (int p = 0; p < tree.MASTStatistics.size() && p < MASTStatistics.size(); p++) {
+                for (Map.Entry<Object, Pair<Integer, Double>> entry : tree.MASTStatistics.get(p).entrySet()) {
+                    MASTStatistics.get(p).merge(entry.getKey(), entry.getValue(),
+                            (a, b) -> new Pair<>(a.a + b.a, a.b + b.b));
+                }
+            }
         }
     }
 
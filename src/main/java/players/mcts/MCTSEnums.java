@@ -53,6 +53,12 @@ public class MCTSEnums {
         // END_TURN|ROUND is triggered when the game round/turn changes
     }
 
+    public enum ParallelMode {
+        None, Root, Tree
+        // Root runs nThreads independent trees and sums their root statistics to choose the action
+        // Tree has nThreads workers sharing one tree, using virtual loss to spread them across it
+    }
+
     public enum OpponentTreePolicy {
         SelfOnly(true), OneTree(false),
         MultiTree(true),
@@ -8,6 +8,7 @@ import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStatisticLogger;
 import evaluation.listeners.ActionFeatureListener;
 import evaluation.listeners.StateFeatureListener;
+import evaluation.loggers.BinaryStatsLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
 
@@ -58,9 +59,15 @@ public class MCTSExpertIterationListener extends ActionFeatureListener {
     public MCTSExpertIterationListener setLogger(IStatisticLogger logger) {
         super.setLogger(logger);
         // we also need to set the logger for the state recorder
-        FileStatsLogger fileLogger = (FileStatsLogger) logger;
-        String loggerName = fileLogger.getFileName().replace("Action", "State");
-        FileStatsLogger stateLogger = new FileStatsLogger(loggerName, fileLogger.getDelimiter(), fileLogger.isAppend());
+        IStatisticLogger stateLogger;
+        if (logger instanceof BinaryStatsLogger binaryLogger) {
+            String loggerName = binaryLogger.getFileName().replace("Action", "State");
+            stateLogger = new BinaryStatsLogger(loggerName, binaryLogger.isAppend());
+        } else {
+            FileStatsLogger fileLogger = (FileStatsLogger) logger;
+            String loggerName = fileLogger.getFileName().replace("Action", "State");
+            stateLogger = new FileStatsLogger(loggerName, fileLogger.getDelimiter(), fileLogger.isAppend());
+        }
         if (stateRecorder != null)
             stateRecorder.setLogger(stateLogger);
         return this;
@@ -51,6 +51,9 @@ public class MCTSMetrics implements IMetricsCollection {
                 records.put("PlayerID", e.state.getCurrentPlayer());
                 records.put("Iterations", root.getVisits());
                 records.put("ReusedVisits", mctsPlayer.root.inheritedVisits);
+                records.put("ReuseHitRate", mctsPlayer.getReuseHitRate());
+                records.put("RetainedNodes", mctsPlayer.retainedNodes);
+                records.put("PrunedNodes", mctsPlayer.prunedNodes);
                 records.put("MaxDepth", treeStats.depthReached);
                 records.put("MeanLeafDepth", treeStats.meanLeafDepth);
                 records.put("MeanNodeDepth", treeStats.meanNodeDepth);
@@ -95,12 +98,18 @@ public class MCTSMetrics implements IMetricsCollection {
                 records.put("fmCalls", mctsPlayer.root.fmCallsCount / visits);
                 records.put("copyCalls", mctsPlayer.root.copyCount / visits);
                 records.put("time", mctsPlayer.root.timeTaken);
+                records.put("IterationsPerSecond", mctsPlayer.root.getIterationsPerSecond());
                 records.put("initTime", mctsPlayer.root.initialisationTimeTaken);
                 return true;
             }
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Collections.singletonList(Event.GameEvent.ACTION_CHOSEN));
@@ -113,6 +122,9 @@ public class MCTSMetrics implements IMetricsCollection {
             cols.put("PlayerID", Integer.class);
             cols.put("Iterations", Integer.class);
             cols.put("ReusedVisits", Integer.class); // visits from reused tree
+            cols.put("ReuseHitRate", Double.class); // proportion of decisions this game with a reused tree
+            cols.put("RetainedNodes", Integer.class); // nodes kept from the previous tree
+            cols.put("PrunedNodes", Integer.class); // nodes dropped from that to keep within maxRetainedNodes
             cols.put("MaxDepth", Integer.class);
             cols.put("MeanLeafDepth", Double.class);
             cols.put("MeanNodeDepth", Double.class);
@@ -134,6 +146,7 @@ public class MCTSMetrics implements IMetricsCollection {
             cols.put("fmCalls", Integer.class);
             cols.put("copyCalls", Integer.class);
             cols.put("time", Double.class);
+            cols.put("IterationsPerSecond", Double.class);
             cols.put("initTime", Double.class);
             return cols;
         }
@@ -173,6 +186,11 @@ public class MCTSMetrics implements IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Collections.singletonList(Event.GameEvent.ACTION_CHOSEN));
@@ -71,12 +71,27 @@ public class MCTSParams extends PlayerParameters {
     public double progressiveWideningExponent = 0.0;
     public double progressiveBias = 0.0;
     public boolean reuseTree = false;
+    // If above zero, the tree kept from one decision to the next (with reuseTree) is cut back to at most this many
+    // nodes, by discarding the subtrees of the least visited nodes
+    public int maxRetainedNodes = 0;
     public MCTSEnums.BackupPolicy backupPolicy = MCTSEnums.BackupPolicy.MonteCarlo;
     public double backupLambda = 1.0;
     public int maxBackupThreshold = 1000000;
     public Class<?> instantiationClass;
     public int numDeterminizations = 1;
     public MCTSEnums.PerfectInformationPolicy perfectInformationPolicy = AverageValue;
+    public int nThreads = 1;
+    public MCTSEnums.ParallelMode parallelMode = MCTSEnums.ParallelMode.None;
+    // If above zero, with Information_Set search the determinisations of the root state are sampled on a background
+    // thread into a queue of this size, rather than by the search thread at the start of each iteration
+    public int determinisationQueue = 0;
+    public boolean useSlotTreeNodes = false;
+    // If true, the nodes of the tree from each decision are kept by MCTSPlayer and re-used in the next search
+    // (see NodeArena); nothing outside the player may then keep a reference to a node after the decision
+    public boolean recycleNodes = false;
+    // If true, rollout steps taken by a plain RandomPlayer ask the forward model for a single random action
+    // instead of generating the full list of actions; unless MAST is used, these are not copied before they are applied
+    public boolean fastRandomRollout = false;
 
     public MCTSParams() {
         addTunableParameter("K", 1.0, Arrays.asList(0.03, 0.1, 0.3, 1.0, 3.0, 10.0, 30.0, 100.0));
@@ -122,12 +137,19 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("actionHeuristicRecalculation", 20);
         addTunableParameter("useActionHeuristicForMoveOrdering", true);
         addTunableParameter("reuseTree", false);
+        addTunableParameter("maxRetainedNodes", 0);
         addTunableParameter("backupPolicy", MCTSEnums.BackupPolicy.MonteCarlo, Arrays.asList(MCTSEnums.BackupPolicy.values()));
         addTunableParameter("backupLambda", 1.0);
         addTunableParameter("maxBackupThreshold", 1_000_000);
         addTunableParameter("instantiationClass", "players.mcts.MCTSPlayer");
         addTunableParameter("perfectInformationPolicy", AverageValue, Arrays.asList(MCTSEnums.PerfectInformationPolicy.values()));
         addTunableParameter("numDeterminizations", 1, Arrays.asList(1, 10, 30, 100, 300, 1000));
+        addTunableParameter("nThreads", 1);
+        addTunableParameter("parallelMode", MCTSEnums.ParallelMode.None, Arrays.asList(MCTSEnums.ParallelMode.values()));
+        addTunableParameter("determinisationQueue", 0);
+        addTunableParameter("useSlotTreeNodes", false);
+        addTunableParameter("recycleNodes", false);
+        addTunableParameter("fastRandomRollout", false);
     }
 
     @Override
@@ -185,6 +207,7 @@ public class MCTSParams extends PlayerParameters {
         initialiseVisits = (int) getParameterValue("initialiseVisits");
         actionHeuristicRecalculationThreshold = (int) getParameterValue("actionHeuristicRecalculation");
         reuseTree = (boolean) getParameterValue("reuseTree");
+        maxRetainedNodes = (int) getParameterValue("maxRetainedNodes");
         backupPolicy = (MCTSEnums.BackupPolicy) getParameterValue("backupPolicy");
         backupLambda = (double) getParameterValue("backupLambda");
         maxBackupThreshold = (int) getParameterValue("maxBackupThreshold");
@@ -214,6 +237,36 @@ public class MCTSParams extends PlayerParameters {
         if (numDeterminizations > 1) {
             budget = budget / numDeterminizations;
         }
+        nThreads = (int) getParameterValue("nThreads");
+        parallelMode = (MCTSEnums.ParallelMode) getParameterValue("parallelMode");
+        if (nThreads > 1 && parallelMode != MCTSEnums.ParallelMode.None) {
+            if (opponentTreePolicy == MCTSEnums.OpponentTreePolicy.MultiTree) {
+                System.out.println("Setting parallelMode to None as parallel search does not currently support MultiTree");
+                parallelMode = MCTSEnums.ParallelMode.None;
+            } else if (numDeterminizations > 1) {
+                // each determinisation is searched (in its own tree) on one of the threads
+                if (parallelMode == MCTSEnums.ParallelMode.Tree) {
+                    System.out.println("Setting parallelMode to Root as multiple determinisations are searched in parallel with one tree each");
+                    parallelMode = MCTSEnums.ParallelMode.Root;
+                }
+            } else if (parallelMode == MCTSEnums.ParallelMode.Tree &&
+                    ((opponentTreePolicy != OneTree && opponentTreePolicy != MCTSEnums.OpponentTreePolicy.SelfOnly) || useMAST)) {
+                System.out.println("Setting parallelMode to Root as a shared tree is only supported for OneTree or SelfOnly without MAST");
+                parallelMode = MCTSEnums.ParallelMode.Root;
+            }
+            if (parallelMode == MCTSEnums.ParallelMode.Root && reuseTree) {
+                System.out.println("Setting reuseTree to false as this is not supported with Root parallelisation");
+                reuseTree = false;
+            }
+        }
+        determinisationQueue = (int) getParameterValue("determinisationQueue");
+        useSlotTreeNodes = (boolean) getParameterValue("useSlotTreeNodes");
+        if (useSlotTreeNodes && !SlotTreeNode.supports(this)) {
+            System.out.println("Setting useSlotTreeNodes to false as SlotTreeNode only supports OneTree or SelfOnly with UCB selection and MonteCarlo backup");
+            useSlotTreeNodes = false;
+        }
+        fastRandomRollout = (boolean) getParameterValue("fastRandomRollout");
+        recycleNodes = (boolean) getParameterValue("recycleNodes");
     }
 
     @Override
@@ -8,6 +8,7 @@ import evaluation.listeners.IGameListener;
 import core.interfaces.IStateHeuristic;
 import evaluation.metrics.Event;
 import llm.IHasStateHeuristic;
+import players.PlayerConstants;
 import players.IAnyTimePlayer;
 import utilities.Pair;
 import utilities.Utils;
@@ -28,6 +29,12 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
     List<Map<Object, Pair<Integer, Double>>> MASTStats;
     protected Map<Object, Integer> oldGraphKeys = new HashMap<>();
     protected List<Object> recentlyRemovedKeys = new ArrayList<>();
+    // Tree reuse over the current game: how often the tree could be reused, and the size of the last retained tree
+    protected int reuseAttempts, reuseHits, retainedNodes, prunedNodes;
+    // Nodes from previous trees, for re-use (only with recycleNodes)
+    protected NodeArena nodeArena;
+    // Threads and worker players for parallel search, kept until the end of the game
+    final SearchPool searchPool = new SearchPool();
 
     public MCTSPlayer() {
         this(new MCTSParams());
@@ -48,6 +55,14 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         return (MCTSParams) parameters;
     }
 
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        // these will be re-built from the new seed when next needed
+        getParameters().rolloutPolicy = null;
+        getParameters().opponentModel = null;
+    }
+
     @Override
     public void initializePlayer(AbstractGameState state) {
         if (getParameters().resetSeedEachGame) {
@@ -61,8 +76,13 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         if (getParameters().actionHeuristic instanceof AbstractPlayer)
             ((AbstractPlayer) getParameters().actionHeuristic).initializePlayer(state);
         MASTStats = null;
+        recycleTree(root, null);
         root = null;
         oldGraphKeys = new HashMap<>();
+        reuseAttempts = 0;
+        reuseHits = 0;
+        retainedNodes = 0;
+        prunedNodes = 0;
         getParameters().getRolloutStrategy().initializePlayer(state);
         getParameters().getOpponentModel().initializePlayer(state);
     }
@@ -78,15 +98,35 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                 return new OMATreeNode();
             else if (getParameters().opponentTreePolicy == MCGS || getParameters().opponentTreePolicy == MCGSSelfOnly)
                 return new MCGSNode();
-            else
+            else if (getParameters().useSlotTreeNodes)
+                return new SlotTreeNode();
+            else if (getParameters().recycleNodes) {
+                if (nodeArena == null)
+                    nodeArena = new NodeArena();
+                return nodeArena.take();
+            } else
                 return new SingleTreeNode();
         };
     }
 
+    /**
+     * With recycleNodes, this returns the nodes of the old tree to the arena, apart from the subtree below keep
+     * (which is being re-used). The tree must be a plain one; trees with a different kind of root are left alone.
+     */
+    protected void recycleTree(SingleTreeNode oldRoot, SingleTreeNode keep) {
+        if (canRecycle(oldRoot))
+            nodeArena.recycle(oldRoot, keep);
+    }
+
+    private boolean canRecycle(SingleTreeNode oldRoot) {
+        return getParameters().recycleNodes && nodeArena != null && oldRoot != null && oldRoot.getClass() == SingleTreeNode.class;
+    }
+
     @Override
     public void registerUpdatedObservation(AbstractGameState gameState) {
         super.registerUpdatedObservation(gameState);
         if (!getParameters().reuseTree) {
+            recycleTree(root, null);
             root = null;
         }
     }
@@ -98,6 +138,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         // We could have run through the history once...but more robust to do this once per player
         // and reuse the code for SelfOnly
         SingleTreeNode[] newRoots = new SingleTreeNode[state.getNPlayers()];
+        reuseAttempts++;
 
         for (int p = 0; p < state.getNPlayers(); p++) {
             SingleTreeNode oldRoot = mtRoot.roots[p];
@@ -107,13 +148,17 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                 System.out.println("\tBacktracking for player " + mtRoot.roots[p].decisionPlayer);
             newRoots[p] = backtrack(mtRoot.roots[p], state);
             if (newRoots[p] != null) {
+                releaseAncestors(newRoots[p]);
                 // here we do not do a full rootification as that would set the turnOwner and currentPlayer
                 // to the decision player, which we want to avoid
                 newRoots[p].rootify(oldRoot, null);
                 newRoots[p].resetDepth(newRoots[p]);
                 newRoots[p].state = state.copy();
+                compactRetainedTree(newRoots[p]);
             }
         }
+        if (Arrays.stream(newRoots).anyMatch(Objects::nonNull))
+            reuseHits++;
         mtRoot.roots = newRoots;
         mtRoot.state = state.copy();
         return mtRoot;
@@ -122,6 +167,8 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
     protected SingleTreeNode newRootNode(AbstractGameState gameState) {
         MCTSParams params = getParameters();
         recentlyRemovedKeys.clear();
+        retainedNodes = 0;
+        prunedNodes = 0;
         if (params.reuseTree && (params.opponentTreePolicy == MCGS || params.opponentTreePolicy == MCGSSelfOnly)) {
             // In this case we remove any nodes from the graph that were not present before the last action was taken
             MCGSNode mcgsRoot = (MCGSNode) root;
@@ -173,6 +220,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                 return newMultiTreeRootNode(gameState);
 
             newRoot = backtrack(root, gameState);
+            reuseAttempts++;
 
             if (root == newRoot)
                 throw new AssertionError("Root node should not be the same as the new root node");
@@ -189,14 +237,53 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                 throw new AssertionError("Current player does not match decision player in tree");
                 // if this is a problem, we can just set newRoot = null;
             }
-            // We need to make the new root the root of the tree
+            reuseHits++;
+            // The rest of the old tree is released, and we then make the new root the root of the tree
+            // (When recycling, the old tree is walked from its root, so this is done after rootify, which still
+            // needs the old root as a template)
             // We need to remove the parent link from the new root
             //   newRoot.instantiate(null, null, gameState);
+            boolean recycle = canRecycle(root);
+            if (!recycle)
+                releaseAncestors(newRoot);
             newRoot.rootify(root, gameState);
+            if (recycle)
+                nodeArena.recycle(root, newRoot);
+            compactRetainedTree(newRoot);
         }
         return newRoot;
     }
 
+    /**
+     * Cuts the links from each node above the new root to its children. Only the subtree under the new root is kept,
+     * and this makes sure that nothing else stays reachable through a lingering reference to the old root.
+     */
+    private static void releaseAncestors(SingleTreeNode newRoot) {
+        for (SingleTreeNode node = newRoot.parent; node != null; node = node.parent)
+            node.releaseChildren();
+    }
+
+    /**
+     * Applies maxRetainedNodes to a reused tree (if set), and records its size for MCTSMetrics
+     */
+    private void compactRetainedTree(SingleTreeNode newRoot) {
+        int nodes = newRoot.countNodes();
+        int maxNodes = getParameters().maxRetainedNodes;
+        if (maxNodes > 0 && nodes > maxNodes) {
+            int pruned = newRoot.pruneToSize(maxNodes);
+            nodes -= pruned;
+            prunedNodes += pruned;
+        }
+        retainedNodes += nodes;
+    }
+
+    /**
+     * @return The proportion of decisions this game at which part of the previous tree could be reused
+     */
+    public double getReuseHitRate() {
+        return reuseAttempts == 0 ? 0.0 : reuseHits / (double) reuseAttempts;
+    }
+
     protected SingleTreeNode backtrack(SingleTreeNode startingRoot, AbstractGameState gameState) {
         List<Pair<Integer, AbstractAction>> history = gameState.getHistory();
         Pair<Integer, AbstractAction> lastExpected = lastAction;
@@ -243,6 +330,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
     protected void createRootNode(AbstractGameState gameState) {
         SingleTreeNode newRoot = newRootNode(gameState);
         if (newRoot == null) {
+            recycleTree(root, null);
             if (getParameters().opponentTreePolicy == MultiTree)
                 root = new MultiTreeNode(this, gameState, rnd);
             else {
@@ -250,6 +338,9 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
                 {
                     root = new ForestNode(this, gameState, rnd);
                 }
+                else if (getParameters().nThreads > 1 && getParameters().parallelMode == MCTSEnums.ParallelMode.Root) {
+                    root = new RootParallelNode(this, gameState, rnd);
+                }
                 else {
                     root = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
                 }
@@ -257,6 +348,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         } else {
             root = newRoot;
         }
+        root.searchPool = searchPool;
         if (MASTStats != null && getParameters().MASTGamma > 0.0)
             root.MASTStatistics = MASTStats.stream()
                     .map(m -> Utils.decay(m, getParameters().MASTGamma))
@@ -270,6 +362,52 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
         }
     }
 
+    /**
+     * Prepares one of the independent workers used in root-parallel search (see RootParallelNode).
+     * The worker has its own copy of our parameters, seeded from the given seed, and searches on a single thread
+     * with its share of the budget.
+     */
+    MCTSPlayer rootParallelWorker(int index, long seed, AbstractGameState gameState) {
+        MCTSParams params = getParameters();
+        int budget = params.budgetType == PlayerConstants.BUDGET_TIME ? params.budget : Math.max(1, params.budget / params.nThreads);
+        return searchWorker(index, seed, gameState, budget);
+    }
+
+    /**
+     * Prepares one of the workers used to search the determinisations of a ForestNode in parallel.
+     * Each worker searches a single determinisation on a single thread, with the given budget.
+     */
+    MCTSPlayer determinisationWorker(int index, long seed, AbstractGameState gameState, int budget) {
+        return searchWorker(index, seed, gameState, budget);
+    }
+
+    /**
+     * The workers are created once (in the searchPool) and re-used for every decision in the game. Each decision
+     * re-seeds the worker and its rollout policy and opponent model, so that the search is the same as that of a
+     * new worker created with this seed.
+     */
+    private MCTSPlayer searchWorker(int index, long seed, AbstractGameState gameState, int budget) {
+        MCTSParams params = getParameters();
+        MCTSPlayer worker = searchPool.worker(index, () -> {
+            MCTSParams workerParams = (MCTSParams) params.copy();
+            workerParams.setParameterValue("parallelMode", MCTSEnums.ParallelMode.None);
+            workerParams.setParameterValue("numDeterminizations", 1);
+            return new MCTSPlayer(workerParams, toString());
+        });
+        MCTSParams workerParams = worker.getParameters();
+        if (workerParams.budgetType != params.budgetType)
+            workerParams.setParameterValue("budgetType", params.budgetType);
+        if (workerParams.budget != budget)
+            workerParams.setParameterValue("budget", budget);
+        workerParams.setRandomSeed(seed);
+        worker.rnd = new Random(seed);
+        workerParams.rolloutPolicy = null;  // rebuilt from the new seed when the forward model is set
+        workerParams.opponentModel = null;
+        worker.setForwardModel(getForwardModel());
+        worker.initializePlayer(gameState);
+        return worker;
+    }
+
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
         // Search for best action from the root
@@ -313,7 +451,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer, IHasSt
             ((IGameListener) getParameters().heuristic).onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         if (getParameters().actionHeuristic instanceof IGameListener)
             ((IGameListener) getParameters().actionHeuristic).onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
-
+        searchPool.shutdown();
     }
 
     @Override
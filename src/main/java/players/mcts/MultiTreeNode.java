@@ -100,11 +100,10 @@ public class MultiTreeNode extends SingleTreeNode {
                 // note that different players will enter rollout at different times, which is why
                 // we cannot have a simple rollout() method as in SingleTree search
                 AbstractPlayer agent = currentActor == decisionPlayer ? params.getRolloutStrategy() : params.getOpponentModel();
-                List<AbstractAction> availableActions = forwardModel.computeAvailableActions(currentState, mctsPlayer.getParameters().actionSpace);
-                if (availableActions.isEmpty())
+                AbstractAction chosen = defaultPolicyAction(currentState, agent);
+                if (chosen == null)
                     throw new AssertionError("We should always have something to choose from");
 
-                AbstractAction chosen = agent.getAction(currentState, availableActions);
                 if (debug)
                     System.out.printf("Rollout action chosen for P%d - %s %n", currentActor, chosen);
 
@@ -0,0 +1,57 @@
+package players.mcts;
+
+import java.util.ArrayDeque;
+
+/**
+ * A free list of SingleTreeNodes. With MCTSParams.recycleNodes the nodes of the tree from one decision are
+ * returned here and handed out again during the next search, rather than being left to the garbage collector.
+ * A recycled node keeps its (cleared) children and actionValues maps, so these do not have to be re-grown either.
+ * <p>
+ * Only plain SingleTreeNodes are recycled. Subclasses carry state of their own, and are left to the garbage collector.
+ * Nothing may hold on to a node once its tree has been recycled.
+ * <p>
+ * This is not thread-safe; during a tree-parallel search nodes are only created while the tree lock is held.
+ */
+class NodeArena {
+
+    private final ArrayDeque<SingleTreeNode> free = new ArrayDeque<>();
+    private final ArrayDeque<SingleTreeNode> toVisit = new ArrayDeque<>();
+
+    SingleTreeNode take() {
+        SingleTreeNode node = free.pollLast();
+        return node == null ? new SingleTreeNode() : node;
+    }
+
+    /**
+     * Recycles every node in the tree below (and including) from, except for the subtree below keep
+     *
+     * @param keep - the root of a subtree that is still in use (or null to recycle the whole tree)
+     */
+    void recycle(SingleTreeNode from, SingleTreeNode keep) {
+        toVisit.add(from);
+        while (!toVisit.isEmpty()) {
+            SingleTreeNode node = toVisit.pollLast();
+            if (node == keep)
+                continue;
+            for (SingleTreeNode[] childArray : node.children.values()) {
+                if (childArray == null) continue;
+                for (SingleTreeNode child : childArray) {
+                    if (child != null) toVisit.add(child);
+                }
+            }
+            if (node.getClass() == SingleTreeNode.class) {
+                node.clearForReuse();
+                free.add(node);
+            } else {
+                node.releaseChildren();
+            }
+        }
+    }
+
+    /**
+     * @return The number of nodes ready to be handed out
+     */
+    int size() {
+        return free.size();
+    }
+}
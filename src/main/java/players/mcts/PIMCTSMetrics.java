@@ -57,6 +57,11 @@ public class PIMCTSMetrics implements  IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Collections.singletonList(Event.GameEvent.ACTION_CHOSEN));
@@ -124,6 +129,11 @@ public class PIMCTSMetrics implements  IMetricsCollection {
             return false;
         }
 
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+
         @Override
         public Set<IGameEvent> getDefaultEventTypes() {
             return new HashSet<>(Collections.singletonList(Event.GameEvent.ACTION_CHOSEN));
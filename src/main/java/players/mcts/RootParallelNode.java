@@ -0,0 +1,59 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Root-parallel MCTS.
+ * Each of params.nThreads workers builds and searches its own independent tree from the decision point, with
+ * its own random seed and rollout policy. The root statistics of all the trees are then summed on this node,
+ * and the action is chosen from these in the usual way.
+ * <p>
+ * With a time budget every tree searches for the full time; for other budget types the budget is split between
+ * the workers, so that the total effort matches that of a single-threaded search.
+ * The workers, and the threads they run on, are kept by the player for the rest of the game (see SearchPool).
+ */
+public class RootParallelNode extends SingleTreeNode {
+    // One independent tree per worker
+    SingleTreeNode[] roots;
+    MCTSPlayer mctsPlayer;
+
+    public RootParallelNode(MCTSPlayer player, AbstractGameState state, Random rnd) {
+        this.params = player.getParameters();
+        this.forwardModel = player.getForwardModel();
+        this.rnd = rnd;
+        mctsPlayer = player;
+        MASTStatistics = new ArrayList<>();
+        for (int i = 0; i < state.getNPlayers(); i++)
+            MASTStatistics.add(new HashMap<>());
+        instantiate(null, null, state);
+        roots = new SingleTreeNode[params.nThreads];
+    }
+
+    @Override
+    public void mctsSearch(long initialisationTime) {
+        initialiseRootMetrics();
+        initialisationTimeTaken = initialisationTime;
+        long startTime = System.nanoTime();
+
+        // The workers and their states are created on this thread, so that their seeds are drawn from our rnd
+        List<Callable<SingleTreeNode>> searches = new ArrayList<>();
+        for (int i = 0; i < roots.length; i++) {
+            MCTSPlayer worker = mctsPlayer.rootParallelWorker(i, rnd.nextLong(), state);
+            AbstractGameState workerState = state.copy();
+            copyCount++;
+            searches.add(() -> {
+                worker.createRootNode(workerState);
+                worker.root.mctsSearch(initialisationTime);
+                return worker.root;
+            });
+        }
+        roots = mctsPlayer.searchPool.runAll(searches, params.nThreads).toArray(new SingleTreeNode[0]);
+
+        timeTaken = (System.nanoTime() - startTime) / 1_000_000.0;
+        mergeRootStatistics(roots);
+    }
+}
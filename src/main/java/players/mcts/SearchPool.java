@@ -0,0 +1,103 @@
+package players.mcts;
+
+import core.components.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * The threads an MCTSPlayer uses for parallel search, together with the worker players that run root-parallel and
+ * determinisation searches on them.
+ * <p>
+ * These are created when first needed and then kept for the rest of the game (they are released by
+ * MCTSPlayer.finalizePlayer()), so that a decision does not pay for starting threads and building players. This also
+ * matters because every new thread that creates components reserves its own block of component IDs (see Component).
+ */
+class SearchPool {
+
+    private ExecutorService executor, samplingExecutor;
+    private int nThreads;
+    private final List<MCTSPlayer> workers = new ArrayList<>();
+
+    /**
+     * Runs the tasks on up to nThreads threads, and returns their results in the same order.
+     * Any exception thrown by a task is re-thrown on the calling thread.
+     */
+    <T> List<T> runAll(List<Callable<T>> tasks, int nThreads) {
+        ExecutorService pool = executor(Math.max(1, nThreads));
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (Callable<T> task : tasks)
+                futures.add(pool.submit(task));
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures)
+                results.add(future.get());
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new RuntimeException(e.getCause());
+        } finally {
+            // we only get here early if something failed; the remaining tasks are not wanted
+            for (Future<T> future : futures)
+                future.cancel(true);
+        }
+    }
+
+    private ExecutorService executor(int threads) {
+        if (executor == null || nThreads != threads) {
+            if (executor != null)
+                executor.shutdownNow();
+            nThreads = threads;
+            executor = Executors.newFixedThreadPool(threads, Component.idReleasingThreads("MCTSSearch", true));
+        }
+        return executor;
+    }
+
+    /**
+     * @return The single thread on which determinisations are sampled in the background (see DeterminisationSampler)
+     */
+    ExecutorService samplingExecutor() {
+        if (samplingExecutor == null)
+            samplingExecutor = Executors.newSingleThreadExecutor(Component.idReleasingThreads("DeterminisationSampler", true));
+        return samplingExecutor;
+    }
+
+    /**
+     * @return The worker with this index, created with the factory if there is none yet
+     */
+    MCTSPlayer worker(int index, Supplier<MCTSPlayer> factory) {
+        while (workers.size() <= index)
+            workers.add(null);
+        MCTSPlayer retValue = workers.get(index);
+        if (retValue == null) {
+            retValue = factory.get();
+            workers.set(index, retValue);
+        }
+        return retValue;
+    }
+
+    /**
+     * Stops the threads, and releases the workers (and their own threads)
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (samplingExecutor != null) {
+            samplingExecutor.shutdownNow();
+            samplingExecutor = null;
+        }
+        for (MCTSPlayer worker : workers)
+            if (worker != null) worker.searchPool.shutdown();
+        workers.clear();
+    }
+}
@@ -4,6 +4,7 @@ import core.*;
 import core.actions.AbstractAction;
 import core.interfaces.IActionHeuristic;
 import players.PlayerConstants;
+import players.simple.RandomPlayer;
 import utilities.*;
 
 import java.util.*;
@@ -13,6 +14,7 @@ import java.util.stream.IntStream;
 import static java.util.stream.Collectors.*;
 import static players.PlayerConstants.*;
 import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.Information.Information_Set;
 import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
 import static players.mcts.MCTSEnums.RolloutTermination.EXACT;
 import static players.mcts.MCTSEnums.SelectionPolicy.*;
@@ -44,9 +46,15 @@ public class SingleTreeNode {
     // having them on the node reduces verbiage in passing to advance() to check rollout termination in some edge cases
     // (specifically when using SelfOnly trees, with START/END_TURN/ROUND rollout termination conditions
     protected int lastActorInRollout, lastTurnInRollout, lastRoundInRollout, turnAtStartOfRollout, roundAtStartOfRollout;
-    List<AbstractAction> actionsFromOpenLoopState = new ArrayList<>();
-    Map<AbstractAction, Double> actionValueEstimates = new HashMap<>();
-    Map<AbstractAction, Double> actionPDFEstimates = new HashMap<>();
+    // true while a Closed_Loop rollout is applied with nextUndoable() to the state on this node, instead of to a copy
+    protected boolean undoRollout;
+    // These three tables are only needed by some tree policies, so they start as the shared empty map (or list),
+    // and are only allocated when something is first put in them
+    List<AbstractAction> actionsFromOpenLoopState = Collections.emptyList();
+    Map<AbstractAction, Double> actionValueEstimates = Collections.emptyMap();
+    Map<AbstractAction, Double> actionPDFEstimates = Collections.emptyMap();
+    // Re-usable array for the scores from the action heuristic; only the one on the root node is used
+    private double[] actionValueBuffer;
     // Depth of this node
     protected int depth;
     // the id of the player who makes the decision at this node
@@ -55,10 +63,11 @@ public class SingleTreeNode {
     protected int round, turn, turnOwner;
     boolean terminalNode;
     double timeTaken;
+    int searchIterations;
     double initialisationTimeTaken;
     protected double highReward = Double.NEGATIVE_INFINITY;
     protected double lowReward = Double.POSITIVE_INFINITY;
-    protected Map<AbstractAction, Double> regretMatchingAverage = new HashMap<>();
+    protected Map<AbstractAction, Double> regretMatchingAverage = Collections.emptyMap();
     protected int nodeClash;
     // Root node of tree
     protected SingleTreeNode root;
@@ -77,6 +86,10 @@ public class SingleTreeNode {
     protected List<SingleTreeNode> currentNodeTrajectory;
     protected List<Pair<Integer, AbstractAction>> actionsInTree;
     List<Pair<Integer, AbstractAction>> actionsInRollout;
+    // Buffer for the actions available at each step outside the tree (only used on the root, see defaultPolicyAction())
+    List<AbstractAction> rolloutActions;
+    // Threads of the player for parallel search (only set on the root)
+    SearchPool searchPool;
 
     protected SingleTreeNode() {
     }
@@ -89,6 +102,7 @@ public class SingleTreeNode {
         retValue.params = player.getParameters();
         retValue.forwardModel = player.getForwardModel();
         retValue.rnd = rnd;
+        retValue.searchPool = player.searchPool;
         // only root node maintains MAST statistics
         retValue.MASTStatistics = new ArrayList<>();
         for (int i = 0; i < state.getNPlayers(); i++)
@@ -173,10 +187,144 @@ public class SingleTreeNode {
         }
     }
 
+    /**
+     * Returns this node to the state it was in when constructed, so that NodeArena can hand it out again.
+     * The children and actionValues maps are cleared rather than replaced, so their capacity is re-used.
+     * Any field added to SingleTreeNode needs to be reset here too.
+     */
+    void clearForReuse() {
+        state = null;
+        openLoopState = null;
+        params = null;
+        forwardModel = null;
+        rnd = null;
+        fmCallsCount = 0;
+        copyCount = 0;
+        paranoidPlayer = -1;
+        actionToReach = null;
+        nVisits = 0;
+        inheritedVisits = 0;
+        rolloutActionsTaken = 0;
+        lastActorInRollout = 0;
+        lastTurnInRollout = 0;
+        lastRoundInRollout = 0;
+        turnAtStartOfRollout = 0;
+        roundAtStartOfRollout = 0;
+        actionsFromOpenLoopState = Collections.emptyList();
+        actionValueEstimates = Collections.emptyMap();
+        actionPDFEstimates = Collections.emptyMap();
+        actionValueBuffer = null;
+        depth = 0;
+        decisionPlayer = 0;
+        redeterminisationPlayer = -1;
+        round = 0;
+        turn = 0;
+        turnOwner = 0;
+        terminalNode = false;
+        timeTaken = 0.0;
+        searchIterations = 0;
+        initialisationTimeTaken = 0.0;
+        highReward = Double.NEGATIVE_INFINITY;
+        lowReward = Double.POSITIVE_INFINITY;
+        regretMatchingAverage = Collections.emptyMap();
+        nodeClash = 0;
+        root = null;
+        parent = null;
+        children.clear();
+        actionValues.clear();
+        MASTStatistics = null;
+        factory = null;
+        currentNodeTrajectory = null;
+        actionsInTree = null;
+        actionsInRollout = null;
+        rolloutActions = null;
+    }
+
+    /**
+     * Cuts the links from this node to its children. This is used on the nodes above a reused subtree, so that
+     * anything that still holds the old root does not also keep the rest of the old tree reachable.
+     */
+    protected void releaseChildren() {
+        children.clear();
+    }
+
+    /**
+     * @return The number of nodes in the tree below (and including) this one
+     */
+    public int countNodes() {
+        int retValue = 1;
+        for (SingleTreeNode[] childArray : children.values()) {
+            if (childArray == null) continue;
+            for (SingleTreeNode child : childArray) {
+                if (child != null) retValue += child.countNodes();
+            }
+        }
+        return retValue;
+    }
+
+    /**
+     * Cuts the tree below this node back to at most maxNodes nodes (including this one).
+     * Nodes are kept in order of their visits, most visited first, and the subtrees of all the others are dropped.
+     * The statistics for the actions that led to the dropped nodes are kept on their parents, and the nodes will be
+     * expanded again if the search reaches them.
+     *
+     * @return The number of nodes removed
+     */
+    public int pruneToSize(int maxNodes) {
+        int total = countNodes();
+        if (total <= maxNodes)
+            return 0;
+        PriorityQueue<SingleTreeNode> frontier = new PriorityQueue<>(
+                Comparator.comparingInt((SingleTreeNode node) -> node.nVisits).reversed());
+        frontier.add(this);
+        int kept = 0;
+        while (!frontier.isEmpty()) {
+            SingleTreeNode node = frontier.poll();
+            if (kept < maxNodes) {
+                kept++;
+                for (SingleTreeNode[] childArray : node.children.values()) {
+                    if (childArray == null) continue;
+                    for (SingleTreeNode child : childArray) {
+                        if (child != null) frontier.add(child);
+                    }
+                }
+            } else {
+                // the child arrays are updated in place, as subclasses may share them
+                SingleTreeNode[] siblings = node.parent.children.get(node.actionToReach);
+                for (int i = 0; i < siblings.length; i++) {
+                    if (siblings[i] == node) siblings[i] = null;
+                }
+                node.parent = null;
+            }
+        }
+        return total - kept;
+    }
+
     public AbstractGameState getState() {
         return state;
     }
 
+    /**
+     * Scores the actions with the action heuristic in a single call, and records the values in actionValueEstimates.
+     * The heuristic is always given the full list of actions, as it may score each one relative to the others.
+     *
+     * @param onlyNew - if true, only the actions with no estimate yet are recorded
+     */
+    private void evaluateActions(List<AbstractAction> actions, AbstractGameState actionState, boolean onlyNew) {
+        if (root.actionValueBuffer == null || root.actionValueBuffer.length < actions.size())
+            root.actionValueBuffer = new double[Math.max(actions.size(), 16)];
+        double[] actionValues = root.actionValueBuffer;
+        params.actionHeuristic.evaluateAllActions(actions, actionState, actionValues);
+        if (actionValueEstimates.isEmpty())
+            actionValueEstimates = new HashMap<>();
+        for (int i = 0; i < actions.size(); i++) {
+            if (onlyNew)
+                actionValueEstimates.putIfAbsent(actions.get(i), actionValues[i]);
+            else
+                actionValueEstimates.put(actions.get(i), actionValues[i]);
+        }
+    }
+
     private boolean terminalStateInSelfOnlyTree(AbstractGameState state) {
         // we then have some exceptions
         if (params.opponentTreePolicy.selfOnlyTree && parent != null)
@@ -200,9 +348,7 @@ public class SingleTreeNode {
             actionsFromOpenLoopState = forwardModel.computeAvailableActions(actionState, params.actionSpace);
             //      System.out.printf("Setting OLS actions for P%d (%d)%n%s%n", decisionPlayer, actionState.getCurrentPlayer(),
 //                actionsFromOpenLoopState.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
-            if (actionsFromOpenLoopState.size() != actionsFromOpenLoopState.stream().distinct().count())
-                throw new AssertionError("Duplicate actions found in action list: " +
-                        actionsFromOpenLoopState.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
+            checkActionsAreDistinct(actionsFromOpenLoopState);
             if ((params.useActionHeuristicForMoveOrdering && nVisits < actionsFromOpenLoopState.size())
                     || params.pUCTTemperature <= 10000.0  || params.progressiveWideningConstant > 1.0
                     || params.progressiveBias > 0 || params.initialiseVisits > 0) {
@@ -216,15 +362,14 @@ public class SingleTreeNode {
                 if (params.actionHeuristic != IActionHeuristic.nullReturn) {
                     if (actionValueEstimates.isEmpty() || nVisits % params.actionHeuristicRecalculationThreshold == 0) {
                         // in this case we initialise all action values
-                        double[] actionValues = params.actionHeuristic.evaluateAllActions(actionsFromOpenLoopState, actionState);
-                        for (int i = 0; i < actionsFromOpenLoopState.size(); i++) {
-                            actionValueEstimates.put(actionsFromOpenLoopState.get(i), actionValues[i]);
-                        }
+                        evaluateActions(actionsFromOpenLoopState, actionState, false);
                     } else {
-                        // we just initialise the new actions
+                        // we just initialise the new actions (scored in one batch against all the available actions,
+                        // so that any state features are calculated once, and the heuristic sees the same context)
                         for (AbstractAction action : actionsFromOpenLoopState) {
                             if (!actionValueEstimates.containsKey(action)) {
-                                actionValueEstimates.put(action, params.actionHeuristic.evaluateAction(action, actionState, actionsFromOpenLoopState));
+                                evaluateActions(actionsFromOpenLoopState, actionState, true);
+                                break;
                             }
                         }
                     }
@@ -260,118 +405,206 @@ public class SingleTreeNode {
                     actionPDFEstimates.put(actionsFromOpenLoopState.get(i), pdf[i]);
                 }
             }
-            for (AbstractAction action : actionsFromOpenLoopState) {
-                if (!actionValues.containsKey(action)) {
-                    actionValues.put(action, new ActionStats(actionState.getNPlayers()));
-                    children.put(action.copy(), null); // mark a new node to be expanded
-                    // This *does* rely on a good equals method being implemented for Actions
-                    if (!children.containsKey(action))
-                        throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
-                    // Then we seed the statistics with heuristic biases (if so parameterised)
-                    // This assumes that we have had params.initialiseVisits trials of each action before we start
-                    if (params.initialiseVisits > 0) {
-                        // This also ignores Progressive widening and initialises all possible actions
-                        // As with pUCT, this won't cause any major issues, but will mean that the effective node visits
-                        // will be higher than the visits of the considered actions.
-                        ActionStats stats = actionValues.get(action);
-                        double actionEstimate = actionValueEstimates.getOrDefault(action, 0.0);
-                        if (params.normaliseRewards) {
-                            if (actionEstimate > root.highReward) root.highReward = actionEstimate;
-                            if (actionEstimate < root.lowReward) root.lowReward = actionEstimate;
-                        }
-                        int nActions = Math.max(actionValues.size(), actionsFromOpenLoopState.size());
-                        stats.nVisits = params.initialiseVisits;
-                        stats.validVisits = params.initialiseVisits * nActions;
-                        stats.totValue[decisionPlayer] = actionEstimate * params.initialiseVisits;
-                        stats.squaredTotValue[decisionPlayer] = actionEstimate * actionEstimate * params.initialiseVisits;
-                        if (params.paranoid) // default to zero for other players, unless we're paranoid
-                            for (int i = 0; i < actionState.getNPlayers(); i++)
-                                if (i != decisionPlayer)
-                                    stats.totValue[i] = -stats.totValue[decisionPlayer];
-                        if (nVisits < params.initialiseVisits * nActions) {
-                            nVisits = params.initialiseVisits * nActions;
-                        }
-                    }
-                }
-            }
+            initialiseActionStats(actionState);
         } else if (!params.opponentTreePolicy.selfOnlyTree) {
             throw new AssertionError("Expected?");
             // How have we got to a state in which the decision player is not the active player?
         }
     }
 
+    /**
+     * Adds statistics (and a child entry to be expanded) for each action in actionsFromOpenLoopState that has not
+     * been seen at this node before. This is called on each visit where it is our decision, after the actions have
+     * been computed.
+     */
+    protected void initialiseActionStats(AbstractGameState actionState) {
+        for (AbstractAction action : actionsFromOpenLoopState) {
+            if (!actionValues.containsKey(action)) {
+                actionValues.put(action, new ActionStats(actionState.getNPlayers()));
+                children.put(action.copy(), null); // mark a new node to be expanded
+                // This *does* rely on a good equals method being implemented for Actions
+                if (!children.containsKey(action))
+                    throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
+                // Then we seed the statistics with heuristic biases (if so parameterised)
+                // This assumes that we have had params.initialiseVisits trials of each action before we start
+                if (params.initialiseVisits > 0) {
+                    // This also ignores Progressive widening and initialises all possible actions
+                    // As with pUCT, this won't cause any major issues, but will mean that the effective node visits
+                    // will be higher than the visits of the considered actions.
+                    ActionStats stats = actionValues.get(action);
+                    double actionEstimate = actionValueEstimates.getOrDefault(action, 0.0);
+                    if (params.normaliseRewards) {
+                        if (actionEstimate > root.highReward) root.highReward = actionEstimate;
+                        if (actionEstimate < root.lowReward) root.lowReward = actionEstimate;
+                    }
+                    int nActions = Math.max(actionValues.size(), actionsFromOpenLoopState.size());
+                    stats.nVisits = params.initialiseVisits;
+                    stats.validVisits = params.initialiseVisits * nActions;
+                    stats.totValue[decisionPlayer] = actionEstimate * params.initialiseVisits;
+                    stats.squaredTotValue[decisionPlayer] = actionEstimate * actionEstimate * params.initialiseVisits;
+                    if (params.paranoid) // default to zero for other players, unless we're paranoid
+                        for (int i = 0; i < actionState.getNPlayers(); i++)
+                            if (i != decisionPlayer)
+                                stats.totValue[i] = -stats.totValue[decisionPlayer];
+                    if (nVisits < params.initialiseVisits * nActions) {
+                        nVisits = params.initialiseVisits * nActions;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that there are no duplicates in a newly computed list of actions. This hashes every action, so a
+     * subclass that can detect duplicates more cheaply while it processes the list may skip it.
+     */
+    protected void checkActionsAreDistinct(List<AbstractAction> actions) {
+        if (actions.size() != actions.stream().distinct().count())
+            throw new AssertionError("Duplicate actions found in action list: " +
+                    actions.stream().map(a -> "\t" + a.toString() + "\n").collect(joining()));
+    }
+
     protected void initialiseRootMetrics() {
         timeTaken = 0.0;
+        searchIterations = 0;
         initialisationTimeTaken = 0.0;
         nodeClash = 0;
         rolloutActionsTaken = 0;
-        regretMatchingAverage.clear();
+        regretMatchingAverage = Collections.emptyMap();
     }
 
     /**
      * Performs full MCTS search, using the defined budget limits.
      */
     public void mctsSearch(long initialisationTime) {
+        if (params.parallelMode == MCTSEnums.ParallelMode.Tree && params.nThreads > 1) {
+            new TreeParallelSearch(this).run(initialisationTime);
+            return;
+        }
         initialiseRootMetrics();
         initialisationTimeTaken = initialisationTime;
-        // Variables for tracking time budget
-        double avgTimeTaken;
-        long remaining;
-        int remainingLimit = params.breakMS;
         ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
         if (params.budgetType == BUDGET_TIME) {
             elapsedTimer.setMaxTimeMillis(params.budget - initialisationTime);
         }
 
+        // With Information_Set search, the determinisations of the root can be sampled on another thread
+        DeterminisationSampler sampler = null;
+        if (params.information == Information_Set && params.determinisationQueue > 0 && searchPool != null
+                && params.opponentTreePolicy != MCGS && params.opponentTreePolicy != MCGSSelfOnly) {
+            if (redeterminisationPlayer == -1)
+                redeterminisationPlayer = decisionPlayer;
+            // one determinisation per iteration, so with a budget that limits iterations we know how many are needed
+            int limit = switch (params.budgetType) {
+                case BUDGET_ITERATIONS -> params.budget;
+                case BUDGET_FM_CALLS, BUDGET_COPY_CALLS, BUDGET_FMANDCOPY_CALLS -> params.budget + 1;
+                default -> Integer.MAX_VALUE;
+            };
+            sampler = new DeterminisationSampler(searchPool.samplingExecutor(), state, redeterminisationPlayer,
+                    params.determinisationQueue, limit);
+        }
+
         // Tracking number of iterations for iteration budget
         int numIters = 0;
         boolean stop = false;
-        while (!stop) {
-            // before each search iteration, we reset the forward model (and its decorators)
-            forwardModel.reset();
+        try {
+            while (!stop) {
+                // before each search iteration, we reset the forward model (and its decorators)
+                forwardModel.reset();
+
+                switch (params.information) {
+                    case Closed_Loop:
+                        setActionsFromOpenLoopState(state);
+                        break;
+                    case Open_Loop:
+                        setActionsFromOpenLoopState(state.copy());
+                        copyCount++;
+                        break;
+                    case Information_Set:
+                        if (redeterminisationPlayer == -1)
+                            redeterminisationPlayer = decisionPlayer;
+                        setActionsFromOpenLoopState(sampler == null ? state.copy(redeterminisationPlayer) : sampler.next());
+                        copyCount++;
+                        break;
+                }
+                // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
+                oneSearchIteration();
 
-            switch (params.information) {
-                case Closed_Loop:
-                    setActionsFromOpenLoopState(state);
-                    break;
-                case Open_Loop:
-                    setActionsFromOpenLoopState(state.copy());
-                    copyCount++;
-                    break;
-                case Information_Set:
-                    if (redeterminisationPlayer == -1)
-                        redeterminisationPlayer = decisionPlayer;
-                    setActionsFromOpenLoopState(state.copy(redeterminisationPlayer));
-                    copyCount++;
-                    break;
-            }
-            // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
-            oneSearchIteration();
-
-            // Finished iteration
-            numIters++;
-            // Check stopping condition
-            PlayerConstants budgetType = params.budgetType;
-            if (budgetType == BUDGET_TIME) {
-                // Time budget
-                remaining = elapsedTimer.remainingTimeMillis();
-                avgTimeTaken = (double) elapsedTimer.elapsedMillis() / numIters;
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
-            } else if (budgetType == BUDGET_ITERATIONS) {
-                // Iteration budget
-                stop = numIters >= params.budget;
-            } else if (budgetType == BUDGET_FM_CALLS) {
-                // FM calls budget
-                stop = fmCallsCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_COPY_CALLS) {
-                stop = copyCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
-                stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
+                // Finished iteration
+                numIters++;
+                // Check stopping condition
+                stop = budgetExhausted(numIters, elapsedTimer);
             }
+        } finally {
+            // stops the sampler as soon as the budget is spent
+            if (sampler != null)
+                sampler.close();
         }
+        searchIterations = numIters;
         timeTaken = elapsedTimer.elapsedMillis();
     }
 
+    /**
+     * Sums the root statistics of independently searched trees onto this node, so that metrics (and bestAction(),
+     * unless overridden) work from the totals
+     */
+    protected void mergeRootStatistics(SingleTreeNode[] trees) {
+        for (SingleTreeNode tree : trees) {
+            for (Map.Entry<AbstractAction, ActionStats> entry : tree.actionValues.entrySet()) {
+                ActionStats merged = actionValues.get(entry.getKey());
+                if (merged == null)
+                    actionValues.put(entry.getKey(), entry.getValue().copy());
+                else
+                    merged.add(entry.getValue());
+            }
+            if (regretMatchingAverage.isEmpty() && !tree.regretMatchingAverage.isEmpty())
+                regretMatchingAverage = new HashMap<>();
+            tree.regretMatchingAverage.forEach((action, value) -> regretMatchingAverage.merge(action, value, Double::sum));
+            nVisits += tree.nVisits;
+            searchIterations += tree.searchIterations;
+            fmCallsCount += tree.fmCallsCount;
+            copyCount += tree.copyCount;
+            rolloutActionsTaken += tree.rolloutActionsTaken;
+            nodeClash += tree.nodeClash;
+            highReward = Math.max(highReward, tree.highReward);
+            lowReward = Math.min(lowReward, tree.lowReward);
+        }
+    }
+
+    /**
+     * Checks the stopping condition for the search (called on the root node).
+     *
+     * @param numIters     - iterations completed so far
+     * @param elapsedTimer - timer for the search, used with a time budget
+     */
+    protected boolean budgetExhausted(int numIters, ElapsedCpuTimer elapsedTimer) {
+        PlayerConstants budgetType = params.budgetType;
+        if (budgetType == BUDGET_TIME) {
+            // Time budget
+            long remaining = elapsedTimer.remainingTimeMillis();
+            double avgTimeTaken = (double) elapsedTimer.elapsedMillis() / numIters;
+            return remaining <= 2 * avgTimeTaken || remaining <= params.breakMS;
+        } else if (budgetType == BUDGET_ITERATIONS) {
+            // Iteration budget
+            return numIters >= params.budget;
+        } else if (budgetType == BUDGET_FM_CALLS) {
+            // FM calls budget
+            return fmCallsCount > params.budget || numIters > params.budget;
+        } else if (budgetType == BUDGET_COPY_CALLS) {
+            return copyCount > params.budget || numIters > params.budget;
+        } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
+            return (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
+        }
+        return false;
+    }
+
+    /**
+     * The number of search iterations per second achieved in the last call to mctsSearch()
+     */
+    public double getIterationsPerSecond() {
+        return timeTaken > 0.0 ? searchIterations * 1000.0 / timeTaken : 0.0;
+    }
+
     /**
      * oneSearchIteration() implements the strategy for tree search (plus expansion, rollouts, backup and so on)
      * Its result is purely stored in the tree generated from root
@@ -548,8 +781,9 @@ public class SingleTreeNode {
     /**
      * Advance the current game state with the given action, count the FM call and compute the next available actions.
      * <p>
-     * In some case Action is mutable, and will change state when advance() is called - so this method always copies
-     * first for safety
+     * In some case Action is mutable, and will change state when advance() is called - so this method copies
+     * first for safety. The exception is a rollout action made by the forward model for fastRandomRollout when MAST
+     * is not used, as no-one else holds or looks up that action.
      *
      * @param gs  - current game state
      * @param act - action to apply
@@ -564,7 +798,9 @@ public class SingleTreeNode {
         } else {
             root.actionsInTree.add(new Pair<>(gs.getCurrentPlayer(), act));
         }
-        forwardModel.next(gs, act.copy());
+        // MAST keys its statistics on the actions recorded above, so these must not be changed by next()
+        boolean freshAction = inRollout && !params.useMAST && usesFastRandom(rolloutAgent(gs));
+        applyAction(gs, freshAction ? act : act.copy(), inRollout);
         root.fmCallsCount++;
         if (params.opponentTreePolicy != MultiTree &&
                 params.opponentTreePolicy.selfOnlyTree &&
@@ -583,22 +819,28 @@ public class SingleTreeNode {
         AbstractAction action = null;
         while (gs.getCurrentPlayer() != id && gs.isNotTerminalForPlayer(id) && !(inRollout && finishRollout(gs))) {
             //       AbstractGameState preGS = gs.copy();
-            AbstractPlayer oppModel = params.getOpponentModel();
-            List<AbstractAction> availableActions = forwardModel.computeAvailableActions(gs, params.actionSpace);
-            if (availableActions.isEmpty())
+            AbstractAction chosen = defaultPolicyAction(gs, params.getOpponentModel());
+            if (chosen == null)
                 throw new AssertionError("Should always have at least one action possible..." + (action != null ? " Last action: " + action : ""));
-            action = oppModel.getAction(gs, availableActions);
+            action = chosen;
             if (inRollout) {
                 root.actionsInRollout.add(new Pair<>(gs.getCurrentPlayer(), action));
                 lastActorInRollout = gs.getCurrentPlayer();
                 lastRoundInRollout = gs.getRoundCounter();
                 lastTurnInRollout = gs.getTurnCounter();
             }
-            forwardModel.next(gs, action);
+            applyAction(gs, action, inRollout);
             root.fmCallsCount++;
         }
     }
 
+    private void applyAction(AbstractGameState gs, AbstractAction action, boolean inRollout) {
+        if (inRollout && undoRollout)
+            forwardModel.nextUndoable(gs, action);
+        else
+            forwardModel.next(gs, action);
+    }
+
     /**
      * Apply relevant policy to choose a child.
      *
@@ -704,6 +946,18 @@ public class SingleTreeNode {
         }
     }
 
+    /**
+     * Applies a virtual loss to an action taken from this node by an iteration that is still in progress
+     * (used by shared-tree parallel search; see TreeParallelSearch)
+     */
+    protected void addVirtualLoss(AbstractAction action, int player, double loss) {
+        actionValues.get(action).addVirtualLoss(player, loss);
+    }
+
+    protected void removeVirtualLoss(AbstractAction action, int player, double loss) {
+        actionValues.get(action).removeVirtualLoss(player, loss);
+    }
+
     public ActionStats getActionStats(AbstractAction action) {
         return actionValues.get(action);
     }
@@ -905,36 +1159,85 @@ public class SingleTreeNode {
 
         // If rollouts are enabled, select actions for the rollout in line with the rollout policy
         AbstractGameState rolloutState = openLoopState;
-        if (params.rolloutLength > 0 || params.rolloutTermination != EXACT) {
-            // even if rollout length is zero, we may rollout a few actions to reach the end of our turn, or the start of our next turn
-            if (params.information == Closed_Loop) {
-                // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
-                // model at each action. Hence the current state on the node is the one we have been using up to now.
-                /// Hence we do not need to copy it.
-                rolloutState = state.copy();
-                root.copyCount++;
-            }
+        int undoDepth = 0;
+        try {
+            if (params.rolloutLength > 0 || params.rolloutTermination != EXACT) {
+                // even if rollout length is zero, we may rollout a few actions to reach the end of our turn, or the start of our next turn
+                if (params.information == Closed_Loop) {
+                    // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
+                    // model at each action. Hence the current state on the node is the one we have been using up to now.
+                    /// Hence we do not need to copy it.
+                    // If the forward model can undo actions, we instead roll out on the state of this node, and undo the
+                    // rollout afterwards. Not with tree parallelisation though, where other threads may roll out from here too.
+                    if (forwardModel.supportsUndo() && !(params.parallelMode == MCTSEnums.ParallelMode.Tree && params.nThreads > 1)) {
+                        rolloutState = state;
+                        if (state.getUndoJournal() != null)
+                            undoDepth = state.getUndoJournal().depth();
+                        undoRollout = true;
+                    } else {
+                        rolloutState = state.copy();
+                        root.copyCount++;
+                    }
+                }
 
-            AbstractAction next = null;
-            while (!finishRollout(rolloutState)) {
-                List<AbstractAction> availableActions = forwardModel.computeAvailableActions(rolloutState, params.actionSpace);
-                if (availableActions.isEmpty()) {
-                    throw new AssertionError("No actions available in rollout!" + (next != null ? " Last action: " + next : ""));
+                AbstractAction next = null;
+                while (!finishRollout(rolloutState)) {
+                    AbstractAction chosen = defaultPolicyAction(rolloutState, rolloutAgent(rolloutState));
+                    if (chosen == null) {
+                        throw new AssertionError("No actions available in rollout!" + (next != null ? " Last action: " + next : ""));
+                    }
+                    next = chosen;
+                    advanceState(rolloutState, next, true);
                 }
-                AbstractPlayer agent = rolloutState.getCurrentPlayer() == root.decisionPlayer ? params.getRolloutStrategy() : params.getOpponentModel();
-                next = agent.getAction(rolloutState, availableActions);
-                advanceState(rolloutState, next, true);
             }
-        }
-        // Evaluate final state and return normalised score
-        double[] retValue = new double[rolloutState.getNPlayers()];
+            // Evaluate final state and return normalised score
+            double[] retValue = new double[rolloutState.getNPlayers()];
 
-        for (int i = 0; i < retValue.length; i++) {
-            retValue[i] = params.heuristic.evaluateState(rolloutState, i);
-            if (Double.isNaN(retValue[i]) || Double.isInfinite(retValue[i]))
-                throw new AssertionError("Illegal heuristic value - should be a number - " + params.heuristic.toString());
+            for (int i = 0; i < retValue.length; i++) {
+                retValue[i] = params.heuristic.evaluateState(rolloutState, i);
+                if (Double.isNaN(retValue[i]) || Double.isInfinite(retValue[i]))
+                    throw new AssertionError("Illegal heuristic value - should be a number - " + params.heuristic.toString());
+            }
+            return retValue;
+        } finally {
+            if (undoRollout) {
+                forwardModel.undoTo(rolloutState, undoDepth);
+                undoRollout = false;
+            }
         }
-        return retValue;
+    }
+
+    /**
+     * Chooses an action outside the tree with the given rollout policy or opponent model.
+     * With fastRandomRollout, a plain RandomPlayer delegates the choice to the forward model, which can pick an action
+     * without generating all of them.
+     *
+     * @return - the chosen action, or null if no actions are available.
+     */
+    protected AbstractAction defaultPolicyAction(AbstractGameState gs, AbstractPlayer agent) {
+        if (usesFastRandom(agent))
+            return forwardModel.randomAvailableAction(gs, params.actionSpace, agent.getRnd());
+        // the list is re-used for every step; only the chosen action is kept
+        if (root.rolloutActions == null)
+            root.rolloutActions = new ArrayList<>();
+        List<AbstractAction> availableActions = root.rolloutActions;
+        forwardModel.computeAvailableActions(gs, params.actionSpace, availableActions);
+        return availableActions.isEmpty() ? null : agent.getAction(gs, availableActions);
+    }
+
+    /**
+     * @return true if the actions of this agent are chosen by the forward model's randomAvailableAction(), which
+     * creates a new action each time
+     */
+    private boolean usesFastRandom(AbstractPlayer agent) {
+        return params.fastRandomRollout && agent.getClass() == RandomPlayer.class && !agent.hasDecorators();
+    }
+
+    /**
+     * @return the agent that chooses the next rollout action in this state
+     */
+    private AbstractPlayer rolloutAgent(AbstractGameState gs) {
+        return gs.getCurrentPlayer() == root.decisionPlayer ? params.getRolloutStrategy() : params.getOpponentModel();
     }
 
     /**
@@ -1228,6 +1531,8 @@ public class SingleTreeNode {
     protected void updateRegretMatchingAverage(List<AbstractAction> actionsToConsider) {
         double[] av = actionValues(actionsToConsider);
         double[] pdf = pdf(av);
+        if (regretMatchingAverage.isEmpty())
+            regretMatchingAverage = new HashMap<>();
         for (int i = 0; i < actionsToConsider.size(); i++) {
             regretMatchingAverage.merge(actionsToConsider.get(i), pdf[i], Double::sum);
         }
@@ -0,0 +1,318 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+
+import java.util.*;
+
+import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.SelfOnly;
+import static utilities.Utils.normalise;
+
+/**
+ * An alternative node layout that avoids hashing actions in the tree policy and in back-propagation.
+ * <p>
+ * Each action is given a small int slot the first time it is seen at the node. Visits and values are then kept
+ * in primitive arrays indexed by slot (values are stored per player, so the array for the deciding player is
+ * contiguous), and actionsFromOpenLoopState carries the slot of each of its actions. UCB selection, moving down
+ * the tree and backing up are then array look-ups.
+ * <p>
+ * With open loop search the list of actions is computed afresh on each visit. Each action is first compared with
+ * the action in the slot that was at the same position in the previous list, which is all that is needed when the
+ * list is the same from visit to visit; only the actions that do not match are looked up by hash. Duplicates are
+ * found from the slots, so the list is not hashed for that check either. The slots replace the per-visit
+ * bookkeeping of the super-class (initialiseActionStats()), so a visit on which every action matches its slot
+ * does not touch actionValues or children at all.
+ * <p>
+ * actionValues and children are only given an entry when an action is first given a slot. actionValues is not
+ * updated during search; it is filled in from the slot statistics at the end of mctsSearch() so that bestAction(),
+ * metrics and anything else reading it after the search see the usual data.
+ * This only supports the vanilla settings (see supports()); MCTSParams switches it off otherwise.
+ */
+public class SlotTreeNode extends SingleTreeNode {
+
+    private final Map<AbstractAction, Integer> slotOf = new HashMap<>();
+    private final List<AbstractAction> slotActions = new ArrayList<>();
+    private int[] visits = new int[0];
+    private int[] validVisits = new int[0];
+    private double[][] totValue;         // [player][slot]
+    private double[][] squaredTotValue;  // [player][slot]
+    private SingleTreeNode[][] slotChildren = new SingleTreeNode[0][];  // [slot][player], shared with children
+    private int selectedIndex = -1;  // index in actionsFromOpenLoopState of the last action from treePolicyAction()
+    private int[] lastSlots = new int[0];  // the slots of the last list of actions, by position
+    private int[] slotStamp = new int[0];  // the last list (by stamp) each slot was seen in, to find duplicates
+    private int stamp;
+
+    /**
+     * The list of available actions, together with the slot of each one
+     */
+    static class SlottedActions extends ArrayList<AbstractAction> {
+        final int[] slots;
+
+        SlottedActions(List<AbstractAction> actions, int[] slots) {
+            super(actions);
+            this.slots = slots;
+        }
+    }
+
+    public static boolean supports(MCTSParams params) {
+        return (params.opponentTreePolicy == MCTSEnums.OpponentTreePolicy.OneTree || params.opponentTreePolicy == SelfOnly)
+                && (params.treePolicy == MCTSEnums.TreePolicy.UCB || params.treePolicy == MCTSEnums.TreePolicy.UCB_Tuned
+                || params.treePolicy == MCTSEnums.TreePolicy.AlphaGo)
+                && params.backupPolicy == MCTSEnums.BackupPolicy.MonteCarlo
+                && params.progressiveWideningConstant < 1.0
+                && params.pUCTTemperature >= 10000.0
+                && params.progressiveBias <= 0.0
+                && params.initialiseVisits == 0;
+    }
+
+    @Override
+    public void mctsSearch(long initialisationTime) {
+        super.mctsSearch(initialisationTime);
+        for (SingleTreeNode node : allNodesInTree())
+            if (node instanceof SlotTreeNode slotNode)
+                slotNode.syncActionValues();
+    }
+
+    /**
+     * Copies the slot statistics into actionValues
+     */
+    protected void syncActionValues() {
+        for (int slot = 0; slot < slotActions.size(); slot++) {
+            ActionStats stats = actionValues.computeIfAbsent(slotActions.get(slot), a -> new ActionStats(totValue.length));
+            stats.nVisits = visits[slot];
+            stats.validVisits = validVisits[slot];
+            for (int p = 0; p < totValue.length; p++) {
+                stats.totValue[p] = totValue[p][slot];
+                stats.squaredTotValue[p] = squaredTotValue[p][slot];
+            }
+        }
+    }
+
+    @Override
+    protected void setActionsFromOpenLoopState(AbstractGameState actionState) {
+        super.setActionsFromOpenLoopState(actionState);
+        selectedIndex = -1;
+    }
+
+    /**
+     * Gives each action its slot, in place of the super-class bookkeeping. This is only called when it is our
+     * decision, with a newly computed list of actions.
+     */
+    @Override
+    protected void initialiseActionStats(AbstractGameState actionState) {
+        if (totValue == null) {
+            totValue = new double[actionState.getNPlayers()][0];
+            squaredTotValue = new double[actionState.getNPlayers()][0];
+        }
+        actionsFromOpenLoopState = new SlottedActions(actionsFromOpenLoopState, slotsFor(actionsFromOpenLoopState));
+    }
+
+    @Override
+    protected void checkActionsAreDistinct(List<AbstractAction> actions) {
+        // done by slotsFor()
+    }
+
+    private int[] slotsFor(List<AbstractAction> actions) {
+        int[] slots = new int[actions.size()];
+        stamp++;
+        for (int i = 0; i < slots.length; i++) {
+            AbstractAction action = actions.get(i);
+            int slot = -1;
+            if (i < lastSlots.length) {
+                AbstractAction previous = slotActions.get(lastSlots[i]);
+                if (previous == action || previous.equals(action))
+                    slot = lastSlots[i];
+            }
+            if (slot < 0)
+                slot = assignSlot(action);
+            if (slotStamp[slot] == stamp)
+                throw new AssertionError("Duplicate actions found in action list: " + action);
+            slotStamp[slot] = stamp;
+            slots[i] = slot;
+        }
+        lastSlots = slots;
+        return slots;
+    }
+
+    private int assignSlot(AbstractAction action) {
+        Integer slot = slotOf.get(action);
+        if (slot == null) {
+            slot = slotActions.size();
+            slotActions.add(action);
+            slotOf.put(action, slot);
+            actionValues.put(action, new ActionStats(totValue.length));
+            children.put(action.copy(), null); // mark a new node to be expanded
+            // This *does* rely on a good equals method being implemented for Actions
+            if (!children.containsKey(action))
+                throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
+            if (slot >= visits.length) {
+                int capacity = Math.max(4, visits.length * 2);
+                visits = Arrays.copyOf(visits, capacity);
+                validVisits = Arrays.copyOf(validVisits, capacity);
+                slotChildren = Arrays.copyOf(slotChildren, capacity);
+                slotStamp = Arrays.copyOf(slotStamp, capacity);
+                for (int p = 0; p < totValue.length; p++) {
+                    totValue[p] = Arrays.copyOf(totValue[p], capacity);
+                    squaredTotValue[p] = Arrays.copyOf(squaredTotValue[p], capacity);
+                }
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * The slot for an action from actionsFromOpenLoopState. This is found by identity, and only falls back
+     * to an equals() look-up for an action object we have not seen.
+     */
+    private int slotFor(AbstractAction action) {
+        if (actionsFromOpenLoopState instanceof SlottedActions actions) {
+            if (selectedIndex >= 0 && selectedIndex < actions.size() && actions.get(selectedIndex) == action)
+                return actions.slots[selectedIndex];
+            for (int i = 0; i < actions.size(); i++)
+                if (actions.get(i) == action)
+                    return actions.slots[i];
+        }
+        Integer slot = slotOf.get(action);
+        if (slot == null)
+            throw new AssertionError("We have somehow failed to find the action taken in the list of actions");
+        return slot;
+    }
+
+    @Override
+    public AbstractAction treePolicyAction(boolean explore) {
+        if (params.opponentTreePolicy == SelfOnly && parent != null && openLoopState != null && openLoopState.getCurrentPlayer() != decisionPlayer)
+            throw new AssertionError("An error has occurred. SelfOnly should only call uct when we are moving.");
+        SlottedActions actions = (SlottedActions) actionsFromOpenLoopState;
+        if (actions.isEmpty())
+            throw new AssertionError("We need to have at least one option");
+
+        int best = 0;
+        if (actions.size() > 1) {
+            // ties are broken uniformly at random
+            double bestValue = -Double.MAX_VALUE;
+            int ties = 0;
+            for (int i = 0; i < actions.size(); i++) {
+                double value = ucbValue(actions.slots[i]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                    ties = 1;
+                } else if (value == bestValue && rnd.nextInt(++ties) == 0) {
+                    best = i;
+                }
+            }
+        }
+        selectedIndex = best;
+        return actions.get(best);
+    }
+
+    private double ucbValue(int slot) {
+        int actionVisits = visits[slot];
+        double childValue = actionVisits > 0 ? totValue[decisionPlayer][slot] / actionVisits : 0.0;
+        if (params.normaliseRewards && actionVisits > 0)
+            childValue = normalise(childValue, root.lowReward, root.highReward);
+
+        int effectiveTotalVisits = params.information == Closed_Loop ? nVisits : validVisits[slot];
+        double explorationTerm = Math.max(params.firstPlayUrgency, params.K * Math.sqrt(effectiveTotalVisits));
+        if (actionVisits > 0) {
+            explorationTerm = switch (params.treePolicy) {
+                case UCB_Tuned -> {
+                    double range = root.highReward - root.lowReward;
+                    if (range < 1e-6) range = 1e-6;
+                    double meanSq = squaredTotValue[decisionPlayer][slot] / actionVisits;
+                    double standardVar = 0.25;
+                    if (params.normaliseRewards) {
+                        meanSq = (meanSq
+                                + root.lowReward * root.lowReward
+                                - 2 * root.lowReward * totValue[decisionPlayer][slot] / actionVisits
+                        ) / (range * range);
+                    } else {
+                        standardVar = Math.sqrt(range / 2.0);
+                    }
+                    double variance = Math.max(0.0, meanSq - childValue * childValue);
+                    double minTerm = Math.min(standardVar, variance + Math.sqrt(2 * Math.log(effectiveTotalVisits) / actionVisits));
+                    yield params.K * Math.sqrt(Math.log(effectiveTotalVisits) / actionVisits * minTerm);
+                }
+                case AlphaGo -> params.K * Math.sqrt(effectiveTotalVisits) / actionVisits;
+                default -> Math.sqrt(Math.log(effectiveTotalVisits) / actionVisits);
+            };
+        }
+        double uctValue = childValue + explorationTerm;
+        if (Double.isNaN(uctValue))
+            throw new AssertionError("Numeric error calculating uctValue");
+        return uctValue;
+    }
+
+    @Override
+    protected SingleTreeNode nextNodeInTree(AbstractAction actionChosen) {
+        SingleTreeNode[] nodeArray = slotChildren[slotFor(actionChosen)];
+        if (nodeArray == null) return null;
+        if (params.information == Closed_Loop) {
+            for (SingleTreeNode node : nodeArray)
+                if (node != null) return node;
+            return null;
+        }
+        SingleTreeNode nextNode = nodeArray[openLoopState.getCurrentPlayer()];
+        if (nextNode != null)
+            nextNode.setActionsFromOpenLoopState(openLoopState);
+        return nextNode;
+    }
+
+    @Override
+    protected void releaseChildren() {
+        super.releaseChildren();
+        Arrays.fill(slotChildren, null);
+    }
+
+    @Override
+    protected SingleTreeNode expandNode(AbstractAction actionCopy, AbstractGameState nextState) {
+        int slot = slotFor(actionCopy);
+        SingleTreeNode tn = super.expandNode(actionCopy, nextState);
+        // the array is shared with the children map, which is updated in place from now on
+        slotChildren[slot] = children.get(actionCopy);
+        return tn;
+    }
+
+    @Override
+    protected double[] backUpSingleNode(AbstractAction actionTaken, double[] result) {
+        if (params.discardStateAfterEachIteration) {
+            if (depth > 0)
+                openLoopState = null; // releases for Garbage Collection
+            if (depth > 0 && !params.maintainMasterState)
+                state = null;
+        }
+        nVisits++;
+        int takenSlot = slotFor(actionTaken);
+        // all actions that were valid on this visit get a valid visit
+        SlottedActions actions = (SlottedActions) actionsFromOpenLoopState;
+        for (int slot : actions.slots)
+            validVisits[slot]++;
+        if (validVisits[takenSlot] == 0)
+            throw new AssertionError("We have somehow failed to find the action taken in the list of valid actions");
+        visits[takenSlot]++;
+        for (int p = 0; p < result.length; p++) {
+            totValue[p][takenSlot] += result[p];
+            squaredTotValue[p][takenSlot] += result[p] * result[p];
+        }
+        return result;
+    }
+
+    @Override
+    protected void addVirtualLoss(AbstractAction action, int player, double loss) {
+        int slot = slotFor(action);
+        totValue[player][slot] += loss;
+        squaredTotValue[player][slot] += loss * loss;
+        visits[slot]++;
+        validVisits[slot]++;
+    }
+
+    @Override
+    protected void removeVirtualLoss(AbstractAction action, int player, double loss) {
+        int slot = slotFor(action);
+        totValue[player][slot] -= loss;
+        squaredTotValue[player][slot] -= loss * loss;
+        visits[slot]--;
+        validVisits[slot]--;
+    }
+}
@@ -0,0 +1,165 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import utilities.ElapsedCpuTimer;
+import utilities.Pair;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import static players.PlayerConstants.BUDGET_TIME;
+import static players.mcts.MCTSEnums.Information.Closed_Loop;
+
+/**
+ * Shared-tree parallel MCTS (tree parallelisation with a global lock).
+ * <p>
+ * Each of params.nThreads workers runs complete search iterations against the single tree below root.
+ * Selection, expansion and back-propagation are done while holding the tree lock; the rollout, which is usually
+ * where most of the time goes, runs outside the lock on the worker's own copy of the state and with the worker's
+ * own rollout policy.
+ * <p>
+ * While an iteration is in flight a virtual loss is applied to each action on its path (see ActionStats), so that
+ * other workers are steered to different parts of the tree until the real result is backed up.
+ * The budget is shared: with an iteration or FM call budget the total across all workers is used; with a time
+ * budget each worker stops when it runs out of time.
+ */
+class TreeParallelSearch {
+
+    private final SingleTreeNode root;
+    private final MCTSParams params;
+    private final Object treeLock = new Object();
+    private int iterations;  // guarded by treeLock
+    private volatile boolean stop;
+
+    TreeParallelSearch(SingleTreeNode root) {
+        this.root = root;
+        this.params = root.params;
+    }
+
+    void run(long initialisationTime) {
+        root.initialiseRootMetrics();
+        root.initialisationTimeTaken = initialisationTime;
+        long startTime = System.nanoTime();
+        if (root.redeterminisationPlayer == -1)
+            root.redeterminisationPlayer = root.decisionPlayer;
+
+        // Workers are set up on this thread, so that their seeds are drawn from the root's random number generator
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < params.nThreads; i++)
+            workers.add(new Worker(root.rnd.nextLong()));
+        root.searchPool.runAll(workers, params.nThreads);
+
+        root.searchIterations = iterations;
+        root.timeTaken = (System.nanoTime() - startTime) / 1_000_000.0;
+    }
+
+    private class Worker implements Callable<Integer> {
+
+        // This node is not part of the tree; it is used only to run rollouts, so that rollout bookkeeping,
+        // FM call counts and the rollout policy are all local to the worker
+        final SingleTreeNode roller = new SingleTreeNode();
+        final AbstractGameState workerState;
+        int workerIterations;
+
+        Worker(long seed) {
+            MCTSParams workerParams = (MCTSParams) params.copy();
+            workerParams.setRandomSeed(seed);
+            workerParams.getRolloutStrategy().setForwardModel(root.forwardModel);
+            workerParams.getRolloutStrategy().initializePlayer(root.state);
+            workerParams.getOpponentModel().setForwardModel(root.forwardModel);
+            workerParams.getOpponentModel().initializePlayer(root.state);
+            roller.root = roller;
+            roller.params = workerParams;
+            roller.forwardModel = root.forwardModel;
+            roller.rnd = new Random(seed);
+            roller.decisionPlayer = root.decisionPlayer;
+            // each worker takes its per-iteration copies from a private master copy
+            workerState = root.state.copy();
+            root.copyCount++;
+        }
+
+        @Override
+        public Integer call() {
+            ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
+            if (params.budgetType == BUDGET_TIME)
+                elapsedTimer.setMaxTimeMillis((long) (params.budget - root.initialisationTimeTaken));
+            try {
+                while (!stop) {
+                    searchIteration();
+                    workerIterations++;
+                    synchronized (treeLock) {
+                        iterations++;
+                        if (root.budgetExhausted(params.budgetType == BUDGET_TIME ? workerIterations : iterations, elapsedTimer))
+                            stop = true;
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                stop = true;
+                throw e;
+            }
+            return workerIterations;
+        }
+
+        private void searchIteration() {
+            AbstractGameState iterationState = switch (params.information) {
+                case Closed_Loop -> root.state;
+                case Open_Loop -> workerState.copy();
+                case Information_Set -> workerState.copy(root.redeterminisationPlayer);
+            };
+            if (params.information != Closed_Loop)
+                roller.copyCount++;
+
+            SingleTreeNode selected;
+            List<SingleTreeNode> trajectory;
+            List<Pair<Integer, AbstractAction>> actionsInTree;
+            List<List<AbstractAction>> validActions = new ArrayList<>();
+            double virtualLoss;
+            synchronized (treeLock) {
+                root.forwardModel.reset();
+                root.setActionsFromOpenLoopState(iterationState);
+                root.actionsInTree = new ArrayList<>();
+                root.currentNodeTrajectory = new ArrayList<>();
+                root.actionsInRollout = new ArrayList<>();
+                selected = root.treePolicy();
+                trajectory = root.currentNodeTrajectory;
+                actionsInTree = root.actionsInTree;
+                virtualLoss = Double.isInfinite(root.lowReward) ? 0.0 : root.lowReward;
+                for (int i = 0; i < trajectory.size(); i++) {
+                    SingleTreeNode node = trajectory.get(i);
+                    validActions.add(node.actionsFromOpenLoopState);
+                    node.addVirtualLoss(actionsInTree.get(i).b, actionsInTree.get(i).a, virtualLoss);
+                }
+                // other workers will overwrite openLoopState on the nodes they pass through, so we take our own references
+                roller.state = selected.state;
+                roller.openLoopState = selected.openLoopState;
+            }
+
+            // Rollout outside the lock
+            int lastActorInTree = actionsInTree.isEmpty() ? root.decisionPlayer : actionsInTree.get(actionsInTree.size() - 1).a;
+            roller.actionsInRollout = new ArrayList<>();
+            double[] delta = roller.rollout(lastActorInTree);
+
+            synchronized (treeLock) {
+                for (int i = 0; i < trajectory.size(); i++) {
+                    SingleTreeNode node = trajectory.get(i);
+                    // back up against the actions that were valid when this iteration passed through the node
+                    node.actionsFromOpenLoopState = validActions.get(i);
+                    node.removeVirtualLoss(actionsInTree.get(i).b, actionsInTree.get(i).a, virtualLoss);
+                }
+                root.currentNodeTrajectory = trajectory;
+                root.actionsInTree = actionsInTree;
+                root.actionsInRollout = roller.actionsInRollout;
+                root.rolloutActionsTaken += roller.actionsInRollout.size();
+                root.fmCallsCount += roller.fmCallsCount;
+                root.copyCount += roller.copyCount;
+                roller.fmCallsCount = 0;
+                roller.copyCount = 0;
+                selected.backUp(delta);
+                root.updateMASTStatistics(actionsInTree, roller.actionsInRollout, delta);
+            }
+            roller.state = null;
+            roller.openLoopState = null;
+        }
+    }
+}
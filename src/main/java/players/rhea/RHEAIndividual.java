@@ -7,6 +7,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
 import utilities.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -110,6 +111,8 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
         List<AbstractAction>[] availableActions = new List[gameStates.length];
         AbstractAction[] oldActions = new AbstractAction[actions.length];
         boolean[] illegalActions = new boolean[actions.length];
+        // re-used for every opponent move
+        List<AbstractAction> moves = new ArrayList<>();
 
         for (int i = 0; i < startIndex; i++) {
             double score;
@@ -152,7 +155,7 @@ public class RHEAIndividual implements Comparable<RHEAIndividual> {
                 while (gsCopy.isNotTerminal() && !(gsCopy.getCurrentPlayer() == playerID)) {
                     // now we fast forward through any opponent moves with a random OM
                     // TODO: Add in other opponent model options, and record other player moves for MAST
-                    List<AbstractAction> moves = fm.computeAvailableActions(gsCopy);
+                    fm.computeAvailableActions(gsCopy, gsCopy.getCoreGameParameters().actionSpace, moves);
                     if (moves.isEmpty()) {
                         throw new AssertionError("No moves found in state " + gsCopy);
                     }
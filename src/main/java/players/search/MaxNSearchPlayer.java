@@ -36,6 +36,8 @@ public class MaxNSearchPlayer extends AbstractPlayer implements IHasStateHeurist
 
     private long startTime;
     private SearchResult rootResult;
+    // true if the search applies and undoes actions on a single copy of the state, rather than copying it at each step
+    private boolean useUndo;
 
     protected List<Map<AbstractAction, ActionStats>> actionValueEstimates;
 
@@ -50,7 +52,8 @@ public class MaxNSearchPlayer extends AbstractPlayer implements IHasStateHeurist
 
     @Override
     public AbstractAction _getAction(AbstractGameState gs, List<AbstractAction> actions) {
-        // For each action we copy the state and recursively call the expand method
+        // For each action we copy the state (or apply it undoably, if the forward model supports that)
+        // and recursively call the expand method
         // depending on the search unit we decrement the search depth on the recursive call:
         // - ACTION: always
         // - MACRO_ACTION: only when the currentPlayer() has changed as a result of applying the action
@@ -58,6 +61,10 @@ public class MaxNSearchPlayer extends AbstractPlayer implements IHasStateHeurist
         startTime = System.currentTimeMillis();
         rootResult = null;
         actionValueEstimates = new ArrayList<>();
+        // If the forward model can undo actions, then the whole search runs on one copy of the state
+        useUndo = getForwardModel().supportsUndo();
+        if (useUndo)
+            gs = gs.copy();
         if (getParameters().iterativeDeepening) {
             // we do a depth D = 1 search, then D = 2 and so on until we reach maxDepth or exhaust budget
             for (int depth = 1; depth <= getParameters().searchDepth; depth++) {
@@ -140,21 +147,30 @@ public class MaxNSearchPlayer extends AbstractPlayer implements IHasStateHeurist
         Map<AbstractAction, ActionStats> statsMap = actionValueEstimates.get(searchDepth - 1);
         Map<AbstractAction, double[]> actionValues = new HashMap<>();
         for (AbstractAction action : actions) {
-            AbstractGameState stateCopy = state.copy();
-            getForwardModel().next(stateCopy, action);
+            int actingPlayer = state.getCurrentPlayer();
+            int turn = state.getTurnCounter();
+            AbstractGameState stateCopy;
+            if (useUndo) {
+                stateCopy = state;
+                getForwardModel().nextUndoable(stateCopy, action);
+            } else {
+                stateCopy = state.copy();
+                getForwardModel().next(stateCopy, action);
+            }
             // if we are at the bottom, then save a bit of time by not calculating the valid actions (which we'll never try)
             List<AbstractAction> nextActions = searchDepth > 0 ? getForwardModel().computeAvailableActions(stateCopy) : List.of();
 
             int newDepth = switch (params.searchUnit) {
                 case ACTION -> searchDepth - 1;
-                case MACRO_ACTION ->
-                        state.getCurrentPlayer() != stateCopy.getCurrentPlayer() ? searchDepth - 1 : searchDepth;
-                case TURN -> state.getTurnCounter() != stateCopy.getTurnCounter() ? searchDepth - 1 : searchDepth;
+                case MACRO_ACTION -> actingPlayer != stateCopy.getCurrentPlayer() ? searchDepth - 1 : searchDepth;
+                case TURN -> turn != stateCopy.getTurnCounter() ? searchDepth - 1 : searchDepth;
             };
 
             // recurse - we are here just interested in the value of stateCopy, and hence of taking action
             // We are not interested in the best action from stateCopy
             SearchResult result = expand(stateCopy, nextActions, newDepth, alpha, beta);
+            if (useUndo)
+                getForwardModel().undo(state);
             if (params.expandByEstimatedValue) {
                 // we store the value estimates for each action
                 if (!statsMap.containsKey(action)) {
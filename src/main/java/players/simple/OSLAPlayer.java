@@ -1,5 +1,6 @@
 package players.simple;
 
+import core.AbstractForwardModel;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
@@ -40,11 +41,20 @@ public class OSLAPlayer extends AbstractPlayer {
         AbstractAction bestAction = null;
         double[] valState = new double[actions.size()];
         int playerID = gs.getCurrentPlayer();
+        // If the forward model can undo actions, then we apply and undo each action on a single copy
+        AbstractForwardModel fm = getForwardModel();
+        AbstractGameState undoState = fm.supportsUndo() ? gs.copy() : null;
 
         for (int actionIndex = 0; actionIndex < actions.size(); actionIndex++) {
             AbstractAction action = actions.get(actionIndex);
-            AbstractGameState gsCopy = gs.copy();
-            getForwardModel().next(gsCopy, action);
+            AbstractGameState gsCopy;
+            if (undoState != null) {
+                gsCopy = undoState;
+                fm.nextUndoable(gsCopy, action);
+            } else {
+                gsCopy = gs.copy();
+                fm.next(gsCopy, action);
+            }
 
             if (heuristic != null) {
                 valState[actionIndex] = heuristic.evaluateState(gsCopy, playerID);
@@ -52,6 +62,9 @@ public class OSLAPlayer extends AbstractPlayer {
                 valState[actionIndex] = gsCopy.getHeuristicScore(playerID);
             }
 
+            if (undoState != null)
+                fm.undo(undoState);
+
             double Q = noise(valState[actionIndex], getParameters().noiseEpsilon, rnd.nextDouble());
 
             if (Q > maxQ || bestAction == null) {
@@ -386,6 +386,19 @@ public abstract class Utils {
         return Pair.of(header, data);
     }
 
+    /**
+     * @return The numeric value of a datum loaded by BinaryStatsReader.loadColumnsWithHeader (NaN for missing data)
+     */
+    public static double toDouble(Object datum) {
+        if (datum instanceof Number number)
+            return number.doubleValue();
+        if (datum instanceof Boolean bool)
+            return bool ? 1.0 : 0.0;
+        if (datum == null || datum.equals("NA"))
+            return Double.NaN;
+        return Double.parseDouble(datum.toString());
+    }
+
     public static void writeDataWithHeader(String delimiter, List<String> newFeatureNames, List<List<Object>> newDataRows, String outputFile) {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
             // Write the header
@@ -0,0 +1,151 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import games.GameType;
+import games.tictactoe.TicTacToeForwardModel;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.SingleTreeNode;
+import players.mcts.TestMCTSPlayer;
+import players.simple.RandomPlayer;
+import utilities.Pair;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class FastRandomActionTests {
+
+    /**
+     * Plays random games, checking at each step that the buffer is filled with the same actions as the list, and that
+     * randomAvailableAction() only picks from those actions and picks each of them with roughly equal frequency.
+     */
+    private void checkAgainstActionList(GameType gameType) {
+        Game game = gameType.createGameInstance(2, 31);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState().copy();
+        Random rnd = new Random(31);
+        List<AbstractAction> buffer = new ArrayList<>();
+
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.computeAvailableActions(state, null, buffer);
+            assertEquals(actions, buffer);
+
+            Map<AbstractAction, Integer> counts = new HashMap<>();
+            int samples = 200 * actions.size();
+            for (int i = 0; i < samples; i++) {
+                AbstractAction action = fm.randomAvailableAction(state, null, rnd);
+                assertTrue(actions.contains(action));
+                counts.merge(action, 1, Integer::sum);
+            }
+            assertEquals(actions.size(), counts.size());
+            for (int count : counts.values())
+                assertEquals(200, count, 60);
+
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertNull(fm.randomAvailableAction(state, null, rnd));
+    }
+
+    @Test
+    public void ticTacToe() {
+        checkAgainstActionList(GameType.TicTacToe);
+    }
+
+    @Test
+    public void connect4() {
+        checkAgainstActionList(GameType.Connect4);
+    }
+
+    @Test
+    public void defaultImplementationPicksFromList() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 31);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState().copy();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        Random rnd = new Random(31);
+        for (int i = 0; i < 20; i++)
+            assertTrue(actions.contains(fm.randomAvailableAction(state, null, rnd)));
+    }
+
+    @Test
+    public void mctsWithFastRolloutsFindsWin() {
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(4093);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 400);
+        params.setParameterValue("fastRandomRollout", true);
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(player, new RandomPlayer()));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+
+        int[][] moves = {{0, 0}, {0, 1}, {1, 1}, {0, 2}};
+        for (int[] move : moves) {
+            AbstractAction action = fm.computeAvailableActions(state).stream()
+                    .filter(a -> ((SetGridValueAction) a).getX() == move[0] && ((SetGridValueAction) a).getY() == move[1])
+                    .findFirst().orElseThrow();
+            fm.next(state, action);
+        }
+        SetGridValueAction action = (SetGridValueAction) player.getAction(state, fm.computeAvailableActions(state));
+        assertEquals(2, action.getX());
+        assertEquals(2, action.getY());
+    }
+
+    /**
+     * Runs a search on TicTacToe with fastRandomRollout.
+     *
+     * @return the number of rollout actions recorded for MAST, and how many of these were the very instances
+     * given to the forward model
+     */
+    private int[] rolloutActionsApplied(MCTSEnums.MASTType mast) {
+        Set<AbstractAction> applied = Collections.newSetFromMap(new IdentityHashMap<>());
+        AbstractForwardModel fm = new TicTacToeForwardModel() {
+            @Override
+            protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
+                applied.add(action);
+                super._afterAction(currentState, action);
+            }
+        };
+        int[] retValue = new int[2];
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(4093);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 200);
+        params.setParameterValue("fastRandomRollout", true);
+        params.setParameterValue("MAST", mast);
+        TestMCTSPlayer player = new TestMCTSPlayer(params, () -> new SingleTreeNode() {
+            @Override
+            protected void updateMASTStatistics(List<Pair<Integer, AbstractAction>> tree, List<Pair<Integer, AbstractAction>> rollout, double[] value) {
+                for (Pair<Integer, AbstractAction> step : rollout) {
+                    retValue[0]++;
+                    if (applied.contains(step.b)) retValue[1]++;
+                }
+                super.updateMASTStatistics(tree, rollout, value);
+            }
+        });
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(player, new RandomPlayer()));
+        player.setForwardModel(fm);
+        AbstractGameState state = game.getGameState();
+        player.getAction(state, fm.computeAvailableActions(state));
+        return retValue;
+    }
+
+    @Test
+    public void fastRolloutActionsAreOnlyCopiedForMAST() {
+        int[] withoutMAST = rolloutActionsApplied(MCTSEnums.MASTType.None);
+        assertTrue(withoutMAST[0] > 0);
+        assertEquals(withoutMAST[0], withoutMAST[1]);
+
+        // MAST keys its statistics on the recorded actions, so next() must be given copies
+        int[] withMAST = rolloutActionsApplied(MCTSEnums.MASTType.Rollout);
+        assertTrue(withMAST[0] > 0);
+        assertEquals(0, withMAST[1]);
+    }
+}
@@ -1,5 +1,6 @@
 package core;
 
+import games.GameType;
 import games.puertorico.PuertoRicoParameters;
 import org.junit.Test;
 
@@ -16,4 +17,61 @@ public class ParameterCopy {
         assertNotEquals(params.getRandomSeed(), paramsCopy.getRandomSeed());
         assertEquals(params.hashCode(), paramsCopy.hashCode());
     }
+
+    @Test
+    public void stateCopiesShareFrozenParameters() {
+        AbstractGameState state = GameType.TicTacToe.createGameInstance(2, 42).getGameState();
+        AbstractParameters live = state.getGameParameters();
+        AbstractParameters shared = state.copy().getGameParameters();
+        assertFalse(live.isFrozen());
+        assertTrue(shared.isFrozen());
+        assertNotSame(live, shared);
+        assertSame(shared, state.copy().getGameParameters());
+        assertSame(shared, state.copy(1).copy().getGameParameters());
+        assertEquals(live, shared);
+        assertEquals(42, shared.getRandomSeed());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void frozenParametersCannotBeChanged() {
+        AbstractGameState state = GameType.TicTacToe.createGameInstance(2, 42).getGameState();
+        state.copy().getGameParameters().setMaxRounds(3);
+    }
+
+    @Test
+    public void changingParametersTakesNewSnapshot() {
+        AbstractGameState state = GameType.TicTacToe.createGameInstance(2, 42).getGameState();
+        AbstractParameters before = state.copy().getGameParameters();
+        state.getGameParameters().setMaxRounds(7);
+        AbstractParameters after = state.copy().getGameParameters();
+        assertNotSame(before, after);
+        assertEquals(7, after.getMaxRounds());
+        // a copy of a snapshot can be changed
+        AbstractParameters modifiable = after.copy();
+        assertFalse(modifiable.isFrozen());
+        modifiable.setMaxRounds(3);
+        assertEquals(7, after.getMaxRounds());
+    }
+
+    @Test
+    public void copiesOfAllStatesShareFrozenParameters() {
+        for (GameType gameType : new GameType[]{GameType.DotsAndBoxes, GameType.Dominion, GameType.ChineseCheckers,
+                GameType.WarOfTheToads}) {
+            AbstractGameState state = gameType.createGameInstance(2, 42).getGameState();
+            AbstractParameters shared = state.copy().getGameParameters();
+            assertTrue(gameType.name(), shared.isFrozen());
+            assertSame(gameType.name(), shared, state.copy().getGameParameters());
+            // so changes to the live parameters do not reach existing copies
+            state.getGameParameters().setMaxRounds(11);
+            assertNotEquals(gameType.name(), 11, shared.getMaxRounds());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writingToFrozenFieldsFailsAtNextSetup() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractParameters shared = game.getGameState().copy().getGameParameters();
+        shared.maxRounds = 99;
+        game.getForwardModel().abstractSetup(game.getGameState());
+    }
 }
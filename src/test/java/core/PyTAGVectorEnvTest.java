@@ -0,0 +1,66 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PyTAGVectorEnvTest {
+
+    private void playRandomly(int nThreads) throws Exception {
+        Random rnd = new Random(42);
+        try (PyTAGVectorEnv env = new PyTAGVectorEnv(GameType.TicTacToe, null,
+                List.of(new PythonAgent(), new RandomPlayer(new Random(3))), 99, true, 4, nThreads)) {
+            int nEnvs = env.getNumEnvs();
+            int obsSize = env.getObservationSpace(), actionSize = env.getActionSpace();
+            assertEquals(4, nEnvs);
+            assertTrue(obsSize > 0 && actionSize > 0);
+            assertEquals(ByteOrder.nativeOrder(), env.getObservationBuffer().order());
+            assertEquals(nEnvs * obsSize * Double.BYTES, env.getObservationBuffer().capacity());
+            assertEquals(nEnvs * actionSize * Integer.BYTES, env.getActionMaskBuffer().capacity());
+
+            int finished = 0;
+            for (int step = 0; step < 60; step++) {
+                int[] actions = new int[nEnvs];
+                for (int i = 0; i < nEnvs; i++) {
+                    // the mask must match that of the environment itself, and allow at least one action
+                    int[] mask = env.getEnv(i).getActionMask();
+                    for (int a = 0; a < mask.length; a++)
+                        assertEquals(mask[a], env.getActionMaskBuffer().asIntBuffer().get(i * actionSize + a));
+                    actions[i] = env.getEnv(i).sampleRNDAction(mask, rnd);
+                    assertEquals(0, env.getPlayerBuffer().asIntBuffer().get(i));
+                }
+                env.step(actions);
+                for (int i = 0; i < nEnvs; i++) {
+                    if (env.getDoneBuffer().get(i) == 1) {
+                        finished++;
+                        assertNotNull(env.getLastResults(i));
+                        // the environment has been reset for the next episode
+                        assertFalse(env.getEnv(i).isDone());
+                    }
+                }
+            }
+            int episodes = 0;
+            for (int i = 0; i < nEnvs; i++)
+                episodes += env.getEpisodes(i);
+            assertEquals(finished, episodes);
+            assertTrue(episodes > 0);
+        }
+    }
+
+    @Test
+    public void stepsAllEnvironments() throws Exception {
+        playRandomly(1);
+    }
+
+    @Test
+    public void stepsAllEnvironmentsInParallel() throws Exception {
+        playRandomly(2);
+    }
+}
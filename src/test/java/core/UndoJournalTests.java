@@ -0,0 +1,101 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UndoJournalTests {
+
+    /**
+     * Plays a random game with nextUndoable(). At each step the action is undone and redone, and the state is
+     * checked against copies taken before and after the action. At the end the whole game is undone.
+     */
+    private void playAndUndo(GameType gameType, long seed) {
+        Game game = gameType.createGameInstance(2, seed);
+        AbstractForwardModel fm = game.getForwardModel();
+        assertTrue(fm.supportsUndo());
+        AbstractGameState state = game.getGameState().copy();
+        AbstractGameState initialState = state.copy();
+        Random rnd = new Random(seed);
+
+        int steps = 0;
+        while (state.isNotTerminal() && steps < 300) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            AbstractGameState before = state.copy();
+            int historySize = state.getHistory().size();
+
+            fm.nextUndoable(state, action);
+            steps++;
+            assertEquals(steps, state.getUndoJournal().depth());
+            AbstractGameState after = state.copy();
+
+            assertEquals(action, fm.undo(state));
+            assertEquals(before, state);
+            assertEquals(before.hashCode(), state.hashCode());
+            assertEquals(historySize, state.getHistory().size());
+            assertEquals(fm.computeAvailableActions(before), fm.computeAvailableActions(state));
+
+            // redo() replays the action with the same outcome, including any dice rolls
+            assertEquals(action, fm.redo(state));
+            assertEquals(after, state);
+            assertEquals(0, state.getUndoJournal().redoDepth());
+        }
+
+        fm.undoTo(state, 0);
+        assertEquals(0, state.getUndoJournal().depth());
+        assertEquals(initialState, state);
+        assertEquals(initialState.getHistory().size(), state.getHistory().size());
+    }
+
+    @Test
+    public void ticTacToe() {
+        for (long seed = 0; seed < 10; seed++)
+            playAndUndo(GameType.TicTacToe, seed);
+    }
+
+    @Test
+    public void connect4() {
+        for (long seed = 0; seed < 10; seed++)
+            playAndUndo(GameType.Connect4, seed);
+    }
+
+    @Test
+    public void chess() {
+        for (long seed = 0; seed < 3; seed++)
+            playAndUndo(GameType.Chess, seed);
+    }
+
+    @Test
+    public void backgammonDoesNotSupportUndo() {
+        // a LoadDice action draws on a random number generator outside the game state, so could not be redone exactly
+        assertFalse(GameType.Backgammon.createGameInstance(2, 0).getForwardModel().supportsUndo());
+    }
+
+    @Test
+    public void newActionClearsRedo() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 34);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState().copy();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        fm.nextUndoable(state, actions.get(0));
+        fm.undo(state);
+        assertEquals(1, state.getUndoJournal().redoDepth());
+        fm.nextUndoable(state, actions.get(1));
+        assertEquals(0, state.getUndoJournal().redoDepth());
+        assertThrows(IllegalStateException.class, () -> fm.redo(state));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedGameThrows() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 34);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState().copy();
+        fm.nextUndoable(state, fm.computeAvailableActions(state).get(0));
+    }
+}
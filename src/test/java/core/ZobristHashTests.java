@@ -0,0 +1,125 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import evaluation.features.ZobristStateKey;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCGSNode;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.TestMCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZobristHashTests {
+
+    /**
+     * Plays a random game, checking after every action that the incremental hash matches the hash recomputed from
+     * scratch, and that copies and undo() carry it over.
+     */
+    private void playAndCheck(GameType gameType, long seed) {
+        Game game = gameType.createGameInstance(2, seed);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState state = game.getGameState().copy();
+        assertTrue(state.supportsIncrementalHash());
+        Random rnd = new Random(seed);
+
+        int steps = 0;
+        while (state.isNotTerminal() && steps < 300) {
+            assertEquals(state.computeFullHash(), state.getIncrementalHash());
+            assertEquals(state.getIncrementalHash(), state.copy().getIncrementalHash());
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            long before = state.getIncrementalHash();
+            fm.nextUndoable(state, action);
+            assertNotEquals(before, state.getIncrementalHash());
+            fm.undo(state);
+            assertEquals(before, state.getIncrementalHash());
+            fm.next(state, action);
+            steps++;
+        }
+        assertEquals(state.computeFullHash(), state.getIncrementalHash());
+    }
+
+    @Test
+    public void ticTacToe() {
+        for (long seed = 0; seed < 10; seed++)
+            playAndCheck(GameType.TicTacToe, seed);
+    }
+
+    @Test
+    public void connect4() {
+        for (long seed = 0; seed < 10; seed++)
+            playAndCheck(GameType.Connect4, seed);
+    }
+
+    @Test
+    public void chess() {
+        for (long seed = 0; seed < 3; seed++)
+            playAndCheck(GameType.Chess, seed);
+    }
+
+    private void play(AbstractForwardModel fm, AbstractGameState state, int x, int y) {
+        AbstractAction action = fm.computeAvailableActions(state).stream()
+                .filter(a -> ((SetGridValueAction) a).getX() == x && ((SetGridValueAction) a).getY() == y)
+                .findFirst().orElseThrow();
+        fm.next(state, action);
+    }
+
+    @Test
+    public void transpositionsHaveTheSameKey() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 34);
+        AbstractForwardModel fm = game.getForwardModel();
+        AbstractGameState first = game.getGameState().copy();
+        AbstractGameState second = game.getGameState().copy();
+        ZobristStateKey key = new ZobristStateKey();
+
+        play(fm, first, 0, 0);
+        play(fm, first, 1, 1);
+        play(fm, first, 2, 2);
+        play(fm, second, 2, 2);
+        play(fm, second, 1, 1);
+        play(fm, second, 0, 0);
+        assertEquals(first, second);
+        assertEquals(key.getKey(first), key.getKey(second));
+
+        play(fm, first, 0, 1);
+        play(fm, second, 1, 0);
+        assertNotEquals(key.getKey(first), key.getKey(second));
+        assertNotEquals(key.getKey(first, 0), key.getKey(first, 1));
+    }
+
+    @Test
+    public void verifiedKeyWorksWithMCGS() {
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.MCGS;
+        ZobristStateKey key = new ZobristStateKey(true);
+        params.MCGSStateKey = key;
+
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        Game game = GameType.TicTacToe.createGameInstance(2, 34);
+        game.reset(List.of(player, new RandomPlayer(new Random(3023))));
+        game.oneAction();
+
+        MCGSNode root = (MCGSNode) player.getRoot(0);
+        assertEquals(200, root.getVisits());
+        assertTrue(key.getChecks() > 0);
+        assertEquals(0, key.getMismatches());
+        assertEquals(0, key.getCollisions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedGameThrows() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 34);
+        new ZobristStateKey().getKey(game.getGameState());
+    }
+}
@@ -0,0 +1,78 @@
+package core.components;
+
+import core.CoreConstants;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ComponentIDTest {
+
+    @Test
+    public void testIDsAreUniqueAcrossThreads() throws Exception {
+        int nThreads = 8;
+        int perThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        List<Future<List<Integer>>> results = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            results.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < perThread; i++)
+                    ids.add(new Token("T" + i).getComponentID());
+                return ids;
+            }));
+        }
+        Set<Integer> allIDs = new HashSet<>();
+        for (Future<List<Integer>> f : results)
+            allIDs.addAll(f.get());
+        executor.shutdown();
+        assertEquals(nThreads * perThread, allIDs.size());
+    }
+
+    @Test
+    public void testIDsAreUniqueOnOneThread() {
+        Token first = new Token("First");
+        Token second = new Token("Second");
+        Counter third = new Counter();
+        assertNotEquals(first.getComponentID(), second.getComponentID());
+        assertNotEquals(second.getComponentID(), third.getComponentID());
+        assertNotEquals(first.getComponentID(), third.getComponentID());
+    }
+
+    @Test
+    public void testCopyKeepsID() {
+        Token token = new Token("Token");
+        Deck<Token> deck = new Deck<>("Deck", CoreConstants.VisibilityMode.VISIBLE_TO_ALL);
+        deck.add(token);
+        Deck<Token> copy = deck.copy();
+        assertEquals(deck.getComponentID(), copy.getComponentID());
+        assertEquals(token.getComponentID(), copy.get(0).getComponentID());
+        assertNotSame(token, copy.get(0));
+    }
+
+    @Test
+    public void testIDsWrapAround() {
+        AtomicInteger counter = new AtomicInteger(Integer.MAX_VALUE - 10);
+        assertEquals(Integer.MAX_VALUE - 10, Component.reserveIDs(counter, 1024));
+        assertEquals(Integer.MIN_VALUE + 1013, Component.reserveIDs(counter, 1024));
+    }
+
+    @Test
+    public void testUnusedIDsAreReleasedWhenThreadEnds() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(Component.idReleasingThreads("Test", true));
+        int id = executor.submit(() -> new Token("Token").getComponentID()).get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // the thread only ends after the pool has terminated, so we may have to wait a little for its IDs
+        boolean released = false;
+        for (int i = 0; i < 100 && !released; i++) {
+            released = Component.releasedIDs.stream().anyMatch(ids -> ids[0] == id + 1);
+            if (!released)
+                Thread.sleep(10);
+        }
+        assertTrue(released);
+    }
+}
@@ -0,0 +1,92 @@
+package core.components;
+
+import games.dominion.cards.CardType;
+import games.dominion.cards.DominionCard;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static core.CoreConstants.VisibilityMode.HIDDEN_TO_ALL;
+import static org.junit.Assert.*;
+
+public class CopyOnWriteDeckTest {
+
+    private Deck<DominionCard> dominionDeck() {
+        Deck<DominionCard> deck = new Deck<>("Test", 0, HIDDEN_TO_ALL);
+        deck.add(DominionCard.create(CardType.COPPER));
+        deck.add(DominionCard.create(CardType.SILVER));
+        deck.add(DominionCard.create(CardType.GOLD));
+        deck.add(DominionCard.create(CardType.ESTATE));
+        return deck;
+    }
+
+    @Test
+    public void changesToCopyDoNotAffectOriginal() {
+        Deck<DominionCard> deck = dominionDeck();
+        Deck<DominionCard> copy = deck.copy();
+        Deck<DominionCard> copyOfCopy = copy.copy();
+        assertEquals(deck, copy);
+
+        DominionCard drawn = copy.draw();
+        assertEquals(CardType.ESTATE, drawn.cardType());
+        assertEquals(4, deck.getSize());
+        assertEquals(3, copy.getSize());
+        assertEquals(4, copyOfCopy.getSize());
+
+        copyOfCopy.getComponents().add(DominionCard.create(CardType.PROVINCE));
+        copyOfCopy.shuffle(new Random(3));
+        assertEquals(4, deck.getSize());
+        assertEquals(CardType.ESTATE, deck.peek().cardType());
+        assertEquals(CardType.COPPER, deck.peek(3).cardType());
+    }
+
+    @Test
+    public void changesToOriginalDoNotAffectCopy() {
+        Deck<DominionCard> deck = dominionDeck();
+        Deck<DominionCard> copy = deck.copy();
+        deck.remove(0);
+        deck.add(DominionCard.create(CardType.CURSE), 2);
+        deck.clear();
+        assertEquals(0, deck.getSize());
+        assertEquals(4, copy.getSize());
+        assertEquals(CardType.ESTATE, copy.peek().cardType());
+        assertEquals(CardType.COPPER, copy.peek(3).cardType());
+    }
+
+    @Test
+    public void mutableComponentsAreStillCopied() {
+        Deck<Card> deck = new Deck<>("Test", 0, HIDDEN_TO_ALL);
+        deck.add(new Card("A"));
+        deck.add(new Card("B"));
+        Deck<Card> copy = deck.copy();
+        assertEquals(deck, copy);
+        for (int i = 0; i < deck.getSize(); i++)
+            assertNotSame(deck.get(i), copy.get(i));
+    }
+
+    @Test
+    public void partialObservableVisibilityIsCopiedOnWrite() {
+        PartialObservableDeck<DominionCard> deck = new PartialObservableDeck<>("Test", 0, new boolean[]{true, false});
+        deck.add(DominionCard.create(CardType.COPPER));
+        deck.add(DominionCard.create(CardType.SILVER));
+        PartialObservableDeck<DominionCard> copy = deck.copy();
+
+        copy.setVisibilityOfComponent(0, 1, true);
+        assertTrue(copy.isComponentVisible(0, 1));
+        assertFalse(deck.isComponentVisible(0, 1));
+
+        // reading the visibility does not break the sharing
+        assertSame(deck.getVisibilityOfComponent(1), copy.getVisibilityOfComponent(1));
+
+        deck.setVisibilityOfComponent(1, new boolean[]{true, true});
+        assertTrue(deck.isComponentVisible(1, 1));
+        assertFalse(copy.isComponentVisible(1, 1));
+
+        PartialObservableDeck<DominionCard> secondCopy = deck.copy();
+        secondCopy.pick(0);
+        assertEquals(2, deck.getSize());
+        assertEquals(2, deck.getVisibleComponents(0).size());
+        assertEquals(1, secondCopy.getVisibleComponents(0).size());
+        assertTrue(secondCopy.isComponentVisible(0, 1));
+    }
+}
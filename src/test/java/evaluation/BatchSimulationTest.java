@@ -0,0 +1,55 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import games.GameType;
+import org.junit.Test;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchSimulationTest {
+
+    @Test
+    public void playsAllGamesAcrossThreads() {
+        List<AbstractPlayer> agents = List.of(new RandomPlayer(), new OSLAPlayer());
+        BatchSimulation simulation = new BatchSimulation(GameType.TicTacToe, 2, agents, null);
+        simulation.nGames = 200;
+        simulation.nThreads = 4;
+        simulation.seed = 42;
+        simulation.reportEvery = 0;
+        simulation.run("");
+
+        assertEquals(200, simulation.getGamesFinished());
+        // each agent plays in every game, and in TicTacToe every player makes at least one real decision
+        assertTrue(simulation.getDecisions(0) >= 200);
+        assertTrue(simulation.getDecisions(1) >= 200);
+        // OSLA uses the forward model for each decision, the random player never does
+        assertEquals(0, simulation.getForwardModelCalls(0));
+        assertTrue(simulation.getForwardModelCalls(1) > simulation.getDecisions(1));
+        // OSLA should comfortably beat random
+        assertTrue(simulation.getWins(1) > simulation.getWins(0));
+    }
+
+    @Test
+    public void resultsDoNotDependOnThreadCount() {
+        long[] wins = new long[2];
+        long[] decisions = new long[2];
+        int[] threads = {1, 4};
+        for (int i = 0; i < threads.length; i++) {
+            List<AbstractPlayer> agents = List.of(new RandomPlayer(), new OSLAPlayer());
+            BatchSimulation simulation = new BatchSimulation(GameType.TicTacToe, 2, agents, null);
+            simulation.nGames = 100;
+            simulation.nThreads = threads[i];
+            simulation.seed = 42;
+            simulation.reportEvery = 0;
+            simulation.run("");
+            wins[i] = simulation.getWins(0);
+            decisions[i] = simulation.getDecisions(0);
+        }
+        assertEquals(wins[0], wins[1]);
+        assertEquals(decisions[0], decisions[1]);
+    }
+}
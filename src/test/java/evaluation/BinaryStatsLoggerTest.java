@@ -0,0 +1,177 @@
+package evaluation;
+
+import evaluation.loggers.BinaryStatsLogger;
+import evaluation.loggers.BinaryStatsReader;
+import org.junit.Test;
+import utilities.Pair;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BinaryStatsLoggerTest {
+
+    private File tempFile() throws IOException {
+        File file = File.createTempFile("BinaryStatsLoggerTest", "." + BinaryStatsLogger.EXTENSION);
+        file.deleteOnExit();
+        return file;
+    }
+
+    private Map<String, Object> record(int i) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("GameID", i / 10);
+        data.put("Turn", i);
+        data.put("Score", i * 0.5);
+        data.put("Win", i % 2 == 0);
+        data.put("Action", i % 3 == 0 ? null : "Action" + i);
+        data.put("Features", Collections.singletonMap("Feature", i % 7 == 0 ? null : (double) i));
+        return data;
+    }
+
+    @Test
+    public void recordsCanBeReadBackByColumn() throws IOException {
+        File file = tempFile();
+        BinaryStatsLogger logger = new BinaryStatsLogger(file.getPath(), false);
+        logger.rowGroupSize = 7;
+        for (int i = 1; i <= 30; i++)
+            logger.record(record(i));
+        logger.processDataAndFinish();
+
+        assertTrue(BinaryStatsReader.isBinaryFile(file.getPath()));
+        try (BinaryStatsReader reader = new BinaryStatsReader(file.getPath())) {
+            assertEquals(List.of("GameID", "Turn", "Score", "Win", "Action", "Feature"), reader.header());
+            assertTrue(reader.isNumeric(0));
+            assertTrue(reader.isNumeric(3));
+            assertFalse(reader.isNumeric(4));
+            int rows = 0, groups = 0;
+            while (reader.nextRowGroup()) {
+                groups++;
+                for (int r = 0; r < reader.rows(); r++) {
+                    int i = rows + r + 1;
+                    assertEquals(i, reader.doubles(1)[r], 0.0);
+                    assertEquals(i * 0.5, reader.doubles(2)[r], 0.0);
+                    assertEquals(i % 2 == 0 ? 1.0 : 0.0, reader.doubles(3)[r], 0.0);
+                    assertEquals(i % 3 == 0 ? null : "Action" + i, reader.strings(4)[r]);
+                    if (i % 7 == 0)
+                        assertTrue(Double.isNaN(reader.doubles(5)[r]));
+                    else
+                        assertEquals(i, reader.doubles(5)[r], 0.0);
+                }
+                rows += reader.rows();
+            }
+            assertEquals(30, rows);
+            assertEquals(5, groups);
+        }
+    }
+
+    @Test
+    public void appendedDataIsLoadedAsColumns() throws IOException {
+        File file = tempFile();
+        for (int run = 0; run < 2; run++) {
+            BinaryStatsLogger logger = new BinaryStatsLogger(file.getPath(), true);
+            for (int i = 1; i <= 10; i++)
+                logger.record(record(run * 10 + i));
+            logger.processDataAndFinish();
+        }
+        Pair<List<String>, List<List<Object>>> data = BinaryStatsReader.loadColumnsWithHeader("\t", file.getPath());
+        assertEquals(6, data.a.size());
+        List<Object> turns = data.b.get(data.a.indexOf("Turn"));
+        assertEquals(20, turns.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(i + 1.0, Utils.toDouble(turns.get(i)), 0.0);
+        assertEquals("Action2", data.b.get(data.a.indexOf("Action")).get(1));
+    }
+
+    @Test
+    public void writeDataWithHeaderUsesBinaryFormatByExtension() throws IOException {
+        File binary = tempFile();
+        List<String> header = List.of("A", "B");
+        List<List<Object>> rows = List.of(List.of(1, "x"), List.of(2.5, "y"));
+        BinaryStatsLogger.writeDataWithHeader("\t", header, rows, binary.getPath());
+        assertTrue(BinaryStatsReader.isBinaryFile(binary.getPath()));
+
+        File text = File.createTempFile("BinaryStatsLoggerTest", ".txt");
+        text.deleteOnExit();
+        BinaryStatsLogger.writeDataWithHeader("\t", header, rows, text.getPath());
+        assertFalse(BinaryStatsReader.isBinaryFile(text.getPath()));
+
+        // both formats give the same values
+        for (File file : List.of(binary, text)) {
+            Pair<List<String>, List<List<Object>>> data = BinaryStatsReader.loadColumnsWithHeader("\t", file.getPath());
+            assertEquals(header, data.a);
+            assertEquals(1.0, Utils.toDouble(data.b.get(0).get(0)), 0.0);
+            assertEquals(2.5, Utils.toDouble(data.b.get(0).get(1)), 0.0);
+            assertEquals("y", data.b.get(1).get(1));
+        }
+    }
+
+    @Test
+    public void numericColumnIsWidenedByLaterStrings() throws IOException {
+        File file = tempFile();
+        BinaryStatsLogger logger = new BinaryStatsLogger(file.getPath(), false);
+        logger.rowGroupSize = 2;
+        List<String> header = List.of("Value");
+        for (Object value : List.of(1, 2.5, 3, "x", 4))
+            logger.recordRow(header, Collections.singletonList(value));
+        logger.processDataAndFinish();
+
+        try (BinaryStatsReader reader = new BinaryStatsReader(file.getPath())) {
+            assertTrue(reader.nextRowGroup());
+            assertTrue(reader.isNumeric(0));
+            assertEquals(2.5, reader.doubles(0)[1], 0.0);
+            assertTrue(reader.nextRowGroup());
+            assertFalse(reader.isNumeric(0));
+            assertEquals("3", reader.strings(0)[0]);
+            assertEquals("x", reader.strings(0)[1]);
+            assertTrue(reader.nextRowGroup());
+            assertFalse(reader.isNumeric(0));
+            assertEquals("4", reader.strings(0)[0]);
+            assertFalse(reader.nextRowGroup());
+        }
+        List<Object> values = BinaryStatsReader.loadColumns(file.getPath()).b.get(0);
+        assertEquals(List.of("1.0", "2.5", "3", "x", "4"), values);
+    }
+
+    @Test
+    public void newOutputDirectoryGetsAReadableFile() throws IOException {
+        File first = Files.createTempDirectory("BinaryStatsLoggerTest").toFile();
+        File second = Files.createTempDirectory("BinaryStatsLoggerTest").toFile();
+        // (files are deleted on exit in the reverse order they are registered, so the directories go first)
+        first.deleteOnExit();
+        second.deleteOnExit();
+        BinaryStatsLogger logger = new BinaryStatsLogger("data." + BinaryStatsLogger.EXTENSION, false);
+        logger.rowGroupSize = 4;
+        logger.setOutputDirectory(first.getPath());
+        for (int i = 1; i <= 10; i++)
+            logger.record(record(i));
+        logger.setOutputDirectory(second.getPath());
+        for (int i = 11; i <= 15; i++)
+            logger.record(record(i));
+        logger.processDataAndFinish();
+
+        File[] files = {new File(first, "data." + BinaryStatsLogger.EXTENSION), new File(second, "data." + BinaryStatsLogger.EXTENSION)};
+        int[] expectedRows = {10, 5};
+        for (int f = 0; f < 2; f++) {
+            files[f].deleteOnExit();
+            assertTrue(BinaryStatsReader.isBinaryFile(files[f].getPath()));
+            try (BinaryStatsReader reader = new BinaryStatsReader(files[f].getPath())) {
+                assertEquals(List.of("GameID", "Turn", "Score", "Win", "Action", "Feature"), reader.header());
+                int rows = 0;
+                while (reader.nextRowGroup())
+                    rows += reader.rows();
+                assertEquals(expectedRows[f], rows);
+            }
+        }
+    }
+
+    @Test
+    public void emptyCopyKeepsDotsInDirectoryNames() {
+        String fileName = "results.v2" + File.separator + "data.tagc";
+        BinaryStatsLogger copy = new BinaryStatsLogger(fileName).emptyCopy("Move");
+        assertEquals("results.v2" + File.separator + "data_Move.tagc", copy.getFileName());
+    }
+}
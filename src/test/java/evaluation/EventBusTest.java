@@ -0,0 +1,232 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.interfaces.IGameEvent;
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static evaluation.metrics.Event.GameEvent.*;
+import static org.junit.Assert.*;
+
+public class EventBusTest {
+
+    static class RecordingListener implements IGameListener {
+        final Set<IGameEvent> types;
+        final boolean asynchronous, needsState;
+        final List<Event> events = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        Game game;
+
+        RecordingListener(Set<IGameEvent> types, boolean asynchronous, boolean needsState) {
+            this.types = types;
+            this.asynchronous = asynchronous;
+            this.needsState = needsState;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public Set<IGameEvent> getEventTypes() {
+            return types;
+        }
+
+        @Override
+        public boolean isAsynchronous() {
+            return asynchronous;
+        }
+
+        @Override
+        public boolean needsState() {
+            return needsState;
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    // records the threads it is run on
+    public static class StateMetric extends AbstractMetric {
+        final List<Thread> threads = new ArrayList<>();
+
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            threads.add(Thread.currentThread());
+            return false;
+        }
+
+        @Override
+        public Set<IGameEvent> getDefaultEventTypes() {
+            return Set.of(ACTION_TAKEN);
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            return new HashMap<>();
+        }
+    }
+
+    public static class LiveGameMetric extends StateMetric {
+        @Override
+        public boolean readsLiveGame() {
+            return true;
+        }
+    }
+
+    private Game playGame(IGameListener... listeners) {
+        Game game = GameType.TicTacToe.createGameInstance(2, 37);
+        List<AbstractPlayer> players = List.of(new RandomPlayer(), new RandomPlayer());
+        game.reset(players);
+        for (IGameListener listener : listeners)
+            game.addListener(listener);
+        game.run();
+        return game;
+    }
+
+    /**
+     * Plays a game of LoveLetter in which an MCTS player samples its determinisations with the state's random number
+     * generators, so that anything else that draws on these would change the game
+     *
+     * @return the actions taken in the game
+     */
+    private List<String> playStochasticGame(IGameListener... listeners) {
+        Game game = GameType.LoveLetter.createGameInstance(2, 37);
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(11);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 50);
+        List<AbstractPlayer> players = List.of(new MCTSPlayer(params), new RandomPlayer(new Random(13)));
+        game.reset(players);
+        for (IGameListener listener : listeners)
+            game.addListener(listener);
+        game.run();
+        return game.getGameState().getHistory().stream().map(p -> p.a + ": " + p.b).toList();
+    }
+
+    @Test
+    public void asynchronousListenerDoesNotChangeTheGame() {
+        RecordingListener sync = new RecordingListener(Set.of(ACTION_TAKEN), false, true);
+        List<String> withSync = playStochasticGame(sync);
+        RecordingListener async = new RecordingListener(Set.of(ACTION_TAKEN), true, true);
+        List<String> withAsync = playStochasticGame(async);
+
+        assertFalse(async.events.isEmpty());
+        assertEquals(withSync, withAsync);
+        assertEquals(playStochasticGame(), withAsync);
+    }
+
+    @Test
+    public void eventsAreFilteredByType() {
+        RecordingListener all = new RecordingListener(null, false, true);
+        RecordingListener gameOver = new RecordingListener(Set.of(GAME_OVER), false, true);
+        playGame(all, gameOver);
+
+        assertEquals(1, gameOver.events.size());
+        assertEquals(GAME_OVER, gameOver.events.get(0).type);
+        assertTrue(all.events.size() > 2);
+        assertEquals(ABOUT_TO_START, all.events.get(0).type);
+    }
+
+    @Test
+    public void asynchronousListenerSeesSameEventsOnAnotherThread() {
+        RecordingListener sync = new RecordingListener(Set.of(ACTION_TAKEN, GAME_OVER), false, true);
+        RecordingListener async = new RecordingListener(Set.of(ACTION_TAKEN, GAME_OVER), true, true);
+        Game game = playGame(sync, async);
+
+        // the game has flushed the queue by the time it returns
+        assertEquals(sync.events.size(), async.events.size());
+        for (int i = 0; i < sync.events.size(); i++) {
+            Event expected = sync.events.get(i), actual = async.events.get(i);
+            assertEquals(expected.type, actual.type);
+            assertEquals(expected.action, actual.action);
+            assertEquals(expected.playerID, actual.playerID);
+            // a copy of the state, as it was at the time of the event
+            assertNotSame(game.getGameState(), actual.state);
+            assertEquals(expected.type == GAME_OVER ? game.getGameState().getGameTick() : i + 1, actual.state.getGameTick());
+            assertNotSame(Thread.currentThread(), async.threads.get(i));
+            assertSame(Thread.currentThread(), sync.threads.get(i));
+        }
+    }
+
+    @Test
+    public void stateIsNotCopiedUnlessNeeded() {
+        RecordingListener async = new RecordingListener(Set.of(ACTION_TAKEN), true, false);
+        playGame(async);
+
+        assertFalse(async.events.isEmpty());
+        for (Event event : async.events) {
+            assertNull(event.state);
+            assertNotNull(event.action);
+        }
+    }
+
+    @Test
+    public void asynchronousFailureIsReported() {
+        RecordingListener failing = new RecordingListener(Set.of(ACTION_TAKEN), true, false) {
+            @Override
+            public void onEvent(Event event) {
+                throw new IllegalStateException("failed");
+            }
+        };
+        try {
+            playGame(failing);
+            fail("Expected the failure of the listener to be reported");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void metricsThatReadTheLiveGameStayOnTheGameThread() {
+        StateMetric state = new StateMetric();
+        LiveGameMetric live = new LiveGameMetric();
+        MetricsGameListener listener = new MetricsGameListener(new AbstractMetric[]{state, live});
+        listener.setAsynchronous(true);
+        playGame(listener);
+
+        assertFalse(live.threads.isEmpty());
+        assertEquals(live.threads.size(), state.threads.size());
+        for (int i = 0; i < live.threads.size(); i++) {
+            assertSame(Thread.currentThread(), live.threads.get(i));
+            assertNotSame(Thread.currentThread(), state.threads.get(i));
+        }
+    }
+
+    @Test
+    public void synchronousPartIsOnlyNeededForLiveGameMetrics() {
+        MetricsGameListener listener = new MetricsGameListener(new AbstractMetric[]{new StateMetric()});
+        listener.setAsynchronous(true);
+        assertNull(listener.getSynchronousPart());
+
+        listener = new MetricsGameListener(new AbstractMetric[]{new StateMetric(), new LiveGameMetric()});
+        assertNull(listener.getSynchronousPart());
+        listener.setAsynchronous(true);
+        assertNotNull(listener.getSynchronousPart());
+        assertEquals(Set.of(ACTION_TAKEN, GAME_OVER), listener.getSynchronousPart().getEventTypes());
+    }
+}
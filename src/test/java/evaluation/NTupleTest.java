@@ -0,0 +1,141 @@
+package evaluation;
+
+import evaluation.optimisation.ntbea.NTuple;
+import evaluation.optimisation.ntbea.SearchSpace;
+import org.junit.Test;
+import utilities.StatSummary;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class NTupleTest {
+
+    static class UniformSearchSpace implements SearchSpace {
+        final int nDims, nValues;
+
+        UniformSearchSpace(int nDims, int nValues) {
+            this.nDims = nDims;
+            this.nValues = nValues;
+        }
+
+        @Override
+        public int nDims() {
+            return nDims;
+        }
+
+        @Override
+        public int nValues(int i) {
+            return nValues;
+        }
+
+        @Override
+        public String name(int i) {
+            return "d" + i;
+        }
+
+        @Override
+        public Object value(int dim, int i) {
+            return i;
+        }
+    }
+
+    /**
+     * Adds random points to the tuple, and checks its statistics for each pattern against a StatSummary.
+     */
+    private void checkAgainstStatSummary(SearchSpace searchSpace, int[] dims) {
+        NTuple tuple = new NTuple(searchSpace, dims);
+        Map<List<Integer>, StatSummary> expected = new HashMap<>();
+        Map<List<Integer>, int[]> points = new HashMap<>();
+        Random rnd = new Random(31);
+        for (int i = 0; i < 2000; i++) {
+            int[] x = new int[searchSpace.nDims()];
+            for (int d = 0; d < x.length; d++)
+                x[d] = rnd.nextInt(Math.min(3, searchSpace.nValues(d)));
+            double v = rnd.nextGaussian();
+            tuple.add(x, v);
+            List<Integer> pattern = Arrays.stream(dims).mapToObj(d -> x[d]).toList();
+            expected.computeIfAbsent(pattern, k -> new StatSummary()).add(v);
+            points.put(pattern, x);
+        }
+        assertEquals(2000, tuple.nSamples());
+        assertEquals(expected.size(), tuple.nEntries());
+        assertEquals(expected.size(), tuple.sampledIndices().length);
+        for (List<Integer> pattern : expected.keySet()) {
+            int[] x = points.get(pattern);
+            StatSummary ss = expected.get(pattern);
+            assertEquals(ss.n(), tuple.n(x));
+            assertEquals(ss.mean(), tuple.mean(x), 1e-9);
+            assertEquals(ss.stdErr(), tuple.stdErr(x), 1e-9);
+        }
+        int[] unseen = new int[searchSpace.nDims()];
+        Arrays.fill(unseen, searchSpace.nValues(0) - 1);
+        assertEquals(0, tuple.n(unseen));
+        assertTrue(Double.isNaN(tuple.mean(unseen)));
+    }
+
+    @Test
+    public void denseTuple() {
+        checkAgainstStatSummary(new UniformSearchSpace(5, 10), new int[]{0, 2, 4});
+    }
+
+    @Test
+    public void sparseTuple() {
+        checkAgainstStatSummary(new UniformSearchSpace(12, 10), new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11});
+    }
+
+    @Test
+    public void hashedTuple() {
+        // 10^24 patterns cannot be indexed by a long
+        checkAgainstStatSummary(new UniformSearchSpace(24, 10), new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11,
+                12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23});
+    }
+
+    @Test
+    public void patternsAreRecoveredInOrder() {
+        NTuple tuple = new NTuple(new UniformSearchSpace(3, 4), new int[]{0, 2});
+        tuple.add(new int[]{3, 0, 1}, 1.0);
+        tuple.add(new int[]{0, 1, 2}, 0.0);
+        tuple.add(new int[]{0, 3, 2}, 0.5);
+        long[] indices = tuple.sampledIndices();
+        assertEquals(2, indices.length);
+        assertArrayEquals(new int[]{0, 2}, tuple.pattern(indices[0]));
+        assertArrayEquals(new int[]{3, 1}, tuple.pattern(indices[1]));
+        assertEquals(2, tuple.n(indices[0]));
+        assertEquals(0.25, tuple.mean(indices[0]), 1e-9);
+    }
+
+    /**
+     * Adding an empty StatSummary counts as a sample, and creates an entry for the pattern with no samples in it.
+     */
+    private void checkEmptyStatSummary(NTuple tuple, int nDims) {
+        for (int i = 0; i < 40; i++) {
+            int[] x = new int[nDims];
+            x[0] = i % 4;
+            x[nDims - 1] = i / 4;
+            tuple.add(x, new StatSummary());
+        }
+        assertEquals(40, tuple.nSamples());
+        assertEquals(40, tuple.nEntries());
+        assertEquals(40, tuple.sampledIndices().length);
+        int[] x = new int[nDims];
+        assertEquals(0, tuple.n(x));
+        assertTrue(Double.isNaN(tuple.mean(x)));
+
+        StatSummary ss = new StatSummary();
+        ss.add(1.0);
+        ss.add(2.0);
+        tuple.add(x, ss);
+        assertEquals(41, tuple.nSamples());
+        assertEquals(40, tuple.nEntries());
+        assertEquals(2, tuple.n(x));
+        assertEquals(1.5, tuple.mean(x), 1e-9);
+    }
+
+    @Test
+    public void emptyStatSummaryCreatesEntry() {
+        checkEmptyStatSummary(new NTuple(new UniformSearchSpace(3, 10), new int[]{0, 2}), 3);
+        // the sparse tuple also has to grow while it holds entries with no samples
+        checkEmptyStatSummary(new NTuple(new UniformSearchSpace(12, 10), new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}), 12);
+    }
+}
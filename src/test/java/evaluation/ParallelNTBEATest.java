@@ -0,0 +1,89 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import evaluation.optimisation.GameEvaluator;
+import evaluation.optimisation.ITPSearchSpace;
+import evaluation.optimisation.NTBEAParameters;
+import evaluation.optimisation.ntbea.NTupleBanditEA;
+import evaluation.optimisation.ntbea.NTupleSystem;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+import players.heuristics.WinOnlyHeuristic;
+import players.mcts.MCTSParams;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParallelNTBEATest {
+
+    @SuppressWarnings("unchecked")
+    private NTBEAParameters createParams(int nThreads, int batchSize) {
+        JSONObject json = new JSONObject();
+        json.put("class", "players.mcts.MCTSParams");
+        json.put("budgetType", "BUDGET_ITERATIONS");
+        json.put("budget", 20);
+        JSONArray kValues = new JSONArray();
+        kValues.addAll(List.of(0.1, 1.0, 10.0));
+        json.put("K", kValues);
+        JSONArray rolloutLengths = new JSONArray();
+        rolloutLengths.addAll(List.of(0, 3, 10));
+        json.put("rolloutLength", rolloutLengths);
+        MCTSParams mctsParams = new MCTSParams();
+        mctsParams.setRandomSeed(42);
+
+        NTBEAParameters params = new NTBEAParameters();
+        params.setParameterValue("seed", 4093);
+        params.setParameterValue("budget", 0);
+        params.setParameterValue("nThreads", nThreads);
+        params.setParameterValue("batchSize", batchSize);
+        params.searchSpace = new ITPSearchSpace<AbstractPlayer>(mctsParams, json);
+        return params;
+    }
+
+    private GameEvaluator createEvaluator(NTBEAParameters params) {
+        return new GameEvaluator(GameType.TicTacToe, params, 2, List.of(new RandomPlayer()),
+                new WinOnlyHeuristic(), null, true);
+    }
+
+    @Test
+    public void batchResultsDoNotDependOnThreads() {
+        List<int[]> batch = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            batch.add(new int[]{i % 3, (i / 3) % 3});
+
+        GameEvaluator sequential = createEvaluator(createParams(1, 12));
+        GameEvaluator parallel = createEvaluator(createParams(4, 12));
+        double[] expected = sequential.evaluate(batch);
+        double[] actual = parallel.evaluate(batch);
+        assertArrayEquals(expected, actual, 1e-9);
+        assertEquals(12, sequential.nEvals());
+        assertEquals(12, parallel.nEvals());
+
+        // and evaluating them one at a time gives the same results as a batch
+        GameEvaluator single = createEvaluator(createParams(1, 1));
+        for (int i = 0; i < batch.size(); i++)
+            assertEquals(expected[i], single.evaluate(batch.get(i)), 1e-9);
+    }
+
+    @Test
+    public void batchedTrialIsReproducible() {
+        int[][] best = new int[2][];
+        for (int run = 0; run < 2; run++) {
+            NTBEAParameters params = createParams(4, 4);
+            NTupleSystem landscapeModel = new NTupleSystem(params);
+            NTupleBanditEA searchFramework = new NTupleBanditEA(landscapeModel, params);
+            GameEvaluator evaluator = createEvaluator(params);
+            searchFramework.runTrial(evaluator, 30);
+            // the last batch is cut short to stay within the evaluation budget
+            assertEquals(30, evaluator.nEvals());
+            best[run] = landscapeModel.getBestSampled();
+        }
+        assertTrue(Arrays.equals(best[0], best[1]));
+    }
+}
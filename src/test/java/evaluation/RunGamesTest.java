@@ -149,7 +149,7 @@ public class RunGamesTest {
         tournament = new RoundRobinTournament(singleAgent, GameType.Poker, 3, null, config);
         tournament.createAndRunMatchUp(List.of(0, 0, 0));
 
-        Game game = tournament.getGame();
+        Game game = tournament.getLastGame();
         assertEquals(3, game.getPlayers().size());
         assertEquals(0, game.getPlayers().get(0).getPlayerID());
         assertEquals(1, game.getPlayers().get(1).getPlayerID());
@@ -171,7 +171,7 @@ public class RunGamesTest {
         tournament = new RoundRobinTournament(singleAgent, GameType.Poker, 3, null, config);
         tournament.createAndRunMatchUp(List.of(0, 0, 0));
 
-        Game game = tournament.getGame();
+        Game game = tournament.getLastGame();
         assertEquals(3, game.getPlayers().size());
         assertEquals(0, game.getPlayers().get(0).getPlayerID());
         assertEquals(1, game.getPlayers().get(1).getPlayerID());
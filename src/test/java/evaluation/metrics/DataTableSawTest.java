@@ -0,0 +1,126 @@
+package evaluation.metrics;
+
+import core.interfaces.IGameEvent;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.tablessaw.DataTableSaw;
+import evaluation.metrics.tablessaw.TableSawDataProcessor;
+import org.junit.Before;
+import org.junit.Test;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.selection.Selection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DataTableSawTest {
+
+    static class TestMetric extends AbstractMetric {
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            return true;
+        }
+
+        @Override
+        public Set<IGameEvent> getDefaultEventTypes() {
+            return Collections.singleton(Event.GameEvent.GAME_OVER);
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            Map<String, Class<?>> columns = new LinkedHashMap<>();
+            columns.put("Name", String.class);
+            columns.put("Count", Integer.class);
+            columns.put("Score", Double.class);
+            columns.put("Win", Boolean.class);
+            return columns;
+        }
+    }
+
+    TestMetric metric;
+    DataTableSaw logger;
+
+    @Before
+    public void setUp() {
+        metric = new TestMetric();
+        logger = new DataTableSaw(metric);
+        metric.setDataLogger(logger);
+        logger.init(null, 2, Collections.emptySet());
+    }
+
+    private void addRows(int n) {
+        for (int i = 0; i < n; i++) {
+            for (String column : metric.getDefaultColumns().keySet()) {
+                if (metric.getDefaultColumns().get(column) == Integer.class)
+                    logger.addData(column, i);
+                else
+                    logger.addData(column, "default" + (i % 3));
+            }
+            logger.addData("Name", i % 5 == 0 ? null : "name" + (i % 4));
+            logger.addData("Count", i % 7 == 0 ? null : (Object) i);
+            logger.addData("Score", i * 0.5);
+            logger.addData("Win", i % 2 == 0);
+            logger.endRow();
+        }
+    }
+
+    private static Table allRows(DataTableSaw logger) {
+        return logger.rowsWhere(t -> Selection.withRange(0, t.rowCount()));
+    }
+
+    @Test
+    public void rowsMovedToDiskAreReadBack() {
+        addRows(100);
+        Table inMemory = allRows(logger);
+
+        metric.reset();
+        logger.init(null, 2, Collections.emptySet());
+        // a few rows per group
+        logger.setSpillThresholdBytes(200);
+        addRows(100);
+        Table all = allRows(logger);
+
+        assertEquals(100, all.rowCount());
+        assertEquals(inMemory.columnNames(), all.columnNames());
+        for (int row = 0; row < 100; row++) {
+            for (String column : inMemory.columnNames()) {
+                assertEquals(column + " " + row, inMemory.column(column).isMissing(row), all.column(column).isMissing(row));
+                assertEquals(column + " " + row, inMemory.column(column).get(row), all.column(column).get(row));
+            }
+        }
+        assertEquals(all.rowCount(), ((DataTableSaw) logger.copy()).rowCount());
+    }
+
+    @Test
+    public void flushDiscardsRowsOnDisk() {
+        logger.setSpillThresholdBytes(200);
+        addRows(50);
+        logger.flush();
+        assertEquals(0, logger.rowCount());
+        assertEquals(0, allRows(logger).rowCount());
+        addRows(3);
+        assertEquals(3, logger.rowCount());
+        assertEquals(3, allRows(logger).rowCount());
+    }
+
+    @Test
+    public void rawDataIsWrittenFromEachRowGroup() throws IOException {
+        logger.setSpillThresholdBytes(200);
+        addRows(100);
+        File folder = Files.createTempDirectory("metrics").toFile();
+        File output = new File(folder, logger.name() + ".csv");
+        try {
+            new TableSawDataProcessor().processRawDataToFile(logger, folder.getPath(), false);
+            // a header, and one line for each row
+            assertEquals(101, Files.readAllLines(output.toPath()).size());
+            new TableSawDataProcessor().processRawDataToFile(logger, folder.getPath(), true);
+            assertEquals(201, Files.readAllLines(output.toPath()).size());
+        } finally {
+            output.delete();
+            folder.delete();
+        }
+    }
+}
@@ -201,4 +201,38 @@ public class TestRandomSeedsInTournaments {
         assertEquals(4, uniqueSeeds.size());
     }
 
+    @Test
+    public void testParallelGamesAreIndependentOfThreadCount() {
+        List<List<Double>> pointsByRun = new ArrayList<>();
+        List<List<Integer>> ordinalsByRun = new ArrayList<>();
+        List<List<Long>> seedsByRun = new ArrayList<>();
+        List<List<String>> namesByRun = new ArrayList<>();
+        for (int nThreads : new int[]{1, 2, 4}) {
+            List<AbstractPlayer> randomPlayer = List.of(new RandomPlayer(new Random(23)), new RandomPlayer(new Random(47)));
+            randomPlayer.get(0).setName("p1");
+            randomPlayer.get(1).setName("p2");
+            String[] args = new String[]{
+                    "mode=exhaustiveSP", "matchups=48", "distinctRandomSeeds=0", "seed=35830953", "listener=\"\"", "nThreads=" + nThreads
+            };
+            Map<RunArg, Object> config = RunArg.parseConfig(args, Collections.singletonList(RunArg.Usage.RunGames));
+            RoundRobinTournament tournament = new RoundRobinTournament(randomPlayer, GameType.DotsAndBoxes, 4, null, config);
+            SeedListener listener = new SeedListener();
+            tournament.addListener(listener);
+            tournament.run();
+            seedsByRun.add(listener.seeds);
+            namesByRun.add(listener.firstPlayerNames);
+            pointsByRun.add(tournament.getTournamentResults().getPlayerPoints("p1"));
+            ordinalsByRun.add(tournament.getTournamentResults().getPlayerOrdinals("p1"));
+        }
+        // each game is played with the same seed and agents, seen by the listeners and recorded in the same order,
+        // whatever the number of threads
+        assertEquals(48, seedsByRun.get(0).size());
+        for (int run = 1; run < 3; run++) {
+            assertEquals(seedsByRun.get(0), seedsByRun.get(run));
+            assertEquals(namesByRun.get(0), namesByRun.get(run));
+            assertEquals(pointsByRun.get(0), pointsByRun.get(run));
+            assertEquals(ordinalsByRun.get(0), ordinalsByRun.get(run));
+        }
+    }
+
 }
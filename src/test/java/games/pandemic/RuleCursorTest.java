@@ -0,0 +1,85 @@
+package games.pandemic;
+
+import core.AbstractForwardModel;
+import core.AbstractGameStateWithTurnOrder;
+import core.AbstractParameters;
+import core.actions.AbstractAction;
+import core.rules.Node;
+import games.GameType;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.GameResult.GAME_ONGOING;
+import static org.junit.Assert.*;
+
+public class RuleCursorTest {
+
+    private AbstractGameStateWithTurnOrder newState(AbstractForwardModel fm, long seed) {
+        AbstractParameters params = GameType.Pandemic.createParameters(seed);
+        AbstractGameStateWithTurnOrder state = (AbstractGameStateWithTurnOrder) GameType.Pandemic.createGameState(params, 4);
+        fm.setup(state);
+        return state;
+    }
+
+    private AbstractForwardModel newForwardModel() {
+        return GameType.Pandemic.createForwardModel(GameType.Pandemic.createParameters(0), 4);
+    }
+
+    @Test
+    public void sharedForwardModelMatchesSeparateModels() {
+        AbstractForwardModel separateFM = newForwardModel();
+        AbstractForwardModel sharedFM = newForwardModel();
+        AbstractGameStateWithTurnOrder alone = newState(separateFM, 42);
+        AbstractGameStateWithTurnOrder first = newState(sharedFM, 42);
+        AbstractGameStateWithTurnOrder second = newState(sharedFM, 42);
+        Random rnd = new Random(7);
+
+        for (int step = 0; step < 500 && alone.getGameStatus() == GAME_ONGOING; step++) {
+            List<AbstractAction> actions = separateFM.computeAvailableActions(alone);
+            // the two states run by the same model are advanced in turn
+            assertEquals(actions, sharedFM.computeAvailableActions(first));
+            assertEquals(actions, sharedFM.computeAvailableActions(second));
+            int choice = rnd.nextInt(actions.size());
+            separateFM.next(alone, actions.get(choice));
+            sharedFM.next(first, sharedFM.computeAvailableActions(first).get(choice));
+            sharedFM.next(second, sharedFM.computeAvailableActions(second).get(choice));
+
+            assertSame(alone.getRuleCursor().getNextRule().getClass(), first.getRuleCursor().getNextRule().getClass());
+            assertSame(first.getRuleCursor().getNextRule(), second.getRuleCursor().getNextRule());
+            assertEquals(alone.getGamePhase(), first.getGamePhase());
+            assertEquals(alone.getGamePhase(), second.getGamePhase());
+            assertEquals(alone.getCurrentPlayer(), second.getCurrentPlayer());
+        }
+        assertEquals(alone.getGameStatus(), first.getGameStatus());
+        assertEquals(alone.getGameStatus(), second.getGameStatus());
+    }
+
+    @Test
+    public void copyKeepsItsOwnPositionInTheRules() {
+        AbstractForwardModel fm = newForwardModel();
+        AbstractGameStateWithTurnOrder state = newState(fm, 99);
+        Random rnd = new Random(3);
+        for (int step = 0; step < 3; step++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+
+        AbstractGameStateWithTurnOrder copy = (AbstractGameStateWithTurnOrder) state.copy();
+        assertNotSame(state.getRuleCursor(), copy.getRuleCursor());
+        assertSame(state.getRuleCursor().getNextRule(), copy.getRuleCursor().getNextRule());
+        assertSame(state.getRuleCursor().getLastRule(), copy.getRuleCursor().getLastRule());
+
+        Node next = state.getRuleCursor().getNextRule();
+        Node last = state.getRuleCursor().getLastRule();
+        int tick = state.getGameTick();
+        for (int step = 0; step < 10 && copy.getGameStatus() == GAME_ONGOING; step++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertSame(next, state.getRuleCursor().getNextRule());
+        assertSame(last, state.getRuleCursor().getLastRule());
+        assertEquals(tick, state.getGameTick());
+    }
+}
@@ -0,0 +1,49 @@
+package players.heuristics;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlatDecisionTreeTest {
+
+    // if (f0 <= 0.5) { if (f2 <= 3.0) 1.0 else 2.0 } else 3.0
+    FlatDecisionTree tree = new FlatDecisionTree(
+            new int[]{0, 2, -1, -1, -1},
+            new double[]{0.5, 3.0, 0.0, 0.0, 0.0},
+            new int[]{1, 2, -1, -1, -1},
+            new int[]{4, 3, -1, -1, -1},
+            new double[]{0.0, 0.0, 1.0, 2.0, 3.0});
+
+    @Test
+    public void predictFollowsSplits() {
+        assertEquals(1.0, tree.predict(new double[]{0.0, 9.0, 3.0}), 0.0);
+        assertEquals(2.0, tree.predict(new double[]{0.5, 9.0, 3.5}), 0.0);
+        assertEquals(3.0, tree.predict(new double[]{0.6, 9.0, 0.0}), 0.0);
+    }
+
+    @Test
+    public void predictOnTwoArraysMatchesConcatenation() {
+        double[][] points = {{0.0, 9.0, 3.0}, {0.5, 9.0, 3.5}, {0.6, 9.0, 0.0}};
+        for (double[] point : points) {
+            assertEquals(tree.predict(point), tree.predict(new double[]{point[0], point[1]}, new double[]{point[2]}), 0.0);
+            assertEquals(tree.predict(point), tree.predict(new double[]{point[0]}, new double[]{point[1], point[2]}), 0.0);
+        }
+    }
+
+    @Test
+    public void jsonRoundTrip() throws ParseException {
+        JSONObject json = (JSONObject) new JSONParser().parse(tree.toJSON().toJSONString());
+        FlatDecisionTree copy = new FlatDecisionTree(json);
+        assertEquals(tree.nNodes(), copy.nNodes());
+        assertEquals(tree.toString(new String[]{"A", "B", "C"}), copy.toString(new String[]{"A", "B", "C"}));
+        assertEquals(2.0, copy.predict(new double[]{0.0, 0.0, 4.0}), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arraysMustBeTheSameLength() {
+        new FlatDecisionTree(new int[]{-1}, new double[]{0.0}, new int[]{-1}, new int[]{-1}, new double[0]);
+    }
+}
@@ -0,0 +1,76 @@
+package players.heuristics;
+
+import core.AbstractGameState;
+import games.GameType;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class StringHeuristicTest {
+
+    AbstractGameState state = GameType.TicTacToe.createGameInstance(2, 31).getGameState();
+
+    private String writeSource(String source) throws IOException {
+        File file = File.createTempFile("StringHeuristicTest", ".java");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), source);
+        return file.getAbsolutePath();
+    }
+
+    @Test
+    public void compiledInMemory() throws IOException {
+        String fileName = writeSource("""
+                public class Anything {
+                    public double evaluateState(core.AbstractGameState gameState, int playerId) {
+                        return 0.25 + playerId;
+                    }
+                }
+                """);
+        StringHeuristic heuristic = new StringHeuristic(fileName, "StringHeuristicTestInMemory");
+        assertEquals(0.25, heuristic.evaluateState(state, 0), 0.0);
+        assertEquals(1.25, heuristic.evaluateState(state, 1), 0.0);
+        assertFalse(new File("StringHeuristicTestInMemory.class").exists());
+
+        // the same source is not compiled again, but each heuristic has its own instance
+        StringHeuristic second = new StringHeuristic(fileName, "StringHeuristicTestInMemory");
+        assertEquals(1.25, second.evaluateState(state, 1), 0.0);
+    }
+
+    @Test
+    public void staticMethodIsCalledThroughHandle() throws IOException {
+        String fileName = writeSource("""
+                public class Anything {
+                    public static double evaluateState(core.AbstractGameState gameState, int playerId) {
+                        return -playerId;
+                    }
+                }
+                """);
+        StringHeuristic heuristic = new StringHeuristic(fileName, "StringHeuristicTestStatic");
+        assertEquals(-1.0, heuristic.evaluateState(state, 1), 0.0);
+    }
+
+    @Test
+    public void changedCodeIsRecompiled() throws IOException {
+        String fileName = writeSource("""
+                public class Anything {
+                    public double evaluateState(core.AbstractGameState gameState, int playerId) {
+                        return 0.5;
+                    }
+                }
+                """);
+        StringHeuristic heuristic = new StringHeuristic(fileName, "StringHeuristicTestChanged");
+        assertEquals(0.5, heuristic.evaluateState(state, 0), 0.0);
+        heuristic.setHeuristicCode(heuristic.getHeuristicCode().replace("0.5", "0.75"));
+        assertEquals(0.75, heuristic.evaluateState(state, 0), 0.0);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void compilationErrorsAreReported() throws IOException {
+        String fileName = writeSource("public class Anything { public double evaluateState(core.AbstractGameState gs, int p) { return x; } }");
+        new StringHeuristic(fileName, "StringHeuristicTestError");
+    }
+}
@@ -136,6 +136,23 @@ public class TestAutomatedFeatures {
         }
     }
 
+    @Test
+    public void batchedActionEvaluationMatchesSingleActions() {
+        fm.next(domState, new EndPhase(DominionGameState.DominionGamePhase.Play));
+        List<AbstractAction> actions = fm.computeAvailableActions(domState);
+
+        double[][] featureVectors = logisticActionHeuristic.actionFeatures.doubleVectors(actions, domState, 0);
+        // a buffer larger than needed, and with junk in it
+        double[] scores = new double[actions.size() + 5];
+        Arrays.fill(scores, -99.0);
+        logisticActionHeuristic.evaluateAllActions(actions, domState, scores);
+        for (int i = 0; i < actions.size(); i++) {
+            assertArrayEquals(logisticActionHeuristic.actionFeatures.doubleVector(actions.get(i), domState, 0), featureVectors[i], 0.0);
+            assertEquals(logisticActionHeuristic.evaluateAction(actions.get(i), domState), scores[i], 0.000001);
+        }
+        assertEquals(-99.0, scores[actions.size()], 0.0);
+    }
+
     @Test
     public void testAutomatedActionPlayFeatures() {
         domState.addCard(CardType.MILITIA, 1, DominionConstants.DeckType.HAND);
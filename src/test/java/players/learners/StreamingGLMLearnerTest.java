@@ -0,0 +1,107 @@
+package players.learners;
+
+import core.interfaces.IStateFeatureVector;
+import evaluation.loggers.BinaryStatsLogger;
+import org.junit.Test;
+import players.heuristics.GLMHeuristic;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class StreamingGLMLearnerTest {
+
+    IStateFeatureVector features = () -> new String[]{"A", "B"};
+
+    /**
+     * Writes nRows of synthetic data, where FinalScore = 1 + 2A - 3B + noise, and Win is drawn
+     * with probability 1 / (1 + exp(0.5 - 1.5A))
+     */
+    private List<Map<String, Object>> syntheticData(int nRows) {
+        Random rnd = new Random(42);
+        List<Map<String, Object>> retValue = new ArrayList<>();
+        for (int i = 0; i < nRows; i++) {
+            double a = rnd.nextGaussian();
+            double b = rnd.nextInt(2);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("GameID", i / 10);
+            row.put("Turn", 1);
+            row.put("TotalTurns", 1);
+            row.put("PlayerCount", 2);
+            row.put("CurrentScore", 0.0);
+            row.put("FinalScore", 1.0 + 2.0 * a - 3.0 * b + rnd.nextGaussian() * 0.1);
+            row.put("Win", rnd.nextDouble() < 1.0 / (1.0 + Math.exp(0.5 - 1.5 * a)) ? 1 : 0);
+            row.put("A", a);
+            row.put("B", b);
+            retValue.add(row);
+        }
+        return retValue;
+    }
+
+    private String writeText(List<Map<String, Object>> data) throws IOException {
+        File file = File.createTempFile("StreamingGLMLearnerTest", ".txt");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(String.join("\t", data.get(0).keySet()) + "\n");
+            for (Map<String, Object> row : data)
+                writer.write(String.join("\t", row.values().stream().map(Object::toString).toList()) + "\n");
+        }
+        return file.getPath();
+    }
+
+    private String writeBinary(List<Map<String, Object>> data) throws IOException {
+        File file = File.createTempFile("StreamingGLMLearnerTest", "." + BinaryStatsLogger.EXTENSION);
+        file.deleteOnExit();
+        BinaryStatsLogger logger = new BinaryStatsLogger(file.getPath(), false);
+        data.forEach(logger::record);
+        logger.processDataAndFinish();
+        return file.getPath();
+    }
+
+    private double[] fit(StreamingGLMLearner learner, String file) {
+        return ((GLMHeuristic) learner.learnFrom(file)).coefficients();
+    }
+
+    @Test
+    public void olsRecoversCoefficients() throws IOException {
+        String file = writeText(syntheticData(2000));
+        StreamingOLSLearner learner = new StreamingOLSLearner(1.0, 0.0, AbstractLearner.Target.SCORE, features);
+        GLMHeuristic heuristic = (GLMHeuristic) learner.learnFrom(file);
+        double[] coefficients = heuristic.coefficients();
+        assertEquals(3, coefficients.length);
+        assertEquals(1.0, coefficients[0], 0.02);
+        assertEquals(2.0, coefficients[1], 0.02);
+        assertEquals(-3.0, coefficients[2], 0.02);
+        assertFalse(Double.isNaN(heuristic.getAIC()));
+    }
+
+    @Test
+    public void resultsDoNotDependOnChunkSizeOrFormat() throws IOException {
+        List<Map<String, Object>> data = syntheticData(500);
+        String text = writeText(data);
+        String binary = writeBinary(data);
+
+        StreamingLogisticLearner learner = new StreamingLogisticLearner(1.0, 0.01, AbstractLearner.Target.WIN, features);
+        learner.chunkSize = 7;
+        double[] small = fit(learner, text);
+        double aic = learner.getAIC();
+        learner.chunkSize = 100_000;
+        assertArrayEquals(small, fit(learner, text), 1e-9);
+        assertEquals(aic, learner.getAIC(), 1e-6);
+        // the text file has the values to full precision, so the binary file gives the same results
+        assertArrayEquals(small, fit(learner, binary), 1e-9);
+    }
+
+    @Test
+    public void logisticRecoversCoefficients() throws IOException {
+        String file = writeBinary(syntheticData(20000));
+        StreamingLogisticLearner learner = new StreamingLogisticLearner(1.0, 0.0, AbstractLearner.Target.WIN, features);
+        double[] coefficients = ((GLMHeuristic) learner.learnFrom(file)).coefficients();
+        assertEquals(-0.5, coefficients[0], 0.1);
+        assertEquals(1.5, coefficients[1], 0.1);
+        assertEquals(0.0, coefficients[2], 0.1);
+    }
+}
@@ -57,6 +57,30 @@ public class MCTSNodesAndVisitsTests {
         runGame(game, 4, expectedNodes, errorMargin);
     }
 
+    @Test
+    public void oneTreeWithRecycledNodes() {
+        params.recycleNodes = true;
+        Game game = createGame(params);
+        int[] expectedNodes = {200, 200, 200, 200};
+        int[] errorMargin = {10, 10, 10, 10};
+        runGame(game, 4, expectedNodes, errorMargin);
+
+        // the tree from each decision is recycled for the next one
+        assertNotNull(mctsPlayer.nodeArena);
+        SingleTreeNode root = mctsPlayer.getRoot(0);
+        int nodes = root.countNodes();
+        int free = mctsPlayer.nodeArena.size();
+        mctsPlayer.recycleTree(root, null);
+        assertEquals(free + nodes, mctsPlayer.nodeArena.size());
+        SingleTreeNode node = mctsPlayer.nodeArena.take();
+        assertEquals(0, node.getVisits());
+        assertTrue(node.children.isEmpty());
+        assertTrue(node.actionValues.isEmpty());
+        assertTrue(node.actionsFromOpenLoopState.isEmpty());
+        assertNull(node.parent);
+        assertNull(node.state);
+    }
+
     @Test
     public void paranoid() {
         params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
@@ -0,0 +1,168 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTSTests {
+
+    MCTSParams params;
+
+    @Before
+    public void setUp() {
+        params = new MCTSParams();
+        params.setRandomSeed(3902);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 400);
+        params.setParameterValue("nThreads", 4);
+    }
+
+    private TestMCTSPlayer runOneDecision() {
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(player, new RandomPlayer()));
+        AbstractGameState state = game.getGameState();
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        AbstractAction action = player.getAction(state, actions);
+        assertTrue(actions.contains(action));
+        return player;
+    }
+
+    @Test
+    public void rootParallelMergesAllTrees() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.Root);
+        TestMCTSPlayer player = runOneDecision();
+
+        assertTrue(player.getRoot() instanceof RootParallelNode);
+        RootParallelNode root = (RootParallelNode) player.getRoot();
+        assertEquals(4, root.roots.length);
+        int totalVisits = 0;
+        for (SingleTreeNode tree : root.roots) {
+            assertEquals(100, tree.getVisits());
+            totalVisits += tree.getVisits();
+        }
+        assertEquals(totalVisits, root.getVisits());
+        assertEquals(400, root.searchIterations);
+        assertEquals(root.getVisits(), root.actionValues.values().stream().mapToInt(s -> s.nVisits).sum());
+        assertTrue(root.getIterationsPerSecond() > 0.0);
+    }
+
+    @Test
+    public void rootParallelWorkersAreKeptForTheGame() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.Root);
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(player, new RandomPlayer()));
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+
+        fm.next(state, player.getAction(state, fm.computeAvailableActions(state)));
+        MCTSPlayer worker = player.searchPool.worker(0, () -> null);
+        assertNotNull(worker);
+        fm.next(state, fm.computeAvailableActions(state).get(0));
+        player.getAction(state, fm.computeAvailableActions(state));
+        // the second decision is searched by the same worker
+        assertSame(worker, player.searchPool.worker(0, () -> null));
+        assertSame(worker.root, ((RootParallelNode) player.getRoot()).roots[0]);
+
+        player.finalizePlayer(state);
+        assertNull(player.searchPool.worker(0, () -> null));
+    }
+
+    @Test
+    public void treeParallelSharesOneTree() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.Tree);
+        TestMCTSPlayer player = runOneDecision();
+
+        SingleTreeNode root = player.getRoot();
+        assertFalse(root instanceof RootParallelNode);
+        // each worker may finish the iteration it is on once the budget is reached
+        assertTrue(root.searchIterations >= 400 && root.searchIterations < 400 + params.nThreads);
+        assertEquals(root.searchIterations, root.getVisits());
+        // all virtual losses must have been removed, leaving the action visits consistent with the node visits
+        for (SingleTreeNode node : root.allNodesInTree()) {
+            int actionVisits = node.actionValues.values().stream().mapToInt(s -> s.nVisits).sum();
+            assertEquals(node.getVisits(), actionVisits);
+        }
+        assertTrue(root.getIterationsPerSecond() > 0.0);
+    }
+
+    @Test
+    public void determinisationsSearchedInParallel() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.Tree);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        params.setParameterValue("numDeterminizations", 4);
+        // one tree per determinisation, so a shared tree is not used
+        assertEquals(MCTSEnums.ParallelMode.Root, params.parallelMode);
+        TestMCTSPlayer player = runOneDecision();
+
+        assertTrue(player.getRoot() instanceof ForestNode);
+        ForestNode root = (ForestNode) player.getRoot();
+        assertEquals(4, root.roots.length);
+        for (SingleTreeNode tree : root.roots)
+            assertEquals(100, tree.getVisits());
+        assertEquals(400, root.getVisits());
+        assertEquals(400, root.searchIterations);
+        assertEquals(root.getVisits(), root.actionValues.values().stream().mapToInt(s -> s.nVisits).sum());
+    }
+
+    @Test
+    public void determinisationsSampledInBackground() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.None);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        params.setParameterValue("determinisationQueue", 8);
+        TestMCTSPlayer player = runOneDecision();
+
+        SingleTreeNode root = player.getRoot();
+        assertEquals(400, root.getVisits());
+        assertEquals(400, root.searchIterations);
+        assertTrue(root.copyCount >= 400);
+    }
+
+    @Test
+    public void samplerStopsAtItsLimit() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(new RandomPlayer(), new RandomPlayer()));
+        AbstractGameState state = game.getGameState();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DeterminisationSampler sampler = new DeterminisationSampler(executor, state, 0, 8, 3);
+            for (int i = 0; i < 3; i++)
+                assertNotNull(sampler.next());
+            try {
+                sampler.next();
+                fail("Expected the sampler to stop after 3 determinisations");
+            } catch (IllegalStateException e) {
+                // as expected
+            }
+            sampler.close();
+            // the same thread is then used by the next sampler, which runs until it is closed
+            DeterminisationSampler second = new DeterminisationSampler(executor, state, 0, 2, Integer.MAX_VALUE);
+            assertNotNull(second.next());
+            second.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void unsupportedTreePolicyFallsBack() {
+        params.setParameterValue("parallelMode", MCTSEnums.ParallelMode.Tree);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.MCGS);
+        assertEquals(MCTSEnums.ParallelMode.Root, params.parallelMode);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.MultiTree);
+        assertEquals(MCTSEnums.ParallelMode.None, params.parallelMode);
+    }
+}
@@ -1,5 +1,6 @@
 package players.mcts;
 
+import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.Game;
 import games.GameType;
@@ -10,6 +11,8 @@ import players.simple.RandomPlayer;
 
 import java.util.*;
 
+import static org.junit.Assert.*;
+
 public class RolloutTerminationTests {
 
 
@@ -263,4 +266,27 @@ public class RolloutTerminationTests {
     }
 
 
+    @Test
+    public void closedLoopRolloutsAreUndone() {
+        // TicTacToe supports undo, so Closed_Loop rollouts are run on the state of the node they start from,
+        // and are rolled back afterwards instead of being run on a copy
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.rolloutLength = 10;
+        mctsPlayer = new TestMCTSPlayer(params, STNRollout::new);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Game game = GameType.TicTacToe.createGameInstance(2, 3302345);
+        game.reset(players);
+        assertTrue(game.getForwardModel().supportsUndo());
+
+        AbstractGameState state = game.getGameState();
+        mctsPlayer.getAction(state, game.getForwardModel().computeAvailableActions(state));
+        for (SingleTreeNode node : mctsPlayer.getRoot().allNodesInTree()) {
+            if (node.state.getUndoJournal() != null)
+                assertEquals(0, node.state.getUndoJournal().depth());
+            assertEquals(node.turnOwner, node.state.getCurrentPlayer());
+            assertEquals(node.turn, node.state.getTurnCounter());
+        }
+    }
 }
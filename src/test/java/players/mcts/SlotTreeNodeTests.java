@@ -0,0 +1,150 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SlotTreeNodeTests {
+
+    MCTSParams params;
+    AbstractGameState state;
+    AbstractForwardModel fm;
+    TestMCTSPlayer player;
+
+    @Before
+    public void setUp() {
+        params = new MCTSParams();
+        params.setRandomSeed(4093);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 400);
+        params.setParameterValue("useSlotTreeNodes", true);
+    }
+
+    private void initialiseTicTacToe() {
+        player = new TestMCTSPlayer(params, null);
+        Game game = GameType.TicTacToe.createGameInstance(2, 404);
+        game.reset(List.of(player, new RandomPlayer()));
+        state = game.getGameState();
+        fm = game.getForwardModel();
+    }
+
+    private void play(int x, int y) {
+        AbstractAction action = fm.computeAvailableActions(state).stream()
+                .filter(a -> ((SetGridValueAction) a).getX() == x && ((SetGridValueAction) a).getY() == y)
+                .findFirst().orElseThrow();
+        fm.next(state, action);
+    }
+
+    @Test
+    public void slotStatisticsMatchActionValues() {
+        initialiseTicTacToe();
+        player.getAction(state, fm.computeAvailableActions(state));
+
+        SingleTreeNode root = player.getRoot();
+        assertTrue(root instanceof SlotTreeNode);
+        assertEquals(400, root.getVisits());
+        for (SingleTreeNode node : root.allNodesInTree()) {
+            assertTrue(node instanceof SlotTreeNode);
+            int actionVisits = node.actionValues.values().stream().mapToInt(s -> s.nVisits).sum();
+            assertEquals(node.getVisits(), actionVisits);
+            for (ActionStats stats : node.actionValues.values())
+                assertTrue(stats.validVisits >= stats.nVisits);
+        }
+    }
+
+    @Test
+    public void findsImmediateWin() {
+        initialiseTicTacToe();
+        play(0, 0);
+        play(0, 1);
+        play(1, 1);
+        play(0, 2);
+        SetGridValueAction action = (SetGridValueAction) player.getAction(state, fm.computeAvailableActions(state));
+        assertEquals(2, action.getX());
+        assertEquals(2, action.getY());
+    }
+
+    @Test
+    public void recomputedActionsKeepTheirSlots() {
+        initialiseTicTacToe();
+        player.getAction(state, fm.computeAvailableActions(state));
+
+        SlotTreeNode root = (SlotTreeNode) player.getRoot();
+        root.setActionsFromOpenLoopState(state.copy());
+        int[] first = ((SlotTreeNode.SlottedActions) root.actionsFromOpenLoopState).slots;
+        root.setActionsFromOpenLoopState(state.copy());
+        int[] second = ((SlotTreeNode.SlottedActions) root.actionsFromOpenLoopState).slots;
+        assertNotSame(first, second);
+        assertArrayEquals(first, second);
+        assertEquals(first.length, Arrays.stream(first).distinct().count());
+    }
+
+    /**
+     * A map that counts how often it is used
+     */
+    static class CountingMap<K, V> extends LinkedHashMap<K, V> {
+        int uses;
+
+        CountingMap(Map<K, V> contents) {
+            super(contents);
+        }
+
+        @Override
+        public V get(Object key) {
+            uses++;
+            return super.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            uses++;
+            return super.containsKey(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            uses++;
+            return super.put(key, value);
+        }
+    }
+
+    @Test
+    public void matchingVisitDoesNotTouchTheHashMaps() {
+        initialiseTicTacToe();
+        player.getAction(state, fm.computeAvailableActions(state));
+
+        SlotTreeNode root = (SlotTreeNode) player.getRoot();
+        root.setActionsFromOpenLoopState(state.copy());
+        CountingMap<AbstractAction, ActionStats> actionValues = new CountingMap<>(root.actionValues);
+        CountingMap<AbstractAction, SingleTreeNode[]> children = new CountingMap<>(root.children);
+        root.actionValues = actionValues;
+        root.children = children;
+        root.setActionsFromOpenLoopState(state.copy());
+        assertEquals(0, actionValues.uses);
+        assertEquals(0, children.uses);
+    }
+
+    @Test
+    public void unsupportedSettingsFallBack() {
+        params.setParameterValue("treePolicy", MCTSEnums.TreePolicy.EXP3);
+        assertFalse(params.useSlotTreeNodes);
+        params.setParameterValue("treePolicy", MCTSEnums.TreePolicy.UCB_Tuned);
+        assertTrue(params.useSlotTreeNodes);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.OMA);
+        assertFalse(params.useSlotTreeNodes);
+    }
+}
@@ -170,6 +170,45 @@ public class TreeReuseTests {
         }
     }
 
+    @Test
+    public void treeReusedWithNodeCap() {
+        paramsOne.maxRetainedNodes = 30;
+        initialiseCantStop();
+        runGame();
+        assertTrue(playerOne.getReuseHitRate() > 0.0);
+    }
+
+    @Test
+    public void pruneToSizeKeepsMostVisitedNodes() {
+        initialiseTicTacToe();
+        game.oneAction();
+        SingleTreeNode root = playerOne.getRoot(0);
+        int total = root.countNodes();
+        assertTrue(total > 20);
+        int rootVisits = root.getVisits();
+        Map<AbstractAction, SingleTreeNode> childrenBefore = new HashMap<>();
+        for (AbstractAction action : root.getChildren().keySet()) {
+            SingleTreeNode[] childArray = root.getChildren().get(action);
+            if (childArray != null && childArray[1] != null)
+                childrenBefore.put(action, childArray[1]);
+        }
+
+        assertEquals(total - 20, root.pruneToSize(20));
+        assertEquals(20, root.countNodes());
+        assertEquals(0, root.pruneToSize(20));
+        // the statistics at the root are unchanged
+        assertEquals(rootVisits, root.getVisits());
+        // and any child that is left has at least as many visits as any that was removed
+        int minKept = Integer.MAX_VALUE, maxRemoved = 0;
+        for (AbstractAction action : childrenBefore.keySet()) {
+            SingleTreeNode child = childrenBefore.get(action);
+            if (root.getChildren().get(action)[1] == child)
+                minKept = Math.min(minKept, child.getVisits());
+            else
+                maxRemoved = Math.max(maxRemoved, child.getVisits());
+        }
+        assertTrue(maxRemoved <= minKept);
+    }
 
     private SingleTreeNode descendTree(SingleTreeNode startingNode, int[] actingPlayers, List<AbstractAction> actions) {
         if (actingPlayers.length != actions.size() + 1)
@@ -197,6 +236,9 @@ public class TreeReuseTests {
         List<Integer> nextActingPlayers = new ArrayList<>();
         nextActingPlayers.add(state.getCurrentPlayer());
         SingleTreeNode[] oldRoots = new SingleTreeNode[2];
+        // the node in the old tree we expect to become the new root; this is found before the decision, as the rest
+        // of the old tree is released once the new root is found
+        SingleTreeNode expectedNewRoot = null;
         int oldVisits = 0;
         do {
             System.out.println("Current Player: " + state.getCurrentPlayer() + ", Turn: " + state.getTurnCounter() + ", Phase: " + state.getGamePhase());
@@ -231,12 +273,13 @@ public class TreeReuseTests {
                 // check tree reuse
                 if (oldRoots[0] != null) {
                     assertNotEquals(oldRoots[0], playerOne.getRoot(0));
-                    // we apply the last actions for p0 and p1 in sequence
-                    SingleTreeNode expectedNewRoot = descendTree(oldRoots[0], nextActingPlayers.stream().mapToInt(i -> i).toArray(), actionsTakenSinceLastPlayerZeroDecision);
+                    // we applied the last actions for p0 and p1 in sequence to find this
                     if (expectedNewRoot != null) {
                         assertEquals(expectedNewRoot, newRoot);
                     }
                 }
+                if (paramsOne.maxRetainedNodes > 0)
+                    assertTrue(playerOne.retainedNodes <= paramsOne.maxRetainedNodes);
                 System.out.println("Visits: " + newRoot.getVisits());
                 assertEquals(paramsOne.budget + oldVisits, newRoot.getVisits());
                 // reset track of actions
@@ -254,8 +297,8 @@ public class TreeReuseTests {
                 oldRoots[currentPlayer] = newRoot;
             // if the next player is 0, then we determine how many oldVisits there are before they make the next decision
             if (state.getCurrentPlayer() == 0) {
-                SingleTreeNode nextNode = descendTree(oldRoots[0], nextActingPlayers.stream().mapToInt(i -> i).toArray(), actionsTakenSinceLastPlayerZeroDecision);
-                oldVisits = nextNode == null ? 0 : nextNode.getVisits();
+                expectedNewRoot = descendTree(oldRoots[0], nextActingPlayers.stream().mapToInt(i -> i).toArray(), actionsTakenSinceLastPlayerZeroDecision);
+                oldVisits = expectedNewRoot == null ? 0 : expectedNewRoot.getVisits();
             }
         } while (state.isNotTerminal());
     }
@@ -1,6 +1,7 @@
 package players.search;
 
 import core.AbstractPlayer;
+import core.CountingForwardModel;
 import core.actions.AbstractAction;
 import games.connect4.Connect4ForwardModel;
 import games.connect4.Connect4GameParameters;
@@ -9,6 +10,8 @@ import org.junit.Test;
 import players.PlayerConstants;
 import players.search.MaxNSearchPlayer.SearchResult;
 
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class AlphaBetaPruningTests {
@@ -144,6 +147,52 @@ public class AlphaBetaPruningTests {
     }
 
 
+    @Test
+    public void connect4UndoMatchesCopying() {
+        // Connect4 supports undo, so a MaxNSearchPlayer searches on a single copy of the state
+        // This should value every action exactly as a player that copies the state at each step
+
+        Connect4GameState gameState = new Connect4GameState(new Connect4GameParameters(), 2);
+        forwardModel.setup(gameState);
+
+        MaxNSearchParameters paramsOne = new MaxNSearchParameters();
+        paramsOne.budget = Integer.MAX_VALUE;
+        paramsOne.budgetType = PlayerConstants.BUDGET_TIME;
+        paramsOne.searchDepth = 3;
+        MaxNSearchPlayer player1 = new MaxNSearchPlayer(paramsOne);
+        player1.setForwardModel(new CountingForwardModel(forwardModel) {
+            @Override
+            public boolean supportsUndo() {
+                return false;
+            }
+        });
+
+        MaxNSearchParameters paramsTwo = new MaxNSearchParameters();
+        paramsTwo.budget = Integer.MAX_VALUE;
+        paramsTwo.budgetType = PlayerConstants.BUDGET_TIME;
+        paramsTwo.searchDepth = 3;
+        MaxNSearchPlayer player2 = new MaxNSearchPlayer(paramsTwo);
+        player2.setForwardModel(forwardModel);
+        assertTrue(player2.getForwardModel().supportsUndo());
+
+        for (int move = 0; move < 10 && gameState.isNotTerminal(); move++) {
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(gameState);
+            player1.getAction(gameState, actions);
+            Connect4GameState before = (Connect4GameState) gameState.copy();
+            player2.getAction(gameState, actions);
+            // the search does not change the state it is given
+            assertEquals(before, gameState);
+
+            SearchResult copyResult = player1.getRootResult();
+            SearchResult undoResult = player2.getRootResult();
+            assertArrayEquals(copyResult.value(), undoResult.value(), 0.000001);
+            for (AbstractAction action : actions)
+                assertArrayEquals(copyResult.allActionValues().get(action), undoResult.allActionValues().get(action), 0.000001);
+
+            forwardModel.next(gameState, actions.get(move % actions.size()));
+        }
+    }
+
     // should be called so that the expected faster agent is player2
     private void runGame(Connect4GameState gameState, MaxNSearchPlayer player1, MaxNSearchPlayer player2,
                          boolean checkIdenticalMoves, boolean checkPlayerOneSlower) {